@@ -0,0 +1,87 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.tests.sample.beans.DerivedTestBean;
+import org.springframework.tests.sample.beans.NestedTestBean;
+import org.springframework.tests.sample.beans.TestBean;
+
+/**
+ * Benchmarks for {@link DefaultListableBeanFactory#getBean} lookups of singleton
+ * and prototype beans, by name and by type, against a frozen configuration.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DefaultListableBeanFactoryBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BeanFactoryState {
+
+		public DefaultListableBeanFactory beanFactory;
+
+		@Setup
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+			for (int i = 0; i < 100; i++) {
+				this.beanFactory.registerBeanDefinition("testBean" + i, new RootBeanDefinition(TestBean.class));
+			}
+			RootBeanDefinition nested = new RootBeanDefinition(NestedTestBean.class);
+			nested.getConstructorArgumentValues().addGenericArgumentValue("company");
+			this.beanFactory.registerBeanDefinition("nested", nested);
+			RootBeanDefinition prototype = new RootBeanDefinition(DerivedTestBean.class);
+			prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			prototype.getPropertyValues().add("name", "prototype").add("age", "42")
+					.add("spouse", new RuntimeBeanReference("testBean0"));
+			this.beanFactory.registerBeanDefinition("prototype", prototype);
+			this.beanFactory.freezeConfiguration();
+			this.beanFactory.preInstantiateSingletons();
+		}
+	}
+
+
+	@Benchmark
+	public Object singletonByName(BeanFactoryState state) {
+		return state.beanFactory.getBean("nested");
+	}
+
+	@Benchmark
+	public Object singletonByType(BeanFactoryState state) {
+		return state.beanFactory.getBean(NestedTestBean.class);
+	}
+
+	@Benchmark
+	public Object prototypeByName(BeanFactoryState state) {
+		return state.beanFactory.getBean("prototype");
+	}
+
+	@Benchmark
+	public Object prototypeByType(BeanFactoryState state) {
+		return state.beanFactory.getBean(DerivedTestBean.class);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,18 +16,26 @@
 
 package org.springframework.beans;
 
+import java.beans.BeanDescriptor;
 import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.beans.SimpleBeanInfo;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -64,6 +72,12 @@ import org.springframework.util.StringUtils;
  * recreates much-requested entries every time the garbage collector removed them. In
  * such a scenario, consider the {@link #IGNORE_BEANINFO_PROPERTY_NAME} system property.
  *
+ * <p>As of 4.3.8, the JavaBeans {@link Introspector} may be bypassed through the
+ * {@link #LIGHTWEIGHT_INTROSPECTION_PROPERTY_NAME} system property, and the number of
+ * strongly cached classes may be limited through the {@link #STRONG_CACHE_LIMIT_PROPERTY_NAME}
+ * system property. Cache effectiveness can be monitored through {@link #getCacheMissCount()}
+ * and {@link #getCacheSize()}.
+ *
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @since 05 May 2001
@@ -92,10 +106,40 @@ public class CachedIntrospectionResults {
 	 */
 	public static final String IGNORE_BEANINFO_PROPERTY_NAME = "spring.beaninfo.ignore";
 
+	/**
+	 * System property that instructs Spring to determine bean properties through direct
+	 * scanning of public getter and setter methods instead of through the JavaBeans
+	 * {@link Introspector}: "spring.beaninfo.lightweight". Property descriptors then get
+	 * built on first access of each property, rather than for all properties upfront.
+	 * <p>The default is "false", using the {@code Introspector}. Switching this flag to
+	 * "true" ignores {@code BeanInfo} metadata classes as well as indexed-only properties;
+	 * setter methods with a non-void return type are supported like with
+	 * {@link ExtendedBeanInfo}. Custom {@link BeanInfoFactory} implementations still
+	 * take precedence.
+	 * @since 4.3.8
+	 */
+	public static final String LIGHTWEIGHT_INTROSPECTION_PROPERTY_NAME = "spring.beaninfo.lightweight";
+
+	/**
+	 * System property that limits the number of classes whose introspection results are
+	 * <i>strongly</i> held: "spring.beaninfo.strongcache.limit". Once the limit has been
+	 * reached, results for further classes are still cached but softly held, just like
+	 * for non-cache-safe classes, allowing the garbage collector to remove them under
+	 * memory pressure. This does not limit the overall number of cached classes.
+	 * <p>The default is no limit.
+	 * @since 4.3.8
+	 */
+	public static final String STRONG_CACHE_LIMIT_PROPERTY_NAME = "spring.beaninfo.strongcache.limit";
+
 
 	private static final boolean shouldIntrospectorIgnoreBeaninfoClasses =
 			SpringProperties.getFlag(IGNORE_BEANINFO_PROPERTY_NAME);
 
+	private static final boolean shouldUseLightweightIntrospection =
+			SpringProperties.getFlag(LIGHTWEIGHT_INTROSPECTION_PROPERTY_NAME);
+
+	private static final int strongClassCacheLimit = determineStrongCacheLimit();
+
 	/** Stores the BeanInfoFactory instances */
 	private static List<BeanInfoFactory> beanInfoFactories = SpringFactoriesLoader.loadFactories(
 			BeanInfoFactory.class, CachedIntrospectionResults.class.getClassLoader());
@@ -123,6 +167,9 @@ public class CachedIntrospectionResults {
 	static final ConcurrentMap<Class<?>, CachedIntrospectionResults> softClassCache =
 			new ConcurrentReferenceHashMap<Class<?>, CachedIntrospectionResults>(64);
 
+	/** Number of lookups which required introspection of the class */
+	private static final AtomicLong cacheMissCount = new AtomicLong();
+
 
 	/**
 	 * Accept the given ClassLoader as cache-safe, even if its classes would
@@ -169,6 +216,25 @@ public class CachedIntrospectionResults {
 		}
 	}
 
+	/**
+	 * Return the number of introspection lookups so far which required
+	 * introspection of the given class, i.e. which were not served from the cache.
+	 * @since 4.3.8
+	 */
+	public static long getCacheMissCount() {
+		return cacheMissCount.get();
+	}
+
+	/**
+	 * Return the number of classes that introspection results are currently
+	 * cached for, either strongly or softly held.
+	 * @since 4.3.8
+	 * @see #STRONG_CACHE_LIMIT_PROPERTY_NAME
+	 */
+	public static int getCacheSize() {
+		return strongClassCache.size() + softClassCache.size();
+	}
+
 	/**
 	 * Create CachedIntrospectionResults for the given bean class.
 	 * @param beanClass the bean class to analyze
@@ -186,19 +252,27 @@ public class CachedIntrospectionResults {
 			return results;
 		}
 
-		results = new CachedIntrospectionResults(beanClass);
+		cacheMissCount.incrementAndGet();
+		results = new CachedIntrospectionResults(beanClass, shouldUseLightweightIntrospection);
 		ConcurrentMap<Class<?>, CachedIntrospectionResults> classCacheToUse;
 
-		if (ClassUtils.isCacheSafe(beanClass, CachedIntrospectionResults.class.getClassLoader()) ||
-				isClassLoaderAccepted(beanClass.getClassLoader())) {
-			classCacheToUse = strongClassCache;
-		}
-		else {
+		if (!ClassUtils.isCacheSafe(beanClass, CachedIntrospectionResults.class.getClassLoader()) &&
+				!isClassLoaderAccepted(beanClass.getClassLoader())) {
 			if (logger.isDebugEnabled()) {
 				logger.debug("Not strongly caching class [" + beanClass.getName() + "] because it is not cache-safe");
 			}
 			classCacheToUse = softClassCache;
 		}
+		else if (strongClassCache.size() >= strongClassCacheLimit) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Not strongly caching class [" + beanClass.getName() + "] because the strong cache limit of " +
+						strongClassCacheLimit + " classes has been reached");
+			}
+			classCacheToUse = softClassCache;
+		}
+		else {
+			classCacheToUse = strongClassCache;
+		}
 
 		CachedIntrospectionResults existing = classCacheToUse.putIfAbsent(beanClass, results);
 		return (existing != null ? existing : results);
@@ -243,6 +317,22 @@ public class CachedIntrospectionResults {
 		return false;
 	}
 
+	private static int determineStrongCacheLimit() {
+		String limit = SpringProperties.getProperty(STRONG_CACHE_LIMIT_PROPERTY_NAME);
+		if (StringUtils.hasText(limit)) {
+			try {
+				return Integer.parseInt(limit.trim());
+			}
+			catch (NumberFormatException ex) {
+				logger.warn("Ignoring invalid value for property '" + STRONG_CACHE_LIMIT_PROPERTY_NAME + "': " + limit);
+			}
+		}
+		return Integer.MAX_VALUE;
+	}
+
+
+	/** The introspected bean class */
+	private final Class<?> beanClass;
 
 	/** The BeanInfo object for the introspected bean class */
 	private final BeanInfo beanInfo;
@@ -250,6 +340,12 @@ public class CachedIntrospectionResults {
 	/** PropertyDescriptor objects keyed by property name String */
 	private final Map<String, PropertyDescriptor> propertyDescriptorCache;
 
+	/**
+	 * Read and write method pairs keyed by property name String, in property name order,
+	 * for PropertyDescriptors to be built on demand (in case of lightweight introspection)
+	 */
+	private final Map<String, Method[]> propertyMethods;
+
 	/** TypeDescriptor objects keyed by PropertyDescriptor */
 	private final ConcurrentMap<PropertyDescriptor, TypeDescriptor> typeDescriptorCache;
 
@@ -257,9 +353,12 @@ public class CachedIntrospectionResults {
 	/**
 	 * Create a new CachedIntrospectionResults instance for the given class.
 	 * @param beanClass the bean class to analyze
+	 * @param lightweight whether to scan the class for property methods directly
+	 * instead of going through the JavaBeans {@link Introspector}
 	 * @throws BeansException in case of introspection failure
 	 */
-	private CachedIntrospectionResults(Class<?> beanClass) throws BeansException {
+	CachedIntrospectionResults(Class<?> beanClass, boolean lightweight) throws BeansException {
+		this.beanClass = beanClass;
 		try {
 			if (logger.isTraceEnabled()) {
 				logger.trace("Getting BeanInfo for class [" + beanClass.getName() + "]");
@@ -267,11 +366,26 @@ public class CachedIntrospectionResults {
 
 			BeanInfo beanInfo = null;
 			for (BeanInfoFactory beanInfoFactory : beanInfoFactories) {
+				if (lightweight && beanInfoFactory instanceof ExtendedBeanInfoFactory) {
+					// Non-void setter methods are supported by lightweight introspection itself
+					continue;
+				}
 				beanInfo = beanInfoFactory.getBeanInfo(beanClass);
 				if (beanInfo != null) {
 					break;
 				}
 			}
+			if (beanInfo == null && lightweight) {
+				if (logger.isTraceEnabled()) {
+					logger.trace("Scanning property methods for class [" + beanClass.getName() + "]");
+				}
+				this.beanInfo = new LightweightBeanInfo();
+				this.propertyMethods = findPropertyMethods(beanClass);
+				this.propertyDescriptorCache = new ConcurrentHashMap<String, PropertyDescriptor>(
+						this.propertyMethods.size());
+				this.typeDescriptorCache = new ConcurrentReferenceHashMap<PropertyDescriptor, TypeDescriptor>();
+				return;
+			}
 			if (beanInfo == null) {
 				// If none of the factories supported the class, fall back to the default
 				beanInfo = (shouldIntrospectorIgnoreBeaninfoClasses ?
@@ -279,6 +393,7 @@ public class CachedIntrospectionResults {
 						Introspector.getBeanInfo(beanClass));
 			}
 			this.beanInfo = beanInfo;
+			this.propertyMethods = null;
 
 			if (logger.isTraceEnabled()) {
 				logger.trace("Caching PropertyDescriptors for class [" + beanClass.getName() + "]");
@@ -333,16 +448,16 @@ public class CachedIntrospectionResults {
 	}
 
 	Class<?> getBeanClass() {
-		return this.beanInfo.getBeanDescriptor().getBeanClass();
+		return this.beanClass;
 	}
 
 	PropertyDescriptor getPropertyDescriptor(String name) {
-		PropertyDescriptor pd = this.propertyDescriptorCache.get(name);
+		PropertyDescriptor pd = getCachedPropertyDescriptor(name);
 		if (pd == null && StringUtils.hasLength(name)) {
 			// Same lenient fallback checking as in PropertyTypeDescriptor...
-			pd = this.propertyDescriptorCache.get(name.substring(0, 1).toLowerCase() + name.substring(1));
+			pd = getCachedPropertyDescriptor(name.substring(0, 1).toLowerCase() + name.substring(1));
 			if (pd == null) {
-				pd = this.propertyDescriptorCache.get(name.substring(0, 1).toUpperCase() + name.substring(1));
+				pd = getCachedPropertyDescriptor(name.substring(0, 1).toUpperCase() + name.substring(1));
 			}
 		}
 		return (pd == null || pd instanceof GenericTypeAwarePropertyDescriptor ? pd :
@@ -350,6 +465,15 @@ public class CachedIntrospectionResults {
 	}
 
 	PropertyDescriptor[] getPropertyDescriptors() {
+		if (this.propertyMethods != null) {
+			PropertyDescriptor[] pds = new PropertyDescriptor[this.propertyMethods.size()];
+			int i = 0;
+			for (String name : this.propertyMethods.keySet()) {
+				pds[i] = getCachedPropertyDescriptor(name);
+				i++;
+			}
+			return pds;
+		}
 		PropertyDescriptor[] pds = new PropertyDescriptor[this.propertyDescriptorCache.size()];
 		int i = 0;
 		for (PropertyDescriptor pd : this.propertyDescriptorCache.values()) {
@@ -360,10 +484,32 @@ public class CachedIntrospectionResults {
 		return pds;
 	}
 
+	/**
+	 * Obtain the PropertyDescriptor for the given exact property name,
+	 * building it on first access in case of lightweight introspection.
+	 */
+	private PropertyDescriptor getCachedPropertyDescriptor(String name) {
+		PropertyDescriptor pd = this.propertyDescriptorCache.get(name);
+		if (pd == null && this.propertyMethods != null) {
+			Method[] methods = this.propertyMethods.get(name);
+			if (methods != null) {
+				pd = buildGenericTypeAwarePropertyDescriptor(this.beanClass, name, methods[0], methods[1], null);
+				this.propertyDescriptorCache.put(name, pd);
+			}
+		}
+		return pd;
+	}
+
 	private PropertyDescriptor buildGenericTypeAwarePropertyDescriptor(Class<?> beanClass, PropertyDescriptor pd) {
+		return buildGenericTypeAwarePropertyDescriptor(beanClass, pd.getName(), pd.getReadMethod(),
+				pd.getWriteMethod(), pd.getPropertyEditorClass());
+	}
+
+	private PropertyDescriptor buildGenericTypeAwarePropertyDescriptor(Class<?> beanClass, String name,
+			Method readMethod, Method writeMethod, Class<?> propertyEditorClass) {
+
 		try {
-			return new GenericTypeAwarePropertyDescriptor(beanClass, pd.getName(), pd.getReadMethod(),
-					pd.getWriteMethod(), pd.getPropertyEditorClass());
+			return new GenericTypeAwarePropertyDescriptor(beanClass, name, readMethod, writeMethod, propertyEditorClass);
 		}
 		catch (IntrospectionException ex) {
 			throw new FatalBeanException("Failed to re-introspect class [" + beanClass.getName() + "]", ex);
@@ -379,4 +525,126 @@ public class CachedIntrospectionResults {
 		return this.typeDescriptorCache.get(pd);
 	}
 
+
+	/**
+	 * Determine the read and write methods of all bean properties of the given class
+	 * through direct scanning of its public methods, following JavaBeans naming rules.
+	 * @param beanClass the bean class to scan
+	 * @return read and write method pairs keyed by property name, in property name order
+	 */
+	private static Map<String, Method[]> findPropertyMethods(Class<?> beanClass) {
+		Map<String, Method> readMethods = new HashMap<String, Method>();
+		Map<String, List<Method>> writeMethods = new HashMap<String, List<Method>>();
+		for (Method method : beanClass.getMethods()) {
+			if (Modifier.isStatic(method.getModifiers())) {
+				continue;
+			}
+			String methodName = method.getName();
+			int paramCount = method.getParameterTypes().length;
+			if (paramCount == 0) {
+				if (methodName.length() > 3 && methodName.startsWith("get") && method.getReturnType() != void.class) {
+					addReadMethod(readMethods, decapitalize(methodName.substring(3)), method);
+				}
+				else if (methodName.length() > 2 && methodName.startsWith("is") && method.getReturnType() == boolean.class) {
+					addReadMethod(readMethods, decapitalize(methodName.substring(2)), method);
+				}
+			}
+			else if (paramCount == 1 && methodName.length() > 3 && methodName.startsWith("set")) {
+				String name = decapitalize(methodName.substring(3));
+				List<Method> candidates = writeMethods.get(name);
+				if (candidates == null) {
+					candidates = new ArrayList<Method>(1);
+					writeMethods.put(name, candidates);
+				}
+				candidates.add(method);
+			}
+		}
+
+		Map<String, Method[]> propertyMethods = new TreeMap<String, Method[]>();
+		for (Map.Entry<String, Method> entry : readMethods.entrySet()) {
+			propertyMethods.put(entry.getKey(), new Method[] {entry.getValue(), null});
+		}
+		for (Map.Entry<String, List<Method>> entry : writeMethods.entrySet()) {
+			String name = entry.getKey();
+			Method[] methods = propertyMethods.get(name);
+			Method writeMethod = selectWriteMethod(methods != null ? methods[0] : null, entry.getValue());
+			if (methods != null) {
+				methods[1] = writeMethod;
+			}
+			else if (writeMethod != null) {
+				propertyMethods.put(name, new Method[] {null, writeMethod});
+			}
+		}
+		if (Class.class == beanClass) {
+			// Ignore Class.getClassLoader() and getProtectionDomain() methods - nobody needs to bind to those
+			propertyMethods.remove("classLoader");
+			propertyMethods.remove("protectionDomain");
+		}
+		return new LinkedHashMap<String, Method[]>(propertyMethods);
+	}
+
+	private static void addReadMethod(Map<String, Method> readMethods, String name, Method method) {
+		Method existing = readMethods.get(name);
+		if (existing == null || (existing.isBridge() && !method.isBridge()) ||
+				(method.getName().startsWith("is") && !existing.getName().startsWith("is")) ||
+				(existing.getName().equals(method.getName()) &&
+						existing.getReturnType().isAssignableFrom(method.getReturnType()) && !method.isBridge())) {
+			readMethods.put(name, method);
+		}
+	}
+
+	private static Method selectWriteMethod(Method readMethod, List<Method> candidates) {
+		Method selected = null;
+		for (Method candidate : candidates) {
+			Class<?> paramType = candidate.getParameterTypes()[0];
+			if (readMethod != null) {
+				if (paramType == readMethod.getReturnType()) {
+					return candidate;
+				}
+				if (paramType.isAssignableFrom(readMethod.getReturnType()) &&
+						(selected == null || selected.getParameterTypes()[0].isAssignableFrom(paramType))) {
+					selected = candidate;
+				}
+			}
+			else if (selected == null || (selected.isBridge() && !candidate.isBridge())) {
+				selected = candidate;
+			}
+		}
+		return selected;
+	}
+
+	/**
+	 * Derive a property name from the given method name suffix,
+	 * following the JavaBeans decapitalization rule.
+	 * @see Introspector#decapitalize
+	 */
+	private static String decapitalize(String name) {
+		if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+			return name;
+		}
+		char[] chars = name.toCharArray();
+		chars[0] = Character.toLowerCase(chars[0]);
+		return new String(chars);
+	}
+
+
+	/**
+	 * BeanInfo for lightweight introspection results, exposing the
+	 * PropertyDescriptors as built on demand.
+	 */
+	private class LightweightBeanInfo extends SimpleBeanInfo {
+
+		private final BeanDescriptor beanDescriptor = new BeanDescriptor(beanClass);
+
+		@Override
+		public BeanDescriptor getBeanDescriptor() {
+			return this.beanDescriptor;
+		}
+
+		@Override
+		public PropertyDescriptor[] getPropertyDescriptors() {
+			return CachedIntrospectionResults.this.getPropertyDescriptors();
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -206,6 +206,22 @@ public class PropertyEditorRegistrySupport implements PropertyEditorRegistry {
 		return this.defaultEditors.get(requiredType);
 	}
 
+	/**
+	 * Determine whether the given type is a primitive or wrapper number type
+	 * which is converted by the standard default number editor, i.e. with
+	 * default editors active and no {@link #overrideDefaultEditor override}.
+	 * <p>Text values for such types may be parsed right away, without going
+	 * through the (lazily created) default editor instance.
+	 * @param requiredType the type to check
+	 * @since 4.3.8
+	 * @see org.springframework.beans.propertyeditors.CustomNumberEditor
+	 */
+	boolean isStandardNumberType(Class<?> requiredType) {
+		return (this.defaultEditorsActive && requiredType != null && ClassUtils.isPrimitiveOrWrapper(requiredType) &&
+				Number.class.isAssignableFrom(ClassUtils.resolvePrimitiveIfNecessary(requiredType)) &&
+				(this.overriddenDefaultEditors == null || !this.overriddenDefaultEditors.containsKey(requiredType)));
+	}
+
 	/**
 	 * Actually register the default editors for this registry instance.
 	 */
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.AbstractNestablePropertyAccessor.PropertyTokenHolder;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StringUtils;
+
+/**
+ * Compiled representation of a property path such as "address.lines[0].text":
+ * parsed once into the property name tokens for each of its path elements and
+ * cached for reuse, avoiding repeated tokenization of the same property paths
+ * in data binding scenarios.
+ *
+ * <p>Parsing is independent of the target class, so compiled paths are shared
+ * across all {@link AbstractNestablePropertyAccessor} instances. The returned
+ * tokens must be treated as immutable.
+ *
+ * @author agent
+ * @since 4.3.8
+ * @see AbstractNestablePropertyAccessor
+ */
+final class PropertyPath {
+
+	/** Maximum number of compiled paths to cache, guarding against unbounded input */
+	private static final int CACHE_LIMIT = 4096;
+
+	private static final Map<String, PropertyPath> cache =
+			new ConcurrentReferenceHashMap<String, PropertyPath>(256);
+
+	private static final PropertyTokenHolder[] NO_TOKENS = new PropertyTokenHolder[0];
+
+
+	private final PropertyTokenHolder[] nestedTokens;
+
+	private final PropertyTokenHolder finalTokens;
+
+
+	private PropertyPath(String path) {
+		List<PropertyTokenHolder> nestedTokens = null;
+		String remainingPath = path;
+		int pos = PropertyAccessorUtils.getFirstNestedPropertySeparatorIndex(remainingPath);
+		while (pos > -1) {
+			if (nestedTokens == null) {
+				nestedTokens = new ArrayList<PropertyTokenHolder>(4);
+			}
+			nestedTokens.add(tokenize(remainingPath.substring(0, pos)));
+			remainingPath = remainingPath.substring(pos + 1);
+			pos = PropertyAccessorUtils.getFirstNestedPropertySeparatorIndex(remainingPath);
+		}
+		this.nestedTokens = (nestedTokens != null ?
+				nestedTokens.toArray(new PropertyTokenHolder[nestedTokens.size()]) : NO_TOKENS);
+		this.finalTokens = tokenize(remainingPath);
+	}
+
+
+	/**
+	 * Return the tokens for each nested property on the way to the final property,
+	 * e.g. for "address" and "lines[0]" in case of "address.lines[0].text".
+	 * @return the nested property tokens (an empty array if the path is not nested)
+	 */
+	public PropertyTokenHolder[] getNestedTokens() {
+		return this.nestedTokens;
+	}
+
+	/**
+	 * Return the tokens for the final property on the target bean,
+	 * e.g. for "text" in case of "address.lines[0].text".
+	 */
+	public PropertyTokenHolder getFinalTokens() {
+		return this.finalTokens;
+	}
+
+
+	/**
+	 * Obtain the compiled representation of the given property path,
+	 * parsing it if not cached yet.
+	 * @param path the property path, which may be nested and/or indexed
+	 * @return the compiled property path
+	 */
+	public static PropertyPath forPath(String path) {
+		PropertyPath propertyPath = cache.get(path);
+		if (propertyPath == null) {
+			propertyPath = new PropertyPath(path);
+			if (cache.size() < CACHE_LIMIT) {
+				cache.put(path, propertyPath);
+			}
+		}
+		return propertyPath;
+	}
+
+	/**
+	 * Parse the given property name into the corresponding property name tokens.
+	 * @param propertyName the property name to parse
+	 * @return representation of the parsed property tokens
+	 */
+	private static PropertyTokenHolder tokenize(String propertyName) {
+		PropertyTokenHolder tokens = new PropertyTokenHolder();
+		String actualName = null;
+		List<String> keys = new ArrayList<String>(2);
+		int searchIndex = 0;
+		while (searchIndex != -1) {
+			int keyStart = propertyName.indexOf(PropertyAccessor.PROPERTY_KEY_PREFIX, searchIndex);
+			searchIndex = -1;
+			if (keyStart != -1) {
+				int keyEnd = propertyName.indexOf(PropertyAccessor.PROPERTY_KEY_SUFFIX,
+						keyStart + PropertyAccessor.PROPERTY_KEY_PREFIX.length());
+				if (keyEnd != -1) {
+					if (actualName == null) {
+						actualName = propertyName.substring(0, keyStart);
+					}
+					String key = propertyName.substring(keyStart + PropertyAccessor.PROPERTY_KEY_PREFIX.length(), keyEnd);
+					if (key.length() > 1 && (key.startsWith("'") && key.endsWith("'")) ||
+							(key.startsWith("\"") && key.endsWith("\""))) {
+						key = key.substring(1, key.length() - 1);
+					}
+					keys.add(key);
+					searchIndex = keyEnd + PropertyAccessor.PROPERTY_KEY_SUFFIX.length();
+				}
+			}
+		}
+		tokens.actualName = (actualName != null ? actualName : propertyName);
+		tokens.canonicalName = tokens.actualName;
+		if (!keys.isEmpty()) {
+			tokens.canonicalName += PropertyAccessor.PROPERTY_KEY_PREFIX +
+					StringUtils.collectionToDelimitedString(keys,
+							PropertyAccessor.PROPERTY_KEY_SUFFIX + PropertyAccessor.PROPERTY_KEY_PREFIX) +
+					PropertyAccessor.PROPERTY_KEY_SUFFIX;
+			tokens.keys = StringUtils.toStringArray(keys);
+		}
+		return tokens;
+	}
+
+}
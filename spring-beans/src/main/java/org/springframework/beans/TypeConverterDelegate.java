@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -193,10 +193,17 @@ class TypeConverterDelegate {
 					}
 				}
 			}
-			if (editor == null) {
-				editor = findDefaultEditor(requiredType);
+			if (editor == null && conversionAttemptEx == null && convertedValue instanceof String &&
+					this.propertyEditorRegistry.isStandardNumberType(requiredType)) {
+				// Fast path for primitive and wrapper number types: no default editor necessary.
+				convertedValue = parseNumber((String) convertedValue, requiredType);
+			}
+			else {
+				if (editor == null) {
+					editor = findDefaultEditor(requiredType);
+				}
+				convertedValue = doConvertValue(oldValue, convertedValue, requiredType, editor);
 			}
-			convertedValue = doConvertValue(oldValue, convertedValue, requiredType, editor);
 		}
 
 		boolean standardConversion = false;
@@ -448,6 +455,27 @@ class TypeConverterDelegate {
 		return returnValue;
 	}
 
+	/**
+	 * Parse the given text into a primitive or wrapper number value,
+	 * following the rules of the corresponding default number editor:
+	 * an empty text is turned into {@code null} for wrapper types only.
+	 * @param text the text to parse
+	 * @param requiredType the primitive or wrapper number type
+	 * @return the parsed number, or {@code null} for an empty wrapper value
+	 * @throws IllegalArgumentException if the text cannot be parsed
+	 * @see org.springframework.beans.propertyeditors.CustomNumberEditor#setAsText
+	 */
+	@SuppressWarnings("unchecked")
+	private Object parseNumber(String text, Class<?> requiredType) {
+		if (!requiredType.isPrimitive() && !StringUtils.hasText(text)) {
+			return null;
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Parsing String to [" + requiredType + "]");
+		}
+		return NumberUtils.parseNumber(text, (Class<Number>) ClassUtils.resolvePrimitiveIfNecessary(requiredType));
+	}
+
 	/**
 	 * Convert the given text value using the given property editor.
 	 * @param oldValue the previous value, if available (may be {@code null})
@@ -0,0 +1,1066 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.BeanMetadataAttributeAccessor;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Snapshot of the merged bean definitions of a bean factory with frozen
+ * configuration, for writing to a compact binary format and restoring on a
+ * subsequent start: typically, bean definition parsing and classpath scanning
+ * can be skipped on startup as long as the {@link #fingerprint fingerprint}
+ * of the classpath and the environment is unchanged.
+ *
+ * <pre class="code">
+ * GenericApplicationContext ctx = new GenericApplicationContext();
+ * String fingerprint = BeanDefinitionSnapshot.fingerprint(classLoader, ctx.getEnvironment());
+ * BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.readFrom(in, classLoader);
+ * if (snapshot.getFingerprint().equals(fingerprint)) {
+ *   snapshot.registerBeanDefinitions(ctx);
+ *   ctx.refresh();
+ * }</pre>
+ *
+ * <p>Captures bean classes (by name, with CGLIB-generated subclasses replaced by
+ * their user class), scopes and further bean definition flags, constructor argument
+ * values and property values, method overrides, qualifiers and simple attribute
+ * values (strings, numbers and booleans). Supported values are the metadata types
+ * created by bean definition readers: e.g. {@link TypedStringValue},
+ * {@link RuntimeBeanReference}, inner bean definitions and managed collections,
+ * as well as strings, primitive wrappers, enums and classes. Any other kind of
+ * value leads to a {@link NotSerializableException} when writing the snapshot.
+ *
+ * <p>Note that definition sources and annotation metadata are not retained, and
+ * that values are captured in their state at the time of the snapshot. A snapshot
+ * is therefore meant to be taken through a {@link BeanDefinitionSnapshotPostProcessor}:
+ * once all bean definitions have been registered, but before factory post-processors
+ * such as placeholder configurers have modified them. Placeholders are then retained
+ * and get resolved against the environment on every restore, and resolved values
+ * (potentially including credentials) do not end up in the snapshot. Since the
+ * registered bean definitions themselves may depend on the environment, e.g. on
+ * active profiles or on property values through conditions, a snapshot should
+ * only be restored for an unchanged {@link #fingerprint(ClassLoader, Environment)
+ * fingerprint} of the classpath and the environment.
+ *
+ * <p>Beans implementing {@link BeanDefinitionSnapshotContributor} may add
+ * attributes to the bean definitions in a snapshot, e.g. processing state
+ * that is otherwise only kept at runtime.
+ *
+ * @author agent
+ * @since 4.3.8
+ * @see ConfigurableListableBeanFactory#freezeConfiguration()
+ */
+public class BeanDefinitionSnapshot {
+
+	private static final int MAGIC = 0x53424453;
+
+	private static final int VERSION = 1;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final byte NULL = 0;
+
+	private static final byte STRING = 1;
+
+	private static final byte BOOLEAN = 2;
+
+	private static final byte INTEGER = 3;
+
+	private static final byte LONG = 4;
+
+	private static final byte SHORT = 5;
+
+	private static final byte BYTE = 6;
+
+	private static final byte CHARACTER = 7;
+
+	private static final byte FLOAT = 8;
+
+	private static final byte DOUBLE = 9;
+
+	private static final byte CLASS = 10;
+
+	private static final byte ENUM = 11;
+
+	private static final byte STRING_ARRAY = 12;
+
+	private static final byte TYPED_STRING_VALUE = 13;
+
+	private static final byte BEAN_REFERENCE = 14;
+
+	private static final byte BEAN_NAME_REFERENCE = 15;
+
+	private static final byte BEAN_DEFINITION_HOLDER = 16;
+
+	private static final byte BEAN_DEFINITION = 17;
+
+	private static final byte MANAGED_ARRAY = 18;
+
+	private static final byte MANAGED_LIST = 19;
+
+	private static final byte MANAGED_SET = 20;
+
+	private static final byte MANAGED_MAP = 21;
+
+	private static final byte MANAGED_PROPERTIES = 22;
+
+	private static final byte LIST = 23;
+
+	private static final byte SET = 24;
+
+	private static final byte MAP = 25;
+
+	private static final byte LOOKUP_OVERRIDE = 1;
+
+	private static final byte REPLACE_OVERRIDE = 2;
+
+
+	private final String fingerprint;
+
+	private final Map<String, BeanDefinition> beanDefinitions;
+
+	/** Map from alias to canonical name */
+	private final Map<String, String> aliases;
+
+
+	private BeanDefinitionSnapshot(String fingerprint, Map<String, BeanDefinition> beanDefinitions,
+			Map<String, String> aliases) {
+
+		this.fingerprint = fingerprint;
+		this.beanDefinitions = beanDefinitions;
+		this.aliases = aliases;
+	}
+
+
+	/**
+	 * Return the fingerprint that this snapshot has been taken for.
+	 * @see #fingerprint
+	 */
+	public String getFingerprint() {
+		return this.fingerprint;
+	}
+
+	/**
+	 * Return the names of the bean definitions in this snapshot,
+	 * in registration order.
+	 */
+	public String[] getBeanDefinitionNames() {
+		return StringUtils.toStringArray(this.beanDefinitions.keySet());
+	}
+
+	/**
+	 * Return the bean definition with the given name in this snapshot.
+	 * @param beanName the name of the bean
+	 * @return the bean definition, or {@code null} if none
+	 */
+	public BeanDefinition getBeanDefinition(String beanName) {
+		return this.beanDefinitions.get(beanName);
+	}
+
+	/**
+	 * Register the bean definitions and aliases contained in this snapshot
+	 * with the given registry. Each call registers fresh copies of the
+	 * bean definitions, so a snapshot may be applied several times.
+	 * @param registry the registry to populate
+	 */
+	public void registerBeanDefinitions(BeanDefinitionRegistry registry) {
+		for (Map.Entry<String, BeanDefinition> entry : this.beanDefinitions.entrySet()) {
+			registry.registerBeanDefinition(entry.getKey(),
+					((AbstractBeanDefinition) entry.getValue()).cloneBeanDefinition());
+		}
+		for (Map.Entry<String, String> entry : this.aliases.entrySet()) {
+			registry.registerAlias(entry.getValue(), entry.getKey());
+		}
+	}
+
+	/**
+	 * Write this snapshot to the given stream. The stream is flushed
+	 * but not closed.
+	 * @param out the stream to write to
+	 * @throws NotSerializableException if a bean definition contains a value
+	 * which is not supported by the snapshot format
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		DataOutputStream dataOut = new DataOutputStream(out);
+		SnapshotWriter writer = new SnapshotWriter(dataOut);
+		dataOut.writeInt(MAGIC);
+		dataOut.writeInt(VERSION);
+		writer.writeString(this.fingerprint);
+		dataOut.writeInt(this.beanDefinitions.size());
+		for (Map.Entry<String, BeanDefinition> entry : this.beanDefinitions.entrySet()) {
+			writer.writeString(entry.getKey());
+			writer.writeBeanDefinition(entry.getValue());
+		}
+		dataOut.writeInt(this.aliases.size());
+		for (Map.Entry<String, String> entry : this.aliases.entrySet()) {
+			writer.writeString(entry.getKey());
+			writer.writeString(entry.getValue());
+		}
+		dataOut.flush();
+	}
+
+
+	/**
+	 * Take a snapshot of the merged bean definitions currently registered in the
+	 * given bean factory. The snapshot holds copies of all values, i.e. it is not
+	 * affected by subsequent modifications of the bean definitions.
+	 * <p>Typically called by a {@link BeanDefinitionSnapshotPostProcessor}, before
+	 * placeholders in the bean definitions have been resolved.
+	 * @param beanFactory the bean factory
+	 * @param fingerprint the fingerprint to store along with the snapshot
+	 * (typically a {@link #fingerprint(ClassLoader, Environment) fingerprint}
+	 * of the classpath and the environment)
+	 * @return the snapshot
+	 * @throws NotSerializableException if a bean definition contains a value
+	 * which is not supported by the snapshot format
+	 * @throws IOException if a copied value could not be restored
+	 * @see BeanDefinitionSnapshotContributor
+	 */
+	public static BeanDefinitionSnapshot forBeanFactory(ConfigurableListableBeanFactory beanFactory, String fingerprint)
+			throws IOException {
+
+		Assert.notNull(beanFactory, "BeanFactory must not be null");
+		Collection<BeanDefinitionSnapshotContributor> contributors =
+				beanFactory.getBeansOfType(BeanDefinitionSnapshotContributor.class, false, false).values();
+		String[] beanNames = beanFactory.getBeanDefinitionNames();
+		Map<String, BeanDefinition> beanDefinitions = new LinkedHashMap<String, BeanDefinition>(beanNames.length);
+		Map<String, String> aliases = new LinkedHashMap<String, String>();
+		for (String beanName : beanNames) {
+			BeanDefinition mbd = beanFactory.getMergedBeanDefinition(beanName);
+			BeanDefinition snapshotDefinition = ((AbstractBeanDefinition) mbd).cloneBeanDefinition();
+			for (BeanDefinitionSnapshotContributor contributor : contributors) {
+				contributor.contributeToSnapshot(beanName, snapshotDefinition);
+			}
+			beanDefinitions.put(beanName, snapshotDefinition);
+			for (String alias : beanFactory.getAliases(beanName)) {
+				aliases.put(alias, beanName);
+			}
+		}
+		// Detach from values shared with the bean factory's definitions, which
+		// may get modified in place, e.g. when resolving placeholders
+		ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+		new BeanDefinitionSnapshot(fingerprint, beanDefinitions, aliases).writeTo(out);
+		return readFrom(new ByteArrayInputStream(out.toByteArray()), beanFactory.getBeanClassLoader());
+	}
+
+	/**
+	 * Read a snapshot from the given stream, as previously written by {@link #writeTo}.
+	 * The stream is not closed.
+	 * @param in the stream to read from
+	 * @param classLoader the ClassLoader to resolve class and enum values against
+	 * @return the snapshot
+	 * @throws IOException in case of I/O errors, an invalid snapshot format
+	 * or unresolvable classes
+	 */
+	public static BeanDefinitionSnapshot readFrom(InputStream in, ClassLoader classLoader) throws IOException {
+		DataInputStream dataIn = new DataInputStream(in);
+		if (dataIn.readInt() != MAGIC) {
+			throw new IOException("Not a bean definition snapshot");
+		}
+		int version = dataIn.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported bean definition snapshot version: " + version);
+		}
+		SnapshotReader reader = new SnapshotReader(dataIn, classLoader);
+		String fingerprint = reader.readString();
+		int count = dataIn.readInt();
+		Map<String, BeanDefinition> beanDefinitions = new LinkedHashMap<String, BeanDefinition>(count);
+		for (int i = 0; i < count; i++) {
+			String beanName = reader.readString();
+			beanDefinitions.put(beanName, reader.readBeanDefinition());
+		}
+		count = dataIn.readInt();
+		Map<String, String> aliases = new LinkedHashMap<String, String>(count);
+		for (int i = 0; i < count; i++) {
+			aliases.put(reader.readString(), reader.readString());
+		}
+		return new BeanDefinitionSnapshot(fingerprint, beanDefinitions, aliases);
+	}
+
+	/**
+	 * Compute a fingerprint for the given ClassLoader's classpath as well as
+	 * the given environment: its active and default profiles and the names
+	 * and contents of its property sources, in order. Any change of a property
+	 * value leads to a different fingerprint, including system properties and
+	 * environment variables, since bean definitions may depend on any of them.
+	 * <p>To be computed before refreshing the application context, both when
+	 * taking a snapshot and when checking whether to restore it: property
+	 * sources get added during the refresh, e.g. for {@code @PropertySource}.
+	 * Note that contents of classpath directories are not covered, in line
+	 * with {@link #classpathFingerprint(ClassLoader)}.
+	 * @param classLoader the ClassLoader to introspect
+	 * @param environment the environment that the bean definitions have been
+	 * registered against
+	 * @return the fingerprint, as a hex-encoded MD5 hash
+	 */
+	public static String fingerprint(ClassLoader classLoader, Environment environment) {
+		Assert.notNull(environment, "Environment must not be null");
+		StringBuilder sb = new StringBuilder(classpathFingerprint(classLoader)).append('\n');
+		sb.append(StringUtils.arrayToCommaDelimitedString(environment.getActiveProfiles())).append('\n');
+		sb.append(StringUtils.arrayToCommaDelimitedString(environment.getDefaultProfiles())).append('\n');
+		if (environment instanceof ConfigurableEnvironment) {
+			for (PropertySource<?> propertySource : ((ConfigurableEnvironment) environment).getPropertySources()) {
+				sb.append(propertySource.getName()).append('\n');
+				if (propertySource instanceof EnumerablePropertySource) {
+					String[] propertyNames = ((EnumerablePropertySource<?>) propertySource).getPropertyNames().clone();
+					Arrays.sort(propertyNames);
+					for (String propertyName : propertyNames) {
+						sb.append(propertyName).append('=').append(propertySource.getProperty(propertyName)).append('\n');
+					}
+				}
+			}
+		}
+		return DigestUtils.md5DigestAsHex(sb.toString().getBytes(UTF_8));
+	}
+
+	/**
+	 * Compute a fingerprint for the classpath visible to the given ClassLoader,
+	 * based on the location, size and last-modified timestamp of every jar file.
+	 * <p>Classpath directories are only considered by their location, since
+	 * checking every file within them would be expensive on every start. Their
+	 * contents are therefore <b>not</b> covered: e.g. when running from class
+	 * directories during development, use {@link #classpathFingerprint(ClassLoader, boolean)}
+	 * or do not restore snapshots at all.
+	 * @param classLoader the ClassLoader to introspect (along with its parents,
+	 * as far as they expose their URLs, and the {@code java.class.path})
+	 * @return the fingerprint, as a hex-encoded MD5 hash
+	 */
+	public static String classpathFingerprint(ClassLoader classLoader) {
+		return classpathFingerprint(classLoader, false);
+	}
+
+	/**
+	 * Compute a fingerprint for the classpath visible to the given ClassLoader,
+	 * based on the location, size and last-modified timestamp of every jar file
+	 * and, if requested, every file in a classpath directory.
+	 * @param classLoader the ClassLoader to introspect (along with its parents,
+	 * as far as they expose their URLs, and the {@code java.class.path})
+	 * @param includeDirectoryContents whether to check every file within
+	 * classpath directories as well
+	 * @return the fingerprint, as a hex-encoded MD5 hash
+	 */
+	public static String classpathFingerprint(ClassLoader classLoader, boolean includeDirectoryContents) {
+		Set<String> entries = new LinkedHashSet<String>();
+		for (ClassLoader cl = classLoader; cl != null; cl = cl.getParent()) {
+			if (cl instanceof URLClassLoader) {
+				for (URL url : ((URLClassLoader) cl).getURLs()) {
+					if (ResourceUtils.isFileURL(url)) {
+						try {
+							entries.add(ResourceUtils.getFile(url).getAbsolutePath());
+						}
+						catch (IOException ex) {
+							entries.add(url.toString());
+						}
+					}
+					else {
+						entries.add(url.toString());
+					}
+				}
+			}
+		}
+		String classPath = System.getProperty("java.class.path");
+		if (classPath != null) {
+			for (String path : StringUtils.tokenizeToStringArray(classPath, File.pathSeparator)) {
+				entries.add(new File(path).getAbsolutePath());
+			}
+		}
+		StringBuilder sb = new StringBuilder();
+		for (String entry : entries) {
+			appendFingerprint(sb, entry, new File(entry), includeDirectoryContents);
+		}
+		return DigestUtils.md5DigestAsHex(sb.toString().getBytes(UTF_8));
+	}
+
+	private static void appendFingerprint(StringBuilder sb, String path, File file, boolean includeDirectoryContents) {
+		if (file.isDirectory()) {
+			if (!includeDirectoryContents) {
+				sb.append(path).append("|dir\n");
+				return;
+			}
+			File[] files = file.listFiles();
+			if (files != null) {
+				Arrays.sort(files);
+				for (File child : files) {
+					appendFingerprint(sb, path + '/' + child.getName(), child, true);
+				}
+			}
+		}
+		else {
+			sb.append(path).append('|');
+			if (file.exists()) {
+				sb.append(file.length()).append('|').append(file.lastModified());
+			}
+			sb.append('\n');
+		}
+	}
+
+
+	/**
+	 * Writes bean definitions and their values, with strings in a shared table.
+	 */
+	private static class SnapshotWriter {
+
+		private final DataOutputStream out;
+
+		private final Map<String, Integer> strings = new HashMap<String, Integer>(256);
+
+		public SnapshotWriter(DataOutputStream out) {
+			this.out = out;
+		}
+
+		public void writeString(String value) throws IOException {
+			if (value == null) {
+				this.out.writeInt(-1);
+				return;
+			}
+			Integer index = this.strings.get(value);
+			if (index != null) {
+				this.out.writeInt(index);
+			}
+			else {
+				this.out.writeInt(this.strings.size());
+				this.strings.put(value, this.strings.size());
+				byte[] bytes = value.getBytes(UTF_8);
+				this.out.writeInt(bytes.length);
+				this.out.write(bytes);
+			}
+		}
+
+		public void writeStrings(String[] values) throws IOException {
+			if (values == null) {
+				this.out.writeInt(-1);
+				return;
+			}
+			this.out.writeInt(values.length);
+			for (String value : values) {
+				writeString(value);
+			}
+		}
+
+		public void writeBeanDefinition(BeanDefinition beanDefinition) throws IOException {
+			if (!(beanDefinition instanceof AbstractBeanDefinition)) {
+				throw new NotSerializableException(beanDefinition.getClass().getName());
+			}
+			AbstractBeanDefinition bd = (AbstractBeanDefinition) beanDefinition;
+			writeString(bd.hasBeanClass() ?
+					ClassUtils.getUserClass(bd.getBeanClass()).getName() : bd.getBeanClassName());
+			writeString(bd.getParentName());
+			writeString(bd.getScope());
+			this.out.writeBoolean(bd.isAbstract());
+			this.out.writeBoolean(bd.isLazyInit());
+			this.out.writeInt(bd.getAutowireMode());
+			this.out.writeInt(bd.getDependencyCheck());
+			writeStrings(bd.getDependsOn());
+			this.out.writeBoolean(bd.isAutowireCandidate());
+			this.out.writeBoolean(bd.isPrimary());
+			this.out.writeBoolean(bd.isNonPublicAccessAllowed());
+			this.out.writeBoolean(bd.isLenientConstructorResolution());
+			writeString(bd.getFactoryBeanName());
+			writeString(bd.getFactoryMethodName());
+			writeString(bd.getInitMethodName());
+			this.out.writeBoolean(bd.isEnforceInitMethod());
+			writeString(bd.getDestroyMethodName());
+			this.out.writeBoolean(bd.isEnforceDestroyMethod());
+			this.out.writeBoolean(bd.isSynthetic());
+			this.out.writeInt(bd.getRole());
+			writeString(bd.getDescription());
+			writeString(bd.getResourceDescription());
+
+			ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+			Map<Integer, ConstructorArgumentValues.ValueHolder> indexedArgs = cargs.getIndexedArgumentValues();
+			this.out.writeInt(indexedArgs.size());
+			for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry : indexedArgs.entrySet()) {
+				this.out.writeInt(entry.getKey());
+				writeValueHolder(entry.getValue());
+			}
+			List<ConstructorArgumentValues.ValueHolder> genericArgs = cargs.getGenericArgumentValues();
+			this.out.writeInt(genericArgs.size());
+			for (ConstructorArgumentValues.ValueHolder valueHolder : genericArgs) {
+				writeValueHolder(valueHolder);
+			}
+
+			PropertyValue[] pvs = bd.getPropertyValues().getPropertyValues();
+			this.out.writeInt(pvs.length);
+			for (PropertyValue pv : pvs) {
+				writeString(pv.getName());
+				writeValue(pv.getValue());
+				this.out.writeBoolean(pv.isOptional());
+			}
+
+			Set<MethodOverride> overrides = bd.getMethodOverrides().getOverrides();
+			this.out.writeInt(overrides.size());
+			for (MethodOverride override : overrides) {
+				writeMethodOverride(override);
+			}
+
+			Set<AutowireCandidateQualifier> qualifiers = bd.getQualifiers();
+			this.out.writeInt(qualifiers.size());
+			for (AutowireCandidateQualifier qualifier : qualifiers) {
+				writeString(qualifier.getTypeName());
+				writeAttributes(qualifier);
+			}
+			writeAttributes(bd);
+
+			RootBeanDefinition rbd = (bd instanceof RootBeanDefinition ? (RootBeanDefinition) bd : null);
+			this.out.writeBoolean(rbd != null && rbd.isFactoryMethodUnique);
+			writeValue(rbd != null ? rbd.getDecoratedDefinition() : null);
+			writeType(rbd != null ? rbd.targetType : null);
+		}
+
+		private void writeValueHolder(ConstructorArgumentValues.ValueHolder valueHolder) throws IOException {
+			writeValue(valueHolder.getValue());
+			writeString(valueHolder.getType());
+			writeString(valueHolder.getName());
+		}
+
+		private void writeMethodOverride(MethodOverride override) throws IOException {
+			if (override instanceof LookupOverride) {
+				this.out.writeByte(LOOKUP_OVERRIDE);
+				writeString(override.getMethodName());
+				writeString(((LookupOverride) override).getBeanName());
+			}
+			else if (override instanceof ReplaceOverride) {
+				this.out.writeByte(REPLACE_OVERRIDE);
+				writeString(override.getMethodName());
+				writeString(((ReplaceOverride) override).getMethodReplacerBeanName());
+				writeStrings(StringUtils.toStringArray(((ReplaceOverride) override).getTypeIdentifiers()));
+			}
+			else {
+				throw new NotSerializableException(override.getClass().getName());
+			}
+			this.out.writeBoolean(override.isOverloaded());
+		}
+
+		private void writeAttributes(BeanMetadataAttributeAccessor accessor) throws IOException {
+			List<String> names = new ArrayList<String>();
+			for (String name : accessor.attributeNames()) {
+				Object value = accessor.getAttribute(name);
+				if (value instanceof String || (value != null && ClassUtils.isPrimitiveWrapper(value.getClass()))) {
+					names.add(name);
+				}
+			}
+			this.out.writeInt(names.size());
+			for (String name : names) {
+				writeString(name);
+				writeValue(accessor.getAttribute(name));
+			}
+		}
+
+		private void writeType(ResolvableType type) throws IOException {
+			Class<?> resolved = (type != null ? type.resolve() : null);
+			if (resolved == null) {
+				writeString(null);
+				return;
+			}
+			writeString(resolved.getName());
+			ResolvableType[] generics = (type.hasUnresolvableGenerics() ? new ResolvableType[0] : type.getGenerics());
+			this.out.writeInt(generics.length);
+			for (ResolvableType generic : generics) {
+				writeType(generic);
+			}
+		}
+
+		public void writeValue(Object value) throws IOException {
+			if (value == null) {
+				this.out.writeByte(NULL);
+			}
+			else if (value instanceof String) {
+				this.out.writeByte(STRING);
+				writeString((String) value);
+			}
+			else if (value instanceof Boolean) {
+				this.out.writeByte(BOOLEAN);
+				this.out.writeBoolean((Boolean) value);
+			}
+			else if (value instanceof Integer) {
+				this.out.writeByte(INTEGER);
+				this.out.writeInt((Integer) value);
+			}
+			else if (value instanceof Long) {
+				this.out.writeByte(LONG);
+				this.out.writeLong((Long) value);
+			}
+			else if (value instanceof Short) {
+				this.out.writeByte(SHORT);
+				this.out.writeShort((Short) value);
+			}
+			else if (value instanceof Byte) {
+				this.out.writeByte(BYTE);
+				this.out.writeByte((Byte) value);
+			}
+			else if (value instanceof Character) {
+				this.out.writeByte(CHARACTER);
+				this.out.writeChar((Character) value);
+			}
+			else if (value instanceof Float) {
+				this.out.writeByte(FLOAT);
+				this.out.writeFloat((Float) value);
+			}
+			else if (value instanceof Double) {
+				this.out.writeByte(DOUBLE);
+				this.out.writeDouble((Double) value);
+			}
+			else if (value instanceof Class) {
+				this.out.writeByte(CLASS);
+				writeString(((Class<?>) value).getName());
+			}
+			else if (value instanceof Enum) {
+				this.out.writeByte(ENUM);
+				writeString(((Enum<?>) value).getDeclaringClass().getName());
+				writeString(((Enum<?>) value).name());
+			}
+			else if (value instanceof String[]) {
+				this.out.writeByte(STRING_ARRAY);
+				writeStrings((String[]) value);
+			}
+			else if (value instanceof TypedStringValue) {
+				TypedStringValue typedValue = (TypedStringValue) value;
+				this.out.writeByte(TYPED_STRING_VALUE);
+				writeString(typedValue.getValue());
+				writeString(typedValue.getTargetTypeName());
+				writeString(typedValue.getSpecifiedTypeName());
+				this.out.writeBoolean(typedValue.isDynamic());
+			}
+			else if (value instanceof RuntimeBeanReference) {
+				this.out.writeByte(BEAN_REFERENCE);
+				writeString(((RuntimeBeanReference) value).getBeanName());
+				this.out.writeBoolean(((RuntimeBeanReference) value).isToParent());
+			}
+			else if (value instanceof RuntimeBeanNameReference) {
+				this.out.writeByte(BEAN_NAME_REFERENCE);
+				writeString(((RuntimeBeanNameReference) value).getBeanName());
+			}
+			else if (value instanceof BeanDefinitionHolder) {
+				BeanDefinitionHolder holder = (BeanDefinitionHolder) value;
+				this.out.writeByte(BEAN_DEFINITION_HOLDER);
+				writeString(holder.getBeanName());
+				writeStrings(holder.getAliases());
+				writeBeanDefinition(holder.getBeanDefinition());
+			}
+			else if (value instanceof BeanDefinition) {
+				this.out.writeByte(BEAN_DEFINITION);
+				writeBeanDefinition((BeanDefinition) value);
+			}
+			else if (value instanceof ManagedArray) {
+				ManagedArray array = (ManagedArray) value;
+				this.out.writeByte(MANAGED_ARRAY);
+				writeString(array.getElementTypeName());
+				this.out.writeBoolean(array.isMergeEnabled());
+				writeElements(array);
+			}
+			else if (value instanceof ManagedList) {
+				ManagedList<?> list = (ManagedList<?>) value;
+				this.out.writeByte(MANAGED_LIST);
+				writeString(list.getElementTypeName());
+				this.out.writeBoolean(list.isMergeEnabled());
+				writeElements(list);
+			}
+			else if (value instanceof ManagedSet) {
+				ManagedSet<?> set = (ManagedSet<?>) value;
+				this.out.writeByte(MANAGED_SET);
+				writeString(set.getElementTypeName());
+				this.out.writeBoolean(set.isMergeEnabled());
+				writeElements(set);
+			}
+			else if (value instanceof ManagedMap) {
+				ManagedMap<?, ?> map = (ManagedMap<?, ?>) value;
+				this.out.writeByte(MANAGED_MAP);
+				writeString(map.getKeyTypeName());
+				writeString(map.getValueTypeName());
+				this.out.writeBoolean(map.isMergeEnabled());
+				writeEntries(map);
+			}
+			else if (value instanceof ManagedProperties) {
+				ManagedProperties props = (ManagedProperties) value;
+				this.out.writeByte(MANAGED_PROPERTIES);
+				this.out.writeBoolean(props.isMergeEnabled());
+				writeEntries(props);
+			}
+			else if (value instanceof List) {
+				this.out.writeByte(LIST);
+				writeElements((List<?>) value);
+			}
+			else if (value instanceof Set) {
+				this.out.writeByte(SET);
+				writeElements((Set<?>) value);
+			}
+			else if (value instanceof Map) {
+				this.out.writeByte(MAP);
+				writeEntries((Map<?, ?>) value);
+			}
+			else {
+				throw new NotSerializableException(value.getClass().getName());
+			}
+		}
+
+		private void writeElements(Collection<?> elements) throws IOException {
+			this.out.writeInt(elements.size());
+			for (Object element : elements) {
+				writeValue(element);
+			}
+		}
+
+		private void writeEntries(Map<?, ?> entries) throws IOException {
+			this.out.writeInt(entries.size());
+			for (Map.Entry<?, ?> entry : entries.entrySet()) {
+				writeValue(entry.getKey());
+				writeValue(entry.getValue());
+			}
+		}
+	}
+
+
+	/**
+	 * Reads bean definitions and their values, as written by {@link SnapshotWriter}.
+	 */
+	private static class SnapshotReader {
+
+		private final DataInputStream in;
+
+		private final ClassLoader classLoader;
+
+		private final List<String> strings = new ArrayList<String>(256);
+
+		public SnapshotReader(DataInputStream in, ClassLoader classLoader) {
+			this.in = in;
+			this.classLoader = classLoader;
+		}
+
+		public String readString() throws IOException {
+			int index = this.in.readInt();
+			if (index == -1) {
+				return null;
+			}
+			if (index < this.strings.size()) {
+				return this.strings.get(index);
+			}
+			if (index != this.strings.size()) {
+				throw new IOException("Corrupt bean definition snapshot: invalid string index " + index);
+			}
+			byte[] bytes = new byte[this.in.readInt()];
+			this.in.readFully(bytes);
+			String value = new String(bytes, UTF_8);
+			this.strings.add(value);
+			return value;
+		}
+
+		public String[] readStrings() throws IOException {
+			int length = this.in.readInt();
+			if (length == -1) {
+				return null;
+			}
+			String[] values = new String[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = readString();
+			}
+			return values;
+		}
+
+		public AbstractBeanDefinition readBeanDefinition() throws IOException {
+			String beanClassName = readString();
+			String parentName = readString();
+			AbstractBeanDefinition bd;
+			if (parentName != null) {
+				bd = new GenericBeanDefinition();
+				bd.setParentName(parentName);
+			}
+			else {
+				bd = new RootBeanDefinition();
+			}
+			bd.setBeanClassName(beanClassName);
+			bd.setScope(readString());
+			bd.setAbstract(this.in.readBoolean());
+			bd.setLazyInit(this.in.readBoolean());
+			bd.setAutowireMode(this.in.readInt());
+			bd.setDependencyCheck(this.in.readInt());
+			bd.setDependsOn(readStrings());
+			bd.setAutowireCandidate(this.in.readBoolean());
+			bd.setPrimary(this.in.readBoolean());
+			bd.setNonPublicAccessAllowed(this.in.readBoolean());
+			bd.setLenientConstructorResolution(this.in.readBoolean());
+			bd.setFactoryBeanName(readString());
+			bd.setFactoryMethodName(readString());
+			bd.setInitMethodName(readString());
+			bd.setEnforceInitMethod(this.in.readBoolean());
+			bd.setDestroyMethodName(readString());
+			bd.setEnforceDestroyMethod(this.in.readBoolean());
+			bd.setSynthetic(this.in.readBoolean());
+			bd.setRole(this.in.readInt());
+			bd.setDescription(readString());
+			bd.setResourceDescription(readString());
+
+			ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+			int count = this.in.readInt();
+			for (int i = 0; i < count; i++) {
+				int index = this.in.readInt();
+				cargs.addIndexedArgumentValue(index, readValueHolder());
+			}
+			count = this.in.readInt();
+			for (int i = 0; i < count; i++) {
+				cargs.addGenericArgumentValue(readValueHolder());
+			}
+
+			MutablePropertyValues pvs = bd.getPropertyValues();
+			count = this.in.readInt();
+			for (int i = 0; i < count; i++) {
+				PropertyValue pv = new PropertyValue(readString(), readValue());
+				pv.setOptional(this.in.readBoolean());
+				pvs.addPropertyValue(pv);
+			}
+
+			count = this.in.readInt();
+			for (int i = 0; i < count; i++) {
+				bd.getMethodOverrides().addOverride(readMethodOverride());
+			}
+
+			count = this.in.readInt();
+			for (int i = 0; i < count; i++) {
+				AutowireCandidateQualifier qualifier = new AutowireCandidateQualifier(readString());
+				readAttributes(qualifier);
+				bd.addQualifier(qualifier);
+			}
+			readAttributes(bd);
+
+			boolean factoryMethodUnique = this.in.readBoolean();
+			BeanDefinitionHolder decoratedDefinition = (BeanDefinitionHolder) readValue();
+			ResolvableType targetType = readType();
+			if (bd instanceof RootBeanDefinition) {
+				RootBeanDefinition rbd = (RootBeanDefinition) bd;
+				rbd.isFactoryMethodUnique = factoryMethodUnique;
+				rbd.setDecoratedDefinition(decoratedDefinition);
+				rbd.setTargetType(targetType);
+			}
+			return bd;
+		}
+
+		private ConstructorArgumentValues.ValueHolder readValueHolder() throws IOException {
+			Object value = readValue();
+			return new ConstructorArgumentValues.ValueHolder(value, readString(), readString());
+		}
+
+		private MethodOverride readMethodOverride() throws IOException {
+			byte kind = this.in.readByte();
+			MethodOverride override;
+			if (kind == LOOKUP_OVERRIDE) {
+				override = new LookupOverride(readString(), readString());
+			}
+			else if (kind == REPLACE_OVERRIDE) {
+				ReplaceOverride replaceOverride = new ReplaceOverride(readString(), readString());
+				for (String identifier : readStrings()) {
+					replaceOverride.addTypeIdentifier(identifier);
+				}
+				override = replaceOverride;
+			}
+			else {
+				throw new IOException("Corrupt bean definition snapshot: invalid method override type " + kind);
+			}
+			override.setOverloaded(this.in.readBoolean());
+			return override;
+		}
+
+		private void readAttributes(BeanMetadataAttributeAccessor accessor) throws IOException {
+			int count = this.in.readInt();
+			for (int i = 0; i < count; i++) {
+				String name = readString();
+				accessor.setAttribute(name, readValue());
+			}
+		}
+
+		private ResolvableType readType() throws IOException {
+			String className = readString();
+			if (className == null) {
+				return null;
+			}
+			Class<?> clazz = resolveClass(className);
+			int count = this.in.readInt();
+			if (count == 0) {
+				return ResolvableType.forClass(clazz);
+			}
+			ResolvableType[] generics = new ResolvableType[count];
+			for (int i = 0; i < count; i++) {
+				generics[i] = readType();
+				if (generics[i] == null) {
+					generics[i] = ResolvableType.forClass(Object.class);
+				}
+			}
+			return ResolvableType.forClassWithGenerics(clazz, generics);
+		}
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		public Object readValue() throws IOException {
+			byte type = this.in.readByte();
+			switch (type) {
+				case NULL:
+					return null;
+				case STRING:
+					return readString();
+				case BOOLEAN:
+					return this.in.readBoolean();
+				case INTEGER:
+					return this.in.readInt();
+				case LONG:
+					return this.in.readLong();
+				case SHORT:
+					return this.in.readShort();
+				case BYTE:
+					return this.in.readByte();
+				case CHARACTER:
+					return this.in.readChar();
+				case FLOAT:
+					return this.in.readFloat();
+				case DOUBLE:
+					return this.in.readDouble();
+				case CLASS:
+					return resolveClass(readString());
+				case ENUM:
+					Class enumType = resolveClass(readString());
+					return Enum.valueOf(enumType, readString());
+				case STRING_ARRAY:
+					return readStrings();
+				case TYPED_STRING_VALUE:
+					TypedStringValue typedValue = new TypedStringValue(readString());
+					String targetTypeName = readString();
+					if (targetTypeName != null) {
+						typedValue.setTargetTypeName(targetTypeName);
+					}
+					typedValue.setSpecifiedTypeName(readString());
+					if (this.in.readBoolean()) {
+						typedValue.setDynamic();
+					}
+					return typedValue;
+				case BEAN_REFERENCE:
+					return new RuntimeBeanReference(readString(), this.in.readBoolean());
+				case BEAN_NAME_REFERENCE:
+					return new RuntimeBeanNameReference(readString());
+				case BEAN_DEFINITION_HOLDER:
+					String beanName = readString();
+					String[] aliases = readStrings();
+					return new BeanDefinitionHolder(readBeanDefinition(), beanName, aliases);
+				case BEAN_DEFINITION:
+					return readBeanDefinition();
+				case MANAGED_ARRAY:
+					ManagedArray array = new ManagedArray(readString(), 0);
+					array.setMergeEnabled(this.in.readBoolean());
+					readElements(array);
+					return array;
+				case MANAGED_LIST:
+					ManagedList<Object> list = new ManagedList<Object>();
+					list.setElementTypeName(readString());
+					list.setMergeEnabled(this.in.readBoolean());
+					readElements(list);
+					return list;
+				case MANAGED_SET:
+					ManagedSet<Object> set = new ManagedSet<Object>();
+					set.setElementTypeName(readString());
+					set.setMergeEnabled(this.in.readBoolean());
+					readElements(set);
+					return set;
+				case MANAGED_MAP:
+					ManagedMap<Object, Object> map = new ManagedMap<Object, Object>();
+					map.setKeyTypeName(readString());
+					map.setValueTypeName(readString());
+					map.setMergeEnabled(this.in.readBoolean());
+					readEntries(map);
+					return map;
+				case MANAGED_PROPERTIES:
+					ManagedProperties props = new ManagedProperties();
+					props.setMergeEnabled(this.in.readBoolean());
+					readEntries(props);
+					return props;
+				case LIST:
+					return readElements(new ArrayList<Object>());
+				case SET:
+					return readElements(new LinkedHashSet<Object>());
+				case MAP:
+					return readEntries(new LinkedHashMap<Object, Object>());
+				default:
+					throw new IOException("Corrupt bean definition snapshot: invalid value type " + type);
+			}
+		}
+
+		private Collection<Object> readElements(Collection<Object> elements) throws IOException {
+			int size = this.in.readInt();
+			for (int i = 0; i < size; i++) {
+				elements.add(readValue());
+			}
+			return elements;
+		}
+
+		private Map<Object, Object> readEntries(Map<Object, Object> entries) throws IOException {
+			int size = this.in.readInt();
+			for (int i = 0; i < size; i++) {
+				Object key = readValue();
+				entries.put(key, readValue());
+			}
+			return entries;
+		}
+
+		private Class<?> resolveClass(String className) throws IOException {
+			try {
+				return ClassUtils.forName(className, this.classLoader);
+			}
+			catch (ClassNotFoundException ex) {
+				throw new IOException("Cannot resolve class [" + className + "] from bean definition snapshot", ex);
+			}
+			catch (LinkageError err) {
+				throw new IOException("Cannot load class [" + className + "] from bean definition snapshot", err);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+
+/**
+ * Callback interface for beans which contribute state to a {@link BeanDefinitionSnapshot}:
+ * invoked for the copy of each bean definition in the snapshot, typically in order to
+ * record processing results as simple (String, number or boolean) attributes which
+ * would otherwise only be kept at runtime. The bean factory's own bean definitions
+ * are not affected.
+ *
+ * @author agent
+ * @since 4.3.8
+ * @see BeanDefinitionSnapshot#forBeanFactory
+ */
+public interface BeanDefinitionSnapshotContributor {
+
+	/**
+	 * Contribute to the snapshot copy of the given bean definition.
+	 * @param beanName the name of the bean
+	 * @param beanDefinition the bean definition copy within the snapshot
+	 */
+	void contributeToSnapshot(String beanName, BeanDefinition beanDefinition);
+
+}
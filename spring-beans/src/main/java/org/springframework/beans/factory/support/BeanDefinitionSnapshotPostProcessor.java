@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.IOException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+/**
+ * {@link BeanFactoryPostProcessor} which takes a {@link BeanDefinitionSnapshot} of
+ * the bean factory that it runs in: after all bean definitions have been registered,
+ * but before any other factory post-processors (in particular placeholder configurers)
+ * have modified them. On restore, the snapshot's placeholders and other factory
+ * post-processors will therefore be applied against the environment at that time.
+ *
+ * <p>Typically added to an application context before its refresh:
+ *
+ * <pre class="code">
+ * BeanDefinitionSnapshotPostProcessor snapshotter = new BeanDefinitionSnapshotPostProcessor(fingerprint);
+ * ctx.addBeanFactoryPostProcessor(snapshotter);
+ * ctx.refresh();
+ * if (snapshotter.getSnapshot() != null) {
+ *   snapshotter.getSnapshot().writeTo(out);
+ * }</pre>
+ *
+ * <p>If the bean definitions contain values which cannot be captured, no snapshot
+ * is taken and a warning is logged; the bean factory is not affected either way.
+ *
+ * @author agent
+ * @since 4.3.8
+ * @see BeanDefinitionSnapshot#forBeanFactory
+ * @see BeanDefinitionSnapshot#fingerprint
+ */
+public class BeanDefinitionSnapshotPostProcessor implements BeanFactoryPostProcessor, PriorityOrdered {
+
+	private static final Log logger = LogFactory.getLog(BeanDefinitionSnapshotPostProcessor.class);
+
+	private final String fingerprint;
+
+	private volatile BeanDefinitionSnapshot snapshot;
+
+
+	/**
+	 * Create a new BeanDefinitionSnapshotPostProcessor.
+	 * @param fingerprint the fingerprint to store along with the snapshot
+	 */
+	public BeanDefinitionSnapshotPostProcessor(String fingerprint) {
+		this.fingerprint = fingerprint;
+	}
+
+
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+	@Override
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+		try {
+			this.snapshot = BeanDefinitionSnapshot.forBeanFactory(beanFactory, this.fingerprint);
+		}
+		catch (IOException ex) {
+			logger.warn("Could not take bean definition snapshot: " + ex);
+		}
+	}
+
+	/**
+	 * Return the snapshot taken, or {@code null} if none has been taken
+	 * (yet or at all, in case of unsupported bean definition values).
+	 */
+	public BeanDefinitionSnapshot getSnapshot() {
+		return this.snapshot;
+	}
+
+}
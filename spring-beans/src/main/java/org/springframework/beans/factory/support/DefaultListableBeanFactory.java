@@ -29,9 +29,11 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -40,11 +42,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import javax.inject.Provider;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCurrentlyInCreationException;
@@ -65,10 +73,13 @@ import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.BeanReference;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
 import org.springframework.beans.factory.config.DependencyDescriptor;
 import org.springframework.beans.factory.config.NamedBeanHolder;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotationUtils;
@@ -155,6 +166,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Optional OrderComparator for dependency Lists and arrays */
 	private Comparator<Object> dependencyComparator;
 
+	/** Optional Executor for pre-instantiating independent singletons in parallel */
+	private Executor bootstrapExecutor;
+
 	/** Resolver to use for checking if a bean definition is an autowire candidate */
 	private AutowireCandidateResolver autowireCandidateResolver = new SimpleAutowireCandidateResolver();
 
@@ -170,6 +184,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Map of singleton-only bean names, keyed by dependency type */
 	private final Map<Class<?>, String[]> singletonBeanNamesByType = new ConcurrentHashMap<Class<?>, String[]>(64);
 
+	/** Map of matching autowire candidate names, keyed by injection point */
+	private final Map<AutowireCandidatesKey, String[]> autowireCandidateNamesCache =
+			new ConcurrentHashMap<AutowireCandidatesKey, String[]>(64);
+
 	/** List of bean definition names, in registration order */
 	private volatile List<String> beanDefinitionNames = new ArrayList<String>(256);
 
@@ -182,6 +200,16 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** Whether bean definition metadata may be cached for all beans */
 	private volatile boolean configurationFrozen = false;
 
+	/** Index of candidate bean names by type, built on demand once the configuration is frozen */
+	private volatile BeanTypeIndex beanTypeIndex;
+
+	/** Incremented whenever by-type assumptions are cleared, to discard outdated indexes */
+	private volatile int beanTypeIndexGeneration;
+
+	/** Marks the current thread as building the bean type index */
+	private final ThreadLocal<Boolean> beanTypeIndexInBuild =
+			new NamedThreadLocal<Boolean>("Bean type index in build");
+
 
 	/**
 	 * Create a new DefaultListableBeanFactory.
@@ -283,6 +311,42 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.dependencyComparator;
 	}
 
+	/**
+	 * Set an {@link Executor} for pre-instantiating non-lazy singletons in parallel.
+	 * <p>Default is none, instantiating all non-lazy singletons one after the other
+	 * in the calling thread. If an Executor is specified, {@link #preInstantiateSingletons}
+	 * splits the singletons into groups without dependencies on each other and
+	 * initializes each group in a separate task.
+	 * <p>Note that this grouping is a heuristic: it only considers dependencies
+	 * declared in the bean definitions (bean references, factory beans and
+	 * "depends-on"), not the ones discovered at creation time, e.g. through
+	 * {@code @Autowired} or {@code @Resource} injection. Threads wait for a singleton
+	 * that is in creation elsewhere, but the initialization order across groups is
+	 * undefined, and an undeclared circular reference between groups fails with a
+	 * {@link org.springframework.beans.factory.BeanCurrentlyInCreationException}
+	 * if no early reference is available.
+	 * <p>The Executor is therefore only used if concurrent singleton creation has
+	 * been switched on explicitly, by a subclass which knows that its singletons are
+	 * safe to create concurrently (see {@link #setConcurrentSingletonCreation});
+	 * otherwise, singletons are pre-instantiated one after the other regardless.
+	 * <p>This is primarily useful for singletons performing expensive I/O in their
+	 * initialization methods. The Executor needs to run tasks in separate threads
+	 * to be effective; it is not being shut down by this factory.
+	 * @since 4.3.8
+	 * @see #preInstantiateSingletons()
+	 */
+	public void setBootstrapExecutor(Executor bootstrapExecutor) {
+		this.bootstrapExecutor = bootstrapExecutor;
+	}
+
+	/**
+	 * Return the {@link Executor} for pre-instantiating singletons in parallel, if any.
+	 * @since 4.3.8
+	 */
+	public Executor getBootstrapExecutor() {
+		return this.bootstrapExecutor;
+	}
+
 	/**
 	 * Set a custom autowire candidate resolver for this BeanFactory to use
 	 * when deciding whether a bean definition should be considered as a
@@ -305,6 +369,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			}
 		}
 		this.autowireCandidateResolver = autowireCandidateResolver;
+		this.autowireCandidateNamesCache.clear();
 	}
 
 	/**
@@ -323,6 +388,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.bootstrapExecutor = otherListableFactory.bootstrapExecutor;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware...
 			setAutowireCandidateResolver(BeanUtils.instantiateClass(getAutowireCandidateResolver().getClass()));
 			// Make resolvable dependencies (e.g. ResourceLoader) available here as well...
@@ -410,8 +476,18 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	private String[] doGetBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
 		List<String> result = new ArrayList<String>();
 
-		// Check all bean definitions.
-		for (String beanName : this.beanDefinitionNames) {
+		// Check all bean definitions - or just the indexed candidates in case of frozen configuration.
+		Collection<String> beanNames = this.beanDefinitionNames;
+		if (isConfigurationFrozen()) {
+			Class<?> rawType = type.resolve();
+			if (rawType != null && rawType != Object.class) {
+				BeanTypeIndex typeIndex = obtainBeanTypeIndex();
+				if (typeIndex != null) {
+					beanNames = typeIndex.getCandidateNames(ClassUtils.resolvePrimitiveIfNecessary(rawType));
+				}
+			}
+		}
+		for (String beanName : beanNames) {
 			// Only consider bean as eligible if the bean name
 			// is not defined as alias for some other bean.
 			if (!isAlias(beanName)) {
@@ -492,6 +568,85 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return StringUtils.toStringArray(result);
 	}
 
+	/**
+	 * Return the type index for the current bean definitions, building it if necessary.
+	 * @return the type index, or {@code null} if it is currently being built by
+	 * this thread (with type predictions leading to nested type lookups)
+	 */
+	private BeanTypeIndex obtainBeanTypeIndex() {
+		BeanTypeIndex typeIndex = this.beanTypeIndex;
+		if (typeIndex != null || this.beanTypeIndexInBuild.get() != null) {
+			return typeIndex;
+		}
+		int generation = this.beanTypeIndexGeneration;
+		String[] beanNames = StringUtils.toStringArray(this.beanDefinitionNames);
+		typeIndex = new BeanTypeIndex(beanNames);
+		List<String> predictedBeanNames = new ArrayList<String>(beanNames.length);
+		this.beanTypeIndexInBuild.set(Boolean.TRUE);
+		try {
+			for (String beanName : beanNames) {
+				if (isAlias(beanName) || isCurrentlyInCreation(beanName)) {
+					typeIndex.addUnindexedBean(beanName);
+					continue;
+				}
+				try {
+					RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+					if (mbd.isAbstract()) {
+						continue;
+					}
+					if (containsSingleton(beanName)) {
+						typeIndex.addSingleton(beanName, getSingleton(beanName, false));
+					}
+					else {
+						Class<?> predictedType = predictIndexableType(beanName, mbd);
+						if (predictedType != null) {
+							typeIndex.addType(beanName, predictedType);
+							predictedBeanNames.add(beanName);
+						}
+						else {
+							typeIndex.addUnindexedBean(beanName);
+						}
+					}
+				}
+				catch (BeansException ex) {
+					// Leave it up to the actual type lookup to deal with the problem.
+					typeIndex.addUnindexedBean(beanName);
+				}
+			}
+		}
+		finally {
+			this.beanTypeIndexInBuild.remove();
+		}
+		synchronized (getSingletonMutex()) {
+			// Consider singletons that have been created in the meantime.
+			for (String beanName : predictedBeanNames) {
+				if (containsSingleton(beanName)) {
+					typeIndex.addSingleton(beanName, getSingleton(beanName, false));
+				}
+			}
+			if (generation == this.beanTypeIndexGeneration) {
+				this.beanTypeIndex = typeIndex;
+			}
+		}
+		return typeIndex;
+	}
+
+	/**
+	 * Predict the type of the given bean for indexing purposes, unless it
+	 * might change on instantiation or cannot be determined upfront.
+	 * @return the predicted type, or {@code null} if the bean needs to be
+	 * considered a candidate for every type lookup
+	 */
+	private Class<?> predictIndexableType(String beanName, RootBeanDefinition mbd) {
+		if (!mbd.isSingleton() || mbd.getDecoratedDefinition() != null ||
+				!(mbd.hasBeanClass() || !mbd.isLazyInit() || isAllowEagerClassLoading()) ||
+				(mbd.getFactoryBeanName() != null && isFactoryBean(mbd.getFactoryBeanName()))) {
+			return null;
+		}
+		Class<?> predictedType = predictBeanType(beanName, mbd);
+		return (predictedType != null && !FactoryBean.class.isAssignableFrom(predictedType) ? predictedType : null);
+	}
+
 	/**
 	 * Check whether the specified bean would need to be eagerly initialized
 	 * in order to determine its type.
@@ -607,6 +762,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 						"] does not implement specified dependency type [" + dependencyType.getName() + "]");
 			}
 			this.resolvableDependencies.put(dependencyType, autowiredValue);
+			this.autowireCandidateNamesCache.clear();
 		}
 	}
 
@@ -735,31 +891,13 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		List<String> beanNames = new ArrayList<String>(this.beanDefinitionNames);
 
 		// Trigger initialization of all non-lazy singleton beans...
-		for (String beanName : beanNames) {
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				if (isFactoryBean(beanName)) {
-					final FactoryBean<?> factory = (FactoryBean<?>) getBean(FACTORY_BEAN_PREFIX + beanName);
-					boolean isEagerInit;
-					if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-						isEagerInit = AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
-							@Override
-							public Boolean run() {
-								return ((SmartFactoryBean<?>) factory).isEagerInit();
-							}
-						}, getAccessControlContext());
-					}
-					else {
-						isEagerInit = (factory instanceof SmartFactoryBean &&
-								((SmartFactoryBean<?>) factory).isEagerInit());
-					}
-					if (isEagerInit) {
-						getBean(beanName);
-					}
-				}
-				else {
-					getBean(beanName);
-				}
+		Executor executor = getBootstrapExecutor();
+		if (executor != null) {
+			preInstantiateSingletonsInParallel(beanNames, executor);
+		}
+		else {
+			for (String beanName : beanNames) {
+				preInstantiateSingleton(beanName);
 			}
 		}
 
@@ -785,6 +923,237 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	}
 
 
+	/**
+	 * Instantiate the given bean if it is a non-lazy singleton, also covering
+	 * objects exposed by eager-init {@link SmartFactoryBean}s.
+	 * @param beanName the name of the bean
+	 */
+	private void preInstantiateSingleton(String beanName) {
+		RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+		if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+			if (isFactoryBean(beanName)) {
+				final FactoryBean<?> factory = (FactoryBean<?>) getBean(FACTORY_BEAN_PREFIX + beanName);
+				boolean isEagerInit;
+				if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+					isEagerInit = AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+						@Override
+						public Boolean run() {
+							return ((SmartFactoryBean<?>) factory).isEagerInit();
+						}
+					}, getAccessControlContext());
+				}
+				else {
+					isEagerInit = (factory instanceof SmartFactoryBean &&
+							((SmartFactoryBean<?>) factory).isEagerInit());
+				}
+				if (isEagerInit) {
+					getBean(beanName);
+				}
+			}
+			else {
+				getBean(beanName);
+			}
+		}
+	}
+
+	/**
+	 * Instantiate all non-lazy singletons, with independent groups of
+	 * singletons being initialized in parallel through the given Executor
+	 * if concurrent singleton creation has been switched on.
+	 * <p>Waits for all groups to be done before returning, rethrowing the
+	 * first failure (in registration order of the groups) if any.
+	 * @param beanNames the names of all bean definitions, in registration order
+	 * @param executor the Executor to submit the initialization tasks to
+	 * @see #setBootstrapExecutor
+	 */
+	private void preInstantiateSingletonsInParallel(List<String> beanNames, Executor executor) {
+		if (!isConcurrentSingletonCreation()) {
+			if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Not pre-instantiating singletons in parallel: " +
+						"concurrent singleton creation not switched on for " + this);
+			}
+			for (String beanName : beanNames) {
+				preInstantiateSingleton(beanName);
+			}
+			return;
+		}
+		List<List<String>> groups = determineIndependentSingletonGroups(beanNames);
+		if (groups.size() < 2) {
+			for (String beanName : beanNames) {
+				preInstantiateSingleton(beanName);
+			}
+			return;
+		}
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug("Pre-instantiating " + groups.size() + " independent groups of singletons in parallel");
+		}
+
+		List<FutureTask<Void>> tasks = new ArrayList<FutureTask<Void>>(groups.size());
+		for (final List<String> group : groups) {
+			FutureTask<Void> task = new FutureTask<Void>(new Callable<Void>() {
+				@Override
+				public Void call() {
+					for (String beanName : group) {
+						preInstantiateSingleton(beanName);
+					}
+					return null;
+				}
+			});
+			tasks.add(task);
+			try {
+				executor.execute(task);
+			}
+			catch (RejectedExecutionException ex) {
+				// Executor saturated -> initialize this group in the calling thread.
+				task.run();
+			}
+		}
+
+		Throwable failure = null;
+		for (FutureTask<Void> task : tasks) {
+			try {
+				task.get();
+			}
+			catch (ExecutionException ex) {
+				if (failure == null) {
+					failure = ex.getCause();
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				for (FutureTask<Void> taskToCancel : tasks) {
+					taskToCancel.cancel(true);
+				}
+				throw new IllegalStateException("Interrupted while pre-instantiating singletons in parallel", ex);
+			}
+		}
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		if (failure != null) {
+			throw new IllegalStateException("Failed to pre-instantiate singletons in parallel", failure);
+		}
+	}
+
+	/**
+	 * Split the non-lazy singletons among the given beans into groups which
+	 * do not refer to each other, neither directly nor through other beans.
+	 * <p>References are derived from the bean definitions only: "depends-on"
+	 * declarations, factory beans and bean references in property values and
+	 * constructor arguments, including inner bean definitions and managed
+	 * collections. This is a heuristic since injection points resolved at
+	 * creation time (autowiring, {@code @Resource}) are not visible here.
+	 * @param beanNames the names of all bean definitions, in registration order
+	 * @return the groups of non-lazy singleton names, each in registration order
+	 */
+	private List<List<String>> determineIndependentSingletonGroups(List<String> beanNames) {
+		Map<String, String> parents = new HashMap<String, String>(beanNames.size());
+		List<String> singletonNames = new ArrayList<String>(beanNames.size());
+		for (String beanName : beanNames) {
+			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+			if (bd.isAbstract()) {
+				continue;
+			}
+			if (bd.isSingleton() && !bd.isLazyInit()) {
+				singletonNames.add(beanName);
+			}
+			Set<String> referencedBeanNames = new LinkedHashSet<String>();
+			collectReferencedBeanNames(bd, referencedBeanNames);
+			for (String referencedBeanName : referencedBeanNames) {
+				union(parents, beanName, transformedBeanName(referencedBeanName));
+			}
+		}
+
+		Map<String, List<String>> groups = new LinkedHashMap<String, List<String>>();
+		for (String beanName : singletonNames) {
+			String root = findRoot(parents, beanName);
+			List<String> group = groups.get(root);
+			if (group == null) {
+				group = new ArrayList<String>();
+				groups.put(root, group);
+			}
+			group.add(beanName);
+		}
+		return new ArrayList<List<String>>(groups.values());
+	}
+
+	/**
+	 * Collect the names of all beans that the given bean definition metadata
+	 * element refers to, recursing into inner beans and managed collections.
+	 */
+	private void collectReferencedBeanNames(Object value, Set<String> referencedBeanNames) {
+		if (value instanceof BeanReference) {
+			referencedBeanNames.add(((BeanReference) value).getBeanName());
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			collectReferencedBeanNames(((BeanDefinitionHolder) value).getBeanDefinition(), referencedBeanNames);
+		}
+		else if (value instanceof BeanDefinition) {
+			BeanDefinition bd = (BeanDefinition) value;
+			if (bd.getDependsOn() != null) {
+				referencedBeanNames.addAll(Arrays.asList(bd.getDependsOn()));
+			}
+			if (bd.getFactoryBeanName() != null) {
+				referencedBeanNames.add(bd.getFactoryBeanName());
+			}
+			for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+				collectReferencedBeanNames(pv.getValue(), referencedBeanNames);
+			}
+			ConstructorArgumentValues cargs = bd.getConstructorArgumentValues();
+			for (ConstructorArgumentValues.ValueHolder valueHolder : cargs.getIndexedArgumentValues().values()) {
+				collectReferencedBeanNames(valueHolder.getValue(), referencedBeanNames);
+			}
+			for (ConstructorArgumentValues.ValueHolder valueHolder : cargs.getGenericArgumentValues()) {
+				collectReferencedBeanNames(valueHolder.getValue(), referencedBeanNames);
+			}
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				collectReferencedBeanNames(element, referencedBeanNames);
+			}
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				collectReferencedBeanNames(entry.getKey(), referencedBeanNames);
+				collectReferencedBeanNames(entry.getValue(), referencedBeanNames);
+			}
+		}
+		else if (value instanceof Object[]) {
+			for (Object element : (Object[]) value) {
+				collectReferencedBeanNames(element, referencedBeanNames);
+			}
+		}
+	}
+
+	private static void union(Map<String, String> parents, String beanName, String otherBeanName) {
+		String root = findRoot(parents, beanName);
+		String otherRoot = findRoot(parents, otherBeanName);
+		if (!root.equals(otherRoot)) {
+			parents.put(otherRoot, root);
+		}
+	}
+
+	private static String findRoot(Map<String, String> parents, String beanName) {
+		String root = beanName;
+		String parent = parents.get(root);
+		while (parent != null) {
+			root = parent;
+			parent = parents.get(root);
+		}
+		// Path compression for subsequent lookups
+		String current = beanName;
+		while (!current.equals(root)) {
+			String next = parents.get(current);
+			parents.put(current, root);
+			current = next;
+		}
+		return root;
+	}
+
+
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
 	//---------------------------------------------------------------------
@@ -867,6 +1236,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		if (oldBeanDefinition != null || containsSingleton(beanName)) {
 			resetBeanDefinition(beanName);
 		}
+		else if (isConfigurationFrozen()) {
+			clearByTypeCache();
+		}
 	}
 
 	@Override
@@ -956,6 +1328,18 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		clearByTypeCache();
 	}
 
+	@Override
+	protected void addSingleton(String beanName, Object singletonObject) {
+		synchronized (getSingletonMutex()) {
+			super.addSingleton(beanName, singletonObject);
+			// The instance may expose further types than predicted (e.g. a proxy)
+			BeanTypeIndex typeIndex = this.beanTypeIndex;
+			if (typeIndex != null) {
+				typeIndex.addSingleton(beanName, singletonObject);
+			}
+		}
+	}
+
 	@Override
 	public void destroySingleton(String beanName) {
 		super.destroySingleton(beanName);
@@ -976,6 +1360,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	private void clearByTypeCache() {
 		this.allBeanNamesByType.clear();
 		this.singletonBeanNamesByType.clear();
+		this.autowireCandidateNamesCache.clear();
+		this.beanTypeIndexGeneration++;
+		this.beanTypeIndex = null;
 	}
 
 
@@ -1257,19 +1644,26 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	protected Map<String, Object> findAutowireCandidates(
 			String beanName, Class<?> requiredType, DependencyDescriptor descriptor) {
 
-		String[] candidateNames = BeanFactoryUtils.beanNamesForTypeIncludingAncestors(
-				this, requiredType, true, descriptor.isEager());
-		Map<String, Object> result = new LinkedHashMap<String, Object>(candidateNames.length);
-		for (Class<?> autowiringType : this.resolvableDependencies.keySet()) {
-			if (autowiringType.isAssignableFrom(requiredType)) {
-				Object autowiringValue = this.resolvableDependencies.get(autowiringType);
-				autowiringValue = AutowireUtils.resolveAutowiringValue(autowiringValue, requiredType);
-				if (requiredType.isInstance(autowiringValue)) {
-					result.put(ObjectUtils.identityToString(autowiringValue), autowiringValue);
-					break;
+		AutowireCandidatesKey cacheKey = null;
+		if (isAutowireCandidateCacheable(beanName, descriptor)) {
+			cacheKey = new AutowireCandidatesKey(beanName, requiredType, descriptor);
+			String[] cachedNames = this.autowireCandidateNamesCache.get(cacheKey);
+			if (cachedNames != null) {
+				// Same injection point against unchanged bean definitions:
+				// skip the by-type lookup and the candidate checks.
+				Map<String, Object> result = new LinkedHashMap<String, Object>(cachedNames.length + 1);
+				addResolvableDependency(result, requiredType);
+				for (String candidate : cachedNames) {
+					addCandidateEntry(result, candidate, descriptor, requiredType);
 				}
+				return result;
 			}
 		}
+
+		String[] candidateNames = BeanFactoryUtils.beanNamesForTypeIncludingAncestors(
+				this, requiredType, true, descriptor.isEager());
+		Map<String, Object> result = new LinkedHashMap<String, Object>(candidateNames.length);
+		boolean resolvableDependencyFound = addResolvableDependency(result, requiredType);
 		for (String candidate : candidateNames) {
 			if (!isSelfReference(beanName, candidate) && isAutowireCandidate(candidate, descriptor)) {
 				addCandidateEntry(result, candidate, descriptor, requiredType);
@@ -1295,9 +1689,51 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				}
 			}
 		}
+		if (cacheKey != null) {
+			List<String> matchingNames = new ArrayList<String>(result.keySet());
+			if (resolvableDependencyFound) {
+				matchingNames.remove(0);
+			}
+			this.autowireCandidateNamesCache.put(cacheKey, StringUtils.toStringArray(matchingNames));
+		}
 		return result;
 	}
 
+	/**
+	 * Add a matching resolvable dependency (registered through
+	 * {@link #registerResolvableDependency}) to the given candidate map, if any.
+	 * @return whether a resolvable dependency has been added
+	 */
+	private boolean addResolvableDependency(Map<String, Object> candidates, Class<?> requiredType) {
+		for (Class<?> autowiringType : this.resolvableDependencies.keySet()) {
+			if (autowiringType.isAssignableFrom(requiredType)) {
+				Object autowiringValue = this.resolvableDependencies.get(autowiringType);
+				autowiringValue = AutowireUtils.resolveAutowiringValue(autowiringValue, requiredType);
+				if (requiredType.isInstance(autowiringValue)) {
+					candidates.put(ObjectUtils.identityToString(autowiringValue), autowiringValue);
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Determine whether the autowire candidate names for the given injection point
+	 * may be cached: only for eager lookups on behalf of a specific bean, once the
+	 * configuration of this factory has been frozen.
+	 * <p>The cache gets cleared on any change to bean definitions or manually
+	 * registered singletons, so that repeated creation of prototype and scoped
+	 * beans does not have to go through {@link #getBeanNamesForType} again.
+	 * Factories with a parent do not cache at all, since changes to the parent
+	 * (e.g. singletons registered later on) would not be noticed here.
+	 */
+	private boolean isAutowireCandidateCacheable(String beanName, DependencyDescriptor descriptor) {
+		return (beanName != null && descriptor.isEager() && isConfigurationFrozen() &&
+				getParentBeanFactory() == null &&
+				(descriptor.getField() != null || descriptor.getMethodParameter() != null));
+	}
+
 	/**
 	 * Add an entry to the candidate map: a bean instance if available or just the resolved
 	 * type, preventing early bean initialization ahead of primary candidate selection.
@@ -1766,4 +2202,150 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 	}
 
+
+	/**
+	 * Index of bean names by class hierarchy and interfaces, serving as a pre-filter
+	 * for type lookups in case of frozen configuration: every candidate still goes
+	 * through regular type matching (including generics), while beans whose type
+	 * cannot be reliably determined upfront are candidates for any type.
+	 * <p>Types are only ever added for a given bean, so the index may match
+	 * more beans than necessary but never misses a bean of the requested type.
+	 */
+	private static class BeanTypeIndex {
+
+		private final String[] beanNames;
+
+		private final Map<String, Integer> beanPositions;
+
+		private final Map<Class<?>, BitSet> beansByType = new HashMap<Class<?>, BitSet>(256);
+
+		private final BitSet unindexedBeans = new BitSet();
+
+		public BeanTypeIndex(String[] beanNames) {
+			this.beanNames = beanNames;
+			this.beanPositions = new HashMap<String, Integer>(beanNames.length * 2);
+			for (int i = 0; i < beanNames.length; i++) {
+				this.beanPositions.put(beanNames[i], i);
+			}
+		}
+
+		public synchronized void addSingleton(String beanName, Object singletonObject) {
+			if (singletonObject == null || singletonObject instanceof FactoryBean) {
+				addUnindexedBean(beanName);
+			}
+			else {
+				addType(beanName, singletonObject.getClass());
+			}
+		}
+
+		public synchronized void addType(String beanName, Class<?> type) {
+			if (type.isArray()) {
+				// Array covariance is not reflected in the type hierarchy
+				addUnindexedBean(beanName);
+				return;
+			}
+			Integer position = this.beanPositions.get(beanName);
+			if (position != null) {
+				addTypeHierarchy(ClassUtils.resolvePrimitiveIfNecessary(type), position);
+			}
+		}
+
+		private void addTypeHierarchy(Class<?> type, int position) {
+			if (type == null || type == Object.class) {
+				return;
+			}
+			BitSet beans = this.beansByType.get(type);
+			if (beans == null) {
+				beans = new BitSet(this.beanNames.length);
+				this.beansByType.put(type, beans);
+			}
+			else if (beans.get(position)) {
+				return;
+			}
+			beans.set(position);
+			addTypeHierarchy(type.getSuperclass(), position);
+			for (Class<?> ifc : type.getInterfaces()) {
+				addTypeHierarchy(ifc, position);
+			}
+		}
+
+		public synchronized void addUnindexedBean(String beanName) {
+			Integer position = this.beanPositions.get(beanName);
+			if (position != null) {
+				this.unindexedBeans.set(position);
+			}
+		}
+
+		public synchronized List<String> getCandidateNames(Class<?> type) {
+			BitSet candidates = (BitSet) this.unindexedBeans.clone();
+			BitSet beans = this.beansByType.get(type);
+			if (beans != null) {
+				candidates.or(beans);
+			}
+			List<String> candidateNames = new ArrayList<String>(candidates.cardinality());
+			for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+				candidateNames.add(this.beanNames[i]);
+			}
+			return candidateNames;
+		}
+	}
+
+
+	/**
+	 * Cache key for the autowire candidates of a specific injection point,
+	 * capturing the descriptor state at lookup time (since descriptors are mutable).
+	 */
+	private static final class AutowireCandidatesKey {
+
+		private final String beanName;
+
+		private final Class<?> requiredType;
+
+		private final Class<?> descriptorType;
+
+		private final Object member;
+
+		private final int parameterIndex;
+
+		private final Class<?> dependencyType;
+
+		private final boolean required;
+
+		public AutowireCandidatesKey(String beanName, Class<?> requiredType, DependencyDescriptor descriptor) {
+			this.beanName = beanName;
+			this.requiredType = requiredType;
+			this.descriptorType = descriptor.getClass();
+			if (descriptor.getField() != null) {
+				this.member = descriptor.getField();
+				this.parameterIndex = -1;
+			}
+			else {
+				this.member = descriptor.getMethodParameter().getMember();
+				this.parameterIndex = descriptor.getMethodParameter().getParameterIndex();
+			}
+			this.dependencyType = descriptor.getDependencyType();
+			this.required = descriptor.isRequired();
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof AutowireCandidatesKey)) {
+				return false;
+			}
+			AutowireCandidatesKey otherKey = (AutowireCandidatesKey) other;
+			return (this.member.equals(otherKey.member) && this.parameterIndex == otherKey.parameterIndex &&
+					this.beanName.equals(otherKey.beanName) && this.requiredType == otherKey.requiredType &&
+					this.descriptorType == otherKey.descriptorType &&
+					this.dependencyType == otherKey.dependencyType && this.required == otherKey.required);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.member.hashCode() * 29 + this.beanName.hashCode()) * 29 + this.requiredType.hashCode();
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -89,7 +90,7 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Map<String, ObjectFactory<?>> singletonFactories = new HashMap<String, ObjectFactory<?>>(16);
 
 	/** Cache of early singleton objects: bean name --> bean instance */
-	private final Map<String, Object> earlySingletonObjects = new HashMap<String, Object>(16);
+	private final Map<String, Object> earlySingletonObjects = new ConcurrentHashMap<String, Object>(16);
 
 	/** Set of registered singletons, containing the bean names in registration order */
 	private final Set<String> registeredSingletons = new LinkedHashSet<String>(256);
@@ -98,6 +99,19 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Set<String> singletonsCurrentlyInCreation =
 			Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>(16));
 
+	/** Threads currently creating singleton beans: bean name --> creating thread */
+	private final Map<String, Thread> singletonCreationThreads = new ConcurrentHashMap<String, Thread>(16);
+
+	/** Creation locks for singletons created in concurrent mode: bean name --> creation lock */
+	private final ConcurrentMap<String, SingletonCreation> singletonCreations =
+			new ConcurrentHashMap<String, SingletonCreation>(16);
+
+	/** Threads waiting for a singleton being created in another thread: waiting thread --> creating thread */
+	private final Map<Thread, Thread> singletonCreationWaits = new ConcurrentHashMap<Thread, Thread>(16);
+
+	/** Whether singletons may currently be created by several threads concurrently */
+	private volatile boolean concurrentSingletonCreation = false;
+
 	/** Names of beans currently excluded from in creation checks */
 	private final Set<String> inCreationCheckExclusions =
 			Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>(16));
@@ -184,14 +198,26 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	protected Object getSingleton(String beanName, boolean allowEarlyReference) {
 		Object singletonObject = this.singletonObjects.get(beanName);
 		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
-			synchronized (this.singletonObjects) {
-				singletonObject = this.earlySingletonObjects.get(beanName);
-				if (singletonObject == null && allowEarlyReference) {
-					ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-					if (singletonFactory != null) {
-						singletonObject = singletonFactory.getObject();
-						this.earlySingletonObjects.put(beanName, singletonObject);
-						this.singletonFactories.remove(beanName);
+			if (!isEarlySingletonAccessible(beanName)) {
+				// Currently in creation by another thread: the caller is supposed
+				// to wait for the fully initialized instance instead.
+				return null;
+			}
+			singletonObject = this.earlySingletonObjects.get(beanName);
+			if (singletonObject == null && allowEarlyReference) {
+				synchronized (this.singletonObjects) {
+					// Re-check within the lock: the early reference needs to be created only once.
+					singletonObject = this.singletonObjects.get(beanName);
+					if (singletonObject == null) {
+						singletonObject = this.earlySingletonObjects.get(beanName);
+						if (singletonObject == null) {
+							ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+							if (singletonFactory != null) {
+								singletonObject = singletonFactory.getObject();
+								this.earlySingletonObjects.put(beanName, singletonObject);
+								this.singletonFactories.remove(beanName);
+							}
+						}
 					}
 				}
 			}
@@ -209,6 +235,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "'beanName' must not be null");
+		if (this.concurrentSingletonCreation || this.singletonCreations.containsKey(beanName)) {
+			return getSingletonConcurrently(beanName, singletonFactory);
+		}
 		synchronized (this.singletonObjects) {
 			Object singletonObject = this.singletonObjects.get(beanName);
 			if (singletonObject == null) {
@@ -260,6 +289,197 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 	}
 
+	/**
+	 * Variant of {@link #getSingleton(String, ObjectFactory)} for concurrent
+	 * singleton creation: the singleton factory gets invoked outside of the
+	 * singleton lock, guarded by a creation lock for the given bean only,
+	 * with other threads asking for the same singleton waiting for the creating
+	 * thread to finish.
+	 * <p>A circular reference between singletons in creation in different threads
+	 * is resolved through an early singleton reference, just like it would be within
+	 * a single thread; if none is available, a {@link BeanCurrentlyInCreationException}
+	 * is thrown instead of waiting forever.
+	 * @param beanName the name of the bean
+	 * @param singletonFactory the ObjectFactory to lazily create the singleton
+	 * with, if necessary
+	 * @return the registered singleton object
+	 */
+	private Object getSingletonConcurrently(String beanName, ObjectFactory<?> singletonFactory) {
+		Thread currentThread = Thread.currentThread();
+		SingletonCreation creation = new SingletonCreation(currentThread);
+		Object singletonObject = this.singletonObjects.get(beanName);
+		while (singletonObject == null) {
+			SingletonCreation existingCreation = this.singletonCreations.putIfAbsent(beanName, creation);
+			if (existingCreation == null) {
+				break;
+			}
+			if (existingCreation.thread == currentThread) {
+				// Re-entrant creation request: fails in beforeSingletonCreation unless excluded from the check.
+				creation = null;
+				break;
+			}
+			singletonObject = awaitSingletonCreation(beanName, existingCreation);
+			if (singletonObject == null) {
+				singletonObject = this.singletonObjects.get(beanName);
+			}
+		}
+		if (singletonObject == null && creation != null) {
+			// The singleton may have been registered before we obtained the creation lock.
+			singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject != null) {
+				releaseSingletonCreation(beanName, creation);
+			}
+		}
+		if (singletonObject != null) {
+			return (singletonObject != NULL_OBJECT ? singletonObject : null);
+		}
+
+		boolean newSingleton = false;
+		try {
+			if (this.singletonsCurrentlyInDestruction) {
+				throw new BeanCreationNotAllowedException(beanName,
+						"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+						"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Creating shared instance of singleton bean '" + beanName + "' in thread '" +
+						currentThread.getName() + "'");
+			}
+			beforeSingletonCreation(beanName);
+			try {
+				singletonObject = singletonFactory.getObject();
+				newSingleton = true;
+			}
+			catch (IllegalStateException ex) {
+				// Has the singleton object implicitly appeared in the meantime ->
+				// if yes, proceed with it since the exception indicates that state.
+				singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject == null) {
+					throw ex;
+				}
+			}
+			finally {
+				afterSingletonCreation(beanName);
+			}
+			if (newSingleton) {
+				addSingleton(beanName, singletonObject);
+			}
+		}
+		finally {
+			// Waiting threads only proceed once the new singleton has been registered.
+			if (creation != null) {
+				releaseSingletonCreation(beanName, creation);
+			}
+		}
+		return (singletonObject != NULL_OBJECT ? singletonObject : null);
+	}
+
+	/**
+	 * Wait for the given creation of a singleton in another thread to finish.
+	 * @param beanName the name of the singleton in creation
+	 * @param creation the creation lock held by the creating thread
+	 * @return an early reference to the singleton in case of a circular reference
+	 * between threads, or {@code null} once the creating thread is done
+	 */
+	private Object awaitSingletonCreation(String beanName, SingletonCreation creation) {
+		Thread currentThread = Thread.currentThread();
+		this.singletonCreationWaits.put(currentThread, creation.thread);
+		try {
+			if (isWaitingFor(creation.thread, currentThread)) {
+				// Circular reference between threads -> resolve through early reference.
+				Object singletonObject = getSingleton(beanName, true);
+				if (singletonObject == null) {
+					throw new BeanCurrentlyInCreationException(beanName);
+				}
+				return singletonObject;
+			}
+			// Wait on the singleton lock, releasing it in case the current thread holds it
+			// already (e.g. for FactoryBean object retrieval), since the creating thread
+			// needs to obtain it for registering the singleton.
+			synchronized (this.singletonObjects) {
+				while (!creation.released) {
+					this.singletonObjects.wait();
+				}
+			}
+			return null;
+		}
+		catch (InterruptedException ex) {
+			currentThread.interrupt();
+			throw new BeanCreationException(beanName, "Interrupted while waiting for singleton creation in thread '" +
+					creation.thread.getName() + "'");
+		}
+		finally {
+			this.singletonCreationWaits.remove(currentThread);
+		}
+	}
+
+	private void releaseSingletonCreation(String beanName, SingletonCreation creation) {
+		this.singletonCreations.remove(beanName, creation);
+		synchronized (this.singletonObjects) {
+			creation.released = true;
+			this.singletonObjects.notifyAll();
+		}
+	}
+
+	/**
+	 * Determine whether the current thread may obtain an early reference to the
+	 * given singleton, i.e. whether it is in creation within the current thread or
+	 * in a thread which (transitively) waits for the current thread.
+	 * @param beanName the name of the singleton currently in creation
+	 */
+	private boolean isEarlySingletonAccessible(String beanName) {
+		Thread creatingThread = this.singletonCreationThreads.get(beanName);
+		Thread currentThread = Thread.currentThread();
+		return (creatingThread == null || creatingThread == currentThread || isWaitingFor(creatingThread, currentThread));
+	}
+
+	/**
+	 * Determine whether the given thread waits for a singleton in creation
+	 * within the target thread, either directly or through other waiting threads.
+	 */
+	private boolean isWaitingFor(Thread thread, Thread targetThread) {
+		Thread current = this.singletonCreationWaits.get(thread);
+		if (current == null) {
+			return false;
+		}
+		// Threads about to detect a cycle may briefly form one in the chain of waits.
+		Set<Thread> seen = new HashSet<Thread>();
+		while (current != null && seen.add(current)) {
+			if (current == targetThread) {
+				return true;
+			}
+			current = this.singletonCreationWaits.get(current);
+		}
+		return false;
+	}
+
+	/**
+	 * Specify whether singletons may be created by several threads concurrently,
+	 * e.g. during parallel pre-instantiation of independent singletons or for
+	 * lazy-init singletons requested by several worker threads.
+	 * <p>In concurrent mode, singleton creation does not hold the singleton lock
+	 * but a creation lock for the specific bean only, so that unrelated singletons
+	 * can be created in parallel: threads asking for a singleton in creation in
+	 * another thread wait for it to be fully initialized instead of receiving an
+	 * early reference, unless a circular reference between the threads needs to
+	 * be resolved.
+	 * <p>Default is "false", creating singletons within the singleton lock.
+	 * Not exposed as public configuration: to be switched on by subclasses
+	 * which know that their singletons are safe to create concurrently.
+	 * @since 4.3.8
+	 */
+	protected void setConcurrentSingletonCreation(boolean concurrentSingletonCreation) {
+		this.concurrentSingletonCreation = concurrentSingletonCreation;
+	}
+
+	/**
+	 * Return whether singletons may currently be created by several threads concurrently.
+	 * @since 4.3.8
+	 */
+	protected boolean isConcurrentSingletonCreation() {
+		return this.concurrentSingletonCreation;
+	}
+
 	/**
 	 * Register an Exception that happened to get suppressed during the creation of a
 	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
@@ -343,8 +563,11 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @see #isSingletonCurrentlyInCreation
 	 */
 	protected void beforeSingletonCreation(String beanName) {
-		if (!this.inCreationCheckExclusions.contains(beanName) && !this.singletonsCurrentlyInCreation.add(beanName)) {
-			throw new BeanCurrentlyInCreationException(beanName);
+		if (!this.inCreationCheckExclusions.contains(beanName)) {
+			if (!this.singletonsCurrentlyInCreation.add(beanName)) {
+				throw new BeanCurrentlyInCreationException(beanName);
+			}
+			this.singletonCreationThreads.put(beanName, Thread.currentThread());
 		}
 	}
 
@@ -355,8 +578,11 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 * @see #isSingletonCurrentlyInCreation
 	 */
 	protected void afterSingletonCreation(String beanName) {
-		if (!this.inCreationCheckExclusions.contains(beanName) && !this.singletonsCurrentlyInCreation.remove(beanName)) {
-			throw new IllegalStateException("Singleton '" + beanName + "' isn't currently in creation");
+		if (!this.inCreationCheckExclusions.contains(beanName)) {
+			this.singletonCreationThreads.remove(beanName);
+			if (!this.singletonsCurrentlyInCreation.remove(beanName)) {
+				throw new IllegalStateException("Singleton '" + beanName + "' isn't currently in creation");
+			}
 		}
 	}
 
@@ -617,4 +843,21 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		return this.singletonObjects;
 	}
 
+
+	/**
+	 * Creation lock for a singleton created in concurrent mode,
+	 * held by the creating thread until the singleton has been registered.
+	 * Waiting and release happen on the singleton lock.
+	 */
+	private static class SingletonCreation {
+
+		final Thread thread;
+
+		boolean released;
+
+		public SingletonCreation(Thread thread) {
+			this.thread = thread;
+		}
+	}
+
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.cglib.reflect.FastClass;
+import org.springframework.cglib.reflect.FastConstructor;
+import org.springframework.cglib.reflect.FastMember;
+import org.springframework.cglib.reflect.FastMethod;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Instantiation strategy which invokes bean constructors and factory methods
+ * through CGLIB {@link FastClass} accessors instead of Java reflection: the
+ * accessor class gets generated on first use of a given bean class, avoiding
+ * reflective invocation overhead for frequently created prototype and scoped beans.
+ *
+ * <p>Falls back to regular reflection for members that a generated accessor cannot
+ * invoke, e.g. private constructors or classes loaded by the bootstrap class loader,
+ * as well as in case of accessor generation failure. Method Injection is supported
+ * through the {@link CglibSubclassingInstantiationStrategy} base class.
+ *
+ * <p>Can be set on an {@link AbstractAutowireCapableBeanFactory} explicitly, or be
+ * activated by default through the {@link #FAST_CLASS_PROPERTY_NAME} property.
+ *
+ * @author agent
+ * @since 4.3.8
+ * @see AbstractAutowireCapableBeanFactory#setInstantiationStrategy
+ */
+public class FastClassInstantiationStrategy extends CglibSubclassingInstantiationStrategy {
+
+	/**
+	 * System property that instructs Spring to use this strategy as the default
+	 * for {@link AbstractAutowireCapableBeanFactory}: "spring.beans.fastclass".
+	 * <p>The default is "false", sticking with reflective instantiation.
+	 * @see org.springframework.core.SpringProperties
+	 */
+	public static final String FAST_CLASS_PROPERTY_NAME = "spring.beans.fastclass";
+
+	/** Marker for members which need to be invoked reflectively */
+	private static final Object NO_FAST_MEMBER = new Object();
+
+	private static final Log logger = LogFactory.getLog(FastClassInstantiationStrategy.class);
+
+
+	/** Cache of FastConstructor/FastMethod accessors, keyed by Constructor/Method */
+	private final Map<Member, Object> fastMemberCache = new ConcurrentReferenceHashMap<Member, Object>(256);
+
+
+	@Override
+	protected Object instantiateClass(Constructor<?> ctor, Object... args) throws BeanInstantiationException {
+		Object fastMember = getFastMember(ctor);
+		if (fastMember == NO_FAST_MEMBER) {
+			return super.instantiateClass(ctor, args);
+		}
+		try {
+			return ((FastConstructor) fastMember).newInstance(args);
+		}
+		catch (InvocationTargetException ex) {
+			throw new BeanInstantiationException(ctor, "Constructor threw exception", ex.getTargetException());
+		}
+	}
+
+	@Override
+	protected Object invokeFactoryMethod(Object factoryBean, Method factoryMethod, Object... args)
+			throws IllegalAccessException, InvocationTargetException {
+
+		Object fastMember = getFastMember(factoryMethod);
+		if (fastMember == NO_FAST_MEMBER) {
+			return super.invokeFactoryMethod(factoryBean, factoryMethod, args);
+		}
+		return ((FastMethod) fastMember).invoke(factoryBean, args);
+	}
+
+	/**
+	 * Obtain the generated accessor for the given constructor or method.
+	 * @return the FastConstructor or FastMethod, or {@link #NO_FAST_MEMBER}
+	 * if the member needs to be invoked reflectively
+	 */
+	private Object getFastMember(Member member) {
+		Object fastMember = this.fastMemberCache.get(member);
+		if (fastMember == null) {
+			fastMember = createFastMember(member);
+			this.fastMemberCache.put(member, fastMember);
+		}
+		return fastMember;
+	}
+
+	private Object createFastMember(Member member) {
+		Class<?> clazz = member.getDeclaringClass();
+		if (Modifier.isPrivate(member.getModifiers()) || clazz.isInterface() ||
+				(member instanceof Constructor && Modifier.isAbstract(clazz.getModifiers())) ||
+				clazz.getClassLoader() == null || clazz.getName().startsWith("java.") ||
+				System.getSecurityManager() != null) {
+			return NO_FAST_MEMBER;
+		}
+		try {
+			FastClass fastClass = FastClass.create(clazz.getClassLoader(), clazz);
+			FastMember fastMember = (member instanceof Constructor ?
+					fastClass.getConstructor((Constructor<?>) member) : fastClass.getMethod((Method) member));
+			return (fastMember.getIndex() >= 0 ? fastMember : NO_FAST_MEMBER);
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not generate FastClass accessor for [" + member + "] - using reflection", ex);
+			}
+			return NO_FAST_MEMBER;
+		}
+	}
+
+}
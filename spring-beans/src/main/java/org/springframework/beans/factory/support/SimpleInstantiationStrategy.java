@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -86,7 +86,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					}
 				}
 			}
-			return BeanUtils.instantiateClass(constructorToUse);
+			return instantiateClass(constructorToUse);
 		}
 		else {
 			// Must generate CGLIB subclass.
@@ -119,7 +119,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 					}
 				});
 			}
-			return BeanUtils.instantiateClass(ctor, args);
+			return instantiateClass(ctor, args);
 		}
 		else {
 			return instantiateWithMethodInjection(bd, beanName, owner, ctor, args);
@@ -159,7 +159,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 			Method priorInvokedFactoryMethod = currentlyInvokedFactoryMethod.get();
 			try {
 				currentlyInvokedFactoryMethod.set(factoryMethod);
-				return factoryMethod.invoke(factoryBean, args);
+				return invokeFactoryMethod(factoryBean, factoryMethod, args);
 			}
 			finally {
 				if (priorInvokedFactoryMethod != null) {
@@ -190,4 +190,35 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 		}
 	}
 
+	/**
+	 * Create a new instance through the given constructor.
+	 * <p>The default implementation uses {@link BeanUtils#instantiateClass(Constructor, Object...)}.
+	 * Subclasses may override this to use a different invocation mechanism.
+	 * @param ctor the constructor to invoke
+	 * @param args the constructor arguments to apply
+	 * @return the new instance
+	 * @throws BeanInstantiationException if the instantiation failed
+	 * @since 4.3.8
+	 */
+	protected Object instantiateClass(Constructor<?> ctor, Object... args) throws BeanInstantiationException {
+		return BeanUtils.instantiateClass(ctor, args);
+	}
+
+	/**
+	 * Invoke the given factory method, which has already been made accessible.
+	 * <p>The default implementation uses {@link Method#invoke}.
+	 * Subclasses may override this to use a different invocation mechanism.
+	 * @param factoryBean the factory bean instance to call the factory method on,
+	 * or {@code null} in case of a static factory method
+	 * @param factoryMethod the factory method to invoke
+	 * @param args the factory method arguments to apply
+	 * @return the object returned by the factory method
+	 * @since 4.3.8
+	 */
+	protected Object invokeFactoryMethod(Object factoryBean, Method factoryMethod, Object... args)
+			throws IllegalAccessException, InvocationTargetException {
+
+		return factoryMethod.invoke(factoryBean, args);
+	}
+
 }
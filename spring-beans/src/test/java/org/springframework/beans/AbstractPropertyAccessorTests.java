@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -756,6 +756,44 @@ public abstract class AbstractPropertyAccessorTests {
 
 	}
 
+	@Test
+	public void setPrimitivePropertiesFromSpecialText() {
+		NumberPropertyBean target = new NumberPropertyBean();
+		AbstractPropertyAccessor accessor = createAccessor(target);
+
+		accessor.setPropertyValue("myPrimitiveInt", "0x10");
+		accessor.setPropertyValue("myLong", "-#10");
+		accessor.setPropertyValue("myInteger", " ");
+		assertEquals(16, target.getMyPrimitiveInt());
+		assertEquals(-16L, target.getMyLong().longValue());
+		assertNull(target.getMyInteger());
+
+		try {
+			accessor.setPropertyValue("myPrimitiveInt", "");
+			fail("Should have thrown TypeMismatchException");
+		}
+		catch (TypeMismatchException ex) {
+			assertTrue(ex.getCause() instanceof NumberFormatException);
+		}
+	}
+
+	@Test
+	public void setPrimitivePropertyWithOverriddenDefaultEditor() {
+		NumberPropertyBean target = new NumberPropertyBean();
+		AbstractPropertyAccessor accessor = createAccessor(target);
+		accessor.overrideDefaultEditor(int.class, new PropertyEditorSupport() {
+			@Override
+			public void setAsText(String text) {
+				setValue(text.length());
+			}
+		});
+
+		accessor.setPropertyValue("myPrimitiveInt", "abc");
+		accessor.setPropertyValue("myInteger", "42");
+		assertEquals(3, target.getMyPrimitiveInt());
+		assertEquals(42, target.getMyInteger().intValue());
+	}
+
 	@Test
 	public void setEnumProperty() {
 		EnumTester target = new EnumTester();
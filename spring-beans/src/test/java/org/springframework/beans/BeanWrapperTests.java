@@ -215,6 +215,20 @@ public class BeanWrapperTests extends AbstractPropertyAccessorTests {
 		}
 	}
 
+	@Test
+	public void propertyAccessorForPropertyPath() {
+		TestBean target = new TestBean();
+		TestBean spouse = new TestBean();
+		target.setSpouse(spouse);
+		BeanWrapperImpl accessor = new BeanWrapperImpl(target);
+
+		assertSame(accessor, accessor.getPropertyAccessorForPropertyPath("name"));
+		assertSame(spouse, accessor.getPropertyAccessorForPropertyPath("spouse.name").getWrappedInstance());
+		accessor.setPropertyValue("spouse.name", "y");
+		assertEquals("y", accessor.getPropertyValue("spouse.name"));
+		assertEquals("y", spouse.getName());
+	}
+
 
 	@SuppressWarnings("unused")
 	private interface AliasedProperty {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,10 +19,14 @@ package org.springframework.beans;
 import java.beans.BeanInfo;
 import java.beans.PropertyDescriptor;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import org.junit.Test;
 
 import org.springframework.core.OverridingClassLoader;
+import org.springframework.tests.sample.beans.DerivedTestBean;
+import org.springframework.tests.sample.beans.IndexedTestBean;
 import org.springframework.tests.sample.beans.TestBean;
 
 import static org.hamcrest.CoreMatchers.*;
@@ -93,4 +97,113 @@ public class CachedIntrospectionResultsTests {
 				pd.getWriteMethod(), equalTo(C.class.getMethod("setFoo", String.class)));
 	}
 
+	@Test
+	public void cacheMissCount() {
+		long misses = CachedIntrospectionResults.getCacheMissCount();
+		CachedIntrospectionResults.clearClassLoader(getClass().getClassLoader());
+
+		CachedIntrospectionResults results = CachedIntrospectionResults.forClass(CountedBean.class);
+		assertEquals(misses + 1, CachedIntrospectionResults.getCacheMissCount());
+		assertSame(results, CachedIntrospectionResults.forClass(CountedBean.class));
+		assertEquals(misses + 1, CachedIntrospectionResults.getCacheMissCount());
+		assertTrue(CachedIntrospectionResults.getCacheSize() > 0);
+	}
+
+	@Test
+	public void lightweightIntrospectionMatchesIntrospector() throws Exception {
+		for (Class<?> beanClass : new Class<?>[] {TestBean.class, DerivedTestBean.class,
+				IndexedTestBean.class, ArrayList.class, Class.class}) {
+			CachedIntrospectionResults expected = new CachedIntrospectionResults(beanClass, false);
+			CachedIntrospectionResults actual = new CachedIntrospectionResults(beanClass, true);
+			assertEquals(beanClass.getName(), propertyNames(expected), propertyNames(actual));
+			for (PropertyDescriptor pd : expected.getPropertyDescriptors()) {
+				PropertyDescriptor other = actual.getPropertyDescriptor(pd.getName());
+				assertEquals(pd.getName(), pd.getReadMethod(), other.getReadMethod());
+				assertEquals(pd.getName(), pd.getWriteMethod(), other.getWriteMethod());
+				assertEquals(pd.getName(), pd.getPropertyType(), other.getPropertyType());
+			}
+			assertEquals(beanClass, actual.getBeanClass());
+			assertEquals(beanClass, actual.getBeanInfo().getBeanDescriptor().getBeanClass());
+		}
+	}
+
+	@Test
+	public void lightweightIntrospectionBuildsDescriptorsOnDemand() {
+		CachedIntrospectionResults results = new CachedIntrospectionResults(TestBean.class, true);
+		PropertyDescriptor pd = results.getPropertyDescriptor("name");
+		assertNotNull(pd);
+		assertSame(pd, results.getPropertyDescriptor("name"));
+		assertSame(pd, results.getPropertyDescriptor("Name"));
+		assertNull(results.getPropertyDescriptor("bogus"));
+	}
+
+	@Test
+	public void lightweightIntrospectionBeanInfoCreatedOnce() {
+		CachedIntrospectionResults results = new CachedIntrospectionResults(TestBean.class, true);
+		BeanInfo beanInfo = results.getBeanInfo();
+		assertSame(beanInfo, results.getBeanInfo());
+		PropertyDescriptor pd = results.getPropertyDescriptor("name");
+		boolean found = false;
+		for (PropertyDescriptor candidate : beanInfo.getPropertyDescriptors()) {
+			found |= (candidate == pd);
+		}
+		assertTrue(found);
+	}
+
+	@Test
+	public void lightweightIntrospectionWithNonStandardProperties() throws Exception {
+		CachedIntrospectionResults results = new CachedIntrospectionResults(NonStandardBean.class, true);
+		PropertyDescriptor pd = results.getPropertyDescriptor("foo");
+		assertThat(pd.getReadMethod(), equalTo(NonStandardBean.class.getMethod("getFoo")));
+		assertThat(pd.getWriteMethod(), equalTo(NonStandardBean.class.getMethod("setFoo", String.class)));
+		assertThat(results.getPropertyDescriptor("bar").getReadMethod(),
+				equalTo(NonStandardBean.class.getMethod("isBar")));
+		assertThat(results.getPropertyDescriptor("URL").getWriteMethod(),
+				equalTo(NonStandardBean.class.getMethod("setURL", String.class)));
+		assertNull(results.getPropertyDescriptor("static"));
+		assertNull(results.getPropertyDescriptor("indexed"));
+	}
+
+
+	private static Set<String> propertyNames(CachedIntrospectionResults results) {
+		Set<String> names = new LinkedHashSet<String>();
+		for (PropertyDescriptor pd : results.getPropertyDescriptors()) {
+			names.add(pd.getName());
+		}
+		return names;
+	}
+
+
+	public static class CountedBean {
+
+		private String name;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+
+	@SuppressWarnings("unused")
+	public static class NonStandardBean {
+
+		public Object setFoo(String s) { return this; }
+
+		public String getFoo() { return null; }
+
+		public boolean isBar() { return false; }
+
+		public boolean getBar() { return false; }
+
+		public void setURL(String url) { }
+
+		public String getIndexed(int index) { return null; }
+
+		public static String getStatic() { return null; }
+	}
+
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import org.junit.Test;
+
+import org.springframework.beans.AbstractNestablePropertyAccessor.PropertyTokenHolder;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PropertyPath}.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+public class PropertyPathTests {
+
+	@Test
+	public void simpleProperty() {
+		PropertyPath path = PropertyPath.forPath("name");
+		assertEquals(0, path.getNestedTokens().length);
+		assertEquals("name", path.getFinalTokens().actualName);
+		assertEquals("name", path.getFinalTokens().canonicalName);
+		assertNull(path.getFinalTokens().keys);
+	}
+
+	@Test
+	public void nestedAndIndexedProperty() {
+		PropertyPath path = PropertyPath.forPath("spouse.list[0].map['key.with.dots'][\"a\"]");
+		PropertyTokenHolder[] nestedTokens = path.getNestedTokens();
+		assertEquals(2, nestedTokens.length);
+		assertEquals("spouse", nestedTokens[0].canonicalName);
+		assertEquals("list", nestedTokens[1].actualName);
+		assertEquals("list[0]", nestedTokens[1].canonicalName);
+		assertArrayEquals(new String[] {"0"}, nestedTokens[1].keys);
+
+		PropertyTokenHolder finalTokens = path.getFinalTokens();
+		assertEquals("map", finalTokens.actualName);
+		assertEquals("map[key.with.dots][a]", finalTokens.canonicalName);
+		assertArrayEquals(new String[] {"key.with.dots", "a"}, finalTokens.keys);
+	}
+
+	@Test
+	public void compiledPathIsCached() {
+		assertSame(PropertyPath.forPath("spouse.age"), PropertyPath.forPath("spouse.age"));
+	}
+
+}
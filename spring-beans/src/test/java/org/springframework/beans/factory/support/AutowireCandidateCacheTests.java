@@ -0,0 +1,169 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the per-injection-point autowire candidate cache in
+ * {@link DefaultListableBeanFactory}.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+public class AutowireCandidateCacheTests {
+
+	private final AtomicInteger typeLookups = new AtomicInteger();
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory() {
+		@Override
+		public String[] getBeanNamesForType(Class<?> type, boolean includeNonSingletons, boolean allowEagerInit) {
+			if (ITestBean.class == type) {
+				typeLookups.incrementAndGet();
+			}
+			return super.getBeanNamesForType(type, includeNonSingletons, allowEagerInit);
+		}
+	};
+
+
+	@Before
+	public void setup() {
+		AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+		bpp.setBeanFactory(this.beanFactory);
+		this.beanFactory.addBeanPostProcessor(bpp);
+		this.beanFactory.registerBeanDefinition("testBean1", new RootBeanDefinition(TestBean.class));
+		this.beanFactory.registerBeanDefinition("testBean2", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition(PrototypeBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition("prototype", bd);
+	}
+
+
+	@Test
+	public void candidatesCachedForPrototypeCreation() {
+		this.beanFactory.freezeConfiguration();
+		PrototypeBean first = this.beanFactory.getBean(PrototypeBean.class);
+		assertEquals(2, first.testBeansProvider.getObject().size());
+		int lookups = this.typeLookups.get();
+		PrototypeBean second = this.beanFactory.getBean(PrototypeBean.class);
+
+		assertEquals(lookups, this.typeLookups.get());
+		assertNotSame(first, second);
+		assertEquals(2, second.testBeans.size());
+		assertSame(this.beanFactory.getBean("testBean1"), second.testBeans.get(0));
+		assertSame(this.beanFactory.getBean("testBean2"), second.testBeans.get(1));
+		assertEquals(2, second.optionalTestBeans.get().size());
+		assertEquals(2, second.testBeansProvider.getObject().size());
+		assertEquals(lookups, this.typeLookups.get());
+	}
+
+	@Test
+	public void candidatesNotCachedWithoutFrozenConfiguration() {
+		this.beanFactory.getBean(PrototypeBean.class);
+		int lookups = this.typeLookups.get();
+		this.beanFactory.getBean(PrototypeBean.class);
+
+		assertTrue(this.typeLookups.get() > lookups);
+	}
+
+	@Test
+	public void cacheClearedOnBeanDefinitionRegistration() {
+		this.beanFactory.freezeConfiguration();
+		assertEquals(2, this.beanFactory.getBean(PrototypeBean.class).testBeans.size());
+
+		this.beanFactory.registerBeanDefinition("testBean3", new RootBeanDefinition(TestBean.class));
+		this.beanFactory.freezeConfiguration();
+		assertEquals(3, this.beanFactory.getBean(PrototypeBean.class).testBeans.size());
+
+		this.beanFactory.removeBeanDefinition("testBean1");
+		this.beanFactory.freezeConfiguration();
+		PrototypeBean bean = this.beanFactory.getBean(PrototypeBean.class);
+		assertEquals(2, bean.testBeans.size());
+		assertSame(this.beanFactory.getBean("testBean2"), bean.testBeans.get(0));
+		assertSame(this.beanFactory.getBean("testBean3"), bean.testBeans.get(1));
+	}
+
+	@Test
+	public void cacheClearedOnSingletonRegistration() {
+		this.beanFactory.freezeConfiguration();
+		assertEquals(2, this.beanFactory.getBean(PrototypeBean.class).testBeans.size());
+
+		TestBean singleton = new TestBean();
+		this.beanFactory.registerSingleton("testBean3", singleton);
+		PrototypeBean bean = this.beanFactory.getBean(PrototypeBean.class);
+		assertEquals(3, bean.testBeans.size());
+		assertSame(singleton, bean.testBeans.get(2));
+	}
+
+	@Test
+	public void candidatesNotCachedWithParent() {
+		DefaultListableBeanFactory parent = new DefaultListableBeanFactory();
+		parent.freezeConfiguration();
+		this.beanFactory.setParentBeanFactory(parent);
+		this.beanFactory.freezeConfiguration();
+		assertEquals(2, this.beanFactory.getBean(PrototypeBean.class).testBeans.size());
+
+		TestBean singleton = new TestBean();
+		parent.registerSingleton("testBean3", singleton);
+		PrototypeBean bean = this.beanFactory.getBean(PrototypeBean.class);
+		assertEquals(3, bean.testBeans.size());
+		assertSame(singleton, bean.testBeans.get(2));
+	}
+
+	@Test
+	public void emptyResultCached() {
+		this.beanFactory.removeBeanDefinition("testBean1");
+		this.beanFactory.removeBeanDefinition("testBean2");
+		this.beanFactory.freezeConfiguration();
+		PrototypeBean first = this.beanFactory.getBean(PrototypeBean.class);
+		int lookups = this.typeLookups.get();
+		PrototypeBean second = this.beanFactory.getBean(PrototypeBean.class);
+
+		assertEquals(lookups, this.typeLookups.get());
+		assertNull(first.testBeans);
+		assertNull(second.testBeans);
+		assertFalse(second.optionalTestBeans.isPresent());
+	}
+
+
+	public static class PrototypeBean {
+
+		@Autowired(required = false)
+		List<ITestBean> testBeans;
+
+		@Autowired
+		Optional<List<ITestBean>> optionalTestBeans;
+
+		@Autowired
+		ObjectProvider<List<ITestBean>> testBeansProvider;
+	}
+
+}
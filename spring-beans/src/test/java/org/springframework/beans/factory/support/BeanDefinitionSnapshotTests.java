@@ -0,0 +1,307 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.PropertyPlaceholderConfigurer;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.NestedTestBean;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BeanDefinitionSnapshot}.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+public class BeanDefinitionSnapshotTests {
+
+	@Test
+	public void roundTripWithBeanReferencesAndInnerBeans() throws IOException {
+		DefaultListableBeanFactory source = new DefaultListableBeanFactory();
+		RootBeanDefinition spouse = new RootBeanDefinition(TestBean.class);
+		spouse.getPropertyValues().add("name", new TypedStringValue("Juergen"));
+		spouse.getPropertyValues().add("age", 42);
+		spouse.setPrimary(true);
+		spouse.setAttribute("custom", "value");
+		spouse.setAttribute("ignored", new Object());
+		source.registerBeanDefinition("spouse", spouse);
+		source.registerAlias("spouse", "partner");
+
+		RootBeanDefinition inner = new RootBeanDefinition(NestedTestBean.class);
+		inner.getConstructorArgumentValues().addIndexedArgumentValue(0, "inner");
+		ManagedList<Object> friends = new ManagedList<Object>();
+		friends.add(new RuntimeBeanReference("partner"));
+		friends.add(new BeanDefinitionHolder(new RootBeanDefinition(TestBean.class), "innerFriend"));
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bd.getConstructorArgumentValues().addGenericArgumentValue("Rod");
+		bd.getPropertyValues().add("spouse", new RuntimeBeanReference("spouse"));
+		bd.getPropertyValues().add("doctor", inner);
+		bd.getPropertyValues().add("friends", friends);
+		bd.addQualifier(new AutowireCandidateQualifier(Qualifier.class, "rod"));
+		source.registerBeanDefinition("rod", bd);
+		source.freezeConfiguration();
+
+		BeanDefinitionSnapshot snapshot = roundTrip(BeanDefinitionSnapshot.forBeanFactory(source, "fp"));
+		assertEquals("fp", snapshot.getFingerprint());
+		assertArrayEquals(new String[] {"spouse", "rod"}, snapshot.getBeanDefinitionNames());
+		BeanDefinition restoredSpouse = snapshot.getBeanDefinition("spouse");
+		assertEquals("value", restoredSpouse.getAttribute("custom"));
+		assertFalse(restoredSpouse.hasAttribute("ignored"));
+		assertTrue(((AbstractBeanDefinition) snapshot.getBeanDefinition("rod")).hasQualifier(Qualifier.class.getName()));
+
+		DefaultListableBeanFactory target = new DefaultListableBeanFactory();
+		snapshot.registerBeanDefinitions(target);
+		assertArrayEquals(new String[] {"partner"}, target.getAliases("spouse"));
+		TestBean rod = (TestBean) target.getBean("rod");
+		assertEquals("Rod", rod.getName());
+		assertSame(target.getBean("spouse"), rod.getSpouse());
+		assertEquals("Juergen", rod.getSpouse().getName());
+		assertEquals(42, rod.getSpouse().getAge());
+		assertEquals("inner", rod.getDoctor().getCompany());
+		assertEquals(2, rod.getFriends().size());
+		assertNotSame(rod, target.getBean("rod"));
+		assertEquals(1, target.getBeanNamesForType(ITestBean.class, false, false).length);
+		assertSame(target.getBean("spouse"), target.getBean(ITestBean.class));
+	}
+
+	@Test
+	public void roundTripWithCollectionsAndSimpleValues() throws IOException {
+		DefaultListableBeanFactory source = new DefaultListableBeanFactory();
+		ManagedMap<Object, Object> map = new ManagedMap<Object, Object>();
+		map.put("key", TimeUnit.SECONDS);
+		map.put(1, String.class);
+		ManagedSet<Object> set = new ManagedSet<Object>();
+		set.add('c');
+		set.add(2.5d);
+		ManagedProperties props = new ManagedProperties();
+		props.put("a", "b");
+		ManagedArray array = new ManagedArray(String.class.getName(), 2);
+		array.add("x");
+		array.add("y");
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("someMap", map);
+		bd.getPropertyValues().add("someSet", set);
+		bd.getPropertyValues().add("someProperties", props);
+		bd.getPropertyValues().add("stringArray", array);
+		bd.getPropertyValues().add("someList", new String[] {"l"});
+		bd.setLazyInit(true);
+		bd.setInitMethodName("toString");
+		bd.setTargetType(ResolvableType.forClassWithGenerics(List.class, String.class));
+		source.registerBeanDefinition("bean", bd);
+		source.freezeConfiguration();
+
+		BeanDefinitionSnapshot snapshot = roundTrip(BeanDefinitionSnapshot.forBeanFactory(source, "fp"));
+		RootBeanDefinition restored = (RootBeanDefinition) snapshot.getBeanDefinition("bean");
+		assertTrue(restored.isLazyInit());
+		assertEquals("toString", restored.getInitMethodName());
+		assertEquals(ResolvableType.forClassWithGenerics(List.class, String.class), restored.targetType);
+
+		DefaultListableBeanFactory target = new DefaultListableBeanFactory();
+		snapshot.registerBeanDefinitions(target);
+		TestBean bean = (TestBean) target.getBean("bean");
+		Map<?, ?> someMap = bean.getSomeMap();
+		assertEquals(TimeUnit.SECONDS, someMap.get("key"));
+		assertEquals(String.class, someMap.get(1));
+		Set<?> someSet = bean.getSomeSet();
+		assertTrue(someSet.contains('c'));
+		assertTrue(someSet.contains(2.5d));
+		Properties someProps = bean.getSomeProperties();
+		assertEquals("b", someProps.getProperty("a"));
+		assertArrayEquals(new String[] {"x", "y"}, bean.getStringArray());
+		assertEquals(1, bean.getSomeList().size());
+	}
+
+	@Test
+	public void roundTripWithXmlDefinitions() throws IOException {
+		DefaultListableBeanFactory source = new DefaultListableBeanFactory();
+		new XmlBeanDefinitionReader(source).loadBeanDefinitions(
+				new ClassPathResource("org/springframework/beans/factory/xml/test.xml"));
+		source.registerBeanDefinition("father", new RootBeanDefinition(TestBean.class));
+		source.freezeConfiguration();
+
+		BeanDefinitionSnapshot snapshot = roundTrip(BeanDefinitionSnapshot.forBeanFactory(source, "fp"));
+		DefaultListableBeanFactory target = new DefaultListableBeanFactory();
+		snapshot.registerBeanDefinitions(target);
+		assertArrayEquals(source.getBeanDefinitionNames(), target.getBeanDefinitionNames());
+		for (String beanName : source.getBeanDefinitionNames()) {
+			assertArrayEquals(source.getAliases(beanName), target.getAliases(beanName));
+			assertEquals(source.getType(beanName), target.getType(beanName));
+		}
+		TestBean rod = (TestBean) target.getBean("rod");
+		assertEquals("Rod", rod.getName());
+		assertSame(target.getBean("father"), rod.getSpouse());
+		TestBean roderick = (TestBean) target.getBean("roderick");
+		assertEquals("Roderick", roderick.getName());
+		assertEquals(31, roderick.getAge());
+		assertSame(target.getBean("aliased"), target.getBean("youralias"));
+	}
+
+	@Test
+	public void lookupOverride() throws IOException {
+		DefaultListableBeanFactory source = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(LookupBean.class);
+		bd.getMethodOverrides().addOverride(new LookupOverride("getTestBean", "testBean"));
+		source.registerBeanDefinition("lookup", bd);
+		RootBeanDefinition testBean = new RootBeanDefinition(TestBean.class);
+		testBean.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		source.registerBeanDefinition("testBean", testBean);
+		source.freezeConfiguration();
+
+		DefaultListableBeanFactory target = new DefaultListableBeanFactory();
+		roundTrip(BeanDefinitionSnapshot.forBeanFactory(source, "fp")).registerBeanDefinitions(target);
+		LookupBean lookup = target.getBean(LookupBean.class);
+		assertNotSame(lookup.getTestBean(), lookup.getTestBean());
+	}
+
+	@Test(expected = NotSerializableException.class)
+	public void unsupportedValue() throws IOException {
+		DefaultListableBeanFactory source = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("touchy", new Object());
+		source.registerBeanDefinition("bean", bd);
+		source.freezeConfiguration();
+		BeanDefinitionSnapshot.forBeanFactory(source, "fp").writeTo(new ByteArrayOutputStream());
+	}
+
+	@Test
+	public void snapshotIsDetachedFromBeanFactory() throws IOException {
+		DefaultListableBeanFactory source = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("name", new TypedStringValue("Rod"));
+		source.registerBeanDefinition("bean", bd);
+
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.forBeanFactory(source, "fp");
+		((TypedStringValue) bd.getPropertyValues().getPropertyValue("name").getValue()).setValue("Juergen");
+		bd.setAttribute("late", "value");
+
+		BeanDefinition snapshotDefinition = snapshot.getBeanDefinition("bean");
+		assertEquals("Rod", ((TypedStringValue) snapshotDefinition.getPropertyValues().getPropertyValue("name").getValue()).getValue());
+		assertFalse(snapshotDefinition.hasAttribute("late"));
+	}
+
+	@Test
+	public void snapshotPostProcessorRetainsPlaceholders() throws IOException {
+		DefaultListableBeanFactory source = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("name", "${name}");
+		source.registerBeanDefinition("bean", bd);
+		source.registerSingleton("contributor", new BeanDefinitionSnapshotContributor() {
+			@Override
+			public void contributeToSnapshot(String beanName, BeanDefinition beanDefinition) {
+				beanDefinition.setAttribute("contributed", beanName);
+			}
+		});
+
+		BeanDefinitionSnapshotPostProcessor snapshotter = new BeanDefinitionSnapshotPostProcessor("fp");
+		snapshotter.postProcessBeanFactory(source);
+		placeholderConfigurer("Rod").postProcessBeanFactory(source);
+		assertEquals("Rod", source.getBean("bean", TestBean.class).getName());
+		assertFalse(source.getBeanDefinition("bean").hasAttribute("contributed"));
+
+		DefaultListableBeanFactory target = new DefaultListableBeanFactory();
+		BeanDefinitionSnapshot snapshot = roundTrip(snapshotter.getSnapshot());
+		assertEquals("bean", snapshot.getBeanDefinition("bean").getAttribute("contributed"));
+		snapshot.registerBeanDefinitions(target);
+		placeholderConfigurer("Juergen").postProcessBeanFactory(target);
+		assertEquals("Juergen", target.getBean("bean", TestBean.class).getName());
+	}
+
+	@Test(expected = IOException.class)
+	public void invalidSnapshot() throws IOException {
+		BeanDefinitionSnapshot.readFrom(new ByteArrayInputStream(new byte[] {1, 2, 3, 4}), getClass().getClassLoader());
+	}
+
+	@Test
+	public void classpathFingerprint() {
+		String fingerprint = BeanDefinitionSnapshot.classpathFingerprint(getClass().getClassLoader());
+		assertEquals(32, fingerprint.length());
+		assertEquals(fingerprint, BeanDefinitionSnapshot.classpathFingerprint(getClass().getClassLoader()));
+	}
+
+	@Test
+	public void environmentFingerprint() {
+		ClassLoader classLoader = getClass().getClassLoader();
+		StandardEnvironment environment = new StandardEnvironment();
+		String fingerprint = BeanDefinitionSnapshot.fingerprint(classLoader, environment);
+		assertEquals(32, fingerprint.length());
+		assertEquals(fingerprint, BeanDefinitionSnapshot.fingerprint(classLoader, new StandardEnvironment()));
+		assertFalse(fingerprint.equals(BeanDefinitionSnapshot.classpathFingerprint(classLoader)));
+
+		environment.setActiveProfiles("dev");
+		String profileFingerprint = BeanDefinitionSnapshot.fingerprint(classLoader, environment);
+		assertFalse(fingerprint.equals(profileFingerprint));
+
+		Map<String, Object> properties = new HashMap<String, Object>();
+		properties.put("name", "Rod");
+		environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+		String propertyFingerprint = BeanDefinitionSnapshot.fingerprint(classLoader, environment);
+		assertFalse(profileFingerprint.equals(propertyFingerprint));
+		properties.put("name", "Juergen");
+		assertFalse(propertyFingerprint.equals(BeanDefinitionSnapshot.fingerprint(classLoader, environment)));
+	}
+
+
+	private PropertyPlaceholderConfigurer placeholderConfigurer(String name) {
+		Properties properties = new Properties();
+		properties.setProperty("name", name);
+		PropertyPlaceholderConfigurer configurer = new PropertyPlaceholderConfigurer();
+		configurer.setProperties(properties);
+		return configurer;
+	}
+
+	private BeanDefinitionSnapshot roundTrip(BeanDefinitionSnapshot snapshot) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.writeTo(out);
+		return BeanDefinitionSnapshot.readFrom(new ByteArrayInputStream(out.toByteArray()), getClass().getClassLoader());
+	}
+
+
+	public @interface Qualifier {
+	}
+
+
+	public static abstract class LookupBean {
+
+		public abstract TestBean getTestBean();
+	}
+
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.ResolvableType;
+import org.springframework.tests.sample.beans.DerivedTestBean;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.NestedTestBean;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the type index used by {@link DefaultListableBeanFactory} for
+ * type lookups in case of frozen configuration.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+public class BeanTypeIndexTests {
+
+	private final Set<String> typeChecks = new HashSet<String>();
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory() {
+		@Override
+		public boolean isTypeMatch(String name, ResolvableType typeToMatch) {
+			typeChecks.add(name);
+			return super.isTypeMatch(name, typeToMatch);
+		}
+	};
+
+
+	@Test
+	public void lookupChecksIndexedCandidatesOnly() {
+		for (int i = 0; i < 50; i++) {
+			this.beanFactory.registerBeanDefinition("testBean" + i, new RootBeanDefinition(TestBean.class));
+		}
+		this.beanFactory.registerBeanDefinition("nested", new RootBeanDefinition(NestedTestBean.class));
+		this.beanFactory.freezeConfiguration();
+
+		assertArrayEquals(new String[] {"nested"}, this.beanFactory.getBeanNamesForType(NestedTestBean.class));
+		assertEquals(Collections.singleton("nested"), this.typeChecks);
+		assertEquals(50, this.beanFactory.getBeanNamesForType(ITestBean.class).length);
+		assertEquals(0, this.beanFactory.getBeanNamesForType(Runnable.class).length);
+	}
+
+	@Test
+	public void resultsMatchUnindexedLookup() {
+		this.beanFactory.registerBeanDefinition("testBean", new RootBeanDefinition(TestBean.class));
+		this.beanFactory.registerBeanDefinition("derived", new RootBeanDefinition(DerivedTestBean.class));
+		this.beanFactory.registerBeanDefinition("nested", new RootBeanDefinition(NestedTestBean.class));
+		RootBeanDefinition prototype = new RootBeanDefinition(DerivedTestBean.class);
+		prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition("prototype", prototype);
+		RootBeanDefinition abstractBean = new RootBeanDefinition(TestBean.class);
+		abstractBean.setAbstract(true);
+		this.beanFactory.registerBeanDefinition("abstract", abstractBean);
+		this.beanFactory.registerBeanDefinition("factory", new RootBeanDefinition(TestBeanFactoryBean.class));
+		this.beanFactory.registerAlias("testBean", "alias");
+
+		Class<?>[] types = {TestBean.class, DerivedTestBean.class, ITestBean.class, Comparable.class,
+				FactoryBean.class, NestedTestBean.class, Object.class, String.class};
+		String[][] unindexed = new String[types.length][];
+		for (int i = 0; i < types.length; i++) {
+			unindexed[i] = this.beanFactory.getBeanNamesForType(types[i]);
+		}
+		this.beanFactory.freezeConfiguration();
+		for (int i = 0; i < types.length; i++) {
+			assertArrayEquals(types[i].getName(), unindexed[i], this.beanFactory.getBeanNamesForType(types[i]));
+		}
+		assertArrayEquals(new String[] {"testBean", "derived", "prototype", "factory"},
+				this.beanFactory.getBeanNamesForType(TestBean.class));
+	}
+
+	@Test
+	public void genericLookupWithIndex() {
+		this.beanFactory.registerBeanDefinition("stringRepo", new RootBeanDefinition(StringRepository.class));
+		this.beanFactory.registerBeanDefinition("integerRepo", new RootBeanDefinition(IntegerRepository.class));
+		this.beanFactory.registerBeanDefinition("testBean", new RootBeanDefinition(TestBean.class));
+		this.beanFactory.freezeConfiguration();
+
+		assertArrayEquals(new String[] {"stringRepo"}, this.beanFactory.getBeanNamesForType(
+				ResolvableType.forClassWithGenerics(Repository.class, String.class)));
+		assertArrayEquals(new String[] {"integerRepo"}, this.beanFactory.getBeanNamesForType(
+				ResolvableType.forClassWithGenerics(Repository.class, Integer.class)));
+		assertEquals(new HashSet<String>(Arrays.asList("stringRepo", "integerRepo")), this.typeChecks);
+	}
+
+	@Test
+	public void singletonExposingAdditionalType() {
+		this.beanFactory.addBeanPostProcessor(new MarkerProxyPostProcessor());
+		this.beanFactory.registerBeanDefinition("testBean", new RootBeanDefinition(TestBean.class));
+		this.beanFactory.registerBeanDefinition("other", new RootBeanDefinition(NestedTestBean.class));
+		this.beanFactory.freezeConfiguration();
+
+		ResolvableType markerType = ResolvableType.forClass(Marker.class);
+		assertEquals(0, this.beanFactory.getBeanNamesForType(markerType).length);
+		assertTrue(this.beanFactory.getBean("testBean") instanceof Marker);
+		assertArrayEquals(new String[] {"testBean"}, this.beanFactory.getBeanNamesForType(markerType));
+		assertArrayEquals(new String[] {"testBean"}, this.beanFactory.getBeanNamesForType(ITestBean.class));
+		assertEquals(0, this.beanFactory.getBeanNamesForType(ResolvableType.forClass(TestBean.class)).length);
+	}
+
+	@Test
+	public void indexRebuiltAfterRegistration() {
+		this.beanFactory.registerBeanDefinition("testBean", new RootBeanDefinition(TestBean.class));
+		this.beanFactory.freezeConfiguration();
+		assertEquals(0, this.beanFactory.getBeanNamesForType(NestedTestBean.class).length);
+
+		this.beanFactory.registerBeanDefinition("nested", new RootBeanDefinition(NestedTestBean.class));
+		assertArrayEquals(new String[] {"nested"}, this.beanFactory.getBeanNamesForType(NestedTestBean.class));
+
+		this.beanFactory.registerSingleton("manual", new NestedTestBean());
+		assertArrayEquals(new String[] {"nested", "manual"},
+				this.beanFactory.getBeanNamesForType(NestedTestBean.class));
+
+		this.beanFactory.removeBeanDefinition("nested");
+		assertArrayEquals(new String[] {"manual"}, this.beanFactory.getBeanNamesForType(NestedTestBean.class));
+	}
+
+
+	public interface Repository<T> {
+	}
+
+
+	public static class StringRepository implements Repository<String> {
+	}
+
+
+	public static class IntegerRepository implements Repository<Integer> {
+	}
+
+
+	public interface Marker {
+	}
+
+
+	public static class TestBeanFactoryBean implements FactoryBean<TestBean> {
+
+		@Override
+		public TestBean getObject() {
+			return new TestBean();
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return TestBean.class;
+		}
+
+		@Override
+		public boolean isSingleton() {
+			return true;
+		}
+	}
+
+
+	private static class MarkerProxyPostProcessor implements BeanPostProcessor {
+
+		@Override
+		public Object postProcessBeforeInitialization(Object bean, String beanName) {
+			return bean;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(final Object bean, String beanName) {
+			if (!(bean instanceof TestBean)) {
+				return bean;
+			}
+			return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {ITestBean.class, Marker.class},
+					new InvocationHandler() {
+						@Override
+						public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+							return method.invoke(bean, args);
+						}
+					});
+		}
+	}
+
+}
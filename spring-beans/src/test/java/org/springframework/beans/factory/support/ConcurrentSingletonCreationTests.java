@@ -0,0 +1,277 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for concurrent singleton creation in {@link DefaultSingletonBeanRegistry}.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+public class ConcurrentSingletonCreationTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+
+	@After
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+
+	@Test
+	public void unrelatedLazySingletonsCreatedInParallel() throws Exception {
+		this.beanFactory.setConcurrentSingletonCreation(true);
+		CountDownLatch latch = new CountDownLatch(2);
+		registerBean("bean1", latch, new AtomicInteger());
+		registerBean("bean2", latch, new AtomicInteger());
+
+		// Each init method only returns once both of them have been entered
+		Future<Object> bean1 = getBeanAsync("bean1");
+		Future<Object> bean2 = getBeanAsync("bean2");
+
+		assertSame(this.beanFactory.getBean("bean1"), bean1.get(10, TimeUnit.SECONDS));
+		assertSame(this.beanFactory.getBean("bean2"), bean2.get(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void sameSingletonCreatedOnce() throws Exception {
+		this.beanFactory.setConcurrentSingletonCreation(true);
+		CountDownLatch inCreation = new CountDownLatch(1);
+		AtomicInteger instances = new AtomicInteger();
+		registerBean("bean", inCreation, instances);
+
+		Future<Object> first = getBeanAsync("bean");
+		inCreation.await(10, TimeUnit.SECONDS);
+		Future<Object> second = getBeanAsync("bean");
+		LatchBean bean = (LatchBean) first.get(10, TimeUnit.SECONDS);
+
+		assertSame(bean, second.get(10, TimeUnit.SECONDS));
+		assertTrue(bean.initialized);
+		assertEquals(1, instances.get());
+	}
+
+	@Test
+	public void failedCreationRetriedByWaitingThread() throws Exception {
+		this.beanFactory.setConcurrentSingletonCreation(true);
+		CountDownLatch inCreation = new CountDownLatch(1);
+		AtomicInteger instances = new AtomicInteger();
+		registerBean("bean", inCreation, instances);
+		this.beanFactory.getBeanDefinition("bean").getPropertyValues().add("failOnFirstInstance", true);
+
+		Future<Object> first = getBeanAsync("bean");
+		inCreation.await(10, TimeUnit.SECONDS);
+		Future<Object> second = getBeanAsync("bean");
+		try {
+			first.get(10, TimeUnit.SECONDS);
+			fail("Should have thrown exception");
+		}
+		catch (Exception ex) {
+			// expected
+		}
+
+		assertTrue(((LatchBean) second.get(10, TimeUnit.SECONDS)).initialized);
+		assertEquals(2, instances.get());
+	}
+
+	@Test
+	public void factoryBeanObjectWaitsForSingletonInCreationInOtherThread() throws Exception {
+		this.beanFactory.setConcurrentSingletonCreation(true);
+		CountDownLatch inCreation = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		RootBeanDefinition bd = new RootBeanDefinition(BlockingBean.class);
+		bd.setLazyInit(true);
+		bd.getConstructorArgumentValues().addGenericArgumentValue(inCreation);
+		bd.getConstructorArgumentValues().addGenericArgumentValue(proceed);
+		this.beanFactory.registerBeanDefinition("bean", bd);
+		RootBeanDefinition fbd = new RootBeanDefinition(BeanRequestingFactoryBean.class);
+		fbd.setLazyInit(true);
+		fbd.getConstructorArgumentValues().addGenericArgumentValue(proceed);
+		this.beanFactory.registerBeanDefinition("factory", fbd);
+
+		Future<Object> creation = getBeanAsync("bean");
+		inCreation.await(10, TimeUnit.SECONDS);
+		// FactoryBean.getObject() runs within the singleton lock and asks for "bean"
+		// while the other thread still needs that lock for registering it
+		Future<Object> factoryObject = getBeanAsync("factory");
+
+		Object bean = creation.get(10, TimeUnit.SECONDS);
+		assertSame(bean, factoryObject.get(10, TimeUnit.SECONDS));
+		assertSame(bean, this.beanFactory.getBean("factory"));
+	}
+
+	@Test
+	public void singletonLookupDoesNotBlockOnCreationInOtherThread() throws Exception {
+		CountDownLatch inCreation = new CountDownLatch(1);
+		final CountDownLatch proceed = new CountDownLatch(1);
+		RootBeanDefinition bd = new RootBeanDefinition(BlockingBean.class);
+		bd.getConstructorArgumentValues().addGenericArgumentValue(inCreation);
+		bd.getConstructorArgumentValues().addGenericArgumentValue(proceed);
+		this.beanFactory.registerBeanDefinition("bean", bd);
+		this.beanFactory.registerSingleton("existing", "value");
+
+		Future<Object> creation = getBeanAsync("bean");
+		inCreation.await(10, TimeUnit.SECONDS);
+		try {
+			Future<Object> lookup = this.executor.submit(new Callable<Object>() {
+				@Override
+				public Object call() {
+					assertEquals("value", beanFactory.getSingleton("existing"));
+					return beanFactory.getSingleton("bean");
+				}
+			});
+			// No early reference for the singleton in creation in the other thread
+			assertNull(lookup.get(10, TimeUnit.SECONDS));
+		}
+		finally {
+			proceed.countDown();
+		}
+		assertSame(creation.get(10, TimeUnit.SECONDS), this.beanFactory.getSingleton("bean"));
+	}
+
+
+	private void registerBean(String beanName, CountDownLatch latch, AtomicInteger instances) {
+		RootBeanDefinition bd = new RootBeanDefinition(LatchBean.class);
+		bd.setLazyInit(true);
+		bd.getConstructorArgumentValues().addGenericArgumentValue(latch);
+		bd.getConstructorArgumentValues().addGenericArgumentValue(instances);
+		this.beanFactory.registerBeanDefinition(beanName, bd);
+	}
+
+	private Future<Object> getBeanAsync(final String beanName) {
+		return this.executor.submit(new Callable<Object>() {
+			@Override
+			public Object call() {
+				return beanFactory.getBean(beanName);
+			}
+		});
+	}
+
+
+	private static void await(CountDownLatch latch) throws InterruptedException {
+		if (!latch.await(10, TimeUnit.SECONDS)) {
+			throw new IllegalStateException("Timed out - singletons not created in parallel");
+		}
+	}
+
+
+	public static class LatchBean implements InitializingBean {
+
+		private final CountDownLatch latch;
+
+		private final int instance;
+
+		private boolean failOnFirstInstance;
+
+		volatile boolean initialized;
+
+		public LatchBean(CountDownLatch latch, AtomicInteger instances) {
+			this.latch = latch;
+			this.instance = instances.incrementAndGet();
+		}
+
+		public void setFailOnFirstInstance(boolean failOnFirstInstance) {
+			this.failOnFirstInstance = failOnFirstInstance;
+		}
+
+		@Override
+		public void afterPropertiesSet() throws InterruptedException {
+			this.latch.countDown();
+			await(this.latch);
+			Thread.sleep(100);
+			if (this.failOnFirstInstance && this.instance == 1) {
+				throw new IllegalStateException("Expected failure");
+			}
+			this.initialized = true;
+		}
+	}
+
+
+	public static class BlockingBean implements InitializingBean {
+
+		private final CountDownLatch inCreation;
+
+		private final CountDownLatch proceed;
+
+		public BlockingBean(CountDownLatch inCreation, CountDownLatch proceed) {
+			this.inCreation = inCreation;
+			this.proceed = proceed;
+		}
+
+		@Override
+		public void afterPropertiesSet() throws InterruptedException {
+			this.inCreation.countDown();
+			await(this.proceed);
+			// Give the proceeding thread time to wait for this singleton
+			Thread.sleep(100);
+		}
+	}
+
+
+	public static class BeanRequestingFactoryBean implements FactoryBean<Object>, BeanFactoryAware {
+
+		private final CountDownLatch proceed;
+
+		private BeanFactory beanFactory;
+
+		public BeanRequestingFactoryBean(CountDownLatch proceed) {
+			this.proceed = proceed;
+		}
+
+		@Override
+		public void setBeanFactory(BeanFactory beanFactory) {
+			this.beanFactory = beanFactory;
+		}
+
+		@Override
+		public Object getObject() {
+			this.proceed.countDown();
+			return this.beanFactory.getBean("bean");
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return BlockingBean.class;
+		}
+
+		@Override
+		public boolean isSingleton() {
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanDefinition;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FastClassInstantiationStrategy}.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+public class FastClassInstantiationStrategyTests {
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+
+	@Before
+	public void setup() {
+		this.beanFactory.setInstantiationStrategy(new FastClassInstantiationStrategy());
+	}
+
+
+	@Test
+	public void defaultConstructor() {
+		registerPrototype("bean", new RootBeanDefinition(CallerTrackingBean.class));
+
+		CallerTrackingBean bean = this.beanFactory.getBean("bean", CallerTrackingBean.class);
+		assertTrue(bean.caller, bean.caller.contains("FastClass"));
+		assertNotSame(bean, this.beanFactory.getBean("bean"));
+	}
+
+	@Test
+	public void constructorWithArguments() {
+		RootBeanDefinition bd = new RootBeanDefinition(CallerTrackingBean.class);
+		bd.getConstructorArgumentValues().addGenericArgumentValue("value");
+		bd.getConstructorArgumentValues().addGenericArgumentValue(42);
+		registerPrototype("bean", bd);
+
+		CallerTrackingBean bean = this.beanFactory.getBean("bean", CallerTrackingBean.class);
+		assertTrue(bean.caller, bean.caller.contains("FastClass"));
+		assertEquals("value", bean.name);
+		assertEquals(42, bean.count);
+	}
+
+	@Test
+	public void staticFactoryMethod() {
+		RootBeanDefinition bd = new RootBeanDefinition(CallerTrackingBean.class);
+		bd.setFactoryMethodName("create");
+		bd.getConstructorArgumentValues().addGenericArgumentValue("value");
+		registerPrototype("bean", bd);
+
+		CallerTrackingBean bean = this.beanFactory.getBean("bean", CallerTrackingBean.class);
+		assertTrue(bean.caller, bean.caller.contains("FastClass"));
+		assertEquals("value", bean.name);
+	}
+
+	@Test
+	public void instanceFactoryMethod() {
+		this.beanFactory.registerBeanDefinition("factory", new RootBeanDefinition(BeanFactoryBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition();
+		bd.setFactoryBeanName("factory");
+		bd.setFactoryMethodName("createBean");
+		registerPrototype("bean", bd);
+
+		CallerTrackingBean bean = this.beanFactory.getBean("bean", CallerTrackingBean.class);
+		assertTrue(bean.caller, bean.caller.contains("FastClass"));
+		assertEquals("factory", bean.name);
+	}
+
+	@Test
+	public void privateConstructorUsesReflection() {
+		registerPrototype("bean", new RootBeanDefinition(PrivateConstructorBean.class));
+
+		assertNotNull(this.beanFactory.getBean("bean", PrivateConstructorBean.class));
+	}
+
+	@Test
+	public void constructorException() {
+		RootBeanDefinition bd = new RootBeanDefinition(CallerTrackingBean.class);
+		bd.getConstructorArgumentValues().addGenericArgumentValue(new IllegalStateException("expected"));
+		registerPrototype("bean", bd);
+
+		try {
+			this.beanFactory.getBean("bean");
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.getCause() instanceof BeanInstantiationException);
+			assertTrue(ex.getMostSpecificCause() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void factoryMethodException() {
+		RootBeanDefinition bd = new RootBeanDefinition(CallerTrackingBean.class);
+		bd.setFactoryMethodName("fail");
+		registerPrototype("bean", bd);
+
+		try {
+			this.beanFactory.getBean("bean");
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertTrue(ex.getCause() instanceof BeanInstantiationException);
+			assertTrue(ex.getMostSpecificCause() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void lookupMethodInjection() {
+		registerPrototype("bean", new RootBeanDefinition(CallerTrackingBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition(LookupBean.class);
+		bd.getMethodOverrides().addOverride(new LookupOverride("getBean", "bean"));
+		this.beanFactory.registerBeanDefinition("lookup", bd);
+
+		LookupBean lookup = this.beanFactory.getBean("lookup", LookupBean.class);
+		assertNotNull(lookup.getBean());
+	}
+
+
+	private void registerPrototype(String beanName, RootBeanDefinition bd) {
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition(beanName, bd);
+	}
+
+
+	public static class CallerTrackingBean {
+
+		String caller = new Throwable().getStackTrace()[1].getClassName();
+
+		String name;
+
+		int count;
+
+		public CallerTrackingBean() {
+		}
+
+		public CallerTrackingBean(String name, int count) {
+			this.name = name;
+			this.count = count;
+		}
+
+		public CallerTrackingBean(RuntimeException ex) {
+			throw ex;
+		}
+
+		public static CallerTrackingBean create(String name) {
+			CallerTrackingBean bean = new CallerTrackingBean(name, 0);
+			bean.caller = new Throwable().getStackTrace()[1].getClassName();
+			return bean;
+		}
+
+		public static CallerTrackingBean fail() {
+			throw new IllegalStateException("expected");
+		}
+	}
+
+
+	public static class BeanFactoryBean {
+
+		public CallerTrackingBean createBean() {
+			CallerTrackingBean bean = new CallerTrackingBean("factory", 0);
+			bean.caller = new Throwable().getStackTrace()[1].getClassName();
+			return bean;
+		}
+	}
+
+
+	public static class PrivateConstructorBean {
+
+		private PrivateConstructorBean() {
+		}
+	}
+
+
+	public static abstract class LookupBean {
+
+		public abstract CallerTrackingBean getBean();
+	}
+
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for parallel pre-instantiation of singletons in {@link DefaultListableBeanFactory}.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+public class ParallelPreInstantiationTests {
+
+	private final DefaultListableBeanFactory beanFactory = new ConcurrentBeanFactory();
+
+	private ExecutorService executor;
+
+
+	@Before
+	public void setup() {
+		this.executor = Executors.newCachedThreadPool();
+		this.beanFactory.setBootstrapExecutor(this.executor);
+	}
+
+	@After
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+
+	@Test
+	public void independentSingletonsInitializedConcurrently() {
+		CountDownLatch latch = new CountDownLatch(3);
+		registerLatchBean("bean1", latch);
+		registerLatchBean("bean2", latch);
+		registerLatchBean("bean3", latch);
+
+		// Each init method only returns once all three of them have been entered
+		this.beanFactory.preInstantiateSingletons();
+
+		assertEquals(0, latch.getCount());
+		assertTrue(this.beanFactory.containsSingleton("bean1"));
+		assertTrue(this.beanFactory.containsSingleton("bean2"));
+		assertTrue(this.beanFactory.containsSingleton("bean3"));
+	}
+
+	@Test
+	public void lazyAndPrototypeBeansNotInstantiated() {
+		RootBeanDefinition lazy = new RootBeanDefinition(InitTrackingBean.class);
+		lazy.setLazyInit(true);
+		this.beanFactory.registerBeanDefinition("lazy", lazy);
+		RootBeanDefinition prototype = new RootBeanDefinition(InitTrackingBean.class);
+		prototype.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		this.beanFactory.registerBeanDefinition("prototype", prototype);
+		this.beanFactory.registerBeanDefinition("singleton1", new RootBeanDefinition(InitTrackingBean.class));
+		this.beanFactory.registerBeanDefinition("singleton2", new RootBeanDefinition(InitTrackingBean.class));
+
+		this.beanFactory.preInstantiateSingletons();
+
+		assertFalse(this.beanFactory.containsSingleton("lazy"));
+		assertTrue(this.beanFactory.containsSingleton("singleton1"));
+		assertTrue(this.beanFactory.containsSingleton("singleton2"));
+	}
+
+	@Test
+	public void declaredDependenciesInitializedFirst() {
+		RootBeanDefinition dependent = new RootBeanDefinition(InitTrackingBean.class);
+		dependent.getPropertyValues().add("dependency", new RuntimeBeanReference("dependency"));
+		this.beanFactory.registerBeanDefinition("dependent", dependent);
+		this.beanFactory.registerBeanDefinition("dependency", new RootBeanDefinition(InitTrackingBean.class));
+		RootBeanDefinition dependsOn = new RootBeanDefinition(InitTrackingBean.class);
+		dependsOn.setDependsOn("dependent");
+		this.beanFactory.registerBeanDefinition("dependsOn", dependsOn);
+		this.beanFactory.registerBeanDefinition("independent", new RootBeanDefinition(InitTrackingBean.class));
+
+		this.beanFactory.preInstantiateSingletons();
+
+		InitTrackingBean dependentBean = this.beanFactory.getBean("dependent", InitTrackingBean.class);
+		assertTrue(dependentBean.initialized);
+		assertTrue(dependentBean.dependencyInitialized);
+		assertSame(this.beanFactory.getBean("dependency"), dependentBean.getDependency());
+		assertTrue(this.beanFactory.getBean("dependsOn", InitTrackingBean.class).initialized);
+		assertTrue(this.beanFactory.getBean("independent", InitTrackingBean.class).initialized);
+	}
+
+	@Test
+	public void undeclaredDependencyWaitsForFullyInitializedSingleton() throws Exception {
+		CountDownLatch slowBeanInCreation = new CountDownLatch(1);
+		RootBeanDefinition slow = new RootBeanDefinition(SlowBean.class);
+		slow.getConstructorArgumentValues().addGenericArgumentValue(slowBeanInCreation);
+		this.beanFactory.registerBeanDefinition("slow", slow);
+		RootBeanDefinition lookup = new RootBeanDefinition(LookupBean.class);
+		lookup.getConstructorArgumentValues().addIndexedArgumentValue(0, "slow");
+		lookup.getConstructorArgumentValues().addIndexedArgumentValue(1, slowBeanInCreation);
+		this.beanFactory.registerBeanDefinition("lookup", lookup);
+
+		this.beanFactory.preInstantiateSingletons();
+
+		LookupBean lookupBean = this.beanFactory.getBean("lookup", LookupBean.class);
+		assertSame(this.beanFactory.getBean("slow"), lookupBean.target);
+		assertTrue(lookupBean.targetInitialized);
+	}
+
+	@Test
+	public void undeclaredCircularReferenceAcrossThreads() {
+		CountDownLatch latch = new CountDownLatch(2);
+		RootBeanDefinition bean1 = new RootBeanDefinition(CircularLookupBean.class);
+		bean1.getConstructorArgumentValues().addIndexedArgumentValue(0, "bean2");
+		bean1.getConstructorArgumentValues().addIndexedArgumentValue(1, latch);
+		this.beanFactory.registerBeanDefinition("bean1", bean1);
+		RootBeanDefinition bean2 = new RootBeanDefinition(CircularLookupBean.class);
+		bean2.getConstructorArgumentValues().addIndexedArgumentValue(0, "bean1");
+		bean2.getConstructorArgumentValues().addIndexedArgumentValue(1, latch);
+		this.beanFactory.registerBeanDefinition("bean2", bean2);
+
+		this.beanFactory.preInstantiateSingletons();
+
+		CircularLookupBean circular1 = this.beanFactory.getBean("bean1", CircularLookupBean.class);
+		CircularLookupBean circular2 = this.beanFactory.getBean("bean2", CircularLookupBean.class);
+		assertSame(circular2, circular1.target);
+		assertSame(circular1, circular2.target);
+	}
+
+	@Test
+	public void failureRethrownAfterAllGroupsDone() {
+		RootBeanDefinition failing = new RootBeanDefinition(InitTrackingBean.class);
+		failing.getPropertyValues().add("fail", true);
+		this.beanFactory.registerBeanDefinition("failing", failing);
+		this.beanFactory.registerBeanDefinition("other", new RootBeanDefinition(InitTrackingBean.class));
+
+		try {
+			this.beanFactory.preInstantiateSingletons();
+			fail("Should have thrown BeanCreationException");
+		}
+		catch (BeanCreationException ex) {
+			assertEquals("failing", ex.getBeanName());
+		}
+		assertTrue(this.beanFactory.containsSingleton("other"));
+		assertTrue(this.beanFactory.isConcurrentSingletonCreation());
+	}
+
+	@Test
+	public void sequentialWithoutBootstrapExecutor() {
+		this.beanFactory.setBootstrapExecutor(null);
+		CountDownLatch latch = new CountDownLatch(1);
+		registerLatchBean("bean1", latch);
+		this.beanFactory.registerBeanDefinition("bean2", new RootBeanDefinition(InitTrackingBean.class));
+
+		this.beanFactory.preInstantiateSingletons();
+
+		assertTrue(this.beanFactory.containsSingleton("bean1"));
+		assertTrue(this.beanFactory.containsSingleton("bean2"));
+	}
+
+	@Test
+	public void sequentialWithoutConcurrentSingletonCreation() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		final AtomicInteger executions = new AtomicInteger();
+		beanFactory.setBootstrapExecutor(new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				executions.incrementAndGet();
+				command.run();
+			}
+		});
+		beanFactory.registerBeanDefinition("bean1", new RootBeanDefinition(InitTrackingBean.class));
+		beanFactory.registerBeanDefinition("bean2", new RootBeanDefinition(InitTrackingBean.class));
+
+		beanFactory.preInstantiateSingletons();
+
+		assertEquals(0, executions.get());
+		assertTrue(beanFactory.containsSingleton("bean1"));
+		assertTrue(beanFactory.containsSingleton("bean2"));
+		assertFalse(beanFactory.isConcurrentSingletonCreation());
+	}
+
+
+	private void registerLatchBean(String beanName, CountDownLatch latch) {
+		RootBeanDefinition bd = new RootBeanDefinition(LatchBean.class);
+		bd.getConstructorArgumentValues().addGenericArgumentValue(latch);
+		this.beanFactory.registerBeanDefinition(beanName, bd);
+	}
+
+
+	private static void await(CountDownLatch latch) {
+		try {
+			if (!latch.await(10, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("Timed out - singletons not initialized in parallel");
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(ex);
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static class ConcurrentBeanFactory extends DefaultListableBeanFactory {
+
+		public ConcurrentBeanFactory() {
+			setConcurrentSingletonCreation(true);
+		}
+	}
+
+
+	public static class LatchBean implements InitializingBean {
+
+		private final CountDownLatch latch;
+
+		public LatchBean(CountDownLatch latch) {
+			this.latch = latch;
+		}
+
+		@Override
+		public void afterPropertiesSet() {
+			this.latch.countDown();
+			await(this.latch);
+		}
+	}
+
+
+	public static class InitTrackingBean implements InitializingBean {
+
+		private InitTrackingBean dependency;
+
+		private boolean fail;
+
+		volatile boolean initialized;
+
+		volatile boolean dependencyInitialized;
+
+		public void setDependency(InitTrackingBean dependency) {
+			this.dependency = dependency;
+		}
+
+		public InitTrackingBean getDependency() {
+			return this.dependency;
+		}
+
+		public void setFail(boolean fail) {
+			this.fail = fail;
+		}
+
+		@Override
+		public void afterPropertiesSet() {
+			if (this.fail) {
+				throw new IllegalStateException("Expected failure");
+			}
+			this.dependencyInitialized = (this.dependency != null && this.dependency.initialized);
+			this.initialized = true;
+		}
+	}
+
+
+	public static class SlowBean implements InitializingBean {
+
+		private final CountDownLatch inCreation;
+
+		volatile boolean initialized;
+
+		public SlowBean(CountDownLatch inCreation) {
+			this.inCreation = inCreation;
+		}
+
+		@Override
+		public void afterPropertiesSet() throws InterruptedException {
+			this.inCreation.countDown();
+			Thread.sleep(200);
+			this.initialized = true;
+		}
+	}
+
+
+	public static class LookupBean implements BeanFactoryAware, InitializingBean {
+
+		private final String targetName;
+
+		private final CountDownLatch targetInCreation;
+
+		private BeanFactory beanFactory;
+
+		Object target;
+
+		boolean targetInitialized;
+
+		public LookupBean(String targetName, CountDownLatch targetInCreation) {
+			this.targetName = targetName;
+			this.targetInCreation = targetInCreation;
+		}
+
+		@Override
+		public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+			this.beanFactory = beanFactory;
+		}
+
+		@Override
+		public void afterPropertiesSet() {
+			await(this.targetInCreation);
+			SlowBean slowBean = this.beanFactory.getBean(this.targetName, SlowBean.class);
+			this.target = slowBean;
+			this.targetInitialized = slowBean.initialized;
+		}
+	}
+
+
+	public static class CircularLookupBean implements BeanFactoryAware, InitializingBean {
+
+		private final String targetName;
+
+		private final CountDownLatch latch;
+
+		private BeanFactory beanFactory;
+
+		Object target;
+
+		public CircularLookupBean(String targetName, CountDownLatch latch) {
+			this.targetName = targetName;
+			this.latch = latch;
+		}
+
+		@Override
+		public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+			this.beanFactory = beanFactory;
+		}
+
+		@Override
+		public void afterPropertiesSet() {
+			this.latch.countDown();
+			await(this.latch);
+			this.target = this.beanFactory.getBean(this.targetName);
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Marshaller to write {@link CandidateComponentsMetadata} as properties.
+ * <p>Entries are written sorted by type, without the timestamp comment that
+ * {@link Properties#store} would add, so that the generated index is stable
+ * across builds.
+ *
+ * @author Stephane Nicoll
+ * @since 4.3.8
+ */
+abstract class PropertiesMarshaller {
+
+	public static void write(CandidateComponentsMetadata metadata, OutputStream out) throws IOException {
+		Map<String, String> entries = new TreeMap<String, String>();
+		for (ItemMetadata item : metadata.getItems()) {
+			StringBuilder stereotypes = new StringBuilder();
+			for (String stereotype : item.getStereotypes()) {
+				if (stereotypes.length() > 0) {
+					stereotypes.append(',');
+				}
+				stereotypes.append(stereotype);
+			}
+			entries.put(item.getType(), stereotypes.toString());
+		}
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, "ISO-8859-1"));
+		for (Map.Entry<String, String> entry : entries.entrySet()) {
+			writer.write(entry.getKey());
+			writer.write('=');
+			writer.write(entry.getValue());
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+	public static CandidateComponentsMetadata read(InputStream in) throws IOException {
+		CandidateComponentsMetadata result = new CandidateComponentsMetadata();
+		Properties props = new Properties();
+		props.load(in);
+		for (Map.Entry<Object, Object> entry : props.entrySet()) {
+			String type = (String) entry.getKey();
+			Set<String> stereotypes = new HashSet<String>(Arrays.asList(((String) entry.getValue()).split(",")));
+			result.add(new ItemMetadata(type, stereotypes));
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,6 @@
+/**
+ * Annotation processor generating the {@code META-INF/spring.components} index
+ * of candidate components, as consumed by spring-context's
+ * {@code CandidateComponentsIndexLoader} instead of classpath scanning.
+ */
+package org.springframework.context.index.processor;
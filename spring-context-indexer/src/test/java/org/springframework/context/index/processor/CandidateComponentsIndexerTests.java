@@ -0,0 +1,175 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.context.index.sample.SampleComponent;
+import org.springframework.context.index.sample.SampleEmbedded;
+import org.springframework.context.index.sample.SampleIndexedImplementation;
+import org.springframework.context.index.sample.SampleIndexedInterface;
+import org.springframework.context.index.sample.SampleMetaIndexedService;
+import org.springframework.context.index.sample.SampleNone;
+import org.springframework.context.index.sample.SampleService;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.FileSystemUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link CandidateComponentsIndexer}.
+ *
+ * @author Stephane Nicoll
+ */
+public class CandidateComponentsIndexerTests {
+
+	private File outputLocation;
+
+
+	@Before
+	public void createOutputLocation() throws IOException {
+		this.outputLocation = File.createTempFile("spring-components", "");
+		this.outputLocation.delete();
+		this.outputLocation.mkdirs();
+	}
+
+	@After
+	public void deleteOutputLocation() {
+		FileSystemUtils.deleteRecursively(this.outputLocation);
+	}
+
+
+	@Test
+	public void noCandidate() throws IOException {
+		CandidateComponentsMetadata metadata = compile(SampleNone.class);
+		assertNull(metadata);
+	}
+
+	@Test
+	public void stereotypeComponent() throws IOException {
+		testComponent(SampleComponent.class);
+	}
+
+	@Test
+	public void stereotypeOnMetaAnnotatedComponent() throws IOException {
+		testComponent(SampleService.class);
+	}
+
+	@Test
+	public void embeddedCandidatesAreDetected() throws IOException {
+		CandidateComponentsMetadata metadata = compile(SampleEmbedded.class);
+		assertHasComponent(metadata, SampleEmbedded.Another.class, Component.class.getName());
+		assertNoComponent(metadata, SampleEmbedded.NonStatic.class);
+	}
+
+	@Test
+	public void typeStereotypeFromInterface() throws IOException {
+		CandidateComponentsMetadata metadata = compile(SampleIndexedInterface.class, SampleIndexedImplementation.class);
+		assertHasComponent(metadata, SampleIndexedImplementation.class, SampleIndexedInterface.class.getName());
+	}
+
+	@Test
+	public void customIndexedMetaAnnotation() throws IOException {
+		CandidateComponentsMetadata metadata = compile(SampleMetaIndexedService.class);
+		assertHasComponent(metadata, SampleMetaIndexedService.class, Component.class.getName(),
+				SampleMetaIndexedService.PrivilegedService.class.getName());
+	}
+
+	@Test
+	public void writtenIndexIsSortedByType() throws IOException {
+		compile(SampleService.class, SampleComponent.class);
+		File index = new File(this.outputLocation, MetadataStore.METADATA_PATH);
+		List<String> lines = new ArrayList<String>();
+		for (String line : new String(FileCopyUtils.copyToByteArray(index), "ISO-8859-1").split("\n")) {
+			lines.add(line.substring(0, line.indexOf('=')));
+		}
+		assertEquals(Arrays.asList(SampleComponent.class.getName(), SampleService.class.getName()), lines);
+	}
+
+
+	private void testComponent(Class<?> type) throws IOException {
+		CandidateComponentsMetadata metadata = compile(type);
+		assertHasComponent(metadata, type, Component.class.getName());
+	}
+
+	private CandidateComponentsMetadata compile(Class<?>... types) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+		fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singleton(this.outputLocation));
+		List<File> sources = new ArrayList<File>();
+		for (Class<?> type : types) {
+			sources.add(new File("src/test/java/" + type.getName().replace('.', '/') + ".java"));
+		}
+		Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(sources);
+		JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+				Collections.singletonList("-proc:only"), null, units);
+		task.setProcessors(Collections.singletonList(new CandidateComponentsIndexer()));
+		assertTrue("Compilation failed", task.call());
+		fileManager.close();
+		File index = new File(this.outputLocation, MetadataStore.METADATA_PATH);
+		if (!index.exists()) {
+			return null;
+		}
+		InputStream in = new FileInputStream(index);
+		try {
+			return PropertiesMarshaller.read(in);
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	private static void assertHasComponent(CandidateComponentsMetadata metadata, Class<?> type,
+			String... stereotypes) {
+
+		assertNotNull("No index generated", metadata);
+		for (ItemMetadata item : metadata.getItems()) {
+			if (item.getType().equals(type.getName())) {
+				assertEquals(new HashSet<String>(Arrays.asList(stereotypes)), item.getStereotypes());
+				return;
+			}
+		}
+		fail("No entry for " + type.getName() + " in " + metadata);
+	}
+
+	private static void assertNoComponent(CandidateComponentsMetadata metadata, Class<?> type) {
+		if (metadata != null) {
+			for (ItemMetadata item : metadata.getItems()) {
+				assertFalse(item.getType().equals(type.getName()));
+			}
+		}
+	}
+
+}
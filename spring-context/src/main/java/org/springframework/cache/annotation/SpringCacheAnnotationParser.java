@@ -21,13 +21,18 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import org.springframework.cache.interceptor.CacheEvictOperation;
 import org.springframework.cache.interceptor.CacheOperation;
 import org.springframework.cache.interceptor.CachePutOperation;
 import org.springframework.cache.interceptor.CacheableOperation;
 import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -46,14 +51,26 @@ import org.springframework.util.StringUtils;
 @SuppressWarnings("serial")
 public class SpringCacheAnnotationParser implements CacheAnnotationParser, Serializable {
 
+	@SuppressWarnings("unchecked")
+	private static final Set<Class<? extends Annotation>> CACHE_OPERATION_ANNOTATIONS =
+			Collections.unmodifiableSet(new LinkedHashSet<Class<? extends Annotation>>(
+					Arrays.asList(Cacheable.class, CacheEvict.class, CachePut.class, Caching.class)));
+
+
 	@Override
 	public Collection<CacheOperation> parseCacheAnnotations(Class<?> type) {
+		if (!AnnotationUtils.isCandidateClass(type, CACHE_OPERATION_ANNOTATIONS)) {
+			return null;
+		}
 		DefaultCacheConfig defaultConfig = getDefaultCacheConfig(type);
 		return parseCacheAnnotations(defaultConfig, type);
 	}
 
 	@Override
 	public Collection<CacheOperation> parseCacheAnnotations(Method method) {
+		if (!AnnotationUtils.isCandidateClass(method.getDeclaringClass(), CACHE_OPERATION_ANNOTATIONS)) {
+			return null;
+		}
 		DefaultCacheConfig defaultConfig = getDefaultCacheConfig(method.getDeclaringClass());
 		return parseCacheAnnotations(defaultConfig, method);
 	}
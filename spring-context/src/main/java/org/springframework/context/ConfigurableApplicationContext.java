@@ -67,6 +67,18 @@ public interface ConfigurableApplicationContext extends ApplicationContext, Life
 	 */
 	String LOAD_TIME_WEAVER_BEAN_NAME = "loadTimeWeaver";
 
+	/**
+	 * Name of the bootstrap Executor bean in the factory. If such a bean is supplied
+	 * and the context is backed by a
+	 * {@link org.springframework.beans.factory.support.DefaultListableBeanFactory},
+	 * independent non-lazy singletons will be pre-instantiated in parallel, provided
+	 * that the bean factory has concurrent singleton creation switched on.
+	 * @since 4.3.8
+	 * @see java.util.concurrent.Executor
+	 * @see org.springframework.beans.factory.support.DefaultListableBeanFactory#setBootstrapExecutor
+	 */
+	String BOOTSTRAP_EXECUTOR_BEAN_NAME = "bootstrapExecutor";
+
 	/**
 	 * Name of the {@link Environment} bean in the factory.
 	 * @since 3.1
@@ -85,6 +97,12 @@ public interface ConfigurableApplicationContext extends ApplicationContext, Life
 	 */
 	String SYSTEM_ENVIRONMENT_BEAN_NAME = "systemEnvironment";
 
+	/**
+	 * Name of the {@link org.springframework.core.metrics.ApplicationStartup} bean in the factory.
+	 * @since 4.3.8
+	 */
+	String APPLICATION_STARTUP_BEAN_NAME = "applicationStartup";
+
 
 	/**
 	 * Set the unique id of this application context.
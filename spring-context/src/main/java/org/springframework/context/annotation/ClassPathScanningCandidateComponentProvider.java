@@ -24,6 +24,10 @@ import org.springframework.beans.factory.annotation.Lookup;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ResourceLoaderAware;
+import org.springframework.context.index.CandidateComponentsIndex;
+import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
 import org.springframework.core.env.StandardEnvironment;
@@ -36,9 +40,12 @@ import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
 import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.AssignableTypeFilter;
 import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Controller;
+import org.springframework.stereotype.Indexed;
 import org.springframework.stereotype.Repository;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
@@ -46,19 +53,39 @@ import org.springframework.util.ClassUtils;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A component provider that scans the classpath from a base package. It then
  * applies exclude and include filters to the resulting classes to find candidates.
- * <p>
+ *
  * <p>This implementation is based on Spring's
  * {@link MetadataReader MetadataReader}
  * facility, backed by an ASM {@link org.springframework.asm.ClassReader ClassReader}.
  *
+ * <p>If a {@link CandidateComponentsIndex} is available on the classpath (i.e. a
+ * {@code META-INF/spring.components} file generated at build time by the
+ * {@code spring-context-indexer} annotation processor), it is consulted instead of
+ * scanning for every base package that it covers, as long as all include filters
+ * can be answered by the index. Base packages without any indexed entry are still
+ * scanned on the classpath.
+ *
+ * <p><b>Note:</b> as soon as the index covers a base package, the classpath is not
+ * scanned for that package at all. Components in jars that contribute to the same
+ * package without providing an index of their own are therefore not detected; set
+ * {@link CandidateComponentsIndexLoader#IGNORE_INDEX} if such jars cannot be indexed.
+ *
  * @author Mark Fisher
  * @author Juergen Hoeller
  * @author Ramnivas Laddad
@@ -72,6 +99,22 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
     static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
 
+    /**
+     * System property that instructs Spring to read and parse candidate class files
+     * on a shared pool of daemon threads (one per available processor) by default,
+     * i.e. without a {@link #setTaskExecutor task executor} set explicitly.
+     * <p>The default is "false". Note that custom {@link TypeFilter TypeFilters} and
+     * {@link Condition Conditions} have to be thread-safe when using this mode.
+     *
+     * @see org.springframework.core.SpringProperties
+     * @since 4.3.8
+     */
+    public static final String PARALLEL_SCANNING_PROPERTY_NAME = "spring.scanning.parallel";
+
+    private static final boolean parallelScanningByDefault = SpringProperties.getFlag(PARALLEL_SCANNING_PROPERTY_NAME);
+
+    private static volatile Executor sharedScanningExecutor;
+
 
     protected final Log logger = LogFactory.getLog(getClass());
 
@@ -89,6 +132,10 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
     private MetadataReaderFactory metadataReaderFactory;
 
+    private CandidateComponentsIndex componentsIndex;
+
+    private Executor taskExecutor;
+
 
     /**
      * Protected constructor for flexible subclass initialization.
@@ -240,6 +287,7 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
     public void setResourceLoader(ResourceLoader resourceLoader) {
         this.resourcePatternResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
         this.metadataReaderFactory = new CachingMetadataReaderFactory(resourceLoader);
+        this.componentsIndex = CandidateComponentsIndexLoader.loadIndex(this.resourcePatternResolver.getClassLoader());
     }
 
     /**
@@ -267,55 +315,169 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
         return this.metadataReaderFactory;
     }
 
+    /**
+     * Set an {@link Executor} to read and parse the class files of a base package in parallel.
+     * <p>Default is none, i.e. sequential scanning on the calling thread, unless
+     * {@link #PARALLEL_SCANNING_PROPERTY_NAME} has been set. Candidates are returned
+     * in resource order either way, keeping bean definition registration deterministic.
+     * Note that custom {@link TypeFilter TypeFilters}, {@link Condition Conditions}
+     * and {@link MetadataReaderFactory MetadataReaderFactories} need to be thread-safe
+     * in parallel mode. The default {@link CachingMetadataReaderFactory} parses class
+     * files concurrently as of 4.3.8, without serializing cache lookups.
+     *
+     * @since 4.3.8
+     */
+    public void setTaskExecutor(Executor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Return the {@link Executor} to read and parse class files with, if any.
+     *
+     * @since 4.3.8
+     */
+    protected Executor getTaskExecutor() {
+        if (this.taskExecutor == null && parallelScanningByDefault) {
+            return getSharedScanningExecutor();
+        }
+        return this.taskExecutor;
+    }
+
 
     /**
      * 针对候选组件扫描类,解析注解的类
      * Scan the class path for candidate components.
+     * <p>Uses the {@link CandidateComponentsIndex} instead of scanning if one is
+     * available, supports all include filters and covers the given base package.
      *
      * @param basePackage the package to check for annotated classes
      * @return a corresponding Set of autodetected bean definitions
      */
     public Set<BeanDefinition> findCandidateComponents(String basePackage) {
+        if (this.componentsIndex != null && indexSupportsIncludeFilters() &&
+                this.componentsIndex.hasCandidateTypes(resolveIndexBasePackage(basePackage))) {
+            return addCandidateComponentsFromIndex(this.componentsIndex, basePackage);
+        } else {
+            return scanCandidateComponents(basePackage);
+        }
+    }
+
+    /**
+     * Determine if the index can be used by this instance.
+     *
+     * @return {@code true} if the index is available and the configuration of this
+     * instance is supported by it, {@code false} otherwise
+     */
+    private boolean indexSupportsIncludeFilters() {
+        for (TypeFilter includeFilter : this.includeFilters) {
+            if (!indexSupportsIncludeFilter(includeFilter)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determine if the specified include {@link TypeFilter} is supported by the index.
+     *
+     * @param filter the filter to check
+     * @return whether the index supports this include filter
+     * @see #extractStereotype(TypeFilter)
+     */
+    private boolean indexSupportsIncludeFilter(TypeFilter filter) {
+        if (filter instanceof AnnotationTypeFilter) {
+            Class<? extends Annotation> annotation = ((AnnotationTypeFilter) filter).getAnnotationType();
+            return (AnnotationUtils.isAnnotationDeclaredLocally(Indexed.class, annotation) ||
+                    annotation.getName().startsWith("javax."));
+        }
+        if (filter instanceof AssignableTypeFilter) {
+            Class<?> target = ((AssignableTypeFilter) filter).getTargetType();
+            return AnnotationUtils.isAnnotationDeclaredLocally(Indexed.class, target);
+        }
+        return false;
+    }
+
+    /**
+     * Extract the stereotype to use for the specified compatible filter.
+     *
+     * @param filter the filter to handle
+     * @return the stereotype in the index matching this filter
+     * @see #indexSupportsIncludeFilter(TypeFilter)
+     */
+    private String extractStereotype(TypeFilter filter) {
+        if (filter instanceof AnnotationTypeFilter) {
+            return ((AnnotationTypeFilter) filter).getAnnotationType().getName();
+        }
+        if (filter instanceof AssignableTypeFilter) {
+            return ((AssignableTypeFilter) filter).getTargetType().getName();
+        }
+        return null;
+    }
+
+    /**
+     * Resolve placeholders in the specified base package, keeping its "."-based
+     * form as used by the entries of the {@link CandidateComponentsIndex}.
+     */
+    private String resolveIndexBasePackage(String basePackage) {
+        return this.environment.resolveRequiredPlaceholders(basePackage);
+    }
+
+    private Set<BeanDefinition> addCandidateComponentsFromIndex(CandidateComponentsIndex index, String basePackage) {
         Set<BeanDefinition> candidates = new LinkedHashSet<BeanDefinition>();
         try {
-            String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
-                    resolveBasePackage(basePackage) + '/' + this.resourcePattern;
-            Resource[] resources = this.resourcePatternResolver.getResources(packageSearchPath);
+            String packageToUse = resolveIndexBasePackage(basePackage);
+            Set<String> types = new LinkedHashSet<String>();
+            for (TypeFilter filter : this.includeFilters) {
+                String stereotype = extractStereotype(filter);
+                if (stereotype == null) {
+                    throw new IllegalArgumentException("Failed to extract stereotype from " + filter);
+                }
+                types.addAll(index.getCandidateTypes(packageToUse, stereotype));
+            }
             boolean traceEnabled = logger.isTraceEnabled();
             boolean debugEnabled = logger.isDebugEnabled();
-            for (Resource resource : resources) {
-                if (traceEnabled) {
-                    logger.trace("Scanning " + resource);
-                }
-                if (resource.isReadable()) {
-                    try {
-                        MetadataReader metadataReader = this.metadataReaderFactory.getMetadataReader(resource);
-                        if (isCandidateComponent(metadataReader)) {
-                            ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
-                            sbd.setResource(resource);
-                            sbd.setSource(resource);
-                            if (isCandidateComponent(sbd)) {
-                                if (debugEnabled) {
-                                    logger.debug("Identified candidate component class: " + resource);
-                                }
-                                candidates.add(sbd);
-                            } else {
-                                if (debugEnabled) {
-                                    logger.debug("Ignored because not a concrete top-level class: " + resource);
-                                }
-                            }
-                        } else {
-                            if (traceEnabled) {
-                                logger.trace("Ignored because not matching any filter: " + resource);
-                            }
+            for (String type : types) {
+                MetadataReader metadataReader = this.metadataReaderFactory.getMetadataReader(type);
+                if (isCandidateComponent(metadataReader)) {
+                    ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
+                    sbd.setResource(metadataReader.getResource());
+                    sbd.setSource(metadataReader.getResource());
+                    if (isCandidateComponent(sbd)) {
+                        if (debugEnabled) {
+                            logger.debug("Using candidate component class from index: " + type);
+                        }
+                        candidates.add(sbd);
+                    } else {
+                        if (debugEnabled) {
+                            logger.debug("Ignored because not a concrete top-level class: " + type);
                         }
-                    } catch (Throwable ex) {
-                        throw new BeanDefinitionStoreException(
-                                "Failed to read candidate component class: " + resource, ex);
                     }
                 } else {
                     if (traceEnabled) {
-                        logger.trace("Ignored because not readable: " + resource);
+                        logger.trace("Ignored because matching an exclude filter: " + type);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+        }
+        return candidates;
+    }
+
+    private Set<BeanDefinition> scanCandidateComponents(String basePackage) {
+        Set<BeanDefinition> candidates = new LinkedHashSet<BeanDefinition>();
+        try {
+            String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
+                    resolveBasePackage(basePackage) + '/' + this.resourcePattern;
+            Resource[] resources = this.resourcePatternResolver.getResources(packageSearchPath);
+            Executor executor = getTaskExecutor();
+            if (executor != null && resources.length > 1) {
+                readCandidateComponentsInParallel(resources, executor, candidates);
+            } else {
+                for (Resource resource : resources) {
+                    ScannedGenericBeanDefinition sbd = readCandidateComponent(resource);
+                    if (sbd != null) {
+                        candidates.add(sbd);
                     }
                 }
             }
@@ -325,6 +487,102 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
         return candidates;
     }
 
+    /**
+     * Read and parse the given resources on the given Executor, collecting the
+     * resulting candidates in the original resource order so that bean definition
+     * registration order is the same as for sequential scanning.
+     */
+    private void readCandidateComponentsInParallel(
+            Resource[] resources, Executor executor, Set<BeanDefinition> candidates) {
+
+        // Initialize lazily created state upfront rather than from concurrent reader threads.
+        getConditionEvaluator();
+        List<FutureTask<ScannedGenericBeanDefinition>> tasks =
+                new ArrayList<FutureTask<ScannedGenericBeanDefinition>>(resources.length);
+        for (final Resource resource : resources) {
+            FutureTask<ScannedGenericBeanDefinition> task = new FutureTask<ScannedGenericBeanDefinition>(
+                    new Callable<ScannedGenericBeanDefinition>() {
+                        @Override
+                        public ScannedGenericBeanDefinition call() {
+                            return readCandidateComponent(resource);
+                        }
+                    });
+            tasks.add(task);
+            executor.execute(task);
+        }
+        try {
+            for (FutureTask<ScannedGenericBeanDefinition> task : tasks) {
+                ScannedGenericBeanDefinition sbd = task.get();
+                if (sbd != null) {
+                    candidates.add(sbd);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BeanDefinitionStoreException("Interrupted during parallel classpath scanning", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new BeanDefinitionStoreException("Failed to read candidate component classes", cause);
+        } finally {
+            for (FutureTask<ScannedGenericBeanDefinition> task : tasks) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Read the class file behind the given resource and turn it into a candidate
+     * bean definition if it matches the configured filters.
+     *
+     * @param resource the class file resource
+     * @return the candidate bean definition, or {@code null} if not a candidate
+     */
+    private ScannedGenericBeanDefinition readCandidateComponent(Resource resource) {
+        boolean traceEnabled = logger.isTraceEnabled();
+        boolean debugEnabled = logger.isDebugEnabled();
+        if (traceEnabled) {
+            logger.trace("Scanning " + resource);
+        }
+        if (resource.isReadable()) {
+            try {
+                MetadataReader metadataReader = this.metadataReaderFactory.getMetadataReader(resource);
+                if (isCandidateComponent(metadataReader)) {
+                    ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
+                    sbd.setResource(resource);
+                    sbd.setSource(resource);
+                    if (isCandidateComponent(sbd)) {
+                        if (debugEnabled) {
+                            logger.debug("Identified candidate component class: " + resource);
+                        }
+                        return sbd;
+                    } else {
+                        if (debugEnabled) {
+                            logger.debug("Ignored because not a concrete top-level class: " + resource);
+                        }
+                    }
+                } else {
+                    if (traceEnabled) {
+                        logger.trace("Ignored because not matching any filter: " + resource);
+                    }
+                }
+            } catch (Throwable ex) {
+                throw new BeanDefinitionStoreException(
+                        "Failed to read candidate component class: " + resource, ex);
+            }
+        } else {
+            if (traceEnabled) {
+                logger.trace("Ignored because not readable: " + resource);
+            }
+        }
+        return null;
+    }
+
 
     /**
      * Resolve the specified base package into a pattern specification for
@@ -368,10 +626,14 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
      * @return whether the class qualifies as a candidate component
      */
     private boolean isConditionMatch(MetadataReader metadataReader) {
+        return !getConditionEvaluator().shouldSkip(metadataReader.getAnnotationMetadata());
+    }
+
+    private ConditionEvaluator getConditionEvaluator() {
         if (this.conditionEvaluator == null) {
             this.conditionEvaluator = new ConditionEvaluator(getRegistry(), getEnvironment(), getResourceLoader());
         }
-        return !this.conditionEvaluator.shouldSkip(metadataReader.getAnnotationMetadata());
+        return this.conditionEvaluator;
     }
 
     /**
@@ -390,6 +652,27 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
     }
 
 
+    private static Executor getSharedScanningExecutor() {
+        Executor executor = sharedScanningExecutor;
+        if (executor == null) {
+            synchronized (ClassPathScanningCandidateComponentProvider.class) {
+                executor = sharedScanningExecutor;
+                if (executor == null) {
+                    int threads = Runtime.getRuntime().availableProcessors();
+                    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("spring-scanning-");
+                    threadFactory.setDaemon(true);
+                    ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<Runnable>(), threadFactory);
+                    pool.allowCoreThreadTimeOut(true);
+                    executor = pool;
+                    sharedScanningExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+
     /**
      * Clear the underlying metadata cache, removing all cached class metadata.
      */
@@ -132,6 +132,8 @@ class ConfigurationClassParser {
 
 	private final List<String> propertySourceNames = new ArrayList<String>();
 
+	private final Map<String, List<String>> propertySourceClasses = new LinkedHashMap<String, List<String>>();
+
 	private final ImportStack importStack = new ImportStack();
 
 	private List<DeferredImportSelectorHolder> deferredImportSelectors;
@@ -261,16 +263,7 @@ class ConfigurationClassParser {
 		processMemberClasses(configClass, sourceClass);
 
 		// Process any @PropertySource annotations
-		for (AnnotationAttributes propertySource : AnnotationConfigUtils.attributesForRepeatable(
-				sourceClass.getMetadata(), PropertySources.class, org.springframework.context.annotation.PropertySource.class)) {
-			if (this.environment instanceof ConfigurableEnvironment) {
-				processPropertySource(propertySource);
-			}
-			else {
-				logger.warn("Ignoring @PropertySource annotation on [" + sourceClass.getMetadata().getClassName() +
-						"]. Reason: Environment must implement ConfigurableEnvironment");
-			}
-		}
+		processPropertySources(configClass.getMetadata().getClassName(), sourceClass.getMetadata());
 
 		// Process any @ComponentScan annotations
 		Set<AnnotationAttributes> componentScans = AnnotationConfigUtils.attributesForRepeatable(
@@ -405,6 +398,36 @@ class ConfigurationClassParser {
 	}
 
 
+	/**
+	 * Process the <code>@PropertySource</code> annotations declared on the given class,
+	 * recording the declaring class for the given configuration class.
+	 * @param configClassName the name of the configuration class being processed
+	 * @param metadata the metadata of the declaring class (the configuration class
+	 * itself or one of its superclasses)
+	 * @throws IOException if loading a property source failed
+	 * @see #getPropertySourceClasses()
+	 */
+	void processPropertySources(String configClassName, AnnotationMetadata metadata) throws IOException {
+		for (AnnotationAttributes propertySource : AnnotationConfigUtils.attributesForRepeatable(
+				metadata, PropertySources.class, org.springframework.context.annotation.PropertySource.class)) {
+			if (this.environment instanceof ConfigurableEnvironment) {
+				List<String> declaringClasses = this.propertySourceClasses.get(configClassName);
+				if (declaringClasses == null) {
+					declaringClasses = new ArrayList<String>();
+					this.propertySourceClasses.put(configClassName, declaringClasses);
+				}
+				if (!declaringClasses.contains(metadata.getClassName())) {
+					declaringClasses.add(metadata.getClassName());
+				}
+				processPropertySource(propertySource);
+			}
+			else {
+				logger.warn("Ignoring @PropertySource annotation on [" + metadata.getClassName() +
+						"]. Reason: Environment must implement ConfigurableEnvironment");
+			}
+		}
+	}
+
 	/**
 	 * Process the given <code>@PropertySource</code> annotation metadata.
 	 * @param propertySource metadata for the <code>@PropertySource</code> annotation found
@@ -627,6 +650,14 @@ class ConfigurationClassParser {
 		return this.importStack;
 	}
 
+	/**
+	 * Return the classes declaring processed {@code @PropertySource} annotations,
+	 * keyed by configuration class name in the order of processing.
+	 */
+	Map<String, List<String>> getPropertySourceClasses() {
+		return this.propertySourceClasses;
+	}
+
 
 	/**
 	 * Factory method to obtain a {@link SourceClass} from a {@link ConfigurationClass}.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,10 +17,12 @@
 package org.springframework.context.annotation;
 
 import java.beans.PropertyDescriptor;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -49,10 +51,12 @@ import org.springframework.beans.factory.parsing.SourceExtractor;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.BeanDefinitionSnapshotContributor;
 import org.springframework.beans.factory.support.BeanNameGenerator;
 import org.springframework.context.EnvironmentAware;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.annotation.ConfigurationClassEnhancer.EnhancedConfiguration;
+import org.springframework.core.Conventions;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
 import org.springframework.core.env.Environment;
@@ -63,6 +67,7 @@ import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
 
 import static org.springframework.context.annotation.AnnotationConfigUtils.*;
 
@@ -85,11 +90,21 @@ import static org.springframework.context.annotation.AnnotationConfigUtils.*;
  * @since 3.0
  */
 public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPostProcessor,
-		PriorityOrdered, ResourceLoaderAware, BeanClassLoaderAware, EnvironmentAware {
+		PriorityOrdered, ResourceLoaderAware, BeanClassLoaderAware, EnvironmentAware,
+		BeanDefinitionSnapshotContributor {
 
 	private static final String IMPORT_REGISTRY_BEAN_NAME =
 			ConfigurationClassPostProcessor.class.getName() + ".importRegistry";
 
+	private static final String IMPORTING_CLASS_ATTRIBUTE =
+			Conventions.getQualifiedAttributeName(ConfigurationClassPostProcessor.class, "importingClass");
+
+	private static final String PROPERTY_SOURCE_CLASSES_ATTRIBUTE =
+			Conventions.getQualifiedAttributeName(ConfigurationClassPostProcessor.class, "propertySourceClasses");
+
+	private static final String PROPERTY_SOURCE_ORDER_ATTRIBUTE =
+			Conventions.getQualifiedAttributeName(ConfigurationClassPostProcessor.class, "propertySourceOrder");
+
 
 	private final Log logger = LogFactory.getLog(getClass());
 
@@ -113,6 +128,10 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 
 	private ConfigurationClassBeanDefinitionReader reader;
 
+	private ImportRegistry importRegistry;
+
+	private Map<String, List<String>> propertySourceClasses;
+
 	private boolean localBeanNameGeneratorSet = false;
 
 	/* using short class names as default bean names */
@@ -256,6 +275,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	 */
 	public void processConfigBeanDefinitions(BeanDefinitionRegistry registry) {
 		List<BeanDefinitionHolder> configCandidates = new ArrayList<BeanDefinitionHolder>();
+		List<BeanDefinition> processedConfigClasses = null;
 		String[] candidateNames = registry.getBeanDefinitionNames();
 
 		for (String beanName : candidateNames) {
@@ -265,6 +285,10 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 				if (logger.isDebugEnabled()) {
 					logger.debug("Bean definition has already been processed as a configuration class: " + beanDef);
 				}
+				if (processedConfigClasses == null) {
+					processedConfigClasses = new ArrayList<BeanDefinition>();
+				}
+				processedConfigClasses.add(beanDef);
 			}
 			else if (ConfigurationClassUtils.checkConfigurationClassCandidate(beanDef, this.metadataReaderFactory)) {
 				configCandidates.add(new BeanDefinitionHolder(beanDef, beanName));
@@ -273,6 +297,9 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 
 		// Return immediately if no @Configuration classes were found
 		if (configCandidates.isEmpty()) {
+			if (processedConfigClasses != null) {
+				restoreProcessedConfigurationClasses(registry, processedConfigClasses);
+			}
 			return;
 		}
 
@@ -342,6 +369,10 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 		while (!candidates.isEmpty());
 
+		// Keep the processing state for contributions to a BeanDefinitionSnapshot
+		this.importRegistry = parser.getImportRegistry();
+		this.propertySourceClasses = parser.getPropertySourceClasses();
+
 		// Register the ImportRegistry as a bean in order to support ImportAware @Configuration classes
 		if (singletonRegistry != null) {
 			if (!singletonRegistry.containsSingleton(IMPORT_REGISTRY_BEAN_NAME)) {
@@ -354,6 +385,106 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 	}
 
+	/**
+	 * Restore the processing state of configuration classes which have been processed
+	 * before, i.e. restored from a
+	 * {@link org.springframework.beans.factory.support.BeanDefinitionSnapshot}:
+	 * serve {@link ImportAware} from the recorded importing classes and register the
+	 * recorded {@link PropertySource} declarations against the current environment.
+	 */
+	private void restoreProcessedConfigurationClasses(BeanDefinitionRegistry registry, List<BeanDefinition> configDefs) {
+		Map<String, String> imports = new HashMap<String, String>();
+		List<BeanDefinition> propertySourceDefs = new ArrayList<BeanDefinition>();
+		for (BeanDefinition beanDef : configDefs) {
+			Object importingClass = beanDef.getAttribute(IMPORTING_CLASS_ATTRIBUTE);
+			if (importingClass instanceof String) {
+				imports.put(getConfigurationClassName(beanDef), (String) importingClass);
+			}
+			if (beanDef.getAttribute(PROPERTY_SOURCE_ORDER_ATTRIBUTE) instanceof Integer) {
+				propertySourceDefs.add(beanDef);
+			}
+		}
+
+		// Register recorded @PropertySource declarations in their original order
+		Collections.sort(propertySourceDefs, new Comparator<BeanDefinition>() {
+			@Override
+			public int compare(BeanDefinition bd1, BeanDefinition bd2) {
+				int i1 = (Integer) bd1.getAttribute(PROPERTY_SOURCE_ORDER_ATTRIBUTE);
+				int i2 = (Integer) bd2.getAttribute(PROPERTY_SOURCE_ORDER_ATTRIBUTE);
+				return (i1 < i2) ? -1 : (i1 > i2) ? 1 : 0;
+			}
+		});
+		ConfigurationClassParser parser = new ConfigurationClassParser(
+				this.metadataReaderFactory, this.problemReporter, this.environment,
+				this.resourceLoader, this.componentScanBeanNameGenerator, registry);
+		for (BeanDefinition beanDef : propertySourceDefs) {
+			String className = getConfigurationClassName(beanDef);
+			String[] declaringClasses = StringUtils.commaDelimitedListToStringArray(
+					(String) beanDef.getAttribute(PROPERTY_SOURCE_CLASSES_ATTRIBUTE));
+			try {
+				for (String declaringClass : declaringClasses) {
+					parser.processPropertySources(className,
+							this.metadataReaderFactory.getMetadataReader(declaringClass).getAnnotationMetadata());
+				}
+			}
+			catch (IOException ex) {
+				throw new BeanDefinitionStoreException(
+						"Failed to process @PropertySource declarations of configuration class [" + className + "]", ex);
+			}
+		}
+
+		this.importRegistry = new ProcessedImportRegistry(imports, this.metadataReaderFactory);
+		this.propertySourceClasses = parser.getPropertySourceClasses();
+		if (registry instanceof SingletonBeanRegistry &&
+				!((SingletonBeanRegistry) registry).containsSingleton(IMPORT_REGISTRY_BEAN_NAME)) {
+			((SingletonBeanRegistry) registry).registerSingleton(IMPORT_REGISTRY_BEAN_NAME, this.importRegistry);
+		}
+	}
+
+	/**
+	 * Record the importing class and the {@link PropertySource} declarations of each
+	 * configuration class in its snapshot definition, allowing for both to be restored
+	 * by {@link #processConfigBeanDefinitions} in a fresh context.
+	 * @since 4.3.8
+	 * @see org.springframework.beans.factory.support.BeanDefinitionSnapshot#forBeanFactory
+	 */
+	@Override
+	public void contributeToSnapshot(String beanName, BeanDefinition beanDefinition) {
+		if (!ConfigurationClassUtils.isFullConfigurationClass(beanDefinition) &&
+				!ConfigurationClassUtils.isLiteConfigurationClass(beanDefinition)) {
+			return;
+		}
+		String className = getConfigurationClassName(beanDefinition);
+		if (className == null) {
+			return;
+		}
+		if (this.importRegistry != null) {
+			AnnotationMetadata importingClass = this.importRegistry.getImportingClassFor(className);
+			if (importingClass != null) {
+				beanDefinition.setAttribute(IMPORTING_CLASS_ATTRIBUTE, importingClass.getClassName());
+			}
+		}
+		if (this.propertySourceClasses != null) {
+			int order = 0;
+			for (Map.Entry<String, List<String>> entry : this.propertySourceClasses.entrySet()) {
+				if (entry.getKey().equals(className)) {
+					beanDefinition.setAttribute(PROPERTY_SOURCE_CLASSES_ATTRIBUTE,
+							StringUtils.collectionToCommaDelimitedString(entry.getValue()));
+					beanDefinition.setAttribute(PROPERTY_SOURCE_ORDER_ATTRIBUTE, order);
+					break;
+				}
+				order++;
+			}
+		}
+	}
+
+	private static String getConfigurationClassName(BeanDefinition beanDef) {
+		if (beanDef instanceof AbstractBeanDefinition && ((AbstractBeanDefinition) beanDef).hasBeanClass()) {
+			return ClassUtils.getUserClass(((AbstractBeanDefinition) beanDef).getBeanClass()).getName();
+		}
+		return beanDef.getBeanClassName();
+	}
+
 	/**
 	 * Post-processes a BeanFactory in search of Configuration class BeanDefinitions;
 	 * any candidates are then enhanced by a {@link ConfigurationClassEnhancer}.
@@ -437,4 +568,41 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 	}
 
+
+	/**
+	 * {@link ImportRegistry} for configuration classes which have been processed before,
+	 * e.g. as part of a {@link org.springframework.beans.factory.support.BeanDefinitionSnapshot},
+	 * reading the importing class metadata on demand.
+	 */
+	private static class ProcessedImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> imports;
+
+		private final MetadataReaderFactory metadataReaderFactory;
+
+		public ProcessedImportRegistry(Map<String, String> imports, MetadataReaderFactory metadataReaderFactory) {
+			this.imports = imports;
+			this.metadataReaderFactory = metadataReaderFactory;
+		}
+
+		@Override
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClass = this.imports.get(importedClass);
+			if (importingClass == null) {
+				return null;
+			}
+			try {
+				return this.metadataReaderFactory.getMetadataReader(importingClass).getAnnotationMetadata();
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Failed to read metadata of importing class [" + importingClass + "]", ex);
+			}
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			this.imports.values().removeAll(Collections.singleton(importingClass));
+		}
+	}
+
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+
+/**
+ * Provide access to the candidates that are defined in {@code META-INF/spring.components}.
+ *
+ * <p>An arbitrary number of stereotypes can be registered (and queried) on the index: a
+ * typical example is the fully qualified name of an annotation that flags the class for
+ * a certain use case. The following call returns all the {@code @Component}
+ * <b>candidate</b> types for the {@code com.example} package (and its sub-packages):
+ * <pre class="code">
+ * Set&lt;String&gt; candidates = index.getCandidateTypes(
+ *         "com.example", "org.springframework.stereotype.Component");
+ * </pre>
+ *
+ * <p>The {@code type} is usually the fully qualified name of a class, though this is
+ * not a rule. Similarly, the {@code stereotype} is usually the fully qualified name of
+ * a target type but it can be any marker really.
+ *
+ * @author Stephane Nicoll
+ * @since 4.3.8
+ * @see CandidateComponentsIndexLoader
+ */
+public class CandidateComponentsIndex {
+
+	private static final AntPathMatcher pathMatcher = new AntPathMatcher(".");
+
+
+	private final MultiValueMap<String, Entry> index;
+
+	private final Set<String> packages;
+
+
+	CandidateComponentsIndex(List<Properties> content) {
+		this.index = parseIndex(content);
+		this.packages = collectPackages(this.index);
+	}
+
+
+	/**
+	 * Return the candidate types that are associated with the specified stereotype.
+	 * @param basePackage the package to check for candidates
+	 * @param stereotype the stereotype to use
+	 * @return the candidate types associated with the specified {@code stereotype}
+	 * or an empty set if none has been found for the specified {@code basePackage}
+	 */
+	public Set<String> getCandidateTypes(String basePackage, String stereotype) {
+		List<Entry> candidates = this.index.get(stereotype);
+		if (candidates == null) {
+			return Collections.emptySet();
+		}
+		Set<String> result = new LinkedHashSet<String>();
+		for (Entry candidate : candidates) {
+			if (candidate.match(basePackage)) {
+				result.add(candidate.type);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Specify whether this index has any entry, irrespective of its stereotype,
+	 * within the specified package (or one of its sub-packages).
+	 * <p>A package that is not covered by the index, e.g. because the archive
+	 * that contains it was not processed at build time, has to be scanned.
+	 * @param basePackage the package to check
+	 * @return {@code true} if at least one indexed type lives in that package
+	 */
+	public boolean hasCandidateTypes(String basePackage) {
+		boolean pattern = pathMatcher.isPattern(basePackage);
+		for (String packageName : this.packages) {
+			if (pattern ? pathMatcher.match(basePackage, packageName) : isWithin(packageName, basePackage)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	private static MultiValueMap<String, Entry> parseIndex(List<Properties> content) {
+		MultiValueMap<String, Entry> index = new LinkedMultiValueMap<String, Entry>();
+		for (Properties entry : content) {
+			for (Map.Entry<Object, Object> mapping : entry.entrySet()) {
+				String type = (String) mapping.getKey();
+				String[] stereotypes = StringUtils.commaDelimitedListToStringArray((String) mapping.getValue());
+				for (String stereotype : stereotypes) {
+					index.add(stereotype.trim(), new Entry(type));
+				}
+			}
+		}
+		return index;
+	}
+
+	private static Set<String> collectPackages(MultiValueMap<String, Entry> index) {
+		Set<String> packages = new HashSet<String>();
+		for (List<Entry> entries : index.values()) {
+			for (Entry entry : entries) {
+				packages.add(entry.packageName);
+			}
+		}
+		return packages;
+	}
+
+	private static boolean isWithin(String packageName, String basePackage) {
+		return (packageName.equals(basePackage) || packageName.startsWith(basePackage + "."));
+	}
+
+
+	private static class Entry {
+
+		private final String type;
+
+		private final String packageName;
+
+		Entry(String type) {
+			this.type = type;
+			this.packageName = ClassUtils.getPackageName(type);
+		}
+
+		public boolean match(String basePackage) {
+			if (pathMatcher.isPattern(basePackage)) {
+				return pathMatcher.match(basePackage, this.packageName);
+			}
+			else {
+				return isWithin(this.packageName, basePackage);
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.logging.Log;
@@ -39,6 +40,8 @@ import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.support.ResourceEditorRegistrar;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -67,7 +70,9 @@ import org.springframework.context.expression.StandardBeanExpressionResolver;
 import org.springframework.context.weaving.LoadTimeWeaverAware;
 import org.springframework.context.weaving.LoadTimeWeaverAwareProcessor;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.core.env.AbstractEnvironment;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.StandardEnvironment;
@@ -76,6 +81,8 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
@@ -209,6 +216,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	/** ApplicationEvents published early */
 	private Set<ApplicationEvent> earlyApplicationEvents;
 
+	/** Application startup metrics */
+	private ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
+
 
 	/**
 	 * Create a new AbstractApplicationContext with no parent.
@@ -324,6 +334,31 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		return this.startupDate;
 	}
 
+	/**
+	 * Set the {@link ApplicationStartup} for this application context.
+	 * <p>This allows the application context to record metrics during startup:
+	 * the refresh phases, the invocation of factory post-processors, the creation
+	 * of each bean and the start of lifecycle beans. Use a
+	 * {@link org.springframework.core.metrics.buffering.BufferingApplicationStartup}
+	 * to record a timeline which can be exported as JSON.
+	 * <p>Default is {@link ApplicationStartup#DEFAULT}, not recording anything.
+	 * Needs to be specified <em>before</em> {@link #refresh()}.
+	 * @param applicationStartup the new application startup
+	 * @since 4.3.8
+	 */
+	public void setApplicationStartup(ApplicationStartup applicationStartup) {
+		Assert.notNull(applicationStartup, "ApplicationStartup must not be null");
+		this.applicationStartup = applicationStartup;
+	}
+
+	/**
+	 * Return the {@link ApplicationStartup} for this application context.
+	 * @since 4.3.8
+	 */
+	public ApplicationStartup getApplicationStartup() {
+		return this.applicationStartup;
+	}
+
 	/**
 	 * Publish the given event to all listeners.
 	 * <p>Note: Listeners get initialized after the MessageSource, to be able
@@ -507,64 +542,76 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	@Override
 	public void refresh() throws BeansException, IllegalStateException {
 		synchronized (this.startupShutdownMonitor) {
-			// Prepare this context for refreshing.
-			prepareRefresh();
-
-			// Tell the subclass to refresh the internal bean factory.
-			ConfigurableListableBeanFactory beanFactory = obtainFreshBeanFactory();
+			StartupStep contextRefresh = this.applicationStartup.start("spring.context.refresh");
+			try {
+				// Prepare this context for refreshing.
+				prepareRefresh();
 
-			// Prepare the bean factory for use in this context.
-			prepareBeanFactory(beanFactory);
+				// Tell the subclass to refresh the internal bean factory.
+				ConfigurableListableBeanFactory beanFactory = obtainFreshBeanFactory();
 
-			try {
-				// Allows post-processing of the bean factory in context subclasses.
-				postProcessBeanFactory(beanFactory);
+				// Prepare the bean factory for use in this context.
+				prepareBeanFactory(beanFactory);
 
-				// Invoke factory processors registered as beans in the context.
-				invokeBeanFactoryPostProcessors(beanFactory);
+				try {
+					StartupStep beanPostProcess = this.applicationStartup.start("spring.context.beans.post-process");
+					try {
+						// Allows post-processing of the bean factory in context subclasses.
+						postProcessBeanFactory(beanFactory);
 
-				// Register bean processors that intercept bean creation.
-				registerBeanPostProcessors(beanFactory);
+						// Invoke factory processors registered as beans in the context.
+						invokeBeanFactoryPostProcessors(beanFactory);
 
-				// Initialize message source for this context.
-				initMessageSource();
+						// Register bean processors that intercept bean creation.
+						registerBeanPostProcessors(beanFactory);
+					}
+					finally {
+						beanPostProcess.end();
+					}
 
-				// Initialize event multicaster for this context.
-				initApplicationEventMulticaster();
+					// Initialize message source for this context.
+					initMessageSource();
 
-				// Initialize other special beans in specific context subclasses.
-				onRefresh();
+					// Initialize event multicaster for this context.
+					initApplicationEventMulticaster();
 
-				// Check for listener beans and register them.
-				registerListeners();
+					// Initialize other special beans in specific context subclasses.
+					onRefresh();
 
-				// Instantiate all remaining (non-lazy-init) singletons.
-				finishBeanFactoryInitialization(beanFactory);
+					// Check for listener beans and register them.
+					registerListeners();
 
-				// Last step: publish corresponding event.
-				finishRefresh();
-			}
+					// Instantiate all remaining (non-lazy-init) singletons.
+					finishBeanFactoryInitialization(beanFactory);
 
-			catch (BeansException ex) {
-				if (logger.isWarnEnabled()) {
-					logger.warn("Exception encountered during context initialization - " +
-							"cancelling refresh attempt: " + ex);
+					// Last step: publish corresponding event.
+					finishRefresh();
 				}
 
-				// Destroy already created singletons to avoid dangling resources.
-				destroyBeans();
+				catch (BeansException ex) {
+					if (logger.isWarnEnabled()) {
+						logger.warn("Exception encountered during context initialization - " +
+								"cancelling refresh attempt: " + ex);
+					}
+
+					// Destroy already created singletons to avoid dangling resources.
+					destroyBeans();
 
-				// Reset 'active' flag.
-				cancelRefresh(ex);
+					// Reset 'active' flag.
+					cancelRefresh(ex);
 
-				// Propagate exception to caller.
-				throw ex;
-			}
+					// Propagate exception to caller.
+					throw ex;
+				}
 
+				finally {
+					// Reset common introspection caches in Spring's core, since we
+					// might not ever need metadata for singleton beans anymore...
+					resetCommonCaches();
+				}
+			}
 			finally {
-				// Reset common introspection caches in Spring's core, since we
-				// might not ever need metadata for singleton beans anymore...
-				resetCommonCaches();
+				contextRefresh.end();
 			}
 		}
 	}
@@ -582,6 +629,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 			logger.info("Refreshing " + this);
 		}
 
+		// Resolve properties against the current property sources during refresh
+		setPropertyResolutionFrozen(false);
+
 		// Initialize any placeholder property sources in the context environment
 		initPropertySources();
 
@@ -628,6 +678,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		beanFactory.setBeanClassLoader(getClassLoader());
 		beanFactory.setBeanExpressionResolver(new StandardBeanExpressionResolver(beanFactory.getBeanClassLoader()));
 		beanFactory.addPropertyEditorRegistrar(new ResourceEditorRegistrar(this, getEnvironment()));
+		if (beanFactory instanceof AbstractBeanFactory) {
+			((AbstractBeanFactory) beanFactory).setApplicationStartup(getApplicationStartup());
+		}
 
 		// Configure the bean factory with context callbacks.
 		beanFactory.addBeanPostProcessor(new ApplicationContextAwareProcessor(this));
@@ -665,6 +718,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		if (!beanFactory.containsLocalBean(SYSTEM_ENVIRONMENT_BEAN_NAME)) {
 			beanFactory.registerSingleton(SYSTEM_ENVIRONMENT_BEAN_NAME, getEnvironment().getSystemEnvironment());
 		}
+		if (!beanFactory.containsLocalBean(APPLICATION_STARTUP_BEAN_NAME)) {
+			beanFactory.registerSingleton(APPLICATION_STARTUP_BEAN_NAME, getApplicationStartup());
+		}
 	}
 
 	/**
@@ -778,6 +834,7 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		else {
 			DefaultLifecycleProcessor defaultProcessor = new DefaultLifecycleProcessor();
 			defaultProcessor.setBeanFactory(beanFactory);
+			defaultProcessor.setApplicationStartup(getApplicationStartup());
 			this.lifecycleProcessor = defaultProcessor;
 			beanFactory.registerSingleton(LIFECYCLE_PROCESSOR_BEAN_NAME, this.lifecycleProcessor);
 			if (logger.isDebugEnabled()) {
@@ -856,6 +913,14 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 			getBean(weaverAwareName);
 		}
 
+		// Initialize bootstrap executor for parallel pre-instantiation of singletons, if any.
+		if (beanFactory instanceof DefaultListableBeanFactory &&
+				beanFactory.containsBean(BOOTSTRAP_EXECUTOR_BEAN_NAME) &&
+				beanFactory.isTypeMatch(BOOTSTRAP_EXECUTOR_BEAN_NAME, Executor.class)) {
+			((DefaultListableBeanFactory) beanFactory).setBootstrapExecutor(
+					beanFactory.getBean(BOOTSTRAP_EXECUTOR_BEAN_NAME, Executor.class));
+		}
+
 		// Stop using the temporary ClassLoader for type matching.
 		beanFactory.setTempClassLoader(null);
 
@@ -872,6 +937,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 	 * {@link ContextRefreshedEvent}.
 	 */
 	protected void finishRefresh() {
+		// Memoize environment properties from here on, if requested.
+		setPropertyResolutionFrozen(true);
+
 		// Initialize lifecycle processor for this context.
 		initLifecycleProcessor();
 
@@ -885,6 +953,20 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		LiveBeansView.registerApplicationContext(this);
 	}
 
+	/**
+	 * Freeze or unfreeze property resolution in this context's environment,
+	 * provided that the "spring.environment.freeze" flag has been set.
+	 * @see AbstractEnvironment#FREEZE_PROPERTY_RESOLUTION_PROPERTY_NAME
+	 */
+	private void setPropertyResolutionFrozen(boolean frozen) {
+		if (SpringProperties.getFlag(AbstractEnvironment.FREEZE_PROPERTY_RESOLUTION_PROPERTY_NAME)) {
+			ConfigurableEnvironment environment = getEnvironment();
+			if (environment instanceof AbstractEnvironment) {
+				((AbstractEnvironment) environment).setPropertyResolutionFrozen(frozen);
+			}
+		}
+	}
+
 	/**
 	 * Cancel this context's refresh attempt, resetting the {@code active} flag
 	 * after an exception got thrown.
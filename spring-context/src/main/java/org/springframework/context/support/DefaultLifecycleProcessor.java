@@ -39,6 +39,9 @@ import org.springframework.context.Lifecycle;
 import org.springframework.context.LifecycleProcessor;
 import org.springframework.context.Phased;
 import org.springframework.context.SmartLifecycle;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.util.Assert;
 
 /**
  * Default implementation of the {@link LifecycleProcessor} strategy.
@@ -57,6 +60,8 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 
 	private volatile ConfigurableListableBeanFactory beanFactory;
 
+	private ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
+
 
 	/**
 	 * Specify the maximum time allotted in milliseconds for the shutdown of
@@ -67,6 +72,17 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 		this.timeoutPerShutdownPhase = timeoutPerShutdownPhase;
 	}
 
+	/**
+	 * Set the {@link ApplicationStartup} to record the start of each phase
+	 * and each lifecycle bean with.
+	 * <p>Default is {@link ApplicationStartup#DEFAULT}, not recording anything.
+	 * @since 4.3.8
+	 */
+	public void setApplicationStartup(ApplicationStartup applicationStartup) {
+		Assert.notNull(applicationStartup, "ApplicationStartup must not be null");
+		this.applicationStartup = applicationStartup;
+	}
+
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
 		if (!(beanFactory instanceof ConfigurableListableBeanFactory)) {
@@ -171,12 +187,17 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 				if (logger.isDebugEnabled()) {
 					logger.debug("Starting bean '" + beanName + "' of type [" + bean.getClass() + "]");
 				}
+				StartupStep beanStart = this.applicationStartup.start("spring.context.lifecycle.start")
+						.tag("beanName", beanName);
 				try {
 					bean.start();
 				}
 				catch (Throwable ex) {
 					throw new ApplicationContextException("Failed to start bean '" + beanName + "'", ex);
 				}
+				finally {
+					beanStart.end();
+				}
 				if (logger.isDebugEnabled()) {
 					logger.debug("Successfully started bean '" + beanName + "'");
 				}
@@ -343,11 +364,18 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 				logger.info("Starting beans in phase " + this.phase);
 			}
 			Collections.sort(this.members);
-			for (LifecycleGroupMember member : this.members) {
-				if (this.lifecycleBeans.containsKey(member.name)) {
-					doStart(this.lifecycleBeans, member.name, this.autoStartupOnly);
+			StartupStep phaseStart = applicationStartup.start("spring.context.lifecycle.phase.start")
+					.tag("phase", String.valueOf(this.phase));
+			try {
+				for (LifecycleGroupMember member : this.members) {
+					if (this.lifecycleBeans.containsKey(member.name)) {
+						doStart(this.lifecycleBeans, member.name, this.autoStartupOnly);
+					}
 				}
 			}
+			finally {
+				phaseStart.end();
+			}
 		}
 
 		public void stop() {
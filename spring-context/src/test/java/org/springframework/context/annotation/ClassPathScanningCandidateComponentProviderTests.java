@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2010 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,7 +18,11 @@ package org.springframework.context.annotation;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Pattern;
 
 import example.profilescan.DevComponent;
@@ -35,12 +39,19 @@ import example.scannable.StubFooDao;
 import org.aspectj.lang.annotation.Aspect;
 import org.junit.Test;
 
+import org.springframework.beans.factory.BeanDefinitionStoreException;
 import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.index.CandidateComponentsTestClassLoader;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
 import org.springframework.core.type.filter.AssignableTypeFilter;
 import org.springframework.core.type.filter.RegexPatternTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Controller;
 import org.springframework.stereotype.Repository;
@@ -73,6 +84,43 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		assertTrue(containsBeanClass(candidates, ServiceInvocationCounter.class));
 	}
 
+	@Test
+	public void testWithDefaultsInParallel() {
+		ClassPathScanningCandidateComponentProvider sequentialProvider = new ClassPathScanningCandidateComponentProvider(true);
+		List<String> expected = getBeanClassNames(sequentialProvider.findCandidateComponents(TEST_BASE_PACKAGE));
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+			provider.setTaskExecutor(executor);
+			Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
+			assertEquals(6, candidates.size());
+			assertEquals(expected, getBeanClassNames(candidates));
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(expected = BeanDefinitionStoreException.class)
+	public void testWithFailingFilterInParallel() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
+			provider.setTaskExecutor(executor);
+			provider.addIncludeFilter(new TypeFilter() {
+				@Override
+				public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+					throw new IllegalStateException("Filter failure");
+				}
+			});
+			provider.findCandidateComponents(TEST_BASE_PACKAGE);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
 	@Test
 	public void testWithBogusBasePackage() {
 		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
@@ -88,6 +136,44 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		assertEquals(0, candidates.size());
 	}
 
+	@Test
+	public void testWithComponentsIndex() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.index(getClass().getClassLoader(),
+						new ClassPathResource("spring.components", FooServiceImpl.class))));
+		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
+		assertEquals(2, candidates.size());
+		assertTrue(containsBeanClass(candidates, FooServiceImpl.class));
+		assertTrue(containsBeanClass(candidates, StubFooDao.class));
+	}
+
+	@Test
+	public void testWithComponentsIndexAndPackageNotCovered() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(true);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.index(getClass().getClassLoader(),
+						new ClassPathResource("spring.components", FooServiceImpl.class))));
+		ConfigurableEnvironment env = new StandardEnvironment();
+		env.setActiveProfiles(ProfileAnnotatedComponent.PROFILE_NAME);
+		provider.setEnvironment(env);
+		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_PROFILE_PACKAGE);
+		assertTrue(containsBeanClass(candidates, ProfileAnnotatedComponent.class));
+	}
+
+	@Test
+	public void testWithComponentsIndexAndUnsupportedIncludeFilter() {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
+		provider.setResourceLoader(new DefaultResourceLoader(
+				CandidateComponentsTestClassLoader.index(getClass().getClassLoader(),
+						new ClassPathResource("spring.components", FooServiceImpl.class))));
+		provider.addIncludeFilter(new RegexPatternTypeFilter(Pattern.compile(TEST_BASE_PACKAGE + ".*Named.*")));
+		Set<BeanDefinition> candidates = provider.findCandidateComponents(TEST_BASE_PACKAGE);
+		assertTrue(containsBeanClass(candidates, NamedComponent.class));
+		assertTrue(containsBeanClass(candidates, NamedStubDao.class));
+		assertFalse(containsBeanClass(candidates, FooServiceImpl.class));
+	}
+
 	@Test
 	public void testWithNoFilters() {
 		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
@@ -304,6 +390,14 @@ public class ClassPathScanningCandidateComponentProviderTests {
 		}
 	}
 
+	private List<String> getBeanClassNames(Set<BeanDefinition> candidates) {
+		List<String> beanClassNames = new ArrayList<String>();
+		for (BeanDefinition candidate : candidates) {
+			beanClassNames.add(candidate.getBeanClassName());
+		}
+		return beanClassNames;
+	}
+
 	private boolean containsBeanClass(Set<BeanDefinition> candidates, Class<?> beanClass) {
 		for (BeanDefinition candidate : candidates) {
 			ScannedGenericBeanDefinition definition = (ScannedGenericBeanDefinition) candidate;
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import org.springframework.beans.factory.support.BeanDefinitionSnapshot;
+import org.springframework.beans.factory.support.BeanDefinitionSnapshotPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.ClassUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for restoring configuration class processing results
+ * from a {@link BeanDefinitionSnapshot}.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+public class ConfigurationClassSnapshotTests {
+
+	@Test
+	public void restoreFromSnapshot() throws Exception {
+		AnnotationConfigApplicationContext original = new AnnotationConfigApplicationContext(Config.class);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BeanDefinitionSnapshot.forBeanFactory(original.getBeanFactory(), "fp").writeTo(out);
+		original.close();
+
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.readFrom(
+				new ByteArrayInputStream(out.toByteArray()), getClass().getClassLoader());
+		GenericApplicationContext ctx = new GenericApplicationContext();
+		snapshot.registerBeanDefinitions(ctx);
+		ctx.refresh();
+
+		assertTrue(ClassUtils.isCglibProxy(ctx.getBean(Config.class)));
+		assertSame(ctx.getBean("name"), ctx.getBean(Config.class).name());
+		assertEquals("restored", ctx.getBean(ImportedConfig.class).value);
+		assertEquals("restored!", ctx.getBean("importedName"));
+		ctx.close();
+	}
+
+	@Test
+	public void restoreFromSnapshotTakenBeforePlaceholderResolution() throws Exception {
+		AnnotationConfigApplicationContext original = new AnnotationConfigApplicationContext();
+		original.register(PropertySourceConfig.class);
+		original.registerBeanDefinition("testBean", testBeanDefinition());
+		String fingerprint = BeanDefinitionSnapshot.fingerprint(getClass().getClassLoader(), original.getEnvironment());
+		BeanDefinitionSnapshotPostProcessor snapshotter = new BeanDefinitionSnapshotPostProcessor(fingerprint);
+		original.addBeanFactoryPostProcessor(snapshotter);
+		original.refresh();
+		assertEquals("p1TestBean", original.getBean(TestBean.class).getName());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshotter.getSnapshot().writeTo(out);
+		original.close();
+
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.readFrom(
+				new ByteArrayInputStream(out.toByteArray()), getClass().getClassLoader());
+		assertEquals("${testbean.name}",
+				snapshot.getBeanDefinition("testBean").getPropertyValues().getPropertyValue("name").getValue());
+		GenericApplicationContext ctx = new GenericApplicationContext();
+		ctx.getEnvironment().getPropertySources().addFirst(new MapPropertySource("override",
+				Collections.<String, Object>singletonMap("testbean.name", "overridden")));
+		assertFalse(fingerprint.equals(BeanDefinitionSnapshot.fingerprint(getClass().getClassLoader(), ctx.getEnvironment())));
+		snapshot.registerBeanDefinitions(ctx);
+		ctx.refresh();
+
+		assertEquals("overridden", ctx.getBean(TestBean.class).getName());
+		assertEquals("p1Value", ctx.getEnvironment().getProperty("from.p1"));
+		ctx.close();
+	}
+
+
+	private static RootBeanDefinition testBeanDefinition() {
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("name", "${testbean.name}");
+		return bd;
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Import(ImportedConfig.class)
+	public @interface EnableImported {
+
+		String value();
+	}
+
+
+	@Configuration
+	@EnableImported("restored")
+	static class Config {
+
+		@Bean
+		public String name() {
+			return new String("name");
+		}
+	}
+
+
+	@Configuration
+	@PropertySource("classpath:org/springframework/context/annotation/p1.properties")
+	static class PropertySourceConfig {
+
+		@Bean
+		public static PropertySourcesPlaceholderConfigurer placeholderConfigurer() {
+			return new PropertySourcesPlaceholderConfigurer();
+		}
+	}
+
+
+	@Configuration
+	static class ImportedConfig implements ImportAware {
+
+		String value;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.value = (String) importMetadata.getAnnotationAttributes(EnableImported.class.getName()).get("value");
+		}
+
+		@Bean
+		public String importedName() {
+			return this.value + "!";
+		}
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link CandidateComponentsIndexLoader}.
+ *
+ * @author Stephane Nicoll
+ */
+public class CandidateComponentsIndexLoaderTests {
+
+	@Test
+	public void validateIndexIsDisabledByDefault() {
+		CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(null);
+		assertNull("No spring.components should be available at the default location", index);
+	}
+
+	@Test
+	public void loadIndexSeveralMatches() {
+		CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(
+				CandidateComponentsTestClassLoader.index(getClass().getClassLoader(),
+						new ClassPathResource("spring.components", getClass())));
+		Set<String> components = index.getCandidateTypes("org.springframework", "foo");
+		assertEquals(2, components.size());
+		assertTrue(components.contains("org.springframework.context.index.Sample1"));
+		assertTrue(components.contains("org.springframework.context.index.Sample2"));
+	}
+
+	@Test
+	public void loadIndexSingleMatch() {
+		CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(
+				CandidateComponentsTestClassLoader.index(getClass().getClassLoader(),
+						new ClassPathResource("spring.components", getClass())));
+		Set<String> components = index.getCandidateTypes("org.springframework", "biz");
+		assertEquals(1, components.size());
+		assertTrue(components.contains("org.springframework.context.index.Sample3"));
+	}
+
+	@Test
+	public void loadIndexNoMatch() {
+		CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(
+				CandidateComponentsTestClassLoader.index(getClass().getClassLoader(),
+						new ClassPathResource("spring.components", getClass())));
+		Set<String> components = index.getCandidateTypes("org.springframework", "none");
+		assertEquals(0, components.size());
+	}
+
+	@Test
+	public void loadIndexNoPackage() {
+		CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(
+				CandidateComponentsTestClassLoader.index(getClass().getClassLoader(),
+						new ClassPathResource("spring.components", getClass())));
+		Set<String> components = index.getCandidateTypes("com.example", "foo");
+		assertEquals(0, components.size());
+	}
+
+	@Test
+	public void loadIndexNoSpringComponentsResource() {
+		CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(
+				CandidateComponentsTestClassLoader.disableIndex(getClass().getClassLoader()));
+		assertNull(index);
+	}
+
+	@Test
+	public void loadIndexNoEntry() {
+		CandidateComponentsIndex index = CandidateComponentsIndexLoader.loadIndex(
+				CandidateComponentsTestClassLoader.index(getClass().getClassLoader(),
+						new ClassPathResource("empty-spring.components", getClass())));
+		assertNull(index);
+	}
+
+	@Test
+	public void loadIndexWithException() {
+		final IOException cause = new IOException("test exception");
+		try {
+			CandidateComponentsIndexLoader.loadIndex(new CandidateComponentsTestClassLoader(
+					getClass().getClassLoader(), cause));
+			fail("Should have failed to load index");
+		}
+		catch (IllegalStateException ex) {
+			assertTrue(ex.getMessage().contains("Unable to load indexes"));
+			assertSame(cause, ex.getCause());
+		}
+	}
+
+}
@@ -27,6 +27,8 @@ import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.Lifecycle;
 import org.springframework.context.LifecycleProcessor;
 import org.springframework.context.SmartLifecycle;
+import org.springframework.core.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.buffering.StartupTimeline;
 import org.springframework.tests.Assume;
 import org.springframework.tests.TestGroup;
 
@@ -77,6 +79,35 @@ public class DefaultLifecycleProcessorTests {
 		assertEquals(1, startedBeans.size());
 	}
 
+	@Test
+	public void singleSmartLifecycleAutoStartupRecorded() throws Exception {
+		CopyOnWriteArrayList<Lifecycle> startedBeans = new CopyOnWriteArrayList<Lifecycle>();
+		TestSmartLifecycleBean bean = TestSmartLifecycleBean.forStartupTests(3, startedBeans);
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(100);
+		StaticApplicationContext context = new StaticApplicationContext();
+		context.setApplicationStartup(applicationStartup);
+		context.getBeanFactory().registerSingleton("bean", bean);
+		context.refresh();
+		assertTrue(bean.isRunning());
+
+		StartupTimeline.TimelineEvent phaseStart = null;
+		StartupTimeline.TimelineEvent beanStart = null;
+		for (StartupTimeline.TimelineEvent event : applicationStartup.getBufferedTimeline().getEvents()) {
+			if (event.getName().equals("spring.context.lifecycle.phase.start")) {
+				phaseStart = event;
+			}
+			else if (event.getName().equals("spring.context.lifecycle.start")) {
+				beanStart = event;
+			}
+		}
+		assertNotNull(phaseStart);
+		assertEquals("3", phaseStart.getTags().iterator().next().getValue());
+		assertNotNull(beanStart);
+		assertEquals("bean", beanStart.getTags().iterator().next().getValue());
+		assertEquals(Long.valueOf(phaseStart.getId()), beanStart.getParentId());
+		context.stop();
+	}
+
 	@Test
 	public void singleSmartLifecycleAutoStartupWithLazyInit() throws Exception {
 		StaticApplicationContext context = new StaticApplicationContext();
@@ -16,11 +16,20 @@
 
 package org.springframework.context.support;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.junit.Test;
 
 import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.core.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.buffering.StartupTimeline;
 
 import static org.junit.Assert.*;
 
@@ -85,4 +94,79 @@ public class GenericApplicationContextTests {
 		}
 	}
 
+	@Test
+	public void refreshRecordedWithApplicationStartup() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(1000);
+		GenericApplicationContext ac = new GenericApplicationContext();
+		ac.setApplicationStartup(applicationStartup);
+		ac.registerBeanDefinition("testBean", new RootBeanDefinition(String.class));
+		ac.registerBeanDefinition("postProcessor", new RootBeanDefinition(NoOpBeanFactoryPostProcessor.class));
+		ac.refresh();
+
+		assertSame(applicationStartup, ac.getBean(ConfigurableApplicationContext.APPLICATION_STARTUP_BEAN_NAME));
+		Map<String, StartupTimeline.TimelineEvent> events = new HashMap<String, StartupTimeline.TimelineEvent>();
+		for (StartupTimeline.TimelineEvent event : applicationStartup.getBufferedTimeline().getEvents()) {
+			String key = event.getName();
+			for (StartupStep.Tag tag : event.getTags()) {
+				key += ":" + tag.getValue();
+			}
+			events.put(key, event);
+		}
+		StartupTimeline.TimelineEvent refresh = events.get("spring.context.refresh");
+		assertNotNull(refresh);
+		assertNull(refresh.getParentId());
+		StartupTimeline.TimelineEvent postProcess = events.get("spring.context.beans.post-process");
+		assertEquals(Long.valueOf(refresh.getId()), postProcess.getParentId());
+		StartupTimeline.TimelineEvent factoryPostProcess =
+				events.get("spring.context.bean-factory.post-process:" + NoOpBeanFactoryPostProcessor.class.getName());
+		assertEquals(Long.valueOf(postProcess.getId()), factoryPostProcess.getParentId());
+		StartupTimeline.TimelineEvent instantiate = events.get("spring.beans.instantiate:testBean");
+		assertEquals(Long.valueOf(refresh.getId()), instantiate.getParentId());
+		assertEquals(Long.valueOf(instantiate.getId()),
+				events.get("spring.beans.init-methods:testBean").getParentId());
+		assertNotNull(events.get("spring.beans.post-process.before-initialization:testBean"));
+		assertNotNull(events.get("spring.beans.post-process.after-initialization:testBean"));
+		assertTrue(refresh.getDurationNanos() >= instantiate.getDurationNanos());
+	}
+
+	@Test
+	public void refreshStepEndedWhenBeanFactoryCannotBeObtained() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(1000);
+		GenericApplicationContext ac = new GenericApplicationContext();
+		ac.setApplicationStartup(applicationStartup);
+		ac.refresh();
+		try {
+			ac.refresh();
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected: GenericApplicationContext does not support multiple refreshes
+		}
+
+		// A subsequent step in the same thread must not be nested under the failed refresh
+		applicationStartup.start("test").end();
+		int refreshCount = 0;
+		boolean testStepFound = false;
+		for (StartupTimeline.TimelineEvent event : applicationStartup.getBufferedTimeline().getEvents()) {
+			if ("spring.context.refresh".equals(event.getName())) {
+				assertNull(event.getParentId());
+				refreshCount++;
+			}
+			else if ("test".equals(event.getName())) {
+				assertNull(event.getParentId());
+				testStepFound = true;
+			}
+		}
+		assertEquals(2, refreshCount);
+		assertTrue(testStepFound);
+	}
+
+
+	public static class NoOpBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+		@Override
+		public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+		}
+	}
+
 }
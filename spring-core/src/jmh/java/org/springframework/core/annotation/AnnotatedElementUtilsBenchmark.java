@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link AnnotatedElementUtils} lookups of composed annotations on
+ * classes and methods, including lookups for annotations which are not present.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AnnotatedElementUtilsBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class MethodState {
+
+		public Method method;
+
+		@Setup
+		public void setup() throws Exception {
+			this.method = AnnotatedService.class.getMethod("handle", String.class);
+		}
+	}
+
+
+	@Benchmark
+	public boolean hasMetaAnnotationOnClass() {
+		return AnnotatedElementUtils.hasAnnotation(AnnotatedService.class, Component.class);
+	}
+
+	@Benchmark
+	public Object getMergedAnnotationOnClass() {
+		return AnnotatedElementUtils.getMergedAnnotation(AnnotatedService.class, Component.class);
+	}
+
+	@Benchmark
+	public Object findMergedAnnotationOnInterfaceMethod(MethodState state) {
+		return AnnotatedElementUtils.findMergedAnnotation(state.method, Handler.class);
+	}
+
+	@Benchmark
+	public Object findMissingAnnotationOnMethod(MethodState state) {
+		return AnnotatedElementUtils.findMergedAnnotation(state.method, Component.class);
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.ANNOTATION_TYPE})
+	public @interface Component {
+
+		String value() default "";
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	@Inherited
+	@Component
+	public @interface Service {
+
+		@AliasFor(annotation = Component.class)
+		String value() default "";
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.METHOD)
+	public @interface Handler {
+
+		String[] value() default {};
+	}
+
+
+	public interface HandlerInterface {
+
+		@Handler("/handle")
+		void handle(String value);
+	}
+
+
+	@Service("service")
+	public static class AnnotatedService implements HandlerInterface {
+
+		@Override
+		public void handle(String value) {
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.convert.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.convert.TypeDescriptor;
+
+/**
+ * Benchmarks for common {@link DefaultConversionService} conversions: simple
+ * values, enums, collections with element conversion and unsupported pairs.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DefaultConversionServiceBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class ConversionState {
+
+		public DefaultConversionService conversionService;
+
+		public List<String> strings;
+
+		public TypeDescriptor sourceListType;
+
+		public TypeDescriptor targetListType;
+
+		@Setup
+		public void setup() {
+			this.conversionService = new DefaultConversionService();
+			this.strings = new ArrayList<String>();
+			for (int i = 0; i < 10; i++) {
+				this.strings.add(String.valueOf(i));
+			}
+			this.sourceListType = TypeDescriptor.collection(List.class, TypeDescriptor.valueOf(String.class));
+			this.targetListType = TypeDescriptor.collection(List.class, TypeDescriptor.valueOf(Integer.class));
+		}
+	}
+
+
+	@Benchmark
+	public Integer stringToInteger(ConversionState state) {
+		return state.conversionService.convert("42", Integer.class);
+	}
+
+	@Benchmark
+	public String integerToString(ConversionState state) {
+		return state.conversionService.convert(42, String.class);
+	}
+
+	@Benchmark
+	public TimeUnit stringToEnum(ConversionState state) {
+		return state.conversionService.convert("SECONDS", TimeUnit.class);
+	}
+
+	@Benchmark
+	public Object listOfStringToListOfInteger(ConversionState state) {
+		return state.conversionService.convert(state.strings, state.sourceListType, state.targetListType);
+	}
+
+	@Benchmark
+	public boolean canConvertUnsupportedPair(ConversionState state) {
+		return state.conversionService.canConvert(ConversionState.class, DefaultConversionServiceBenchmark.class);
+	}
+
+}
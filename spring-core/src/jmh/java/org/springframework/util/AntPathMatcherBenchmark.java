@@ -0,0 +1,76 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link AntPathMatcher} matching of literal, wildcard and
+ * URI template patterns as used for request mappings and resource lookups.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AntPathMatcherBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class MatcherState {
+
+		public AntPathMatcher pathMatcher;
+
+		@Setup
+		public void setup() {
+			this.pathMatcher = new AntPathMatcher();
+		}
+	}
+
+
+	@Benchmark
+	public boolean matchLiteral(MatcherState state) {
+		return state.pathMatcher.match("/api/projects/spring-framework/releases", "/api/projects/spring-framework/releases");
+	}
+
+	@Benchmark
+	public boolean matchWildcards(MatcherState state) {
+		return state.pathMatcher.match("/api/projects/*/releases/*.json", "/api/projects/spring-framework/releases/4.3.json");
+	}
+
+	@Benchmark
+	public boolean matchDoubleWildcard(MatcherState state) {
+		return state.pathMatcher.match("/static/**/*.css", "/static/css/theme/default/main.css");
+	}
+
+	@Benchmark
+	public boolean noMatch(MatcherState state) {
+		return state.pathMatcher.match("/api/projects/{project}/releases", "/api/users/jhoeller/repositories");
+	}
+
+	@Benchmark
+	public Map<String, String> extractUriTemplateVariables(MatcherState state) {
+		return state.pathMatcher.extractUriTemplateVariables(
+				"/api/projects/{project}/releases/{version:\\d\\.\\d}", "/api/projects/spring-framework/releases/4.3");
+	}
+
+}
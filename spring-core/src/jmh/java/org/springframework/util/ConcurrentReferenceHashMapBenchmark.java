@@ -0,0 +1,142 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import org.springframework.util.ConcurrentReferenceHashMap.ReferenceType;
+
+/**
+ * Benchmarks for {@link ConcurrentReferenceHashMap} used as a framework cache, i.e.
+ * look-ups with creation of missing entries, under contention of 32 threads: read-only,
+ * interleaved with writes, and interleaved with removals which lead to references to
+ * purge. {@link ConcurrentHashMap} serves as a baseline, e.g.
+ * {@code ./gradlew :spring-core:jmh -PjmhArgs="ConcurrentReferenceHashMap -prof gc"}.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+@BenchmarkMode(Mode.Throughput)
+@Threads(32)
+public class ConcurrentReferenceHashMapBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class MapState {
+
+		@Param({"SOFT", "WEAK"})
+		public ReferenceType referenceType;
+
+		@Param({"1024"})
+		public int size;
+
+		public ConcurrentReferenceHashMap<String, Object> referenceMap;
+
+		public ConcurrentHashMap<String, Object> concurrentMap;
+
+		public String[] keys;
+
+		@Setup
+		public void setup() {
+			this.referenceMap = new ConcurrentReferenceHashMap<String, Object>(this.size, this.referenceType);
+			this.concurrentMap = new ConcurrentHashMap<String, Object>(this.size);
+			this.keys = new String[this.size];
+			for (int i = 0; i < this.size; i++) {
+				this.keys[i] = "key" + i;
+				this.referenceMap.put(this.keys[i], this.keys[i]);
+				this.concurrentMap.put(this.keys[i], this.keys[i]);
+			}
+		}
+	}
+
+
+	@State(Scope.Thread)
+	public static class ThreadState {
+
+		public int index;
+
+		@Setup
+		public void setup() {
+			this.index = ThreadLocalRandom.current().nextInt(1024);
+		}
+
+		public int next(int size) {
+			this.index = (this.index + 1) % size;
+			return this.index;
+		}
+	}
+
+
+	@Benchmark
+	public Object concurrentHashMapGet(MapState map, ThreadState thread) {
+		String key = map.keys[thread.next(map.size)];
+		Object value = map.concurrentMap.get(key);
+		if (value == null) {
+			value = key;
+			map.concurrentMap.put(key, value);
+		}
+		return value;
+	}
+
+	@Benchmark
+	public Object get(MapState map, ThreadState thread) {
+		return getOrCreate(map, map.keys[thread.next(map.size)]);
+	}
+
+	@Benchmark
+	public Object getWithWrites(MapState map, ThreadState thread) {
+		int index = thread.next(map.size);
+		String key = map.keys[index];
+		if ((index & 15) == 0) {
+			return map.referenceMap.put(key, key);
+		}
+		return getOrCreate(map, key);
+	}
+
+	@Benchmark
+	public Object getWithPurging(MapState map, ThreadState thread) {
+		int index = thread.next(map.size);
+		String key = map.keys[index];
+		if ((index & 63) == 0) {
+			// Released references get purged by subsequent operations on the segment
+			String transientKey = key + "-transient";
+			map.referenceMap.put(transientKey, transientKey);
+			return map.referenceMap.remove(transientKey);
+		}
+		return getOrCreate(map, key);
+	}
+
+
+	private static Object getOrCreate(MapState map, String key) {
+		Object value = map.referenceMap.get(key);
+		if (value == null) {
+			value = key;
+			map.referenceMap.put(key, value);
+		}
+		return value;
+	}
+
+}
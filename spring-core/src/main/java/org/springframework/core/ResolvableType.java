@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -92,6 +92,10 @@ public class ResolvableType implements Serializable {
 	private static final ConcurrentReferenceHashMap<ResolvableType, ResolvableType> cache =
 			new ConcurrentReferenceHashMap<ResolvableType, ResolvableType>(256);
 
+	/** Shared plain Class wrappers, retaining their lazily resolved type hierarchy */
+	private static final ConcurrentReferenceHashMap<Class<?>, ResolvableType> classCache =
+			new ConcurrentReferenceHashMap<Class<?>, ResolvableType>(256);
+
 
 	/**
 	 * The underlying Java type being managed (only ever {@code null} for {@link #NONE}).
@@ -923,6 +927,8 @@ public class ResolvableType implements Serializable {
 	 * Return a {@link ResolvableType} for the specified {@link Class},
 	 * using the full generic type information for assignability checks.
 	 * For example: {@code ResolvableType.forClass(MyArrayList.class)}.
+	 * <p>As of 4.3.8, the returned instance is shared for a given class, so that
+	 * supertypes, interfaces and generics get resolved only once per class.
 	 * @param clazz the class to introspect ({@code null} is semantically
 	 * equivalent to {@code Object.class} for typical use cases here}
 	 * @return a {@link ResolvableType} for the specified class
@@ -930,7 +936,15 @@ public class ResolvableType implements Serializable {
 	 * @see #forClassWithGenerics(Class, Class...)
 	 */
 	public static ResolvableType forClass(Class<?> clazz) {
-		return new ResolvableType(clazz);
+		if (clazz == null) {
+			clazz = Object.class;
+		}
+		ResolvableType resolvableType = classCache.get(clazz);
+		if (resolvableType == null) {
+			resolvableType = new ResolvableType(clazz);
+			classCache.put(clazz, resolvableType);
+		}
+		return resolvableType;
 	}
 
 	/**
@@ -1339,6 +1353,10 @@ public class ResolvableType implements Serializable {
 		// For simple Class references, build the wrapper right away -
 		// no expensive resolution necessary, so not worth caching...
 		if (type instanceof Class) {
+			if (typeProvider == null && variableResolver == null) {
+				// ... unless it is a plain Class wrapper: share it along with its type hierarchy
+				return forClass((Class<?>) type);
+			}
 			return new ResolvableType(type, typeProvider, variableResolver, (ResolvableType) null);
 		}
 
@@ -1356,11 +1374,13 @@ public class ResolvableType implements Serializable {
 	}
 
 	/**
-	 * Clear the internal {@code ResolvableType} cache.
+	 * Clear the internal {@code ResolvableType} and {@code SerializableTypeWrapper} caches.
 	 * @since 4.2
 	 */
 	public static void clearCache() {
 		cache.clear();
+		classCache.clear();
+		SerializableTypeWrapper.cache.clear();
 	}
 
 
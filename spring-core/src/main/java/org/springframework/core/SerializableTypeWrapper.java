@@ -50,16 +50,36 @@ import org.springframework.util.ReflectionUtils;
  * methods that return further {@link Type}s (for example
  * {@link GenericArrayType#getGenericComponentType()}) will be automatically wrapped.
  *
+ * <p>Setting the {@link #IGNORE_TYPE_WRAPPER_PROPERTY_NAME "spring.typewrapper.ignore"}
+ * property to "true" skips the proxy creation, returning the original types instead:
+ * for applications which never serialize {@link ResolvableType} or
+ * {@link org.springframework.core.convert.TypeDescriptor} instances.
+ *
  * @author Phillip Webb
  * @author Juergen Hoeller
  * @since 4.0
  */
 abstract class SerializableTypeWrapper {
 
+	/**
+	 * System property that instructs Spring to return the original, potentially
+	 * non-serializable {@link Type} instances instead of serializable proxies:
+	 * "spring.typewrapper.ignore".
+	 * <p>The default is "false", creating serializable proxies for generic types.
+	 * Consider switching this flag to "true" if type metadata is never serialized,
+	 * avoiding proxy creation as well as reflective invocation on resolution.
+	 * @since 4.3.8
+	 * @see org.springframework.core.SpringProperties
+	 */
+	public static final String IGNORE_TYPE_WRAPPER_PROPERTY_NAME = "spring.typewrapper.ignore";
+
+	private static final boolean shouldIgnoreTypeWrapper =
+			SpringProperties.getFlag(IGNORE_TYPE_WRAPPER_PROPERTY_NAME);
+
 	private static final Class<?>[] SUPPORTED_SERIALIZABLE_TYPES = {
 			GenericArrayType.class, ParameterizedType.class, TypeVariable.class, WildcardType.class};
 
-	private static final ConcurrentReferenceHashMap<Type, Type> cache =
+	static final ConcurrentReferenceHashMap<Type, Type> cache =
 			new ConcurrentReferenceHashMap<Type, Type>(256);
 
 
@@ -97,7 +117,8 @@ abstract class SerializableTypeWrapper {
 	 */
 	@SuppressWarnings("serial")
 	public static Type[] forGenericInterfaces(final Class<?> type) {
-		Type[] result = new Type[type.getGenericInterfaces().length];
+		Type[] types = type.getGenericInterfaces();
+		Type[] result = new Type[types.length];
 		for (int i = 0; i < result.length; i++) {
 			final int index = i;
 			result[i] = forTypeProvider(new DefaultTypeProvider() {
@@ -105,7 +126,7 @@ abstract class SerializableTypeWrapper {
 				public Type getType() {
 					return type.getGenericInterfaces()[index];
 				}
-			});
+			}, types[i]);
 		}
 		return result;
 	}
@@ -115,7 +136,8 @@ abstract class SerializableTypeWrapper {
 	 */
 	@SuppressWarnings("serial")
 	public static Type[] forTypeParameters(final Class<?> type) {
-		Type[] result = new Type[type.getTypeParameters().length];
+		Type[] types = type.getTypeParameters();
+		Type[] result = new Type[types.length];
 		for (int i = 0; i < result.length; i++) {
 			final int index = i;
 			result[i] = forTypeProvider(new DefaultTypeProvider() {
@@ -123,7 +145,7 @@ abstract class SerializableTypeWrapper {
 				public Type getType() {
 					return type.getTypeParameters()[index];
 				}
-			});
+			}, types[i]);
 		}
 		return result;
 	}
@@ -145,26 +167,35 @@ abstract class SerializableTypeWrapper {
 	/**
 	 * Return a {@link Serializable} {@link Type} backed by a {@link TypeProvider} .
 	 */
-	static Type forTypeProvider(final TypeProvider provider) {
+	static Type forTypeProvider(TypeProvider provider) {
 		Assert.notNull(provider, "Provider must not be null");
-		if (provider.getType() instanceof Serializable || provider.getType() == null) {
-			return provider.getType();
+		return forTypeProvider(provider, provider.getType());
+	}
+
+	/**
+	 * Return a {@link Serializable} {@link Type} backed by a {@link TypeProvider},
+	 * for the given type as already obtained from the provider.
+	 * @since 4.3.8
+	 */
+	private static Type forTypeProvider(TypeProvider provider, Type providedType) {
+		if (providedType instanceof Serializable || providedType == null || shouldIgnoreTypeWrapper) {
+			return providedType;
 		}
-		Type cached = cache.get(provider.getType());
+		Type cached = cache.get(providedType);
 		if (cached != null) {
 			return cached;
 		}
 		for (Class<?> type : SUPPORTED_SERIALIZABLE_TYPES) {
-			if (type.isAssignableFrom(provider.getType().getClass())) {
+			if (type.isAssignableFrom(providedType.getClass())) {
 				ClassLoader classLoader = provider.getClass().getClassLoader();
 				Class<?>[] interfaces = new Class<?>[] {type, SerializableTypeProxy.class, Serializable.class};
 				InvocationHandler handler = new TypeProxyInvocationHandler(provider);
 				cached = (Type) Proxy.newProxyInstance(classLoader, interfaces, handler);
-				cache.put(provider.getType(), cached);
+				cache.put(providedType, cached);
 				return cached;
 			}
 		}
-		throw new IllegalArgumentException("Unsupported Type class: " + provider.getType().getClass().getName());
+		throw new IllegalArgumentException("Unsupported Type class: " + providedType.getClass().getName());
 	}
 
 
@@ -245,9 +276,11 @@ abstract class SerializableTypeWrapper {
 				return forTypeProvider(new MethodInvokeTypeProvider(this.provider, method, -1));
 			}
 			else if (Type[].class == method.getReturnType() && args == null) {
-				Type[] result = new Type[((Type[]) method.invoke(this.provider.getType(), args)).length];
+				// Invoke the target method once, sharing its result across all element providers
+				Type[] types = (Type[]) method.invoke(this.provider.getType());
+				Type[] result = new Type[types.length];
 				for (int i = 0; i < result.length; i++) {
-					result[i] = forTypeProvider(new MethodInvokeTypeProvider(this.provider, method, i));
+					result[i] = forTypeProvider(new MethodInvokeTypeProvider(this.provider, method, i, types), types[i]);
 				}
 				return result;
 			}
@@ -381,11 +414,16 @@ abstract class SerializableTypeWrapper {
 		private transient volatile Object result;
 
 		public MethodInvokeTypeProvider(TypeProvider provider, Method method, int index) {
+			this(provider, method, index, null);
+		}
+
+		MethodInvokeTypeProvider(TypeProvider provider, Method method, int index, Object result) {
 			this.provider = provider;
 			this.methodName = method.getName();
 			this.declaringClass = method.getDeclaringClass();
 			this.index = index;
 			this.method = method;
+			this.result = result;
 		}
 
 		@Override
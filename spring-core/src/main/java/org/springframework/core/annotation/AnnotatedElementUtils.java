@@ -18,6 +18,8 @@ package org.springframework.core.annotation;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,9 +28,12 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
@@ -85,6 +90,12 @@ import org.springframework.util.MultiValueMap;
  * traverses type and method hierarchies and thereby implicitly supports
  * annotation inheritance without the need for {@code @Inherited}.
  *
+ * <h3>Caching</h3>
+ * <p>As of 4.3.8, the results of merged annotation lookups against classes,
+ * methods, fields and constructors are cached in an index per annotated element,
+ * so that repeated lookups do not traverse annotation and type hierarchies again.
+ * Returned {@code AnnotationAttributes} are copies and may be modified by callers.
+ *
  * @author Phillip Webb
  * @author Juergen Hoeller
  * @author Sam Brannen
@@ -105,6 +116,16 @@ public class AnnotatedElementUtils {
 
 	private static final Processor<Boolean> alwaysTrueAnnotationProcessor = new AlwaysTrueBooleanAnnotationProcessor();
 
+	/** Marker for a cached {@code null} lookup result */
+	private static final Object NO_RESULT = new Object();
+
+	/** Marker for a lookup result that is not cached (yet) */
+	private static final Object NOT_CACHED = new Object();
+
+	/** Index of merged annotation lookup results, per annotated element */
+	private static final ConcurrentMap<AnnotatedElement, ConcurrentMap<MergedAnnotationCacheKey, Object>> mergedAnnotationCache =
+			new ConcurrentReferenceHashMap<AnnotatedElement, ConcurrentMap<MergedAnnotationCacheKey, Object>>(256);
+
 
 	/**
 	 * Build an adapted {@link AnnotatedElement} for the given annotations,
@@ -273,7 +294,14 @@ public class AnnotatedElementUtils {
 			return true;
 		}
 
-		return Boolean.TRUE.equals(searchWithGetSemantics(element, annotationType, null, alwaysTrueAnnotationProcessor));
+		MergedAnnotationCacheKey cacheKey = new MergedAnnotationCacheKey(annotationType, MergedAnnotationCacheKey.PRESENCE);
+		Object cached = getCachedResult(element, cacheKey);
+		if (cached != NOT_CACHED) {
+			return (Boolean) cached;
+		}
+		Boolean annotated = Boolean.TRUE.equals(
+				searchWithGetSemantics(element, annotationType, null, alwaysTrueAnnotationProcessor));
+		return putCachedResult(element, cacheKey, annotated);
 	}
 
 	/**
@@ -334,10 +362,15 @@ public class AnnotatedElementUtils {
 			AnnotatedElement element, Class<? extends Annotation> annotationType) {
 
 		Assert.notNull(annotationType, "'annotationType' must not be null");
+		MergedAnnotationCacheKey cacheKey = new MergedAnnotationCacheKey(annotationType, 0);
+		Object cached = getCachedResult(element, cacheKey);
+		if (cached != NOT_CACHED) {
+			return copyAttributes((AnnotationAttributes) cached);
+		}
 		AnnotationAttributes attributes = searchWithGetSemantics(element, annotationType, null,
 				new MergedAnnotationAttributesProcessor());
 		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, false, false);
-		return attributes;
+		return copyAttributes(putCachedResult(element, cacheKey, attributes));
 	}
 
 	/**
@@ -392,10 +425,16 @@ public class AnnotatedElementUtils {
 			String annotationName, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
 		Assert.hasLength(annotationName, "'annotationName' must not be null or empty");
+		MergedAnnotationCacheKey cacheKey = new MergedAnnotationCacheKey(annotationName,
+				MergedAnnotationCacheKey.modeFor(false, classValuesAsString, nestedAnnotationsAsMap));
+		Object cached = getCachedResult(element, cacheKey);
+		if (cached != NOT_CACHED) {
+			return copyAttributes((AnnotationAttributes) cached);
+		}
 		AnnotationAttributes attributes = searchWithGetSemantics(element, null, annotationName,
 				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
 		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
-		return attributes;
+		return copyAttributes(putCachedResult(element, cacheKey, attributes));
 	}
 
 	/**
@@ -416,9 +455,19 @@ public class AnnotatedElementUtils {
 	 * @see #findMergedAnnotation(AnnotatedElement, Class)
 	 * @see AnnotationUtils#synthesizeAnnotation(Map, Class, AnnotatedElement)
 	 */
+	@SuppressWarnings("unchecked")
 	public static <A extends Annotation> A getMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		Assert.notNull(annotationType, "'annotationType' must not be null");
 
+		MergedAnnotationCacheKey cacheKey = new MergedAnnotationCacheKey(annotationType, MergedAnnotationCacheKey.SYNTHESIZED);
+		Object cached = getCachedResult(element, cacheKey);
+		if (cached != NOT_CACHED) {
+			return (A) cached;
+		}
+		return putCachedResult(element, cacheKey, doGetMergedAnnotation(element, annotationType));
+	}
+
+	private static <A extends Annotation> A doGetMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		// Shortcut: directly present on the element, with no merging needed?
 		if (!(element instanceof Class)) {
 			// Do not use this shortcut against a Class: Inherited annotations
@@ -618,7 +667,15 @@ public class AnnotatedElementUtils {
 			return true;
 		}
 
-		return Boolean.TRUE.equals(searchWithFindSemantics(element, annotationType, null, alwaysTrueAnnotationProcessor));
+		MergedAnnotationCacheKey cacheKey = new MergedAnnotationCacheKey(annotationType,
+				MergedAnnotationCacheKey.FIND | MergedAnnotationCacheKey.PRESENCE);
+		Object cached = getCachedResult(element, cacheKey);
+		if (cached != NOT_CACHED) {
+			return (Boolean) cached;
+		}
+		Boolean annotated = Boolean.TRUE.equals(
+				searchWithFindSemantics(element, annotationType, null, alwaysTrueAnnotationProcessor));
+		return putCachedResult(element, cacheKey, annotated);
 	}
 
 	/**
@@ -653,10 +710,16 @@ public class AnnotatedElementUtils {
 	public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
 			Class<? extends Annotation> annotationType, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
+		MergedAnnotationCacheKey cacheKey = new MergedAnnotationCacheKey(annotationType,
+				MergedAnnotationCacheKey.modeFor(true, classValuesAsString, nestedAnnotationsAsMap));
+		Object cached = getCachedResult(element, cacheKey);
+		if (cached != NOT_CACHED) {
+			return copyAttributes((AnnotationAttributes) cached);
+		}
 		AnnotationAttributes attributes = searchWithFindSemantics(element, annotationType, null,
 				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
 		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
-		return attributes;
+		return copyAttributes(putCachedResult(element, cacheKey, attributes));
 	}
 
 	/**
@@ -689,10 +752,16 @@ public class AnnotatedElementUtils {
 	public static AnnotationAttributes findMergedAnnotationAttributes(AnnotatedElement element,
 			String annotationName, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
 
+		MergedAnnotationCacheKey cacheKey = new MergedAnnotationCacheKey(annotationName,
+				MergedAnnotationCacheKey.modeFor(true, classValuesAsString, nestedAnnotationsAsMap));
+		Object cached = getCachedResult(element, cacheKey);
+		if (cached != NOT_CACHED) {
+			return copyAttributes((AnnotationAttributes) cached);
+		}
 		AnnotationAttributes attributes = searchWithFindSemantics(element, null, annotationName,
 				new MergedAnnotationAttributesProcessor(classValuesAsString, nestedAnnotationsAsMap));
 		AnnotationUtils.postProcessAnnotationAttributes(element, attributes, classValuesAsString, nestedAnnotationsAsMap);
-		return attributes;
+		return copyAttributes(putCachedResult(element, cacheKey, attributes));
 	}
 
 	/**
@@ -713,9 +782,20 @@ public class AnnotatedElementUtils {
 	 * @see #findMergedAnnotationAttributes(AnnotatedElement, String, boolean, boolean)
 	 * @see #getMergedAnnotationAttributes(AnnotatedElement, Class)
 	 */
+	@SuppressWarnings("unchecked")
 	public static <A extends Annotation> A findMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		Assert.notNull(annotationType, "'annotationType' must not be null");
 
+		MergedAnnotationCacheKey cacheKey = new MergedAnnotationCacheKey(annotationType,
+				MergedAnnotationCacheKey.FIND | MergedAnnotationCacheKey.SYNTHESIZED);
+		Object cached = getCachedResult(element, cacheKey);
+		if (cached != NOT_CACHED) {
+			return (A) cached;
+		}
+		return putCachedResult(element, cacheKey, doFindMergedAnnotation(element, annotationType));
+	}
+
+	private static <A extends Annotation> A doFindMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
 		// Shortcut: directly present on the element, with no merging needed?
 		if (!(element instanceof Class)) {
 			// Do not use this shortcut against a Class: Inherited annotations
@@ -1357,6 +1437,100 @@ public class AnnotatedElementUtils {
 		return annotations;
 	}
 
+	/**
+	 * Look up a cached result for the given merged annotation lookup.
+	 * @param element the annotated element
+	 * @param cacheKey the key describing the lookup
+	 * @return the cached result (potentially {@code null}),
+	 * or {@link #NOT_CACHED} if no result has been cached for the lookup
+	 * @since 4.3.8
+	 */
+	private static Object getCachedResult(AnnotatedElement element, MergedAnnotationCacheKey cacheKey) {
+		if (!isCacheable(element)) {
+			return NOT_CACHED;
+		}
+		ConcurrentMap<MergedAnnotationCacheKey, Object> results = mergedAnnotationCache.get(element);
+		Object result = (results != null ? results.get(cacheKey) : null);
+		if (result == null) {
+			return NOT_CACHED;
+		}
+		return (result != NO_RESULT ? result : null);
+	}
+
+	/**
+	 * Cache the result of the given merged annotation lookup.
+	 * @param element the annotated element
+	 * @param cacheKey the key describing the lookup
+	 * @param result the result to cache (potentially {@code null})
+	 * @return the given result
+	 * @since 4.3.8
+	 */
+	private static <T> T putCachedResult(AnnotatedElement element, MergedAnnotationCacheKey cacheKey, T result) {
+		if (isCacheable(element)) {
+			ConcurrentMap<MergedAnnotationCacheKey, Object> results = mergedAnnotationCache.get(element);
+			if (results == null) {
+				results = new ConcurrentHashMap<MergedAnnotationCacheKey, Object>(8);
+				ConcurrentMap<MergedAnnotationCacheKey, Object> existing = mergedAnnotationCache.putIfAbsent(element, results);
+				if (existing != null) {
+					results = existing;
+				}
+			}
+			results.put(cacheKey, (result != null ? result : NO_RESULT));
+		}
+		return result;
+	}
+
+	/**
+	 * Determine whether lookup results for the given element may be cached:
+	 * only for reflective classes and members with stable identity, not for
+	 * adapted elements such as returned from {@link #forAnnotations}.
+	 * @since 4.3.8
+	 */
+	private static boolean isCacheable(AnnotatedElement element) {
+		return (element instanceof Class || element instanceof Member);
+	}
+
+	/**
+	 * Copy the given cached attributes for exposure to the caller,
+	 * including nested attributes and array values.
+	 * @since 4.3.8
+	 */
+	private static AnnotationAttributes copyAttributes(AnnotationAttributes attributes) {
+		if (attributes == null) {
+			return null;
+		}
+		AnnotationAttributes copy = new AnnotationAttributes(attributes);
+		for (Map.Entry<String, Object> entry : copy.entrySet()) {
+			entry.setValue(copyAttributeValue(entry.getValue()));
+		}
+		return copy;
+	}
+
+	/**
+	 * Copy the given attribute value if it is mutable, i.e. nested attributes or an array.
+	 * @since 4.3.8
+	 */
+	private static Object copyAttributeValue(Object value) {
+		if (value instanceof AnnotationAttributes) {
+			return copyAttributes((AnnotationAttributes) value);
+		}
+		if (value instanceof AnnotationAttributes[]) {
+			AnnotationAttributes[] nested = (AnnotationAttributes[]) value;
+			AnnotationAttributes[] copy = new AnnotationAttributes[nested.length];
+			for (int i = 0; i < nested.length; i++) {
+				copy[i] = copyAttributes(nested[i]);
+			}
+			return copy;
+		}
+		if (value != null && value.getClass().isArray()) {
+			int length = Array.getLength(value);
+			Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+			System.arraycopy(value, 0, copy, 0, length);
+			return copy;
+		}
+		return value;
+	}
+
 
 	/**
 	 * Callback interface that is used to process annotations during a search.
@@ -1638,4 +1812,55 @@ public class AnnotatedElementUtils {
 		}
 	}
 
+
+	/**
+	 * Cache key for a merged annotation lookup against a specific element,
+	 * distinguishing the type of lookup as well as its options.
+	 * @since 4.3.8
+	 */
+	private static final class MergedAnnotationCacheKey {
+
+		static final int FIND = 1;
+
+		static final int CLASS_VALUES_AS_STRING = 2;
+
+		static final int NESTED_ANNOTATIONS_AS_MAP = 4;
+
+		static final int SYNTHESIZED = 8;
+
+		static final int PRESENCE = 16;
+
+		/** The annotation type, or the fully qualified annotation type name */
+		private final Object annotationType;
+
+		private final int mode;
+
+		MergedAnnotationCacheKey(Object annotationType, int mode) {
+			this.annotationType = annotationType;
+			this.mode = mode;
+		}
+
+		static int modeFor(boolean find, boolean classValuesAsString, boolean nestedAnnotationsAsMap) {
+			return ((find ? FIND : 0) | (classValuesAsString ? CLASS_VALUES_AS_STRING : 0) |
+					(nestedAnnotationsAsMap ? NESTED_ANNOTATIONS_AS_MAP : 0));
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MergedAnnotationCacheKey)) {
+				return false;
+			}
+			MergedAnnotationCacheKey otherKey = (MergedAnnotationCacheKey) other;
+			return (this.annotationType.equals(otherKey.annotationType) && this.mode == otherKey.mode);
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.annotationType.hashCode() * 29 + this.mode);
+		}
+	}
+
 }
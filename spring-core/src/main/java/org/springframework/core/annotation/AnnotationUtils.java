@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.core.annotation;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Array;
 import java.lang.reflect.InvocationHandler;
@@ -25,6 +26,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -123,6 +125,9 @@ public abstract class AnnotationUtils {
 	private static final Map<Class<?>, Boolean> annotatedInterfaceCache =
 			new ConcurrentReferenceHashMap<Class<?>, Boolean>(256);
 
+	private static final Map<Class<?>, Set<Class<? extends Annotation>>> candidateAnnotationTypesCache =
+			new ConcurrentReferenceHashMap<Class<?>, Set<Class<? extends Annotation>>>(256);
+
 	private static final Map<Class<? extends Annotation>, Boolean> synthesizableCache =
 			new ConcurrentReferenceHashMap<Class<? extends Annotation>, Boolean>(256);
 
@@ -900,6 +905,113 @@ public abstract class AnnotationUtils {
 		return metaPresent;
 	}
 
+	/**
+	 * Determine whether the given class is a candidate for carrying the specified
+	 * annotation, i.e. whether the annotation is present &mdash; directly or as a
+	 * meta-annotation &mdash; on the class, any of its superclasses or interfaces,
+	 * or any of the methods, constructors or fields declared by those types.
+	 * <p>If this method returns {@code false}, none of the methods of the given
+	 * class can carry the specified annotation either, allowing callers to skip
+	 * more expensive lookups on individual methods. The annotation types present
+	 * in the hierarchy of the given class are cached.
+	 * @param clazz the class to introspect
+	 * @param annotationType the annotation type to look for
+	 * @return {@code false} if the class cannot carry the annotation;
+	 * {@code true} if it can (or if introspection failed)
+	 * @since 4.3.8
+	 * @see #isCandidateClass(Class, Collection)
+	 */
+	public static boolean isCandidateClass(Class<?> clazz, Class<? extends Annotation> annotationType) {
+		return isCandidateClass(clazz, Collections.<Class<? extends Annotation>>singleton(annotationType));
+	}
+
+	/**
+	 * Determine whether the given class is a candidate for carrying one of the
+	 * specified annotations, i.e. whether any of them is present &mdash; directly
+	 * or as a meta-annotation &mdash; on the class, any of its superclasses or
+	 * interfaces, or any of the methods, constructors or fields declared by those types.
+	 * @param clazz the class to introspect
+	 * @param annotationTypes the annotation types to look for
+	 * @return {@code false} if the class cannot carry any of the annotations;
+	 * {@code true} if it can (or if introspection failed)
+	 * @since 4.3.8
+	 * @see #isCandidateClass(Class, Class)
+	 */
+	public static boolean isCandidateClass(Class<?> clazz, Collection<Class<? extends Annotation>> annotationTypes) {
+		Assert.notNull(clazz, "Class must not be null");
+		Assert.notNull(annotationTypes, "Annotation types must not be null");
+		Set<Class<? extends Annotation>> candidateTypes = candidateAnnotationTypesCache.get(clazz);
+		if (candidateTypes == null) {
+			candidateTypes = findCandidateAnnotationTypes(clazz);
+			candidateAnnotationTypesCache.put(clazz, candidateTypes);
+		}
+		if (candidateTypes == null) {
+			return true;
+		}
+		for (Class<? extends Annotation> annotationType : annotationTypes) {
+			if (candidateTypes.contains(annotationType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Collect all annotation types present in the hierarchy of the given class,
+	 * including their meta-annotation types.
+	 * @return the annotation types, or {@code null} in case of introspection failure
+	 * @since 4.3.8
+	 */
+	private static Set<Class<? extends Annotation>> findCandidateAnnotationTypes(Class<?> clazz) {
+		Set<Class<? extends Annotation>> annotationTypes = new HashSet<Class<? extends Annotation>>();
+		Set<Class<?>> visited = new HashSet<Class<?>>();
+		try {
+			collectCandidateAnnotationTypes(clazz, annotationTypes, visited);
+		}
+		catch (Throwable ex) {
+			handleIntrospectionFailure(clazz, ex);
+			return null;
+		}
+		return annotationTypes;
+	}
+
+	private static void collectCandidateAnnotationTypes(Class<?> clazz,
+			Set<Class<? extends Annotation>> annotationTypes, Set<Class<?>> visited) {
+
+		if (clazz == null || clazz == Object.class || !visited.add(clazz)) {
+			return;
+		}
+		collectAnnotationTypes(clazz.getDeclaredAnnotations(), annotationTypes);
+		if (!clazz.getName().startsWith("java.")) {
+			// User-level annotations cannot be declared on members of core JDK types
+			collectMemberAnnotationTypes(clazz.getDeclaredMethods(), annotationTypes);
+			collectMemberAnnotationTypes(clazz.getDeclaredConstructors(), annotationTypes);
+			collectMemberAnnotationTypes(clazz.getDeclaredFields(), annotationTypes);
+		}
+		for (Class<?> ifc : clazz.getInterfaces()) {
+			collectCandidateAnnotationTypes(ifc, annotationTypes, visited);
+		}
+		collectCandidateAnnotationTypes(clazz.getSuperclass(), annotationTypes, visited);
+	}
+
+	private static void collectMemberAnnotationTypes(AccessibleObject[] members,
+			Set<Class<? extends Annotation>> annotationTypes) {
+
+		for (AccessibleObject member : members) {
+			collectAnnotationTypes(member.getDeclaredAnnotations(), annotationTypes);
+		}
+	}
+
+	private static void collectAnnotationTypes(Annotation[] annotations, Set<Class<? extends Annotation>> annotationTypes) {
+		for (Annotation ann : annotations) {
+			Class<? extends Annotation> annotationType = ann.annotationType();
+			if (!isInJavaLangAnnotationPackage(ann) && annotationTypes.add(annotationType)) {
+				// Meta-annotations, recursively
+				collectAnnotationTypes(annotationType.getDeclaredAnnotations(), annotationTypes);
+			}
+		}
+	}
+
 	/**
 	 * Determine if the supplied {@link Annotation} is defined in the core JDK
 	 * {@code java.lang.annotation} package.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -33,6 +33,7 @@ import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.lang.UsesJava8;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 
 /**
@@ -56,6 +57,10 @@ public class TypeDescriptor implements Serializable {
 
 	private static final Map<Class<?>, TypeDescriptor> commonTypesCache = new HashMap<Class<?>, TypeDescriptor>(18);
 
+	/** Canonical descriptors for all other plain types, created on demand */
+	private static final Map<Class<?>, TypeDescriptor> plainTypesCache =
+			new ConcurrentReferenceHashMap<Class<?>, TypeDescriptor>(256);
+
 	private static final Class<?>[] CACHED_COMMON_TYPES = {
 			boolean.class, Boolean.class, byte.class, Byte.class, char.class, Character.class,
 			double.class, Double.class, int.class, Integer.class, long.class, Long.class,
@@ -532,6 +537,8 @@ public class TypeDescriptor implements Serializable {
 	 * field is available to provide additional conversion context.
 	 * <p>Generally prefer use of {@link #forObject(Object)} for constructing type
 	 * descriptors from source objects, as it handles the {@code null} object case.
+	 * <p>As of 4.3.8, the returned descriptor is a shared canonical instance for
+	 * the given type, avoiding repeated descriptor creation for conversion lookups.
 	 * @param type the class (may be {@code null} to indicate {@code Object.class})
 	 * @return the corresponding type descriptor
 	 */
@@ -540,7 +547,14 @@ public class TypeDescriptor implements Serializable {
 			type = Object.class;
 		}
 		TypeDescriptor desc = commonTypesCache.get(type);
-		return (desc != null ? desc : new TypeDescriptor(ResolvableType.forClass(type), null, null));
+		if (desc == null) {
+			desc = plainTypesCache.get(type);
+			if (desc == null) {
+				desc = new TypeDescriptor(ResolvableType.forClass(type), null, null);
+				plainTypesCache.put(type, desc);
+			}
+		}
+		return desc;
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.core.DecoratingProxy;
 import org.springframework.core.ResolvableType;
@@ -44,7 +45,6 @@ import org.springframework.core.convert.converter.GenericConverter.ConvertiblePa
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ConcurrentReferenceHashMap;
-import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -89,8 +89,9 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private final Converters converters = new Converters();
 
-	private final Map<ConverterCacheKey, GenericConverter> converterCache =
-			new ConcurrentReferenceHashMap<ConverterCacheKey, GenericConverter>(64);
+	/** Cache of resolved converters, keyed by source type and then by target type */
+	private final ConcurrentMap<TypeDescriptor, Map<TypeDescriptor, GenericConverter>> converterCache =
+			new ConcurrentReferenceHashMap<TypeDescriptor, Map<TypeDescriptor, GenericConverter>>(64);
 
 
 	// ConverterRegistry implementation
@@ -260,8 +261,16 @@ public class GenericConversionService implements ConfigurableConversionService {
 	 * @see #getDefaultConverter(TypeDescriptor, TypeDescriptor)
 	 */
 	protected GenericConverter getConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
-		ConverterCacheKey key = new ConverterCacheKey(sourceType, targetType);
-		GenericConverter converter = this.converterCache.get(key);
+		Map<TypeDescriptor, GenericConverter> convertersForSource = this.converterCache.get(sourceType);
+		if (convertersForSource == null) {
+			convertersForSource = new ConcurrentReferenceHashMap<TypeDescriptor, GenericConverter>(16, 1);
+			Map<TypeDescriptor, GenericConverter> existing =
+					this.converterCache.putIfAbsent(sourceType, convertersForSource);
+			if (existing != null) {
+				convertersForSource = existing;
+			}
+		}
+		GenericConverter converter = convertersForSource.get(targetType);
 		if (converter != null) {
 			return (converter != NO_MATCH ? converter : null);
 		}
@@ -272,11 +281,11 @@ public class GenericConversionService implements ConfigurableConversionService {
 		}
 
 		if (converter != null) {
-			this.converterCache.put(key, converter);
+			convertersForSource.put(targetType, converter);
 			return converter;
 		}
 
-		this.converterCache.put(key, NO_MATCH);
+		convertersForSource.put(targetType, NO_MATCH);
 		return null;
 	}
 
@@ -443,63 +452,15 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
-	/**
-	 * Key for use with the converter cache.
-	 */
-	private static final class ConverterCacheKey implements Comparable<ConverterCacheKey> {
-
-		private final TypeDescriptor sourceType;
-
-		private final TypeDescriptor targetType;
-
-		public ConverterCacheKey(TypeDescriptor sourceType, TypeDescriptor targetType) {
-			this.sourceType = sourceType;
-			this.targetType = targetType;
-		}
-
-		@Override
-		public boolean equals(Object other) {
-			if (this == other) {
-				return true;
-			}
-			if (!(other instanceof ConverterCacheKey)) {
-				return false;
-			}
-			ConverterCacheKey otherKey = (ConverterCacheKey) other;
-			return (ObjectUtils.nullSafeEquals(this.sourceType, otherKey.sourceType) &&
-					ObjectUtils.nullSafeEquals(this.targetType, otherKey.targetType));
-		}
-
-		@Override
-		public int hashCode() {
-			return (ObjectUtils.nullSafeHashCode(this.sourceType) * 29 +
-					ObjectUtils.nullSafeHashCode(this.targetType));
-		}
-
-		@Override
-		public String toString() {
-			return ("ConverterCacheKey [sourceType = " + this.sourceType +
-					", targetType = " + this.targetType + "]");
-		}
-
-		@Override
-		public int compareTo(ConverterCacheKey other) {
-			int result = this.sourceType.getResolvableType().toString().compareTo(
-					other.sourceType.getResolvableType().toString());
-			if (result == 0) {
-				result = this.targetType.getResolvableType().toString().compareTo(
-						other.targetType.getResolvableType().toString());
-			}
-			return result;
-		}
-	}
-
-
 	/**
 	 * Manages all converters registered with the service.
 	 */
 	private static class Converters {
 
+		/** Cache of precomputed class hierarchies, keyed by type */
+		private static final Map<Class<?>, Class<?>[]> classHierarchyCache =
+				new ConcurrentReferenceHashMap<Class<?>, Class<?>[]>(64);
+
 		private final Set<GenericConverter> globalConverters = new LinkedHashSet<GenericConverter>();
 
 		private final Map<ConvertiblePair, ConvertersForPair> converters =
@@ -543,8 +504,8 @@ public class GenericConversionService implements ConfigurableConversionService {
 		 */
 		public GenericConverter find(TypeDescriptor sourceType, TypeDescriptor targetType) {
 			// Search the full type hierarchy
-			List<Class<?>> sourceCandidates = getClassHierarchy(sourceType.getType());
-			List<Class<?>> targetCandidates = getClassHierarchy(targetType.getType());
+			Class<?>[] sourceCandidates = getClassHierarchy(sourceType.getType());
+			Class<?>[] targetCandidates = getClassHierarchy(targetType.getType());
 			for (Class<?> sourceCandidate : sourceCandidates) {
 				for (Class<?> targetCandidate : targetCandidates) {
 					ConvertiblePair convertiblePair = new ConvertiblePair(sourceCandidate, targetCandidate);
@@ -578,11 +539,21 @@ public class GenericConversionService implements ConfigurableConversionService {
 		}
 
 		/**
-		 * Returns an ordered class hierarchy for the given type.
+		 * Returns an ordered class hierarchy for the given type,
+		 * computed once per type and cached for subsequent lookups.
 		 * @param type the type
-		 * @return an ordered list of all classes that the given type extends or implements
+		 * @return an ordered array of all classes that the given type extends or implements
 		 */
-		private List<Class<?>> getClassHierarchy(Class<?> type) {
+		private Class<?>[] getClassHierarchy(Class<?> type) {
+			Class<?>[] hierarchy = classHierarchyCache.get(type);
+			if (hierarchy == null) {
+				hierarchy = buildClassHierarchy(type);
+				classHierarchyCache.put(type, hierarchy);
+			}
+			return hierarchy;
+		}
+
+		private Class<?>[] buildClassHierarchy(Class<?> type) {
 			List<Class<?>> hierarchy = new ArrayList<Class<?>>(20);
 			Set<Class<?>> visited = new HashSet<Class<?>>(20);
 			addToClassHierarchy(0, ClassUtils.resolvePrimitiveIfNecessary(type), false, hierarchy, visited);
@@ -608,7 +579,7 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 			addToClassHierarchy(hierarchy.size(), Object.class, array, hierarchy, visited);
 			addToClassHierarchy(hierarchy.size(), Object.class, false, hierarchy, visited);
-			return hierarchy;
+			return hierarchy.toArray(new Class<?>[hierarchy.size()]);
 		}
 
 		private void addInterfacesToClassHierarchy(Class<?> type, boolean asArray,
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -64,6 +64,19 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 	 */
 	public static final String IGNORE_GETENV_PROPERTY_NAME = "spring.getenv.ignore";
 
+	/**
+	 * System property that instructs Spring application contexts to freeze property
+	 * resolution of their environment at the end of a refresh, memoizing resolved
+	 * property values until property sources get added, removed or replaced.
+	 * <p>The default is "false", searching all property sources on every lookup.
+	 * Consider switching this flag to "true" for applications that resolve properties
+	 * at runtime (e.g. for prototype beans) but do not modify the contents of their
+	 * property sources after startup.
+	 * @since 4.3.8
+	 * @see #setPropertyResolutionFrozen
+	 */
+	public static final String FREEZE_PROPERTY_RESOLUTION_PROPERTY_NAME = "spring.environment.freeze";
+
 	/**
 	 * Name of property to set to specify active profiles: {@value}. Value may be comma
 	 * delimited.
@@ -107,7 +120,7 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 
 	private final MutablePropertySources propertySources = new MutablePropertySources(this.logger);
 
-	private final ConfigurablePropertyResolver propertyResolver =
+	private final PropertySourcesPropertyResolver propertyResolver =
 			new PropertySourcesPropertyResolver(this.propertySources);
 
 
@@ -374,6 +387,26 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 		return this.propertySources;
 	}
 
+	/**
+	 * Specify whether to freeze property resolution, memoizing the values resolved
+	 * from this environment's property sources until sources get added, removed or
+	 * replaced through {@link #getPropertySources()}.
+	 * @since 4.3.8
+	 * @see PropertySourcesPropertyResolver#setFrozen
+	 * @see #FREEZE_PROPERTY_RESOLUTION_PROPERTY_NAME
+	 */
+	public void setPropertyResolutionFrozen(boolean frozen) {
+		this.propertyResolver.setFrozen(frozen);
+	}
+
+	/**
+	 * Return whether property resolution is currently frozen.
+	 * @since 4.3.8
+	 */
+	public boolean isPropertyResolutionFrozen() {
+		return this.propertyResolver.isFrozen();
+	}
+
 	@Override
 	@SuppressWarnings({"unchecked", "rawtypes"})
 	public Map<String, Object> getSystemEnvironment() {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2014 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -45,6 +45,9 @@ public class MutablePropertySources implements PropertySources {
 
 	private final List<PropertySource<?>> propertySourceList = new CopyOnWriteArrayList<PropertySource<?>>();
 
+	/** Number of structural modifications, for detecting stale resolution caches */
+	private volatile int modificationCount;
+
 
 	/**
 	 * Create a new {@link MutablePropertySources} object.
@@ -99,6 +102,7 @@ public class MutablePropertySources implements PropertySources {
 		}
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(0, propertySource);
+		this.modificationCount++;
 	}
 
 	/**
@@ -111,6 +115,7 @@ public class MutablePropertySources implements PropertySources {
 		}
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(propertySource);
+		this.modificationCount++;
 	}
 
 	/**
@@ -159,7 +164,11 @@ public class MutablePropertySources implements PropertySources {
 			logger.debug(String.format("Removing [%s] PropertySource", name));
 		}
 		int index = this.propertySourceList.indexOf(PropertySource.named(name));
-		return (index != -1 ? this.propertySourceList.remove(index) : null);
+		if (index == -1) {
+			return null;
+		}
+		this.modificationCount++;
+		return this.propertySourceList.remove(index);
 	}
 
 	/**
@@ -176,6 +185,7 @@ public class MutablePropertySources implements PropertySources {
 		}
 		int index = assertPresentAndGetIndex(name);
 		this.propertySourceList.set(index, propertySource);
+		this.modificationCount++;
 	}
 
 	/**
@@ -185,6 +195,16 @@ public class MutablePropertySources implements PropertySources {
 		return this.propertySourceList.size();
 	}
 
+	/**
+	 * Return the number of structural modifications so far, i.e. additions,
+	 * removals and replacements of property sources.
+	 * @since 4.3.8
+	 * @see PropertySourcesPropertyResolver#setFrozen
+	 */
+	int getModificationCount() {
+		return this.modificationCount;
+	}
+
 	@Override
 	public String toString() {
 		String[] names = new String[this.size()];
@@ -218,6 +238,7 @@ public class MutablePropertySources implements PropertySources {
 	private void addAtIndex(int index, PropertySource<?> propertySource) {
 		removeIfPresent(propertySource);
 		this.propertySourceList.add(index, propertySource);
+		this.modificationCount++;
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,21 @@
 
 package org.springframework.core.env;
 
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.springframework.core.convert.ConversionException;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * {@link PropertyResolver} implementation that resolves property values against
  * an underlying set of {@link PropertySources}.
  *
+ * <p>Can be {@linkplain #setFrozen frozen} once the property sources are fully
+ * set up, memoizing resolved and converted values per property key instead of
+ * searching all property sources on every lookup.
+ *
  * @author Chris Beams
  * @author Juergen Hoeller
  * @since 3.1
@@ -34,6 +42,9 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 
 	private final PropertySources propertySources;
 
+	/** Cache of resolved properties, only present in frozen mode */
+	private final AtomicReference<PropertyCache> propertyCache = new AtomicReference<PropertyCache>();
+
 
 	/**
 	 * Create a new resolver against the given property sources.
@@ -44,6 +55,31 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	}
 
 
+	/**
+	 * Specify whether to freeze property resolution, caching the values found
+	 * for each key as well as their nested placeholder resolution and conversion
+	 * results (for immutable target types such as Strings, primitive wrappers and
+	 * enums). Freezing again discards all values cached so far.
+	 * <p>The cache gets invalidated when property sources are added, removed or
+	 * replaced in a {@link MutablePropertySources} container. Changes to the
+	 * contents of individual property sources (e.g. system properties) as well
+	 * as changes to this resolver's configuration (conversion service, placeholder
+	 * syntax) will not be noticed while frozen.
+	 * <p>Default is "false", searching the property sources on every lookup.
+	 * @since 4.3.8
+	 */
+	public void setFrozen(boolean frozen) {
+		this.propertyCache.set(frozen ? new PropertyCache(getModificationCount()) : null);
+	}
+
+	/**
+	 * Return whether property resolution is currently frozen.
+	 * @since 4.3.8
+	 */
+	public boolean isFrozen() {
+		return (this.propertyCache.get() != null);
+	}
+
 	@Override
 	public boolean containsProperty(String key) {
 		if (this.propertySources != null) {
@@ -72,6 +108,17 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	}
 
 	protected <T> T getProperty(String key, Class<T> targetValueType, boolean resolveNestedPlaceholders) {
+		PropertyCache cache = this.propertyCache.get();
+		if (cache != null) {
+			int modificationCount = getModificationCount();
+			if (cache.modificationCount != modificationCount) {
+				// Only replace the outdated cache: never re-freeze after a concurrent setFrozen(false)
+				PropertyCache newCache = new PropertyCache(modificationCount);
+				this.propertyCache.compareAndSet(cache, newCache);
+				cache = newCache;
+			}
+			return getCachedProperty(cache, key, targetValueType, resolveNestedPlaceholders);
+		}
 		if (this.propertySources != null) {
 			for (PropertySource<?> propertySource : this.propertySources) {
 				if (logger.isTraceEnabled()) {
@@ -93,6 +140,65 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		return null;
 	}
 
+	@SuppressWarnings("unchecked")
+	private <T> T getCachedProperty(
+			PropertyCache cache, String key, Class<T> targetValueType, boolean resolveNestedPlaceholders) {
+
+		CachedProperty property = cache.properties.get(key);
+		if (property == null) {
+			property = new CachedProperty(findPropertyValue(key));
+			cache.properties.put(key, property);
+		}
+		if (property.rawValue == null) {
+			return null;
+		}
+		if (!resolveNestedPlaceholders || !(property.rawValue instanceof String)) {
+			return convertValueIfNecessary(property.rawValue, targetValueType);
+		}
+		Object resolvedValue = property.resolvedValue;
+		if (resolvedValue == null) {
+			resolvedValue = resolveNestedPlaceholders((String) property.rawValue);
+			property.resolvedValue = resolvedValue;
+		}
+		if (targetValueType == null || targetValueType == String.class) {
+			return (T) resolvedValue;
+		}
+		Object convertedValue = property.convertedValues.get(targetValueType);
+		if (convertedValue == null) {
+			convertedValue = convertValueIfNecessary(resolvedValue, targetValueType);
+			if (convertedValue != null && isImmutableValue(convertedValue)) {
+				property.convertedValues.put(targetValueType, convertedValue);
+			}
+		}
+		return (T) convertedValue;
+	}
+
+	private Object findPropertyValue(String key) {
+		if (this.propertySources != null) {
+			for (PropertySource<?> propertySource : this.propertySources) {
+				Object value = propertySource.getProperty(key);
+				if (value != null) {
+					logKeyFound(key, propertySource, value);
+					return value;
+				}
+			}
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug(String.format("Could not find key '%s' in any property source", key));
+		}
+		return null;
+	}
+
+	private boolean isImmutableValue(Object value) {
+		return (value instanceof String || value instanceof Enum || value instanceof Class ||
+				ClassUtils.isPrimitiveWrapper(value.getClass()));
+	}
+
+	private int getModificationCount() {
+		return (this.propertySources instanceof MutablePropertySources ?
+				((MutablePropertySources) this.propertySources).getModificationCount() : 0);
+	}
+
 	@Override
 	@Deprecated
 	public <T> Class<T> getPropertyAsClass(String key, Class<T> targetValueType) {
@@ -154,6 +260,38 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	}
 
 
+	/**
+	 * Resolved properties for a given state of the property sources.
+	 */
+	private static class PropertyCache {
+
+		final int modificationCount;
+
+		final Map<String, CachedProperty> properties = new ConcurrentReferenceHashMap<String, CachedProperty>(64);
+
+		PropertyCache(int modificationCount) {
+			this.modificationCount = modificationCount;
+		}
+	}
+
+
+	/**
+	 * The value found for a property key, along with its resolved and converted forms.
+	 */
+	private static class CachedProperty {
+
+		final Object rawValue;
+
+		volatile Object resolvedValue;
+
+		final Map<Class<?>, Object> convertedValues = new ConcurrentReferenceHashMap<Class<?>, Object>(4);
+
+		CachedProperty(Object rawValue) {
+			this.rawValue = rawValue;
+		}
+	}
+
+
 	@SuppressWarnings("serial")
 	@Deprecated
 	private static class ClassConversionException extends ConversionException {
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Extended interface for a resource that is backed by a file in the file system,
+ * providing direct access to its content through a {@link FileChannel} or a
+ * {@link MappedByteBuffer}.
+ *
+ * <p>Allows for copying the resource content without intermediate heap buffers,
+ * e.g. through {@link FileChannel#transferTo} which may delegate to the operating
+ * system's zero-copy support.
+ *
+ * @author agent
+ * @since 4.3.8
+ * @see org.springframework.util.StreamUtils#copyRange(FileChannel, java.io.OutputStream, long, long)
+ * @see org.springframework.util.FileCopyUtils#copy(FileChannel, java.nio.channels.WritableByteChannel)
+ */
+public interface FileChannelResource extends Resource {
+
+	/**
+	 * Open a read-only {@link FileChannel} for the underlying file.
+	 * <p>It is expected that each call creates a <i>fresh</i> channel,
+	 * which needs to be closed by the caller.
+	 * @return the channel for the underlying file
+	 * @throws java.io.FileNotFoundException if the underlying file does not exist
+	 * or is not readable
+	 * @throws IOException if the channel could not be opened
+	 */
+	FileChannel getFileChannel() throws IOException;
+
+	/**
+	 * Map the entire content of the underlying file into memory, read-only.
+	 * <p>The returned buffer remains valid until it is garbage collected. Note
+	 * that some operating systems (notably Windows) prevent modification and
+	 * deletion of the file for as long as a mapping exists.
+	 * @return the mapped buffer for the underlying file
+	 * @throws java.io.FileNotFoundException if the underlying file does not exist
+	 * or is not readable
+	 * @throws IOException if the file could not be mapped, e.g. in case of
+	 * a file size beyond {@link Integer#MAX_VALUE}
+	 */
+	MappedByteBuffer getMappedByteBuffer() throws IOException;
+
+}
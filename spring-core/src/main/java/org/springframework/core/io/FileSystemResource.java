@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,8 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -31,13 +33,14 @@ import org.springframework.util.StringUtils;
 /**
  * {@link Resource} implementation for {@code java.io.File} handles.
  * Supports resolution as a {@code File} and also as a {@code URL}.
- * Implements the extended {@link WritableResource} interface.
+ * Implements the extended {@link WritableResource} and {@link FileChannelResource}
+ * interfaces.
  *
  * @author Juergen Hoeller
  * @since 28.12.2003
  * @see File
  */
-public class FileSystemResource extends AbstractResource implements WritableResource {
+public class FileSystemResource extends AbstractResource implements WritableResource, FileChannelResource {
 
 	private final File file;
 
@@ -114,6 +117,36 @@ public class FileSystemResource extends AbstractResource implements WritableReso
 		return new FileInputStream(this.file);
 	}
 
+	/**
+	 * This implementation opens a FileChannel for the underlying file.
+	 * @see FileInputStream#getChannel()
+	 */
+	@Override
+	public FileChannel getFileChannel() throws IOException {
+		return new FileInputStream(this.file).getChannel();
+	}
+
+	/**
+	 * This implementation maps the underlying file through a FileChannel.
+	 * @throws IOException if the file is larger than {@link Integer#MAX_VALUE}
+	 * @see FileChannel#map
+	 */
+	@Override
+	public MappedByteBuffer getMappedByteBuffer() throws IOException {
+		FileChannel channel = getFileChannel();
+		try {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("Cannot map " + getDescription() + ": file size " + size +
+						" exceeds maximum buffer size " + Integer.MAX_VALUE);
+			}
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+		finally {
+			channel.close();
+		}
+	}
+
 	/**
 	 * This implementation checks whether the underlying file is marked as writable
 	 * (and corresponds to an actual file with content, not to a directory).
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,10 +23,13 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 import org.springframework.lang.UsesJava7;
 import org.springframework.util.Assert;
@@ -34,7 +37,8 @@ import org.springframework.util.Assert;
 /**
  * {@link Resource} implementation for {@code java.nio.file.Path} handles.
  * Supports resolution as File, and also as URL.
- * Implements the extended {@link WritableResource} interface.
+ * Implements the extended {@link WritableResource} and {@link FileChannelResource}
+ * interfaces.
  *
  * @author Philippe Marschall
  * @author Juergen Hoeller
@@ -42,7 +46,7 @@ import org.springframework.util.Assert;
  * @see Path
  */
 @UsesJava7
-public class PathResource extends AbstractResource implements WritableResource {
+public class PathResource extends AbstractResource implements WritableResource, FileChannelResource {
 
 	private final Path path;
 
@@ -131,6 +135,42 @@ public class PathResource extends AbstractResource implements WritableResource {
 		return Files.newInputStream(this.path);
 	}
 
+	/**
+	 * This implementation opens a FileChannel for the underlying file.
+	 * @see FileChannel#open(Path, OpenOption...)
+	 */
+	@Override
+	public FileChannel getFileChannel() throws IOException {
+		if (!exists()) {
+			throw new FileNotFoundException(getPath() + " (no such file or directory)");
+		}
+		if (Files.isDirectory(this.path)) {
+			throw new FileNotFoundException(getPath() + " (is a directory)");
+		}
+		return FileChannel.open(this.path, StandardOpenOption.READ);
+	}
+
+	/**
+	 * This implementation maps the underlying file through a FileChannel.
+	 * @throws IOException if the file is larger than {@link Integer#MAX_VALUE}
+	 * @see FileChannel#map
+	 */
+	@Override
+	public MappedByteBuffer getMappedByteBuffer() throws IOException {
+		FileChannel channel = getFileChannel();
+		try {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				throw new IOException("Cannot map " + getDescription() + ": file size " + size +
+						" exceeds maximum buffer size " + Integer.MAX_VALUE);
+			}
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+		finally {
+			channel.close();
+		}
+	}
+
 	/**
 	 * This implementation checks whether the underlying file is marked as writable
 	 * (and corresponds to an actual file with content, not to a directory).
@@ -18,6 +18,7 @@ package org.springframework.core.io.support;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.net.JarURLConnection;
@@ -26,11 +27,20 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.zip.ZipException;
@@ -47,6 +57,7 @@ import org.springframework.core.io.VfsResource;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.ResourceUtils;
@@ -183,6 +194,10 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 
 	private static Method equinoxResolveMethod;
 
+	/** Cache of sorted jar entry names, keyed by jar file URL */
+	private static final Map<String, JarEntryIndex> jarEntryIndexCache =
+			new ConcurrentReferenceHashMap<String, JarEntryIndex>(64);
+
 	static {
 		try {
 			// Detect Equinox OSGi (e.g. on WebSphere 6.1)
@@ -201,6 +216,8 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	private Executor taskExecutor;
+
 
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
@@ -263,6 +280,27 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Set an Executor for traversing the root directories of a location
+	 * pattern in parallel, e.g. the many jar files that a "{@code classpath*:}"
+	 * root directory resolves to on a large class path.
+	 * <p>Default is none, traversing all root directories in the calling thread.
+	 * Results are collected in the order of the root directories either way.
+	 * @since 4.3.8
+	 * @see #findPathMatchingResources
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Return the Executor used for parallel traversal of root directories, if any.
+	 * @since 4.3.8
+	 */
+	public Executor getTaskExecutor() {
+		return this.taskExecutor;
+	}
+
 
 	@Override
 	public Resource getResource(String location) {
@@ -298,6 +336,47 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 	}
 
+	/**
+	 * Resolve the given location patterns into Resource objects, in one go.
+	 * <p>Patterns which share a root directory (e.g. "classpath*:META-INF/*.xml"
+	 * and "classpath*:META-INF/spring/*.xml") are matched in a single traversal
+	 * of each root directory, which avoids enumerating the entries of each jar
+	 * file once per pattern.
+	 * @param locationPatterns the location patterns to resolve
+	 * @return the corresponding Resource objects, without duplicates
+	 * @throws IOException in case of I/O errors
+	 * @since 4.3.8
+	 * @see #getResources(String)
+	 */
+	public Resource[] getAllResources(String... locationPatterns) throws IOException {
+		Set<Resource> result = new LinkedHashSet<Resource>(16);
+		Map<String, List<String>> subPatternsByRootDir = new LinkedHashMap<String, List<String>>();
+		for (String locationPattern : locationPatterns) {
+			Assert.notNull(locationPattern, "Location pattern must not be null");
+			int prefixEnd = (locationPattern.startsWith(CLASSPATH_ALL_URL_PREFIX) ?
+					CLASSPATH_ALL_URL_PREFIX.length() : locationPattern.indexOf(":") + 1);
+			if (getPathMatcher().isPattern(locationPattern.substring(prefixEnd))) {
+				String rootDirPath = determineRootDir(locationPattern);
+				List<String> subPatterns = subPatternsByRootDir.get(rootDirPath);
+				if (subPatterns == null) {
+					subPatterns = new ArrayList<String>(4);
+					subPatternsByRootDir.put(rootDirPath, subPatterns);
+				}
+				subPatterns.add(locationPattern.substring(rootDirPath.length()));
+			}
+			else {
+				result.addAll(Arrays.asList(getResources(locationPattern)));
+			}
+		}
+		for (Map.Entry<String, List<String>> entry : subPatternsByRootDir.entrySet()) {
+			result.addAll(findPathMatchingResources(entry.getKey(), entry.getValue()));
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Resolved location patterns " + Arrays.asList(locationPatterns) + " to resources " + result);
+		}
+		return result.toArray(new Resource[result.size()]);
+	}
+
 	/**
 	 * Find all class location resources with the given location via the ClassLoader.
 	 * Delegates to {@link #doFindAllClassPathResources(String)}.
@@ -451,36 +530,97 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 	 * @throws IOException in case of I/O errors
 	 * @see #doFindPathMatchingJarResources
 	 * @see #doFindPathMatchingFileResources
+	 * @see #setTaskExecutor
 	 * @see PathMatcher
 	 */
 	protected Resource[] findPathMatchingResources(String locationPattern) throws IOException {
 		String rootDirPath = determineRootDir(locationPattern);
 		String subPattern = locationPattern.substring(rootDirPath.length());
+		Set<Resource> result = findPathMatchingResources(rootDirPath, Collections.singletonList(subPattern));
+		if (logger.isDebugEnabled()) {
+			logger.debug("Resolved location pattern [" + locationPattern + "] to resources " + result);
+		}
+		return result.toArray(new Resource[result.size()]);
+	}
+
+	/**
+	 * Find all resources below the given root directory that match any of
+	 * the given sub patterns, traversing the root directory resources in
+	 * parallel if a {@link #setTaskExecutor task executor} has been specified.
+	 */
+	private Set<Resource> findPathMatchingResources(String rootDirPath, final List<String> subPatterns)
+			throws IOException {
+
 		Resource[] rootDirResources = getResources(rootDirPath);
 		Set<Resource> result = new LinkedHashSet<Resource>(16);
-		for (Resource rootDirResource : rootDirResources) {
-			rootDirResource = resolveRootDirResource(rootDirResource);
-			URL rootDirURL = rootDirResource.getURL();
-			if (equinoxResolveMethod != null) {
-				if (rootDirURL.getProtocol().startsWith("bundle")) {
-					rootDirURL = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirURL);
-					rootDirResource = new UrlResource(rootDirURL);
+		if (this.taskExecutor == null || rootDirResources.length < 2) {
+			for (Resource rootDirResource : rootDirResources) {
+				result.addAll(findPathMatchingResources(rootDirResource, subPatterns));
+			}
+			return result;
+		}
+		List<FutureTask<Set<Resource>>> tasks = new ArrayList<FutureTask<Set<Resource>>>(rootDirResources.length);
+		for (final Resource rootDirResource : rootDirResources) {
+			FutureTask<Set<Resource>> task = new FutureTask<Set<Resource>>(new Callable<Set<Resource>>() {
+				@Override
+				public Set<Resource> call() throws IOException {
+					return findPathMatchingResources(rootDirResource, subPatterns);
 				}
+			});
+			this.taskExecutor.execute(task);
+			tasks.add(task);
+		}
+		for (FutureTask<Set<Resource>> task : tasks) {
+			try {
+				result.addAll(task.get());
 			}
-			if (rootDirURL.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
-				result.addAll(VfsResourceMatchingDelegate.findMatchingResources(rootDirURL, subPattern, getPathMatcher()));
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while traversing root directories for [" +
+						rootDirPath + "]");
 			}
-			else if (ResourceUtils.isJarURL(rootDirURL) || isJarResource(rootDirResource)) {
-				result.addAll(doFindPathMatchingJarResources(rootDirResource, rootDirURL, subPattern));
+			catch (ExecutionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+				ReflectionUtils.rethrowRuntimeException(cause);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Find all resources below the given root directory resource
+	 * that match any of the given sub patterns.
+	 */
+	private Set<Resource> findPathMatchingResources(Resource rootDirResource, List<String> subPatterns)
+			throws IOException {
+
+		rootDirResource = resolveRootDirResource(rootDirResource);
+		URL rootDirURL = rootDirResource.getURL();
+		if (equinoxResolveMethod != null) {
+			if (rootDirURL.getProtocol().startsWith("bundle")) {
+				rootDirURL = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirURL);
+				rootDirResource = new UrlResource(rootDirURL);
+			}
+		}
+		boolean vfs = rootDirURL.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS);
+		if (!vfs && (ResourceUtils.isJarURL(rootDirURL) || isJarResource(rootDirResource))) {
+			return (subPatterns.size() == 1 ?
+					doFindPathMatchingJarResources(rootDirResource, rootDirURL, subPatterns.get(0)) :
+					doFindPathMatchingJarResources(rootDirResource, rootDirURL, subPatterns));
+		}
+		Set<Resource> result = new LinkedHashSet<Resource>(16);
+		for (String subPattern : subPatterns) {
+			if (vfs) {
+				result.addAll(VfsResourceMatchingDelegate.findMatchingResources(rootDirURL, subPattern, getPathMatcher()));
 			}
 			else {
 				result.addAll(doFindPathMatchingFileResources(rootDirResource, subPattern));
 			}
 		}
-		if (logger.isDebugEnabled()) {
-			logger.debug("Resolved location pattern [" + locationPattern + "] to resources " + result);
-		}
-		return result.toArray(new Resource[result.size()]);
+		return result;
 	}
 
 	/**
@@ -558,22 +698,38 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		if (result != null) {
 			return result;
 		}
+		return doFindPathMatchingJarResources(rootDirResource, rootDirURL, Collections.singletonList(subPattern));
+	}
+
+	/**
+	 * Find all resources in jar files that match any of the given location
+	 * patterns via the Ant-style PathMatcher, in a single pass over the jar entries.
+	 * <p>The entry names of each jar file are indexed on first access and cached
+	 * for subsequent lookups, as long as the jar file's last-modified timestamp
+	 * remains the same. Only the entries below the root entry path are matched.
+	 * @param rootDirResource the root directory as Resource
+	 * @param rootDirURL the pre-resolved root directory URL
+	 * @param subPatterns the sub patterns to match (below the root directory)
+	 * @return a mutable Set of matching Resource instances
+	 * @throws IOException in case of I/O errors
+	 * @since 4.3.8
+	 * @see #clearCache()
+	 */
+	protected Set<Resource> doFindPathMatchingJarResources(Resource rootDirResource, URL rootDirURL,
+			Collection<String> subPatterns) throws IOException {
 
 		URLConnection con = rootDirURL.openConnection();
-		JarFile jarFile;
+		JarURLConnection jarCon = null;
 		String jarFileUrl;
 		String rootEntryPath;
-		boolean closeJarFile;
 
 		if (con instanceof JarURLConnection) {
 			// Should usually be the case for traditional JAR files.
-			JarURLConnection jarCon = (JarURLConnection) con;
+			jarCon = (JarURLConnection) con;
 			ResourceUtils.useCachesIfNecessary(jarCon);
-			jarFile = jarCon.getJarFile();
 			jarFileUrl = jarCon.getJarFileURL().toExternalForm();
-			JarEntry jarEntry = jarCon.getJarEntry();
-			rootEntryPath = (jarEntry != null ? jarEntry.getName() : "");
-			closeJarFile = !jarCon.getUseCaches();
+			String entryName = jarCon.getEntryName();
+			rootEntryPath = (entryName != null ? entryName : "");
 		}
 		else {
 			// No JarURLConnection -> need to resort to URL file parsing.
@@ -581,49 +737,101 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 			// being arbitrary as long as following the entry format.
 			// We'll also handle paths with and without leading "file:" prefix.
 			String urlFile = rootDirURL.getFile();
-			try {
-				int separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
-				if (separatorIndex != -1) {
-					jarFileUrl = urlFile.substring(0, separatorIndex);
-					rootEntryPath = urlFile.substring(separatorIndex + ResourceUtils.JAR_URL_SEPARATOR.length());
-					jarFile = getJarFile(jarFileUrl);
-				}
-				else {
-					jarFile = new JarFile(urlFile);
-					jarFileUrl = urlFile;
-					rootEntryPath = "";
+			int separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+			if (separatorIndex != -1) {
+				jarFileUrl = urlFile.substring(0, separatorIndex);
+				rootEntryPath = urlFile.substring(separatorIndex + ResourceUtils.JAR_URL_SEPARATOR.length());
+			}
+			else {
+				jarFileUrl = urlFile;
+				rootEntryPath = "";
+			}
+		}
+
+		String[] entryNames = getJarEntryNames(jarCon, jarFileUrl);
+		if (entryNames == null) {
+			return Collections.emptySet();
+		}
+		if (!"".equals(rootEntryPath) && !rootEntryPath.endsWith("/")) {
+			// Root entry path must end with slash to allow for proper matching.
+			// The Sun JRE does not return a slash here, but BEA JRockit does.
+			rootEntryPath = rootEntryPath + "/";
+		}
+		Set<Resource> result = new LinkedHashSet<Resource>(8);
+		// Entry names are sorted, so all entries below the root entry path are adjacent
+		int index = Arrays.binarySearch(entryNames, rootEntryPath);
+		for (int i = (index >= 0 ? index : -index - 1); i < entryNames.length; i++) {
+			String entryPath = entryNames[i];
+			if (!entryPath.startsWith(rootEntryPath)) {
+				break;
+			}
+			String relativePath = entryPath.substring(rootEntryPath.length());
+			for (String subPattern : subPatterns) {
+				if (getPathMatcher().match(subPattern, relativePath)) {
+					result.add(rootDirResource.createRelative(relativePath));
+					break;
 				}
-				closeJarFile = true;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Obtain the sorted entry names of the given jar file, from the cache
+	 * if the jar file is unchanged since it got indexed.
+	 * @param jarCon the connection to the jar file, if any
+	 * @param jarFileUrl the jar file URL
+	 * @return the sorted entry names, or {@code null} if not a valid jar file
+	 */
+	private String[] getJarEntryNames(JarURLConnection jarCon, String jarFileUrl) throws IOException {
+		long lastModified = getJarFileLastModified(jarFileUrl);
+		if (lastModified != 0) {
+			JarEntryIndex index = jarEntryIndexCache.get(jarFileUrl);
+			if (index != null && index.lastModified == lastModified) {
+				return index.entryNames;
+			}
+		}
+
+		JarFile jarFile;
+		boolean closeJarFile;
+		if (jarCon != null) {
+			jarFile = jarCon.getJarFile();
+			closeJarFile = !jarCon.getUseCaches();
+		}
+		else {
+			try {
+				jarFile = getJarFile(jarFileUrl);
 			}
 			catch (ZipException ex) {
 				if (logger.isDebugEnabled()) {
-					logger.debug("Skipping invalid jar classpath entry [" + urlFile + "]");
+					logger.debug("Skipping invalid jar classpath entry [" + jarFileUrl + "]");
 				}
-				return Collections.emptySet();
+				return null;
 			}
+			closeJarFile = true;
 		}
 
 		try {
 			if (logger.isDebugEnabled()) {
-				logger.debug("Looking for matching resources in jar file [" + jarFileUrl + "]");
+				logger.debug("Indexing entries of jar file [" + jarFileUrl + "]");
 			}
-			if (!"".equals(rootEntryPath) && !rootEntryPath.endsWith("/")) {
-				// Root entry path must end with slash to allow for proper matching.
-				// The Sun JRE does not return a slash here, but BEA JRockit does.
-				rootEntryPath = rootEntryPath + "/";
-			}
-			result = new LinkedHashSet<Resource>(8);
+			String[] entryNames = new String[jarFile.size()];
+			int count = 0;
 			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
-				JarEntry entry = entries.nextElement();
-				String entryPath = entry.getName();
-				if (entryPath.startsWith(rootEntryPath)) {
-					String relativePath = entryPath.substring(rootEntryPath.length());
-					if (getPathMatcher().match(subPattern, relativePath)) {
-						result.add(rootDirResource.createRelative(relativePath));
-					}
+				String entryName = entries.nextElement().getName();
+				if (count == entryNames.length) {
+					entryNames = Arrays.copyOf(entryNames, count * 2 + 1);
 				}
+				entryNames[count++] = entryName;
 			}
-			return result;
+			if (count != entryNames.length) {
+				entryNames = Arrays.copyOf(entryNames, count);
+			}
+			Arrays.sort(entryNames);
+			if (lastModified != 0) {
+				jarEntryIndexCache.put(jarFileUrl, new JarEntryIndex(lastModified, entryNames));
+			}
+			return entryNames;
 		}
 		finally {
 			if (closeJarFile) {
@@ -632,6 +840,43 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 	}
 
+	/**
+	 * Determine the last-modified timestamp of the given jar file, or of the
+	 * outermost archive in case of a nested jar file.
+	 * @return the timestamp, or 0 if not determinable (not cacheable then)
+	 */
+	private static long getJarFileLastModified(String jarFileUrl) {
+		String location = jarFileUrl;
+		if (location.startsWith(ResourceUtils.JAR_URL_PREFIX)) {
+			location = location.substring(ResourceUtils.JAR_URL_PREFIX.length());
+		}
+		int separatorIndex = location.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+		if (separatorIndex != -1) {
+			location = location.substring(0, separatorIndex);
+		}
+		if (location.startsWith(ResourceUtils.FILE_URL_PREFIX)) {
+			try {
+				location = ResourceUtils.toURI(location).getSchemeSpecificPart();
+			}
+			catch (URISyntaxException ex) {
+				location = location.substring(ResourceUtils.FILE_URL_PREFIX.length());
+			}
+		}
+		else if (ResourceUtils.isUrl(location)) {
+			return 0;
+		}
+		return new File(location).lastModified();
+	}
+
+	/**
+	 * Clear the shared cache of jar entry indexes, e.g. after jar files
+	 * with an unchanged timestamp have been replaced.
+	 * @since 4.3.8
+	 */
+	public static void clearCache() {
+		jarEntryIndexCache.clear();
+	}
+
 	/**
 	 * Find all resources in jar files that match the given location pattern
 	 * via the Ant-style PathMatcher.
@@ -887,4 +1132,21 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 	}
 
+
+	/**
+	 * The sorted entry names of a jar file, along with the jar file's
+	 * last-modified timestamp at the time of indexing.
+	 */
+	private static class JarEntryIndex {
+
+		final long lastModified;
+
+		final String[] entryNames;
+
+		public JarEntryIndex(long lastModified, String[] entryNames) {
+			this.lastModified = lastModified;
+			this.entryNames = entryNames;
+		}
+	}
+
 }
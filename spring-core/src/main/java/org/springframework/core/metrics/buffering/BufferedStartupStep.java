@@ -0,0 +1,153 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.buffering;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.util.Assert;
+
+/**
+ * {@link StartupStep} implementation to be buffered by
+ * {@link BufferingApplicationStartup}.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+class BufferedStartupStep implements StartupStep {
+
+	private final BufferingApplicationStartup applicationStartup;
+
+	private final String name;
+
+	private final long id;
+
+	private final BufferedStartupStep parent;
+
+	private final long startNanos;
+
+	private final String threadName;
+
+	private final List<Tag> tags = new ArrayList<Tag>();
+
+	private final AtomicBoolean ended = new AtomicBoolean();
+
+
+	BufferedStartupStep(BufferingApplicationStartup applicationStartup, String name, long id,
+			BufferedStartupStep parent, long startNanos) {
+
+		this.applicationStartup = applicationStartup;
+		this.name = name;
+		this.id = id;
+		this.parent = parent;
+		this.startNanos = startNanos;
+		this.threadName = Thread.currentThread().getName();
+	}
+
+
+	BufferedStartupStep getParent() {
+		return this.parent;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public long getId() {
+		return this.id;
+	}
+
+	@Override
+	public Long getParentId() {
+		return (this.parent != null ? this.parent.getId() : null);
+	}
+
+	long getStartNanos() {
+		return this.startNanos;
+	}
+
+	String getThreadName() {
+		return this.threadName;
+	}
+
+	@Override
+	public StartupStep tag(String key, String value) {
+		Assert.notNull(key, "Tag key must not be null");
+		Assert.state(!this.ended.get(), "StartupStep has already ended");
+		synchronized (this.tags) {
+			this.tags.add(new DefaultTag(key, value));
+		}
+		return this;
+	}
+
+	@Override
+	public Tags getTags() {
+		final List<Tag> tags;
+		synchronized (this.tags) {
+			tags = Collections.unmodifiableList(new ArrayList<Tag>(this.tags));
+		}
+		return new Tags() {
+			@Override
+			public Iterator<Tag> iterator() {
+				return tags.iterator();
+			}
+		};
+	}
+
+	@Override
+	public void end() {
+		long endNanos = System.nanoTime();
+		if (this.ended.compareAndSet(false, true)) {
+			this.applicationStartup.record(this, endNanos);
+		}
+	}
+
+
+	static class DefaultTag implements Tag {
+
+		private final String key;
+
+		private final String value;
+
+		DefaultTag(String key, String value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		public String getValue() {
+			return this.value;
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + this.value;
+		}
+	}
+
+}
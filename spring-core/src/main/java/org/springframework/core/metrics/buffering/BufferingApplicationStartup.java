@@ -0,0 +1,165 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.buffering;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ApplicationStartup} implementation that buffers {@link StartupStep steps}
+ * and records their timestamp as well as their processing time.
+ *
+ * <p>Once recording has started, steps are buffered up until the configured
+ * {@code capacity}; steps ending after that are dropped. The recorded steps
+ * can be retrieved as a {@link StartupTimeline} and exported with a
+ * {@link StartupTimelineJsonWriter}.
+ *
+ * <p>Steps are nested per thread: a step started while another step is
+ * running within the same thread gets that step as its parent. This
+ * makes it possible to attribute time to individual beans even when
+ * singletons get created in several threads concurrently.
+ *
+ * @author agent
+ * @since 4.3.8
+ * @see #getBufferedTimeline()
+ * @see #drainBufferedTimeline()
+ */
+public class BufferingApplicationStartup implements ApplicationStartup {
+
+	private static final Comparator<StartupTimeline.TimelineEvent> ID_ORDER =
+			new Comparator<StartupTimeline.TimelineEvent>() {
+				@Override
+				public int compare(StartupTimeline.TimelineEvent event1, StartupTimeline.TimelineEvent event2) {
+					return (event1.getId() < event2.getId() ? -1 : (event1.getId() == event2.getId() ? 0 : 1));
+				}
+			};
+
+
+	private final int capacity;
+
+	private final long startTime;
+
+	private final long startNanos;
+
+	private final AtomicLong idSeq = new AtomicLong();
+
+	private final ThreadLocal<BufferedStartupStep> currentStep = new ThreadLocal<BufferedStartupStep>();
+
+	private final Queue<StartupTimeline.TimelineEvent> events = new ConcurrentLinkedQueue<StartupTimeline.TimelineEvent>();
+
+	private final AtomicInteger estimatedSize = new AtomicInteger();
+
+
+	/**
+	 * Create a new buffered {@link ApplicationStartup} with a limited capacity,
+	 * starting the recording of steps right away.
+	 * @param capacity the configured capacity; once reached, new steps are not recorded
+	 */
+	public BufferingApplicationStartup(int capacity) {
+		Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+		this.capacity = capacity;
+		this.startTime = System.currentTimeMillis();
+		this.startNanos = System.nanoTime();
+	}
+
+
+	/**
+	 * Return the maximum number of steps to be buffered.
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	@Override
+	public StartupStep start(String name) {
+		Assert.notNull(name, "Step name must not be null");
+		BufferedStartupStep parent = this.currentStep.get();
+		BufferedStartupStep step = new BufferedStartupStep(
+				this, name, this.idSeq.incrementAndGet(), parent, System.nanoTime());
+		this.currentStep.set(step);
+		return step;
+	}
+
+	/**
+	 * Callback from a {@link BufferedStartupStep} that ended.
+	 */
+	void record(BufferedStartupStep step, long endNanos) {
+		if (this.currentStep.get() == step) {
+			BufferedStartupStep parent = step.getParent();
+			if (parent != null) {
+				this.currentStep.set(parent);
+			}
+			else {
+				this.currentStep.remove();
+			}
+		}
+		if (this.estimatedSize.get() < this.capacity) {
+			this.estimatedSize.incrementAndGet();
+			this.events.add(new StartupTimeline.TimelineEvent(step.getId(), step.getParentId(), step.getName(),
+					step.getTags(), step.getThreadName(), toTimestamp(step.getStartNanos()), toTimestamp(endNanos),
+					endNanos - step.getStartNanos()));
+		}
+	}
+
+	private long toTimestamp(long nanos) {
+		return this.startTime + TimeUnit.NANOSECONDS.toMillis(nanos - this.startNanos);
+	}
+
+	/**
+	 * Return the {@link StartupTimeline timeline} as a snapshot of currently
+	 * buffered steps, in the order in which the steps were started.
+	 * <p>This will not remove steps from the buffer.
+	 * @see #drainBufferedTimeline()
+	 */
+	public StartupTimeline getBufferedTimeline() {
+		return new StartupTimeline(this.startTime, sort(new ArrayList<StartupTimeline.TimelineEvent>(this.events)));
+	}
+
+	/**
+	 * Return the {@link StartupTimeline timeline} by pulling steps from the buffer,
+	 * in the order in which the steps were started.
+	 * <p>This removes steps from the buffer, freeing space for new ones.
+	 * @see #getBufferedTimeline()
+	 */
+	public StartupTimeline drainBufferedTimeline() {
+		List<StartupTimeline.TimelineEvent> events = new ArrayList<StartupTimeline.TimelineEvent>();
+		StartupTimeline.TimelineEvent event = this.events.poll();
+		while (event != null) {
+			events.add(event);
+			this.estimatedSize.decrementAndGet();
+			event = this.events.poll();
+		}
+		return new StartupTimeline(this.startTime, sort(events));
+	}
+
+	private static List<StartupTimeline.TimelineEvent> sort(List<StartupTimeline.TimelineEvent> events) {
+		Collections.sort(events, ID_ORDER);
+		return events;
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.buffering;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.core.metrics.StartupStep;
+
+/**
+ * Represent the timeline of {@link StartupStep steps} recorded by
+ * {@link BufferingApplicationStartup}. Each {@link TimelineEvent} has
+ * a start and end time as well as a duration measured with nanosecond precision.
+ *
+ * @author agent
+ * @since 4.3.8
+ * @see StartupTimelineJsonWriter
+ */
+public class StartupTimeline {
+
+	private final long startTime;
+
+	private final List<TimelineEvent> events;
+
+
+	StartupTimeline(long startTime, List<TimelineEvent> events) {
+		this.startTime = startTime;
+		this.events = Collections.unmodifiableList(events);
+	}
+
+
+	/**
+	 * Return the start time of this timeline, in milliseconds since the epoch.
+	 */
+	public long getStartTime() {
+		return this.startTime;
+	}
+
+	/**
+	 * Return the recorded events, in the order in which their steps were started.
+	 */
+	public List<TimelineEvent> getEvents() {
+		return this.events;
+	}
+
+
+	/**
+	 * Event on the current {@link StartupTimeline}: the snapshot of
+	 * a {@link StartupStep} at the time it ended.
+	 */
+	public static class TimelineEvent {
+
+		private final long id;
+
+		private final Long parentId;
+
+		private final String name;
+
+		private final StartupStep.Tags tags;
+
+		private final String threadName;
+
+		private final long startTime;
+
+		private final long endTime;
+
+		private final long durationNanos;
+
+		TimelineEvent(long id, Long parentId, String name, StartupStep.Tags tags, String threadName,
+				long startTime, long endTime, long durationNanos) {
+
+			this.id = id;
+			this.parentId = parentId;
+			this.name = name;
+			this.tags = tags;
+			this.threadName = threadName;
+			this.startTime = startTime;
+			this.endTime = endTime;
+			this.durationNanos = durationNanos;
+		}
+
+		/**
+		 * Return the id of the recorded step.
+		 */
+		public long getId() {
+			return this.id;
+		}
+
+		/**
+		 * Return the id of the parent step, if any.
+		 */
+		public Long getParentId() {
+			return this.parentId;
+		}
+
+		/**
+		 * Return the name of the recorded step.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Return the tags attached to the recorded step.
+		 */
+		public StartupStep.Tags getTags() {
+			return this.tags;
+		}
+
+		/**
+		 * Return the name of the thread which started the step.
+		 */
+		public String getThreadName() {
+			return this.threadName;
+		}
+
+		/**
+		 * Return the start time of the step, in milliseconds since the epoch.
+		 */
+		public long getStartTime() {
+			return this.startTime;
+		}
+
+		/**
+		 * Return the end time of the step, in milliseconds since the epoch.
+		 */
+		public long getEndTime() {
+			return this.endTime;
+		}
+
+		/**
+		 * Return the duration of the step, in nanoseconds.
+		 */
+		public long getDurationNanos() {
+			return this.durationNanos;
+		}
+
+		@Override
+		public String toString() {
+			return "TimelineEvent [" + this.name + "] #" + this.id + " (" + this.durationNanos + "ns)";
+		}
+	}
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.buffering;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Iterator;
+
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.util.Assert;
+
+/**
+ * Writes a {@link StartupTimeline} as JSON, without requiring a JSON library.
+ *
+ * <p>The output has the following structure, with times in milliseconds since
+ * the epoch and durations in nanoseconds:
+ *
+ * <pre class="code">
+ * {
+ *   "startTime": 1488000000000,
+ *   "events": [
+ *     {
+ *       "id": 1,
+ *       "parentId": null,
+ *       "name": "spring.context.refresh",
+ *       "thread": "main",
+ *       "startTime": 1488000000012,
+ *       "endTime": 1488000001534,
+ *       "durationNanos": 1522194532,
+ *       "tags": []
+ *     }
+ *   ]
+ * }</pre>
+ *
+ * @author agent
+ * @since 4.3.8
+ * @see BufferingApplicationStartup#getBufferedTimeline()
+ */
+public class StartupTimelineJsonWriter {
+
+	/**
+	 * Write the given timeline as JSON to the given Writer.
+	 * <p>The Writer is not being flushed or closed.
+	 * @param timeline the timeline to write
+	 * @param writer the Writer to write to
+	 * @throws IOException in case of I/O errors
+	 */
+	public void write(StartupTimeline timeline, Writer writer) throws IOException {
+		Assert.notNull(timeline, "StartupTimeline must not be null");
+		Assert.notNull(writer, "Writer must not be null");
+		writer.write("{\n  \"startTime\": ");
+		writer.write(Long.toString(timeline.getStartTime()));
+		writer.write(",\n  \"events\": [");
+		Iterator<StartupTimeline.TimelineEvent> it = timeline.getEvents().iterator();
+		while (it.hasNext()) {
+			writeEvent(it.next(), writer);
+			if (it.hasNext()) {
+				writer.write(",");
+			}
+		}
+		writer.write(timeline.getEvents().isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+	}
+
+	/**
+	 * Return the given timeline as a JSON String.
+	 * @param timeline the timeline to write
+	 * @return the JSON representation of the timeline
+	 */
+	public String toJson(StartupTimeline timeline) {
+		StringWriter writer = new StringWriter();
+		try {
+			write(timeline, writer);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Unexpected I/O exception from StringWriter", ex);
+		}
+		return writer.toString();
+	}
+
+	private void writeEvent(StartupTimeline.TimelineEvent event, Writer writer) throws IOException {
+		writer.write("\n    {\n      \"id\": ");
+		writer.write(Long.toString(event.getId()));
+		writer.write(",\n      \"parentId\": ");
+		writer.write(event.getParentId() != null ? event.getParentId().toString() : "null");
+		writer.write(",\n      \"name\": ");
+		writeString(event.getName(), writer);
+		writer.write(",\n      \"thread\": ");
+		writeString(event.getThreadName(), writer);
+		writer.write(",\n      \"startTime\": ");
+		writer.write(Long.toString(event.getStartTime()));
+		writer.write(",\n      \"endTime\": ");
+		writer.write(Long.toString(event.getEndTime()));
+		writer.write(",\n      \"durationNanos\": ");
+		writer.write(Long.toString(event.getDurationNanos()));
+		writer.write(",\n      \"tags\": [");
+		Iterator<StartupStep.Tag> it = event.getTags().iterator();
+		while (it.hasNext()) {
+			StartupStep.Tag tag = it.next();
+			writer.write("{\"key\": ");
+			writeString(tag.getKey(), writer);
+			writer.write(", \"value\": ");
+			writeString(tag.getValue(), writer);
+			writer.write("}");
+			if (it.hasNext()) {
+				writer.write(", ");
+			}
+		}
+		writer.write("]\n    }");
+	}
+
+	private void writeString(String value, Writer writer) throws IOException {
+		if (value == null) {
+			writer.write("null");
+			return;
+		}
+		writer.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"':
+					writer.write("\\\"");
+					break;
+				case '\\':
+					writer.write("\\\\");
+					break;
+				case '\n':
+					writer.write("\\n");
+					break;
+				case '\r':
+					writer.write("\\r");
+					break;
+				case '\t':
+					writer.write("\\t");
+					break;
+				default:
+					if (c < 0x20) {
+						writer.write(String.format("\\u%04x", (int) c));
+					}
+					else {
+						writer.write(c);
+					}
+			}
+		}
+		writer.write('"');
+	}
+
+}
@@ -0,0 +1,5 @@
+/**
+ * Buffering {@link org.springframework.core.metrics.ApplicationStartup}
+ * implementation, recording startup steps into an exportable timeline.
+ */
+package org.springframework.core.metrics.buffering;
@@ -0,0 +1,4 @@
+/**
+ * Support package for recording metrics during application startup.
+ */
+package org.springframework.core.metrics;
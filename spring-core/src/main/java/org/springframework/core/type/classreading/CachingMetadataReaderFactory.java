@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,17 +17,21 @@
 package org.springframework.core.type.classreading;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
-import java.util.Map;
 
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * Caching implementation of the {@link MetadataReaderFactory} interface,
  * caching a {@link MetadataReader} instance per Spring {@link Resource} handle
  * (i.e. per ".class" file).
  *
+ * <p>By default, each factory keeps its own LRU cache. Alternatively, a
+ * {@link MetadataReaderCache} can be shared between several factories, so
+ * that class files are parsed only once across application contexts; see
+ * {@link #setMetadataReaderCache} and {@link MetadataReaderCache#SHARED_CACHE_PROPERTY_NAME}.
+ *
  * @author Juergen Hoeller
  * @author Costin Leau
  * @since 2.5
@@ -40,14 +44,11 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 
 	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
 
-	@SuppressWarnings("serial")
-	private final Map<Resource, MetadataReader> metadataReaderCache =
-			new LinkedHashMap<Resource, MetadataReader>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<Resource, MetadataReader> eldest) {
-					return size() > getCacheLimit();
-				}
-			};
+	private volatile MetadataReaderCache metadataReaderCache =
+			(MetadataReaderCache.isSharedCacheEnabled() ? MetadataReaderCache.getSharedInstance() : null);
+
+	private volatile ConcurrentLruCache<Resource, MetadataReader> localMetadataReaderCache =
+			new ConcurrentLruCache<Resource, MetadataReader>(DEFAULT_CACHE_LIMIT);
 
 
 	/**
@@ -81,6 +82,9 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	 */
 	public void setCacheLimit(int cacheLimit) {
 		this.cacheLimit = cacheLimit;
+		if (cacheLimit > 0 && cacheLimit != this.localMetadataReaderCache.getMaxSize()) {
+			this.localMetadataReaderCache = new ConcurrentLruCache<Resource, MetadataReader>(cacheLimit);
+		}
 	}
 
 	/**
@@ -90,29 +94,64 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 		return this.cacheLimit;
 	}
 
+	/**
+	 * Specify a {@link MetadataReaderCache} to use instead of the local
+	 * per-factory cache, typically one that is shared with other factories.
+	 * <p>Default is {@code null}, i.e. a local cache bounded by the
+	 * {@link #setCacheLimit cache limit}, unless the shared cache has been
+	 * enabled through {@link MetadataReaderCache#SHARED_CACHE_PROPERTY_NAME}.
+	 * @since 4.3.8
+	 * @see MetadataReaderCache#getSharedInstance()
+	 */
+	public void setMetadataReaderCache(MetadataReaderCache metadataReaderCache) {
+		this.metadataReaderCache = metadataReaderCache;
+	}
+
+	/**
+	 * Return the {@link MetadataReaderCache} used instead of the local
+	 * per-factory cache, if any.
+	 * @since 4.3.8
+	 */
+	public MetadataReaderCache getMetadataReaderCache() {
+		return this.metadataReaderCache;
+	}
+
 
 	@Override
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
-		if (getCacheLimit() <= 0) {
-			return super.getMetadataReader(resource);
-		}
-		synchronized (this.metadataReaderCache) {
-			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
+		MetadataReaderCache sharedCache = this.metadataReaderCache;
+		if (sharedCache != null) {
+			MetadataReaderCache.CacheKey key =
+					MetadataReaderCache.CacheKey.forResource(resource, getResourceLoader().getClassLoader());
+			if (key == null) {
+				return super.getMetadataReader(resource);
+			}
+			MetadataReader metadataReader = sharedCache.get(key);
 			if (metadataReader == null) {
 				metadataReader = super.getMetadataReader(resource);
-				this.metadataReaderCache.put(resource, metadataReader);
+				sharedCache.put(key, metadataReader);
 			}
 			return metadataReader;
 		}
+		if (getCacheLimit() <= 0) {
+			return super.getMetadataReader(resource);
+		}
+		ConcurrentLruCache<Resource, MetadataReader> localCache = this.localMetadataReaderCache;
+		MetadataReader metadataReader = localCache.get(resource);
+		if (metadataReader == null) {
+			metadataReader = super.getMetadataReader(resource);
+			localCache.put(resource, metadataReader);
+		}
+		return metadataReader;
 	}
 
 	/**
-	 * Clear the entire MetadataReader cache, removing all cached class metadata.
+	 * Clear the entire local MetadataReader cache, removing all cached class metadata.
+	 * <p>A {@link #setMetadataReaderCache shared MetadataReaderCache} is not affected,
+	 * since other factories may still benefit from its entries.
 	 */
 	public void clearCache() {
-		synchronized (this.metadataReaderCache) {
-			this.metadataReaderCache.clear();
-		}
+		this.localMetadataReaderCache.clear();
 	}
 
 }
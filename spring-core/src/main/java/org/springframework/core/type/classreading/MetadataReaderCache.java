@@ -0,0 +1,374 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * Size-bounded, lock-striped cache of {@link MetadataReader} instances that can
+ * be shared between several {@link CachingMetadataReaderFactory} instances, e.g.
+ * across parent/child application contexts or across repeatedly created test
+ * contexts, so that the same class files do not get parsed over and over again.
+ *
+ * <p>Entries are keyed by the {@link Resource#getURL() URL} of the class file,
+ * its {@link Resource#lastModified() last-modified} timestamp and the
+ * ClassLoader that the metadata has been resolved against: a recompiled class
+ * file does not match a stale entry, and Class-valued annotation attributes are
+ * never resolved against a foreign ClassLoader. For class files within a jar file,
+ * the timestamp of the jar file itself is used, avoiding a connection per entry.
+ * Resources that do not expose a URL or a timestamp are not cached.
+ *
+ * <p>Each stripe is an access-ordered LRU map guarded by its own monitor, so
+ * concurrent lookups for unrelated classes do not contend on a single lock.
+ * Hit, miss and eviction counts are exposed for monitoring purposes.
+ *
+ * <p>A JVM-wide instance is available through {@link #getSharedInstance()};
+ * it is used by default by every {@link CachingMetadataReaderFactory} if the
+ * {@value #SHARED_CACHE_PROPERTY_NAME} property is set to "true" (as a system
+ * property or in a {@code spring.properties} file). Note that cached entries
+ * hold on to the ClassLoader they were created for until they are evicted or
+ * the cache is {@link #clear() cleared}, so a JVM-wide cache is only advisable
+ * in environments where ClassLoaders are not discarded and recreated.
+ *
+ * @author agent
+ * @since 4.3.8
+ * @see CachingMetadataReaderFactory#setMetadataReaderCache
+ */
+public class MetadataReaderCache {
+
+	/**
+	 * System property that instructs Spring to use the {@link #getSharedInstance()
+	 * shared MetadataReaderCache} for all {@link CachingMetadataReaderFactory}
+	 * instances, i.e. to share parsed class metadata across application contexts.
+	 * <p>The default is "false".
+	 * @see org.springframework.core.SpringProperties
+	 */
+	public static final String SHARED_CACHE_PROPERTY_NAME = "spring.metadatareader.cache.shared";
+
+	/** Default maximum number of entries for the cache: 4096 */
+	public static final int DEFAULT_CACHE_LIMIT = 4096;
+
+	/** Default number of stripes (i.e. independently locked LRU maps): 16 */
+	public static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+
+	private static volatile MetadataReaderCache sharedInstance;
+
+
+	private final int cacheLimit;
+
+	private final Segment[] segments;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+
+	/**
+	 * Create a new MetadataReaderCache with the default cache limit
+	 * and concurrency level.
+	 */
+	public MetadataReaderCache() {
+		this(DEFAULT_CACHE_LIMIT, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * Create a new MetadataReaderCache with the given cache limit
+	 * and the default concurrency level.
+	 * @param cacheLimit the maximum number of cached entries
+	 */
+	public MetadataReaderCache(int cacheLimit) {
+		this(cacheLimit, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * Create a new MetadataReaderCache.
+	 * @param cacheLimit the maximum number of cached entries
+	 * @param concurrencyLevel the number of independently locked stripes
+	 */
+	public MetadataReaderCache(int cacheLimit, int concurrencyLevel) {
+		Assert.isTrue(cacheLimit > 0, "Cache limit must be greater than 0");
+		Assert.isTrue(concurrencyLevel > 0, "Concurrency level must be greater than 0");
+		int segmentCount = Math.min(concurrencyLevel, cacheLimit);
+		int segmentLimit = (cacheLimit + segmentCount - 1) / segmentCount;
+		this.cacheLimit = cacheLimit;
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			this.segments[i] = new Segment(segmentLimit);
+		}
+	}
+
+
+	/**
+	 * Return the maximum number of entries for this cache.
+	 */
+	public int getCacheLimit() {
+		return this.cacheLimit;
+	}
+
+	/**
+	 * Return the cached {@link MetadataReader} for the given class file resource,
+	 * as resolved against the given ClassLoader.
+	 * @param resource the resource (pointing to a ".class" file)
+	 * @param classLoader the ClassLoader that the metadata is resolved against
+	 * @return the cached MetadataReader, or {@code null} if none
+	 */
+	public MetadataReader get(Resource resource, ClassLoader classLoader) {
+		CacheKey key = CacheKey.forResource(resource, classLoader);
+		return (key != null ? get(key) : null);
+	}
+
+	/**
+	 * Return the cached {@link MetadataReader} for the given key.
+	 * @param key the key, as obtained from {@link CacheKey#forResource}
+	 * @return the cached MetadataReader, or {@code null} if none
+	 */
+	MetadataReader get(CacheKey key) {
+		MetadataReader metadataReader = segmentFor(key).get(key);
+		if (metadataReader != null) {
+			this.hitCount.incrementAndGet();
+		}
+		else {
+			this.missCount.incrementAndGet();
+		}
+		return metadataReader;
+	}
+
+	/**
+	 * Cache the given {@link MetadataReader} for the given class file resource.
+	 * <p>The entry is silently skipped if the resource does not expose a URL and
+	 * a last-modified timestamp.
+	 * @param resource the resource (pointing to a ".class" file)
+	 * @param classLoader the ClassLoader that the metadata has been resolved against
+	 * @param metadataReader the MetadataReader to cache
+	 */
+	public void put(Resource resource, ClassLoader classLoader, MetadataReader metadataReader) {
+		CacheKey key = CacheKey.forResource(resource, classLoader);
+		if (key != null) {
+			put(key, metadataReader);
+		}
+	}
+
+	/**
+	 * Cache the given {@link MetadataReader} for the given key.
+	 * @param key the key, as obtained from {@link CacheKey#forResource}
+	 * @param metadataReader the MetadataReader to cache
+	 */
+	void put(CacheKey key, MetadataReader metadataReader) {
+		segmentFor(key).put(key, metadataReader);
+	}
+
+	/**
+	 * Return the current number of cached entries.
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : this.segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Return the number of lookups that found a cached entry.
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * Return the number of lookups that did not find a cached entry.
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	/**
+	 * Return the number of entries that have been evicted because of the cache limit.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.get();
+	}
+
+	/**
+	 * Remove all cached entries. The statistics are not reset.
+	 */
+	public void clear() {
+		for (Segment segment : this.segments) {
+			segment.clear();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + ": size=" + size() + ", limit=" + this.cacheLimit +
+				", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount();
+	}
+
+
+	private Segment segmentFor(CacheKey key) {
+		int hash = key.hashCode();
+		hash ^= (hash >>> 16);
+		return this.segments[(hash & Integer.MAX_VALUE) % this.segments.length];
+	}
+
+
+	/**
+	 * Return the JVM-wide MetadataReaderCache, creating it on first access.
+	 * @see #SHARED_CACHE_PROPERTY_NAME
+	 */
+	public static MetadataReaderCache getSharedInstance() {
+		MetadataReaderCache cache = sharedInstance;
+		if (cache == null) {
+			synchronized (MetadataReaderCache.class) {
+				cache = sharedInstance;
+				if (cache == null) {
+					cache = new MetadataReaderCache();
+					sharedInstance = cache;
+				}
+			}
+		}
+		return cache;
+	}
+
+	/**
+	 * Determine whether the JVM-wide cache should be used by default,
+	 * according to the {@value #SHARED_CACHE_PROPERTY_NAME} property.
+	 */
+	static boolean isSharedCacheEnabled() {
+		return SpringProperties.getFlag(SHARED_CACHE_PROPERTY_NAME);
+	}
+
+
+	/**
+	 * A stripe of the cache: an access-ordered LRU map with its own monitor.
+	 */
+	private class Segment {
+
+		private final Map<CacheKey, MetadataReader> entries;
+
+		@SuppressWarnings("serial")
+		public Segment(final int limit) {
+			this.entries = new LinkedHashMap<CacheKey, MetadataReader>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<CacheKey, MetadataReader> eldest) {
+					if (size() > limit) {
+						evictionCount.incrementAndGet();
+						return true;
+					}
+					return false;
+				}
+			};
+		}
+
+		public synchronized MetadataReader get(CacheKey key) {
+			return this.entries.get(key);
+		}
+
+		public synchronized void put(CacheKey key, MetadataReader metadataReader) {
+			this.entries.put(key, metadataReader);
+		}
+
+		public synchronized int size() {
+			return this.entries.size();
+		}
+
+		public synchronized void clear() {
+			this.entries.clear();
+		}
+	}
+
+
+	/**
+	 * Cache key combining the class file URL, its timestamp and the ClassLoader.
+	 */
+	static final class CacheKey {
+
+		private final String url;
+
+		private final long lastModified;
+
+		private final ClassLoader classLoader;
+
+		private CacheKey(String url, long lastModified, ClassLoader classLoader) {
+			this.url = url;
+			this.lastModified = lastModified;
+			this.classLoader = classLoader;
+		}
+
+		/**
+		 * Build the cache key for the given resource, resolving its URL only once.
+		 * @return the cache key, or {@code null} if the resource is not cacheable
+		 */
+		static CacheKey forResource(Resource resource, ClassLoader classLoader) {
+			try {
+				URL url = resource.getURL();
+				long lastModified = lastModified(resource, url);
+				return (lastModified != 0 ? new CacheKey(url.toExternalForm(), lastModified, classLoader) : null);
+			}
+			catch (IOException ex) {
+				// No URL or timestamp available -> not cacheable.
+				return null;
+			}
+		}
+
+		private static long lastModified(Resource resource, URL url) throws IOException {
+			if (ResourceUtils.isJarURL(url)) {
+				// Timestamp of the jar file itself, shared by all of its entries
+				URL jarUrl = ResourceUtils.extractArchiveURL(url);
+				if (ResourceUtils.isFileURL(jarUrl)) {
+					return ResourceUtils.getFile(jarUrl).lastModified();
+				}
+			}
+			else if (ResourceUtils.isFileURL(url)) {
+				return ResourceUtils.getFile(url).lastModified();
+			}
+			return resource.lastModified();
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CacheKey)) {
+				return false;
+			}
+			CacheKey otherKey = (CacheKey) other;
+			return (this.url.equals(otherKey.url) && this.lastModified == otherKey.lastModified &&
+					this.classLoader == otherKey.classLoader);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.url.hashCode() * 29 + ObjectUtils.hashCode(this.lastModified);
+		}
+	}
+
+}
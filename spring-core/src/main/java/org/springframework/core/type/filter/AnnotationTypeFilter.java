@@ -76,6 +76,15 @@ public class AnnotationTypeFilter extends AbstractTypeHierarchyTraversingFilter
 		this.considerMetaAnnotations = considerMetaAnnotations;
 	}
 
+	/**
+	 * Return the {@link Annotation} that this instance is using to filter
+	 * candidates.
+	 * @since 4.3.8
+	 */
+	public final Class<? extends Annotation> getAnnotationType() {
+		return this.annotationType;
+	}
+
 
 	@Override
 	protected boolean matchSelf(MetadataReader metadataReader) {
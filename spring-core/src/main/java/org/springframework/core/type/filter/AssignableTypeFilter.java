@@ -40,6 +40,14 @@ public class AssignableTypeFilter extends AbstractTypeHierarchyTraversingFilter
 		this.targetType = targetType;
 	}
 
+	/**
+	 * Return the {@code type} that this instance is using to filter candidates.
+	 * @since 4.3.8
+	 */
+	public final Class<?> getTargetType() {
+		return this.targetType;
+	}
+
 
 	@Override
 	protected boolean matchClassName(String className) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -157,6 +157,18 @@ public class AntPathMatcher implements PathMatcher {
 		this.cachePatterns = cachePatterns;
 	}
 
+	String getPathSeparator() {
+		return this.pathSeparator;
+	}
+
+	boolean isCaseSensitive() {
+		return this.caseSensitive;
+	}
+
+	boolean isTrimTokens() {
+		return this.trimTokens;
+	}
+
 	private void deactivatePatternCache() {
 		this.cachePatterns = false;
 		this.tokenizedPatternCache.clear();
@@ -164,6 +176,22 @@ public class AntPathMatcher implements PathMatcher {
 	}
 
 
+	/**
+	 * Compile the given pattern into a {@link PathPattern} for repeated matching,
+	 * according to this matcher's current path separator, case sensitivity and
+	 * token trimming settings.
+	 * <p>A compiled pattern is independent from this matcher's pattern caches
+	 * and matches paths without allocating any objects, except for segments
+	 * with URI template variables.
+	 * @param pattern the pattern to compile
+	 * @return the compiled pattern
+	 * @since 4.3.8
+	 * @see PathPatternSet
+	 */
+	public PathPattern compile(String pattern) {
+		return new PathPattern(pattern, this.pathSeparator, this.caseSensitive, this.trimTokens);
+	}
+
 	@Override
 	public boolean isPattern(String path) {
 		return (path.indexOf('*') != -1 || path.indexOf('?') != -1);
@@ -701,6 +729,14 @@ public class AntPathMatcher implements PathMatcher {
 				return false;
 			}
 		}
+
+		/**
+		 * Match the given region of a String, without URI template variables.
+		 * @since 4.3.8
+		 */
+		boolean matchStrings(String str, int start, int end) {
+			return this.pattern.matcher(str).region(start, end).matches();
+		}
 	}
 
 
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+/**
+ * Strategy for obtaining and recycling {@code byte[]} buffers, e.g. for the
+ * transient copy buffers used by {@link StreamUtils} and {@link FileCopyUtils},
+ * avoiding a new allocation for every copy operation.
+ *
+ * <p>A buffer obtained through {@link #acquire} may contain arbitrary content
+ * from previous use. Once handed back through {@link #release}, it must not be
+ * used by the caller anymore, and it must not be released more than once.
+ *
+ * @author agent
+ * @since 4.3.8
+ * @see ThreadLocalByteArrayPool
+ */
+public interface ByteArrayPool {
+
+	/**
+	 * Obtain a buffer with at least the given length.
+	 * @param minLength the minimum length of the buffer
+	 * @return a pooled or newly allocated buffer (never {@code null})
+	 */
+	byte[] acquire(int minLength);
+
+	/**
+	 * Return the given buffer to the pool, allowing for it to be handed out
+	 * again. Pools may simply discard buffers that they do not keep.
+	 * @param buffer a buffer previously obtained through {@link #acquire}
+	 */
+	void release(byte[] buffer);
+
+}
@@ -0,0 +1,397 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache with approximate least-recently-used eviction, for concurrent
+ * use on hot code paths: lookups are lock-free, marking an entry as recently used
+ * through a simple flag instead of reordering a linked list under a lock.
+ *
+ * <p>Eviction follows the CLOCK algorithm: entries are queued in insertion order,
+ * and when the cache exceeds its bounds, entries get removed from the head of the
+ * queue unless they have been accessed since they were last inspected, in which
+ * case they are given a second chance at the tail of the queue. Only writes that
+ * exceed the bounds synchronize on the eviction process.
+ *
+ * <p>The cache is bounded by its number of entries and optionally by the total
+ * weight of its entries, as determined by a {@link Weigher}. Eviction counts are
+ * recorded for monitoring purposes; hit and miss counts are only recorded if
+ * {@link #setRecordStats enabled}, keeping look-ups free of shared writes otherwise.
+ *
+ * <p>Neither keys nor values may be {@code null}.
+ *
+ * @author agent
+ * @since 4.3.8
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ConcurrentLruCache<K, V> {
+
+	private final int maxSize;
+
+	private final long maxWeight;
+
+	private final Weigher<? super K, ? super V> weigher;
+
+	private final ConcurrentMap<K, Node<K, V>> entries;
+
+	private final Queue<Node<K, V>> evictionQueue = new ConcurrentLinkedQueue<Node<K, V>>();
+
+	private final AtomicInteger evictionQueueSize = new AtomicInteger();
+
+	private final AtomicLong weight = new AtomicLong();
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	private final Object evictionMonitor = new Object();
+
+	private volatile boolean recordStats = false;
+
+
+	/**
+	 * Create a new ConcurrentLruCache with the given maximum number of entries.
+	 * @param maxSize the maximum number of entries
+	 */
+	public ConcurrentLruCache(int maxSize) {
+		this(maxSize, Long.MAX_VALUE, null);
+	}
+
+	/**
+	 * Create a new ConcurrentLruCache with the given maximum number of entries
+	 * and the given maximum total weight of its entries.
+	 * @param maxSize the maximum number of entries
+	 * @param maxWeight the maximum total weight of all entries
+	 * @param weigher the strategy for determining the weight of each entry
+	 * (may be {@code null} for a weight of 1 per entry)
+	 */
+	public ConcurrentLruCache(int maxSize, long maxWeight, Weigher<? super K, ? super V> weigher) {
+		Assert.isTrue(maxSize > 0, "Maximum size must be greater than 0");
+		Assert.isTrue(maxWeight > 0, "Maximum weight must be greater than 0");
+		this.maxSize = maxSize;
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+		this.entries = new ConcurrentHashMap<K, Node<K, V>>(Math.min(maxSize, 256));
+	}
+
+
+	/**
+	 * Specify whether to record hit and miss counts for {@link #get} calls.
+	 * <p>Default is "false": every recorded look-up updates a shared counter,
+	 * which is a point of contention between concurrent readers.
+	 * @see #getHitCount()
+	 * @see #getMissCount()
+	 */
+	public void setRecordStats(boolean recordStats) {
+		this.recordStats = recordStats;
+	}
+
+	/**
+	 * Return whether hit and miss counts are recorded.
+	 */
+	public boolean isRecordStats() {
+		return this.recordStats;
+	}
+
+	/**
+	 * Return the cached value for the given key, marking it as recently used.
+	 * @param key the key to look up
+	 * @return the cached value, or {@code null} if none
+	 */
+	public V get(K key) {
+		Node<K, V> node = this.entries.get(key);
+		if (node == null) {
+			if (this.recordStats) {
+				this.missCount.incrementAndGet();
+			}
+			return null;
+		}
+		if (!node.referenced) {
+			node.referenced = true;
+		}
+		if (this.recordStats) {
+			this.hitCount.incrementAndGet();
+		}
+		return node.value;
+	}
+
+	/**
+	 * Return the cached value for the given key, without marking it as
+	 * recently used and without recording a hit or a miss.
+	 * @param key the key to look up
+	 * @return the cached value, or {@code null} if none
+	 */
+	public V peek(K key) {
+		Node<K, V> node = this.entries.get(key);
+		return (node != null ? node.value : null);
+	}
+
+	/**
+	 * Return whether the cache contains an entry for the given key,
+	 * without marking it as recently used.
+	 * @param key the key to check
+	 */
+	public boolean contains(K key) {
+		return this.entries.containsKey(key);
+	}
+
+	/**
+	 * Cache the given value for the given key, replacing any existing entry.
+	 * @param key the key
+	 * @param value the value to cache
+	 * @return the previously cached value, or {@code null} if none
+	 */
+	public V put(K key, V value) {
+		Node<K, V> node = createNode(key, value);
+		Node<K, V> previous = this.entries.put(key, node);
+		this.weight.addAndGet(previous != null ? node.weight - previous.weight : node.weight);
+		afterWrite(node);
+		return (previous != null ? previous.value : null);
+	}
+
+	/**
+	 * Cache the given value for the given key, unless an entry exists already.
+	 * @param key the key
+	 * @param value the value to cache
+	 * @return the existing value, or {@code null} if the given value has been cached
+	 */
+	public V putIfAbsent(K key, V value) {
+		Node<K, V> node = createNode(key, value);
+		Node<K, V> existing = this.entries.putIfAbsent(key, node);
+		if (existing != null) {
+			return existing.value;
+		}
+		this.weight.addAndGet(node.weight);
+		afterWrite(node);
+		return null;
+	}
+
+	/**
+	 * Remove the entry for the given key, if any.
+	 * @param key the key
+	 * @return the previously cached value, or {@code null} if none
+	 */
+	public V remove(K key) {
+		Node<K, V> node = this.entries.remove(key);
+		if (node == null) {
+			return null;
+		}
+		this.weight.addAndGet(-node.weight);
+		return node.value;
+	}
+
+	/**
+	 * Remove all entries from the cache. The statistics are not reset.
+	 */
+	public void clear() {
+		synchronized (this.evictionMonitor) {
+			// Clear the queue first: a concurrent put adds its entry before queueing it,
+			// so any entry which survives the removal below has been queued again
+			this.evictionQueue.clear();
+			this.evictionQueueSize.set(0);
+			for (K key : this.entries.keySet()) {
+				remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Return an unmodifiable view of the keys currently in the cache.
+	 * <p>The view reflects concurrent modifications on a best-effort basis,
+	 * just like the key set of a {@link ConcurrentHashMap}.
+	 */
+	public Set<K> keySet() {
+		return Collections.unmodifiableSet(this.entries.keySet());
+	}
+
+	/**
+	 * Return the maximum number of entries.
+	 */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	/**
+	 * Return the maximum total weight of all entries.
+	 */
+	public long getMaxWeight() {
+		return this.maxWeight;
+	}
+
+	/**
+	 * Return the current number of entries.
+	 */
+	public int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Return the current total weight of all entries.
+	 */
+	public long weight() {
+		return this.weight.get();
+	}
+
+	/**
+	 * Return the number of lookups that found a cached entry,
+	 * if {@link #setRecordStats recording} is enabled.
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * Return the number of lookups that did not find a cached entry,
+	 * if {@link #setRecordStats recording} is enabled.
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	/**
+	 * Return the number of entries that have been evicted because of the cache bounds.
+	 */
+	public long getEvictionCount() {
+		return this.evictionCount.get();
+	}
+
+
+	private Node<K, V> createNode(K key, V value) {
+		Assert.notNull(key, "Key must not be null");
+		Assert.notNull(value, "Value must not be null");
+		int weight = (this.weigher != null ? this.weigher.weigh(key, value) : 1);
+		Assert.isTrue(weight >= 0, "Weight must not be negative");
+		return new Node<K, V>(key, value, weight);
+	}
+
+	private void afterWrite(Node<K, V> node) {
+		this.evictionQueue.offer(node);
+		int queueSize = this.evictionQueueSize.incrementAndGet();
+		if (this.entries.size() > this.maxSize || this.weight.get() > this.maxWeight) {
+			evict();
+		}
+		else if (queueSize > 2 * Math.max(this.entries.size(), 16)) {
+			purgeStaleNodes();
+		}
+	}
+
+	/**
+	 * Evict entries until the cache is within its bounds again.
+	 */
+	private void evict() {
+		synchronized (this.evictionMonitor) {
+			// Skip second chances once every queued node had one, in case of concurrent reads
+			int secondChances = this.evictionQueueSize.get();
+			while (this.entries.size() > this.maxSize || this.weight.get() > this.maxWeight) {
+				Node<K, V> node = this.evictionQueue.poll();
+				if (node == null) {
+					break;
+				}
+				this.evictionQueueSize.decrementAndGet();
+				if (this.entries.get(node.key) != node) {
+					// Replaced or removed in the meantime
+					continue;
+				}
+				if (node.referenced && secondChances-- > 0) {
+					node.referenced = false;
+					this.evictionQueue.offer(node);
+					this.evictionQueueSize.incrementAndGet();
+				}
+				else if (this.entries.remove(node.key, node)) {
+					this.weight.addAndGet(-node.weight);
+					this.evictionCount.incrementAndGet();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove queued nodes for entries that have been replaced or removed,
+	 * keeping the queue from growing while the cache stays within its bounds.
+	 */
+	private void purgeStaleNodes() {
+		synchronized (this.evictionMonitor) {
+			for (Iterator<Node<K, V>> it = this.evictionQueue.iterator(); it.hasNext();) {
+				Node<K, V> node = it.next();
+				if (this.entries.get(node.key) != node) {
+					it.remove();
+					this.evictionQueueSize.decrementAndGet();
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + ": size=" + size() + ", maxSize=" + this.maxSize +
+				(this.weigher != null ? ", weight=" + weight() + ", maxWeight=" + this.maxWeight : "") +
+				", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount();
+	}
+
+
+	/**
+	 * Strategy for determining the weight of a cache entry, e.g. the
+	 * approximate number of bytes that a cached value occupies.
+	 * @param <K> the key type
+	 * @param <V> the value type
+	 */
+	public interface Weigher<K, V> {
+
+		/**
+		 * Determine the weight of the given entry.
+		 * @param key the key
+		 * @param value the value
+		 * @return the weight (must not be negative)
+		 */
+		int weigh(K key, V value);
+	}
+
+
+	/**
+	 * A cache entry, with a flag for recent access.
+	 */
+	private static final class Node<K, V> {
+
+		final K key;
+
+		final V value;
+
+		final int weight;
+
+		volatile boolean referenced;
+
+		public Node(K key, V value, int weight) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+
+}
@@ -28,8 +28,10 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -48,6 +50,11 @@ import java.util.concurrent.locks.ReentrantLock;
  * references at any time, so it may appear that an unknown thread is silently removing
  * entries.
  *
+ * <p>Read operations do not block: as of 4.3.8, a reader that encounters garbage
+ * collected references only purges them if it can acquire the segment lock right away,
+ * otherwise leaving them to the next write operation. Purging only rebuilds the
+ * reference chains that actually contain purged references.
+ *
  * <p>If not explicitly specified, this implementation will use
  * {@linkplain SoftReference soft entry references}.
  *
@@ -437,6 +444,12 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 		 */
 		private int resizeThreshold;
 
+		/**
+		 * References polled for purging by readers which could not acquire the lock,
+		 * to be purged along with the next restructure.
+		 */
+		private final Queue<Reference<K, V>> pendingPurges = new ConcurrentLinkedQueue<Reference<K, V>>();
+
 		public Segment(int initialCapacity) {
 			this.referenceManager = createReferenceManager();
 			this.initialSize = 1 << calculateShift(initialCapacity, MAXIMUM_SEGMENT_SIZE);
@@ -445,7 +458,7 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 
 		public Reference<K, V> getReference(Object key, int hash, Restructure restructure) {
 			if (restructure == Restructure.WHEN_NECESSARY) {
-				restructureIfNecessary(false);
+				purgeIfPossible();
 			}
 			if (this.count == 0) {
 				return null;
@@ -525,61 +538,123 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 		protected final void restructureIfNecessary(boolean allowResize) {
 			boolean needsResize = ((this.count > 0) && (this.count >= this.resizeThreshold));
 			Reference<K, V> reference = this.referenceManager.pollForPurge();
-			if ((reference != null) || (needsResize && allowResize)) {
+			if ((reference != null) || (needsResize && allowResize) || !this.pendingPurges.isEmpty()) {
 				lock();
 				try {
-					int countAfterRestructure = this.count;
-
-					Set<Reference<K, V>> toPurge = Collections.emptySet();
-					if (reference != null) {
-						toPurge = new HashSet<Reference<K, V>>();
-						while (reference != null) {
-							toPurge.add(reference);
-							reference = this.referenceManager.pollForPurge();
-						}
+					restructure(allowResize, reference);
+				}
+				finally {
+					unlock();
+				}
+			}
+		}
+
+		/**
+		 * Purge references that have been garbage collected, unless another thread
+		 * holds the lock: readers should not block, so the purge is left to the
+		 * next restructure in that case.
+		 */
+		private void purgeIfPossible() {
+			Reference<K, V> reference = this.referenceManager.pollForPurge();
+			if (reference != null) {
+				if (tryLock()) {
+					try {
+						restructure(false, reference);
 					}
-					countAfterRestructure -= toPurge.size();
-
-					// Recalculate taking into account count inside lock and items that
-					// will be purged
-					needsResize = (countAfterRestructure > 0 && countAfterRestructure >= this.resizeThreshold);
-					boolean resizing = false;
-					int restructureSize = this.references.length;
-					if (allowResize && needsResize && restructureSize < MAXIMUM_SEGMENT_SIZE) {
-						restructureSize <<= 1;
-						resizing = true;
+					finally {
+						unlock();
 					}
+				}
+				else {
+					this.pendingPurges.add(reference);
+				}
+			}
+		}
+
+		/**
+		 * Purge the given reference along with all other references pending for purge,
+		 * resizing the references table if necessary. Must be called with the lock held.
+		 * @param allowResize if resizing is permitted
+		 * @param reference the first reference to purge (may be {@code null})
+		 */
+		private void restructure(boolean allowResize, Reference<K, V> reference) {
+			Set<Reference<K, V>> toPurge = Collections.emptySet();
+			if (reference != null || !this.pendingPurges.isEmpty()) {
+				toPurge = new HashSet<Reference<K, V>>();
+				while (reference != null) {
+					toPurge.add(reference);
+					reference = this.referenceManager.pollForPurge();
+				}
+				while ((reference = this.pendingPurges.poll()) != null) {
+					toPurge.add(reference);
+				}
+			}
 
-					// Either create a new table or reuse the existing one
-					Reference<K, V>[] restructured = (resizing ? createReferenceArray(restructureSize) : this.references);
+			// Recalculate taking into account count inside lock and items that
+			// will be purged
+			int countAfterRestructure = this.count - toPurge.size();
+			boolean needsResize = (countAfterRestructure > 0 && countAfterRestructure >= this.resizeThreshold);
+			Reference<K, V>[] references = this.references;
 
-					// Restructure
-					for (int i = 0; i < this.references.length; i++) {
-						reference = this.references[i];
-						if (!resizing) {
-							restructured[i] = null;
-						}
-						while (reference != null) {
-							if (!toPurge.contains(reference) && (reference.get() != null)) {
-								int index = getIndex(reference.getHash(), restructured);
-								restructured[index] = this.referenceManager.createReference(
-										reference.get(), reference.getHash(),
-										restructured[index]);
-							}
-							reference = reference.getNext();
+			if (allowResize && needsResize && references.length < MAXIMUM_SEGMENT_SIZE) {
+				Reference<K, V>[] restructured = createReferenceArray(references.length << 1);
+				int count = 0;
+				for (Reference<K, V> head : references) {
+					for (reference = head; reference != null; reference = reference.getNext()) {
+						Entry<K, V> entry = reference.get();
+						if (entry != null && !toPurge.contains(reference)) {
+							int index = getIndex(reference.getHash(), restructured);
+							restructured[index] = this.referenceManager.createReference(
+									entry, reference.getHash(), restructured[index]);
+							count++;
 						}
 					}
+				}
+				setReferences(restructured);
+				this.count = count;
+			}
+			else if (!toPurge.isEmpty()) {
+				// Only rebuild the chains that contain references to purge; references
+				// that have been purged before (e.g. after a clear) are not found anymore
+				int purged = 0;
+				for (Reference<K, V> referenceToPurge : toPurge) {
+					purged += purgeChain(references, getIndex(referenceToPurge.getHash(), references), toPurge);
+				}
+				this.count = Math.max(this.count - purged, 0);
+			}
+		}
 
-					// Replace volatile members
-					if (resizing) {
-						setReferences(restructured);
-					}
-					this.count = Math.max(countAfterRestructure, 0);
+		/**
+		 * Remove references to purge as well as garbage collected references from
+		 * the given chain, keeping the part of the chain after the last removed
+		 * reference as it is.
+		 * @return the number of removed references
+		 */
+		private int purgeChain(Reference<K, V>[] references, int index, Set<Reference<K, V>> toPurge) {
+			Reference<K, V> head = references[index];
+			Reference<K, V> lastRemoved = null;
+			for (Reference<K, V> reference = head; reference != null; reference = reference.getNext()) {
+				if (reference.get() == null || toPurge.contains(reference)) {
+					lastRemoved = reference;
 				}
-				finally {
-					unlock();
+			}
+			if (lastRemoved == null) {
+				return 0;
+			}
+			Reference<K, V> tail = lastRemoved.getNext();
+			Reference<K, V> restructured = tail;
+			int removed = 0;
+			for (Reference<K, V> reference = head; reference != tail; reference = reference.getNext()) {
+				Entry<K, V> entry = reference.get();
+				if (entry != null && !toPurge.contains(reference)) {
+					restructured = this.referenceManager.createReference(entry, reference.getHash(), restructured);
+				}
+				else {
+					removed++;
 				}
 			}
+			references[index] = restructured;
+			return removed;
 		}
 
 		private Reference<K, V> findInChain(Reference<K, V> reference, Object key, int hash) {
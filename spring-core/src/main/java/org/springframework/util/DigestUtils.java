@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -127,10 +127,15 @@ public abstract class DigestUtils {
 			return messageDigest.digest();
 		}
 		else {
-			final byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
-			int bytesRead = -1;
-			while ((bytesRead = inputStream.read(buffer)) != -1) {
-				messageDigest.update(buffer, 0, bytesRead);
+			byte[] buffer = StreamUtils.acquireBuffer();
+			try {
+				int bytesRead = -1;
+				while ((bytesRead = inputStream.read(buffer)) != -1) {
+					messageDigest.update(buffer, 0, bytesRead);
+				}
+			}
+			finally {
+				StreamUtils.releaseBuffer(buffer);
 			}
 			return messageDigest.digest();
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -36,6 +36,12 @@ import java.util.LinkedList;
  * There is also no copying of the internal buffer if its contents is extracted
  * with the {@link #writeTo(OutputStream)} method.
  *
+ * <p>As of 4.3.8, the internal blocks may be obtained from a {@link ByteArrayPool}.
+ * They are only handed back to the pool on an explicit {@link #release()}, after
+ * which neither the stream's content nor an {@link InputStream} obtained from
+ * {@link #getInputStream()} may be used anymore. Arrays returned from
+ * {@link #toByteArray()} and {@link #toByteArrayUnsafe()} are never pooled.
+ *
  * @author Craig Andrews
  * @author Juergen Hoeller
  * @since 4.2
@@ -53,6 +59,12 @@ public class FastByteArrayOutputStream extends OutputStream {
 	// The size, in bytes, to use when allocating the first byte[]
 	private final int initialBlockSize;
 
+	// The pool to obtain buffers from, if any
+	private final ByteArrayPool byteArrayPool;
+
+	// The buffers obtained from the pool, to be handed back on release()
+	private final LinkedList<byte[]> pooledBuffers = new LinkedList<byte[]>();
+
 	// The size, in bytes, to use when allocating the next byte[]
 	private int nextBlockSize = 0;
 
@@ -81,9 +93,24 @@ public class FastByteArrayOutputStream extends OutputStream {
 	 * @param initialBlockSize the initial buffer size in bytes
 	 */
 	public FastByteArrayOutputStream(int initialBlockSize) {
+		this(initialBlockSize, null);
+	}
+
+	/**
+	 * Create a new <code>FastByteArrayOutputStream</code>
+	 * with the specified initial capacity, obtaining its internal buffers
+	 * from the given pool.
+	 * @param initialBlockSize the initial buffer size in bytes
+	 * @param byteArrayPool the pool to obtain buffers from
+	 * (may be {@code null} for allocating buffers)
+	 * @since 4.3.8
+	 * @see #release()
+	 */
+	public FastByteArrayOutputStream(int initialBlockSize, ByteArrayPool byteArrayPool) {
 		Assert.isTrue(initialBlockSize > 0, "Initial block size must be greater than 0");
 		this.initialBlockSize = initialBlockSize;
 		this.nextBlockSize = initialBlockSize;
+		this.byteArrayPool = byteArrayPool;
 	}
 
 
@@ -193,7 +220,10 @@ public class FastByteArrayOutputStream extends OutputStream {
 			return new byte[0];
 		}
 		resize(totalSize);
-		return this.buffers.getFirst();
+		byte[] bytes = this.buffers.getFirst();
+		// Exposed to the caller -> never to be handed back to the pool
+		this.pooledBuffers.remove(bytes);
+		return bytes;
 	}
 
 	/**
@@ -216,15 +246,40 @@ public class FastByteArrayOutputStream extends OutputStream {
 	 * Reset the contents of this <code>FastByteArrayOutputStream</code>.
 	 * <p>All currently accumulated output in the output stream is discarded.
 	 * The output stream can be used again.
+	 * <p>Internal buffers obtained from a {@link ByteArrayPool} are not handed
+	 * back to the pool at this point since an {@link InputStream} from
+	 * {@link #getInputStream()} may still be reading them; see {@link #release()}.
 	 */
 	public void reset() {
 		this.buffers.clear();
+		this.pooledBuffers.clear();
 		this.nextBlockSize = this.initialBlockSize;
 		this.closed = false;
 		this.index = 0;
 		this.alreadyBufferedSize = 0;
 	}
 
+	/**
+	 * Hand the internal buffers back to the {@link ByteArrayPool} that they have
+	 * been obtained from, discarding all content like {@link #reset()}.
+	 * <p>To be called once the content is not needed anymore: neither the content
+	 * of this stream nor an {@link InputStream} from {@link #getInputStream()} may
+	 * be used afterwards. Arrays previously returned from {@link #toByteArray()}
+	 * and {@link #toByteArrayUnsafe()} remain valid. The output stream can be
+	 * used again, obtaining fresh buffers from the pool.
+	 * <p>Simply resets the stream if no pool has been specified.
+	 * @since 4.3.8
+	 * @see #FastByteArrayOutputStream(int, ByteArrayPool)
+	 */
+	public void release() {
+		if (this.byteArrayPool != null) {
+			for (byte[] buffer : this.pooledBuffers) {
+				this.byteArrayPool.release(buffer);
+			}
+		}
+		reset();
+	}
+
 	/**
 	 * Get an {@link InputStream} to retrieve the data in this OutputStream.
 	 * <p>Note that if any methods are called on the OutputStream
@@ -303,7 +358,14 @@ public class FastByteArrayOutputStream extends OutputStream {
 		if (this.nextBlockSize < minCapacity) {
 			this.nextBlockSize = nextPowerOf2(minCapacity);
 		}
-		this.buffers.add(new byte[this.nextBlockSize]);
+		if (this.byteArrayPool != null) {
+			byte[] buffer = this.byteArrayPool.acquire(this.nextBlockSize);
+			this.pooledBuffers.add(buffer);
+			this.buffers.add(buffer);
+		}
+		else {
+			this.buffers.add(new byte[this.nextBlockSize]);
+		}
 		this.nextBlockSize *= 2;  // block size doubles each time
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -29,11 +29,14 @@ import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * Simple utility methods for file and stream copying. All copy methods use a block size
- * of 4096 bytes, and close all affected streams when done. A variation of the copy
- * methods from this class that leave streams open can be found in {@link StreamUtils}.
+ * of 4096 bytes (unless transferring between file channels), and close all affected
+ * streams when done. A variation of the copy methods from this class that leave streams
+ * open can be found in {@link StreamUtils}.
  *
  * <p>Mainly for use within the framework, but also useful for application code.
  *
@@ -52,6 +55,9 @@ public abstract class FileCopyUtils {
 
 	/**
 	 * Copy the contents of the given input File to the given output File.
+	 * <p>As of 4.3.8, the content gets transferred between file channels,
+	 * allowing the operating system to copy the data without passing it
+	 * through heap buffers.
 	 * @param in the file to copy from
 	 * @param out the file to copy to
 	 * @return the number of bytes copied
@@ -60,8 +66,16 @@ public abstract class FileCopyUtils {
 	public static int copy(File in, File out) throws IOException {
 		Assert.notNull(in, "No input File specified");
 		Assert.notNull(out, "No output File specified");
-		return copy(new BufferedInputStream(new FileInputStream(in)),
-			new BufferedOutputStream(new FileOutputStream(out)));
+		FileChannel inChannel = new FileInputStream(in).getChannel();
+		FileChannel outChannel;
+		try {
+			outChannel = new FileOutputStream(out).getChannel();
+		}
+		catch (IOException ex) {
+			inChannel.close();
+			throw ex;
+		}
+		return (int) copy(inChannel, outChannel);
 	}
 
 	/**
@@ -90,6 +104,55 @@ public abstract class FileCopyUtils {
 	}
 
 
+	//---------------------------------------------------------------------
+	// Copy methods for java.nio.channels.FileChannel
+	//---------------------------------------------------------------------
+
+	/**
+	 * Copy the contents of the given FileChannel to the given WritableByteChannel,
+	 * through {@link FileChannel#transferTo}, starting at the current position of
+	 * the input channel. Closes both channels when done.
+	 * <p>Depending on the operating system and the kind of target channel (e.g. a
+	 * file or socket channel), the data may be copied without passing it through
+	 * the Java heap at all.
+	 * @param in the channel to copy from
+	 * @param out the channel to copy to
+	 * @return the number of bytes copied
+	 * @throws IOException in case of I/O errors
+	 * @since 4.3.8
+	 * @see org.springframework.core.io.FileChannelResource#getFileChannel()
+	 */
+	public static long copy(FileChannel in, WritableByteChannel out) throws IOException {
+		Assert.notNull(in, "No input FileChannel specified");
+		Assert.notNull(out, "No output WritableByteChannel specified");
+		try {
+			long start = in.position();
+			long size = in.size();
+			long position = start;
+			while (position < size) {
+				long bytesTransferred = in.transferTo(position, size - position, out);
+				if (bytesTransferred <= 0) {
+					break;
+				}
+				position += bytesTransferred;
+			}
+			return position - start;
+		}
+		finally {
+			try {
+				in.close();
+			}
+			catch (IOException ex) {
+			}
+			try {
+				out.close();
+			}
+			catch (IOException ex) {
+			}
+		}
+	}
+
+
 	//---------------------------------------------------------------------
 	// Copy methods for java.io.InputStream / java.io.OutputStream
 	//---------------------------------------------------------------------
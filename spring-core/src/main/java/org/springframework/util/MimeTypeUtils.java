@@ -50,6 +50,10 @@ public abstract class MimeTypeUtils {
 
 	private static Charset US_ASCII = Charset.forName("US-ASCII");
 
+	/** Cache of parsed MimeType instances, keyed by their String representation */
+	private static final ConcurrentLruCache<String, MimeType> cachedMimeTypes =
+			new ConcurrentLruCache<String, MimeType>(64);
+
 	/**
 	 * Comparator used by {@link #sortBySpecificity(List)}.
 	 */
@@ -240,7 +244,16 @@ public abstract class MimeTypeUtils {
 		if (!StringUtils.hasLength(mimeType)) {
 			throw new InvalidMimeTypeException(mimeType, "'mimeType' must not be empty");
 		}
+		// MimeType instances are immutable, so commonly used ones can be shared
+		MimeType cachedMimeType = cachedMimeTypes.get(mimeType);
+		if (cachedMimeType == null) {
+			cachedMimeType = parseMimeTypeInternal(mimeType);
+			cachedMimeTypes.put(mimeType, cachedMimeType);
+		}
+		return cachedMimeType;
+	}
 
+	private static MimeType parseMimeTypeInternal(String mimeType) {
 		int index = mimeType.indexOf(';');
 		String fullType = (index >= 0 ? mimeType.substring(0, index) : mimeType).trim();
 		if (fullType.isEmpty()) {
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+/**
+ * A path pattern compiled by an {@link AntPathMatcher}, for repeated matching
+ * of paths against the same pattern without going through the matcher's
+ * pattern caches.
+ *
+ * <p>The pattern gets tokenized once, with each segment precompiled into a
+ * literal, a wildcard ({@code ?} and {@code *}) or a double wildcard
+ * ({@code **}) element. Matching works on the given path String in place,
+ * without tokenizing it or allocating any objects along the way. Only segments
+ * with URI template variables (e.g. <code>{name:[a-z]+}</code>) are delegated
+ * to a regular expression, with the same semantics as {@link AntPathMatcher}.
+ *
+ * <p>A compiled pattern reflects the path separator, case sensitivity and token
+ * trimming settings of the matcher at the time of compilation. Instances are
+ * immutable and thread-safe.
+ *
+ * @author agent
+ * @since 4.3.8
+ * @see AntPathMatcher#compile(String)
+ * @see PathPatternSet
+ */
+public class PathPattern {
+
+	private static final int LITERAL = 0;
+
+	private static final int WILDCARD = 1;
+
+	private static final int DOUBLE_WILDCARD = 2;
+
+	private static final int REGEX = 3;
+
+
+	private final String pattern;
+
+	private final String pathSeparator;
+
+	private final boolean caseSensitive;
+
+	private final boolean trimTokens;
+
+	private final String[] segments;
+
+	private final int[] segmentTypes;
+
+	private final AntPathMatcher.AntPathStringMatcher[] stringMatchers;
+
+	private final boolean doubleWildcard;
+
+	private final int literalPrefixCount;
+
+
+	PathPattern(String pattern, String pathSeparator, boolean caseSensitive, boolean trimTokens) {
+		Assert.notNull(pattern, "Pattern must not be null");
+		this.pattern = pattern;
+		this.pathSeparator = pathSeparator;
+		this.caseSensitive = caseSensitive;
+		this.trimTokens = trimTokens;
+		this.segments = StringUtils.tokenizeToStringArray(pattern, pathSeparator, trimTokens, true);
+		this.segmentTypes = new int[this.segments.length];
+		this.stringMatchers = new AntPathMatcher.AntPathStringMatcher[this.segments.length];
+		boolean doubleWildcard = false;
+		int literalPrefixCount = -1;
+		for (int i = 0; i < this.segments.length; i++) {
+			String segment = this.segments[i];
+			if ("**".equals(segment)) {
+				this.segmentTypes[i] = DOUBLE_WILDCARD;
+				doubleWildcard = true;
+			}
+			else if (segment.indexOf('{') != -1) {
+				this.segmentTypes[i] = REGEX;
+			}
+			else if (segment.indexOf('*') != -1 || segment.indexOf('?') != -1) {
+				this.segmentTypes[i] = WILDCARD;
+			}
+			else {
+				this.segmentTypes[i] = LITERAL;
+			}
+			if (this.segmentTypes[i] != LITERAL) {
+				if (this.segmentTypes[i] != DOUBLE_WILDCARD) {
+					this.stringMatchers[i] = new AntPathMatcher.AntPathStringMatcher(segment, caseSensitive);
+				}
+				if (literalPrefixCount == -1) {
+					literalPrefixCount = i;
+				}
+			}
+		}
+		this.doubleWildcard = doubleWildcard;
+		this.literalPrefixCount = (literalPrefixCount != -1 ? literalPrefixCount : this.segments.length);
+	}
+
+
+	/**
+	 * Return the original pattern String.
+	 */
+	public String getPattern() {
+		return this.pattern;
+	}
+
+	/**
+	 * Match the given {@code path} against this pattern, with the same
+	 * semantics as {@link AntPathMatcher#match(String, String)}.
+	 * @param path the path String to test
+	 * @return {@code true} if the supplied {@code path} matched,
+	 * {@code false} if it didn't
+	 */
+	public boolean matches(String path) {
+		if (path.startsWith(this.pathSeparator) != this.pattern.startsWith(this.pathSeparator)) {
+			return false;
+		}
+
+		// Segment by segment, backtracking to the last '**' on mismatch
+		int pattIdx = 0;
+		int pathPos = 0;
+		int doubleWildcardIdx = -1;
+		int doubleWildcardPathPos = -1;
+		while (true) {
+			int segmentStart = nextSegmentStart(path, pathPos, this.pathSeparator, this.trimTokens);
+			if (segmentStart == -1) {
+				break;
+			}
+			int segmentEnd = segmentEnd(path, segmentStart, this.pathSeparator);
+			if (pattIdx < this.segments.length && this.segmentTypes[pattIdx] == DOUBLE_WILDCARD) {
+				doubleWildcardIdx = pattIdx++;
+				doubleWildcardPathPos = segmentStart;
+			}
+			else if (pattIdx < this.segments.length && matchSegment(pattIdx, path, segmentStart, segmentEnd)) {
+				pattIdx++;
+				pathPos = segmentEnd;
+			}
+			else if (doubleWildcardIdx != -1) {
+				// Let the last '**' consume one more path segment
+				pattIdx = doubleWildcardIdx + 1;
+				doubleWildcardPathPos = segmentEnd(path,
+						nextSegmentStart(path, doubleWildcardPathPos, this.pathSeparator, this.trimTokens), this.pathSeparator);
+				pathPos = doubleWildcardPathPos;
+			}
+			else {
+				return false;
+			}
+		}
+
+		// Path is exhausted
+		if (!this.doubleWildcard) {
+			if (pattIdx == this.segments.length) {
+				return (this.pattern.endsWith(this.pathSeparator) ? path.endsWith(this.pathSeparator) :
+						!path.endsWith(this.pathSeparator));
+			}
+			return (pattIdx == this.segments.length - 1 && "*".equals(this.segments[pattIdx]) &&
+					path.endsWith(this.pathSeparator));
+		}
+		while (pattIdx < this.segments.length && this.segmentTypes[pattIdx] == DOUBLE_WILDCARD) {
+			pattIdx++;
+		}
+		return (pattIdx == this.segments.length);
+	}
+
+	/**
+	 * Return the number of leading segments without any wildcards.
+	 */
+	int getLiteralPrefixCount() {
+		return this.literalPrefixCount;
+	}
+
+	/**
+	 * Return the pattern segment at the given index.
+	 */
+	String getSegment(int index) {
+		return this.segments[index];
+	}
+
+	private boolean matchSegment(int pattIdx, String path, int start, int end) {
+		if (this.trimTokens) {
+			while (start < end && path.charAt(start) <= ' ') {
+				start++;
+			}
+			while (end > start && path.charAt(end - 1) <= ' ') {
+				end--;
+			}
+		}
+		String segment = this.segments[pattIdx];
+		switch (this.segmentTypes[pattIdx]) {
+			case LITERAL:
+				if (segment.length() != end - start) {
+					return false;
+				}
+				for (int i = 0; i < segment.length(); i++) {
+					if (!matchChar(segment.charAt(i), path.charAt(start + i))) {
+						return false;
+					}
+				}
+				return true;
+			case WILDCARD:
+				if (!containsLineTerminator(path, start, end)) {
+					return matchWildcards(segment, path, start, end);
+				}
+				return this.stringMatchers[pattIdx].matchStrings(path, start, end);
+			default:
+				return this.stringMatchers[pattIdx].matchStrings(path, start, end);
+		}
+	}
+
+	/**
+	 * Match the given path region against a segment with {@code ?} and {@code *}
+	 * wildcards, backtracking to the last {@code *} on mismatch.
+	 */
+	private boolean matchWildcards(String segment, String path, int start, int end) {
+		int segmentIdx = 0;
+		int pathIdx = start;
+		int wildcardIdx = -1;
+		int wildcardPathIdx = -1;
+		while (pathIdx < end) {
+			if (segmentIdx < segment.length()) {
+				char c = segment.charAt(segmentIdx);
+				if (c == '*') {
+					wildcardIdx = segmentIdx++;
+					wildcardPathIdx = pathIdx;
+					continue;
+				}
+				if (c == '?' || matchChar(c, path.charAt(pathIdx))) {
+					segmentIdx++;
+					pathIdx++;
+					continue;
+				}
+			}
+			if (wildcardIdx == -1) {
+				return false;
+			}
+			segmentIdx = wildcardIdx + 1;
+			pathIdx = ++wildcardPathIdx;
+		}
+		while (segmentIdx < segment.length() && segment.charAt(segmentIdx) == '*') {
+			segmentIdx++;
+		}
+		return (segmentIdx == segment.length());
+	}
+
+	private boolean matchChar(char patternChar, char pathChar) {
+		if (patternChar == pathChar) {
+			return true;
+		}
+		if (this.caseSensitive || patternChar >= 128 || pathChar >= 128) {
+			return false;
+		}
+		// ASCII-only case folding, as with Pattern.CASE_INSENSITIVE
+		return (Character.toLowerCase(patternChar) == Character.toLowerCase(pathChar));
+	}
+
+	/**
+	 * Check for line terminators which a regular expression '.' would not match.
+	 */
+	private static boolean containsLineTerminator(String path, int start, int end) {
+		for (int i = start; i < end; i++) {
+			char c = path.charAt(i);
+			if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Find the start of the next path segment at or after the given position,
+	 * skipping separator characters as well as blank segments if tokens get trimmed.
+	 * @return the start index, or -1 if there are no further segments
+	 */
+	static int nextSegmentStart(String path, int pos, String pathSeparator, boolean trimTokens) {
+		while (true) {
+			while (pos < path.length() && pathSeparator.indexOf(path.charAt(pos)) != -1) {
+				pos++;
+			}
+			if (pos >= path.length()) {
+				return -1;
+			}
+			if (!trimTokens) {
+				return pos;
+			}
+			int end = segmentEnd(path, pos, pathSeparator);
+			for (int i = pos; i < end; i++) {
+				if (path.charAt(i) > ' ') {
+					return pos;
+				}
+			}
+			pos = end;
+		}
+	}
+
+	/**
+	 * Find the end of the path segment starting at the given position.
+	 */
+	static int segmentEnd(String path, int start, String pathSeparator) {
+		int end = start;
+		while (end < path.length() && pathSeparator.indexOf(path.charAt(end)) == -1) {
+			end++;
+		}
+		return end;
+	}
+
+
+	@Override
+	public String toString() {
+		return this.pattern;
+	}
+
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A set of {@link PathPattern PathPatterns} for matching a path against a large
+ * number of Ant-style patterns at once, e.g. the URL mappings of a handler mapping,
+ * resource handler locations or interceptor includes and excludes.
+ *
+ * <p>Patterns are organized in a trie of their leading literal segments, e.g.
+ * "/api/orders/{id}" is registered below "api" &rarr; "orders". A path only gets
+ * matched against the patterns along its own segments in the trie, instead of
+ * against every pattern in the set. Patterns starting with a wildcard such as
+ * "/**" are kept at the root and always get checked.
+ *
+ * <p>Matching follows the semantics of {@link AntPathMatcher#match(String, String)}
+ * for the path matcher that the set has been created with, using that matcher's
+ * settings at the time of creation.
+ *
+ * <p>This class is not thread-safe for modifications. It is intended to be built
+ * up front and then used for concurrent matching, which is thread-safe.
+ *
+ * @author agent
+ * @since 4.3.8
+ * @see AntPathMatcher#compile(String)
+ */
+public class PathPatternSet {
+
+	private final AntPathMatcher pathMatcher;
+
+	private final String pathSeparator;
+
+	private final boolean caseSensitive;
+
+	private final boolean trimTokens;
+
+	private final Map<String, PathPattern> patterns = new LinkedHashMap<String, PathPattern>();
+
+	private final Node root = new Node();
+
+
+	/**
+	 * Create a new PathPatternSet with a default {@link AntPathMatcher}.
+	 */
+	public PathPatternSet() {
+		this(new AntPathMatcher());
+	}
+
+	/**
+	 * Create a new PathPatternSet for the given path matcher.
+	 * @param pathMatcher the path matcher to compile patterns with
+	 */
+	public PathPatternSet(AntPathMatcher pathMatcher) {
+		Assert.notNull(pathMatcher, "AntPathMatcher must not be null");
+		this.pathMatcher = pathMatcher;
+		this.pathSeparator = pathMatcher.getPathSeparator();
+		this.caseSensitive = pathMatcher.isCaseSensitive();
+		this.trimTokens = pathMatcher.isTrimTokens();
+	}
+
+	/**
+	 * Create a new PathPatternSet for the given patterns, with a default
+	 * {@link AntPathMatcher}.
+	 * @param patterns the patterns to add
+	 */
+	public PathPatternSet(Collection<String> patterns) {
+		this();
+		addPatterns(patterns);
+	}
+
+
+	/**
+	 * Add the given pattern to this set, unless already present.
+	 * @param pattern the pattern to add
+	 * @return {@code true} if the pattern has been added,
+	 * {@code false} if it was present already
+	 */
+	public boolean addPattern(String pattern) {
+		Assert.notNull(pattern, "Pattern must not be null");
+		if (this.patterns.containsKey(pattern)) {
+			return false;
+		}
+		PathPattern pathPattern = new PathPattern(pattern, this.pathSeparator, this.caseSensitive, this.trimTokens);
+		Node node = this.root;
+		for (int i = 0; i < pathPattern.getLiteralPrefixCount(); i++) {
+			String key = getKey(pathPattern.getSegment(i));
+			Node child = node.children.get(key);
+			if (child == null) {
+				child = new Node();
+				node.children.put(key, child);
+			}
+			node = child;
+		}
+		node.entries.add(new Entry(pathPattern, this.patterns.size()));
+		this.patterns.put(pattern, pathPattern);
+		return true;
+	}
+
+	/**
+	 * Add all of the given patterns to this set.
+	 * @param patterns the patterns to add
+	 */
+	public void addPatterns(Collection<String> patterns) {
+		for (String pattern : patterns) {
+			addPattern(pattern);
+		}
+	}
+
+	/**
+	 * Return the AntPathMatcher that this set has been created with.
+	 */
+	public AntPathMatcher getPathMatcher() {
+		return this.pathMatcher;
+	}
+
+	/**
+	 * Return the number of patterns in this set.
+	 */
+	public int size() {
+		return this.patterns.size();
+	}
+
+	/**
+	 * Return whether this set does not contain any patterns.
+	 */
+	public boolean isEmpty() {
+		return this.patterns.isEmpty();
+	}
+
+	/**
+	 * Return whether the given path matches any of the patterns in this set.
+	 * @param path the path String to test
+	 */
+	public boolean matches(String path) {
+		Node node = this.root;
+		int pos = 0;
+		while (true) {
+			for (Entry entry : node.entries) {
+				if (entry.pattern.matches(path)) {
+					return true;
+				}
+			}
+			int start = PathPattern.nextSegmentStart(path, pos, this.pathSeparator, this.trimTokens);
+			if (start == -1 || node.children.isEmpty()) {
+				return false;
+			}
+			pos = PathPattern.segmentEnd(path, start, this.pathSeparator);
+			node = node.children.get(getKey(path, start, pos));
+			if (node == null) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Return all patterns in this set that match the given path,
+	 * in the order in which they have been added.
+	 * @param path the path String to test
+	 * @return the matching patterns (never {@code null})
+	 */
+	public List<String> getMatchingPatterns(String path) {
+		List<Entry> matches = null;
+		Node node = this.root;
+		int pos = 0;
+		while (node != null) {
+			for (Entry entry : node.entries) {
+				if (entry.pattern.matches(path)) {
+					if (matches == null) {
+						matches = new ArrayList<Entry>(4);
+					}
+					matches.add(entry);
+				}
+			}
+			int start = PathPattern.nextSegmentStart(path, pos, this.pathSeparator, this.trimTokens);
+			if (start == -1 || node.children.isEmpty()) {
+				break;
+			}
+			pos = PathPattern.segmentEnd(path, start, this.pathSeparator);
+			node = node.children.get(getKey(path, start, pos));
+		}
+		if (matches == null) {
+			return Collections.emptyList();
+		}
+		if (matches.size() > 1) {
+			Collections.sort(matches, new Comparator<Entry>() {
+				@Override
+				public int compare(Entry entry1, Entry entry2) {
+					return (entry1.order < entry2.order ? -1 : (entry1.order > entry2.order ? 1 : 0));
+				}
+			});
+		}
+		List<String> result = new ArrayList<String>(matches.size());
+		for (Entry entry : matches) {
+			result.add(entry.pattern.getPattern());
+		}
+		return result;
+	}
+
+	private String getKey(String path, int start, int end) {
+		if (this.trimTokens) {
+			while (start < end && path.charAt(start) <= ' ') {
+				start++;
+			}
+			while (end > start && path.charAt(end - 1) <= ' ') {
+				end--;
+			}
+		}
+		return getKey(path.substring(start, end));
+	}
+
+	private String getKey(String segment) {
+		// Any case folding will do for case-insensitive lookups in the trie:
+		// the actual matching is left to the patterns themselves.
+		return (this.caseSensitive ? segment : segment.toLowerCase(Locale.ENGLISH));
+	}
+
+
+	@Override
+	public String toString() {
+		return this.patterns.keySet().toString();
+	}
+
+
+	/**
+	 * A node in the trie of literal pattern segments.
+	 */
+	private static class Node {
+
+		final Map<String, Node> children = new HashMap<String, Node>(4);
+
+		final List<Entry> entries = new ArrayList<Entry>(1);
+	}
+
+
+	/**
+	 * A pattern along with its position in the set.
+	 */
+	private static class Entry {
+
+		final PathPattern pattern;
+
+		final int order;
+
+		public Entry(PathPattern pattern, int order) {
+			this.pattern = pattern;
+			this.order = order;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.util;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
 import java.io.FilterInputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
@@ -26,6 +27,9 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 
 /**
@@ -33,6 +37,9 @@ import java.nio.charset.Charset;
  * similar to those defined in {@link FileCopyUtils} except that all affected streams are
  * left open when done. All copy methods use a block size of 4096 bytes.
  *
+ * <p>As of 4.3.8, copy buffers are reused per thread through a
+ * {@link ThreadLocalByteArrayPool} instead of being allocated for every copy operation.
+ *
  * <p>Mainly for use within the framework, but also useful for application code.
  *
  * @author Juergen Hoeller
@@ -47,6 +54,8 @@ public abstract class StreamUtils {
 
 	private static final byte[] EMPTY_CONTENT = new byte[0];
 
+	private static final ByteArrayPool copyBufferPool = new ThreadLocalByteArrayPool();
+
 
 	/**
 	 * Copy the contents of the given InputStream into a new byte array.
@@ -122,11 +131,16 @@ public abstract class StreamUtils {
 		Assert.notNull(in, "No InputStream specified");
 		Assert.notNull(out, "No OutputStream specified");
 		int byteCount = 0;
-		byte[] buffer = new byte[BUFFER_SIZE];
-		int bytesRead = -1;
-		while ((bytesRead = in.read(buffer)) != -1) {
-			out.write(buffer, 0, bytesRead);
-			byteCount += bytesRead;
+		byte[] buffer = acquireBuffer();
+		try {
+			int bytesRead = -1;
+			while ((bytesRead = in.read(buffer)) != -1) {
+				out.write(buffer, 0, bytesRead);
+				byteCount += bytesRead;
+			}
+		}
+		finally {
+			releaseBuffer(buffer);
 		}
 		out.flush();
 		return byteCount;
@@ -151,22 +165,105 @@ public abstract class StreamUtils {
 			throw new IOException("Skipped only " + skipped + " bytes out of " + start + " required.");
 		}
 		long bytesToCopy = end - start + 1;
-		byte buffer[] = new byte[StreamUtils.BUFFER_SIZE];
-		while (bytesToCopy > 0) {
-			int bytesRead = in.read(buffer);
-			if (bytesRead == -1) {
-				break;
+		byte[] buffer = acquireBuffer();
+		try {
+			while (bytesToCopy > 0) {
+				int bytesRead = in.read(buffer);
+				if (bytesRead == -1) {
+					break;
+				}
+				else if (bytesRead <= bytesToCopy) {
+					out.write(buffer, 0, bytesRead);
+					bytesToCopy -= bytesRead;
+				}
+				else {
+					out.write(buffer, 0, (int) bytesToCopy);
+					bytesToCopy = 0;
+				}
 			}
-			else if (bytesRead <= bytesToCopy) {
-				out.write(buffer, 0, bytesRead);
-				bytesToCopy -= bytesRead;
+		}
+		finally {
+			releaseBuffer(buffer);
+		}
+		return end - start + 1 - bytesToCopy;
+	}
+
+	/**
+	 * Copy the contents of the given FileChannel to the given OutputStream.
+	 * <p>A {@link FileOutputStream} or an OutputStream which is a
+	 * {@link WritableByteChannel} as well is written to through
+	 * {@link FileChannel#transferTo}, which may be performed by the operating
+	 * system directly. Any other OutputStream is written to from a heap buffer,
+	 * just like with {@link #copy(InputStream, OutputStream)}.
+	 * <p>Copies the entire content, independent of the current channel position.
+	 * Flushes the stream, and leaves both the channel and the stream open when done.
+	 * @param in the FileChannel to copy from
+	 * @param out the OutputStream to copy to
+	 * @return the number of bytes copied
+	 * @throws IOException in case of I/O errors
+	 * @since 4.3.8
+	 * @see org.springframework.core.io.FileChannelResource
+	 */
+	public static long copy(FileChannel in, OutputStream out) throws IOException {
+		long byteCount = copyRange(in, out, 0, Long.MAX_VALUE - 1);
+		out.flush();
+		return byteCount;
+	}
+
+	/**
+	 * Copy a range of content of the given FileChannel to the given OutputStream,
+	 * reading from the channel by position and therefore without skipping over
+	 * the content before the given start position.
+	 * <p>The target stream is written to as described for {@link #copy(FileChannel, OutputStream)}.
+	 * <p>If the specified range exceeds the size of the channel, this copies
+	 * up to the end of the channel and returns the actual number of copied bytes.
+	 * <p>Leaves both the channel and the stream open when done.
+	 * @param in the FileChannel to copy from
+	 * @param out the OutputStream to copy to
+	 * @param start the position to start copying from
+	 * @param end the position to end copying
+	 * @return the number of bytes copied
+	 * @throws IOException in case of I/O errors
+	 * @since 4.3.8
+	 */
+	public static long copyRange(FileChannel in, OutputStream out, long start, long end) throws IOException {
+		Assert.notNull(in, "No FileChannel specified");
+		Assert.notNull(out, "No OutputStream specified");
+		long limit = Math.min(end + 1, in.size());
+		long position = start;
+		if (out instanceof FileOutputStream || out instanceof WritableByteChannel) {
+			WritableByteChannel target = (out instanceof FileOutputStream ?
+					((FileOutputStream) out).getChannel() : (WritableByteChannel) out);
+			while (position < limit) {
+				long bytesTransferred = in.transferTo(position, limit - position, target);
+				if (bytesTransferred <= 0) {
+					break;
+				}
+				position += bytesTransferred;
 			}
-			else {
-				out.write(buffer, 0, (int) bytesToCopy);
-				bytesToCopy = 0;
+		}
+		else {
+			// Channels.newChannel(out) would copy through a temporary direct buffer
+			// and a heap array within transferTo: read into a heap buffer right away
+			byte[] buffer = acquireBuffer();
+			try {
+				ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+				while (position < limit) {
+					byteBuffer.clear();
+					byteBuffer.limit((int) Math.min(buffer.length, limit - position));
+					int bytesRead = in.read(byteBuffer, position);
+					if (bytesRead <= 0) {
+						break;
+					}
+					out.write(buffer, 0, bytesRead);
+					position += bytesRead;
+				}
+			}
+			finally {
+				releaseBuffer(buffer);
 			}
 		}
-		return end - start + 1 - bytesToCopy;
+		return Math.max(position - start, 0);
 	}
 
 	/**
@@ -179,13 +276,33 @@ public abstract class StreamUtils {
 	 */
 	public static int drain(InputStream in) throws IOException {
 		Assert.notNull(in, "No InputStream specified");
-		byte[] buffer = new byte[BUFFER_SIZE];
-		int bytesRead = -1;
-		int byteCount = 0;
-		while ((bytesRead = in.read(buffer)) != -1) {
-			byteCount += bytesRead;
+		byte[] buffer = acquireBuffer();
+		try {
+			int bytesRead = -1;
+			int byteCount = 0;
+			while ((bytesRead = in.read(buffer)) != -1) {
+				byteCount += bytesRead;
+			}
+			return byteCount;
 		}
-		return byteCount;
+		finally {
+			releaseBuffer(buffer);
+		}
+	}
+
+	/**
+	 * Obtain a copy buffer of {@link #BUFFER_SIZE} bytes, shared with
+	 * {@link FileCopyUtils} and {@link DigestUtils}.
+	 */
+	static byte[] acquireBuffer() {
+		return copyBufferPool.acquire(BUFFER_SIZE);
+	}
+
+	/**
+	 * Hand the given copy buffer back for reuse by the current thread.
+	 */
+	static void releaseBuffer(byte[] buffer) {
+		copyBufferPool.release(buffer);
 	}
 
 	/**
@@ -220,7 +220,7 @@ public abstract class StringUtils {
 	 * @see Character#isWhitespace
 	 */
 	public static String trimAllWhitespace(String str) {
-		if (!hasLength(str)) {
+		if (!containsWhitespace(str)) {
 			return str;
 		}
 		int len = str.length();
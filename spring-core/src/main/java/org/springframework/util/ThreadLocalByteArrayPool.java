@@ -0,0 +1,123 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+/**
+ * {@link ByteArrayPool} implementation that keeps one buffer per size class
+ * and per thread, so that acquiring and releasing a buffer does not involve any
+ * synchronization. Size classes are powers of two between the given minimum and
+ * maximum length; requests for larger buffers are served by plain allocation.
+ *
+ * <p>Buffers are held in a plain {@link ThreadLocal} of {@code byte[][]}, not
+ * referencing any application classes. Note that each thread may hold on to one
+ * buffer per size class, i.e. up to twice the maximum length in total.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+public class ThreadLocalByteArrayPool implements ByteArrayPool {
+
+	/** Default length of the smallest pooled buffers: 256 bytes */
+	public static final int DEFAULT_MIN_LENGTH = 256;
+
+	/** Default length of the largest pooled buffers: 64 KB */
+	public static final int DEFAULT_MAX_LENGTH = 64 * 1024;
+
+
+	private final int minLength;
+
+	private final int maxLength;
+
+	private final int minShift;
+
+	private final int sizeClassCount;
+
+	private final ThreadLocal<byte[][]> buffers = new ThreadLocal<byte[][]>();
+
+
+	/**
+	 * Create a new ThreadLocalByteArrayPool with the default size classes
+	 * from 256 bytes to 64 KB.
+	 */
+	public ThreadLocalByteArrayPool() {
+		this(DEFAULT_MIN_LENGTH, DEFAULT_MAX_LENGTH);
+	}
+
+	/**
+	 * Create a new ThreadLocalByteArrayPool with the given size classes.
+	 * @param minLength the length of the smallest pooled buffers (a power of two)
+	 * @param maxLength the length of the largest pooled buffers (a power of two)
+	 */
+	public ThreadLocalByteArrayPool(int minLength, int maxLength) {
+		Assert.isTrue(minLength > 0 && Integer.bitCount(minLength) == 1, "Minimum length must be a power of two");
+		Assert.isTrue(maxLength >= minLength && Integer.bitCount(maxLength) == 1,
+				"Maximum length must be a power of two not smaller than the minimum length");
+		this.minLength = minLength;
+		this.maxLength = maxLength;
+		this.minShift = Integer.numberOfTrailingZeros(minLength);
+		this.sizeClassCount = Integer.numberOfTrailingZeros(maxLength) - this.minShift + 1;
+	}
+
+
+	@Override
+	public byte[] acquire(int minLength) {
+		Assert.isTrue(minLength >= 0, "Length must not be negative");
+		if (minLength > this.maxLength) {
+			return new byte[minLength];
+		}
+		int sizeClass = getSizeClass(minLength);
+		byte[][] slots = this.buffers.get();
+		if (slots != null) {
+			byte[] buffer = slots[sizeClass];
+			if (buffer != null) {
+				slots[sizeClass] = null;
+				return buffer;
+			}
+		}
+		return new byte[this.minLength << sizeClass];
+	}
+
+	@Override
+	public void release(byte[] buffer) {
+		int length = buffer.length;
+		if (length < this.minLength || length > this.maxLength || Integer.bitCount(length) != 1) {
+			// Not one of ours...
+			return;
+		}
+		byte[][] slots = this.buffers.get();
+		if (slots == null) {
+			slots = new byte[this.sizeClassCount][];
+			this.buffers.set(slots);
+		}
+		slots[getSizeClass(length)] = buffer;
+	}
+
+	/**
+	 * Release all buffers held for the current thread.
+	 */
+	public void clear() {
+		this.buffers.remove();
+	}
+
+	private int getSizeClass(int length) {
+		if (length <= this.minLength) {
+			return 0;
+		}
+		return (32 - Integer.numberOfLeadingZeros(length - 1)) - this.minShift;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -116,6 +116,22 @@ public class ResolvableTypeTests {
 		assertTrue(type.isAssignableFrom(String.class));
 	}
 
+	@Test
+	public void forClassReturnsSharedInstance() throws Exception {
+		ResolvableType type = ResolvableType.forClass(ExtendsList.class);
+		assertSame(type, ResolvableType.forClass(ExtendsList.class));
+		assertSame(type, ResolvableType.forType(ExtendsList.class));
+		assertSame(type.getSuperType(), ResolvableType.forClass(ExtendsList.class).getSuperType());
+		assertSame(ResolvableType.forClass(Object.class), ResolvableType.forClass(null));
+		assertNotSame(type, ResolvableType.forRawClass(ExtendsList.class));
+
+		ResolvableType.clearCache();
+		ResolvableType recreated = ResolvableType.forClass(ExtendsList.class);
+		assertNotSame(type, recreated);
+		assertEquals(type, recreated);
+		assertThat(recreated.getSuperType().getGeneric(0).resolve(), equalTo((Class) CharSequence.class));
+	}
+
 	@Test
 	public void forRawClass() throws Exception {
 		ResolvableType type = ResolvableType.forRawClass(ExtendsList.class);
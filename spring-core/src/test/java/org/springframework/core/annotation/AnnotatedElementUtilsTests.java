@@ -733,6 +733,50 @@ public class AnnotatedElementUtilsTests {
 		assertEquals(1, allMergedAnnotations.size());
 	}
 
+	@Test
+	public void cachedMergedAnnotationAttributesAreCopies() {
+		AnnotationAttributes attributes = findMergedAnnotationAttributes(TxConfig.class, Transactional.class);
+		assertEquals("TxConfig", attributes.getString("value"));
+		attributes.put("value", "modified");
+
+		AnnotationAttributes cached = findMergedAnnotationAttributes(TxConfig.class, Transactional.class);
+		assertNotSame(attributes, cached);
+		assertEquals("TxConfig", cached.getString("value"));
+		assertEquals(Transactional.class, cached.annotationType());
+	}
+
+	@Test
+	public void cachedMergedAnnotationAttributesAreDeepCopies() {
+		AnnotationAttributes attributes = AnnotatedElementUtils.findMergedAnnotationAttributes(
+				TestComponentScanClass.class, ComponentScan.class, false, true);
+		attributes.getStringArray("basePackages")[0] = "modified";
+		attributes.getAnnotationArray("excludeFilters")[0].put("pattern", "modified");
+		attributes.getAnnotationArray("excludeFilters")[1] = null;
+
+		AnnotationAttributes cached = AnnotatedElementUtils.findMergedAnnotationAttributes(
+				TestComponentScanClass.class, ComponentScan.class, false, true);
+		assertArrayEquals(asArray("com.example.app.test"), cached.getStringArray("basePackages"));
+		AnnotationAttributes[] excludeFilters = cached.getAnnotationArray("excludeFilters");
+		assertEquals("*Test", excludeFilters[0].getString("pattern"));
+		assertEquals("*Tests", excludeFilters[1].getString("pattern"));
+	}
+
+	@Test
+	public void cachedMergedAnnotationLookupsDistinguishOptions() {
+		assertEquals(Transactional.class, findMergedAnnotation(TxConfig.class, Transactional.class).annotationType());
+		assertSame(findMergedAnnotation(TxConfig.class, Transactional.class),
+				findMergedAnnotation(TxConfig.class, Transactional.class));
+		assertNull(findMergedAnnotation(NonAnnotatedClass.class, Transactional.class));
+		assertNull(findMergedAnnotation(NonAnnotatedClass.class, Transactional.class));
+		assertFalse(hasAnnotation(NonAnnotatedClass.class, Transactional.class));
+
+		Class<?> classValue = AnnotatedElementUtils.findMergedAnnotationAttributes(
+				SpringAppConfigClass.class, ContextConfig.class, false, false).getClassArray("classes")[0];
+		String classValueAsString = AnnotatedElementUtils.findMergedAnnotationAttributes(
+				SpringAppConfigClass.class, ContextConfig.class, true, false).getStringArray("classes")[0];
+		assertEquals(classValue.getName(), classValueAsString);
+	}
+
 
 	// -------------------------------------------------------------------------
 
@@ -68,7 +68,7 @@ public class AnnotationUtilsTests {
 
 	static void clearCaches() {
 		clearCache("findAnnotationCache", "annotatedInterfaceCache", "metaPresentCache", "synthesizableCache",
-				"attributeAliasesCache", "attributeMethodsCache", "aliasDescriptorCache");
+				"attributeAliasesCache", "attributeMethodsCache", "aliasDescriptorCache", "candidateAnnotationTypesCache");
 	}
 
 	static void clearCache(String... cacheNames) {
@@ -430,6 +430,28 @@ public class AnnotationUtilsTests {
 		assertFalse(isAnnotationInherited(Order.class, SubNonInheritedAnnotationClass.class));
 	}
 
+	@Test
+	public void isCandidateClassForAllScenarios() {
+		// no annotations anywhere in the hierarchy
+		assertFalse(isCandidateClass(NonAnnotatedClass.class, Transactional.class));
+		assertFalse(isCandidateClass(NonAnnotatedInterface.class, Order.class));
+		assertFalse(isCandidateClass(Object.class, Order.class));
+
+		// class-level annotations, directly present, inherited or meta-present
+		assertTrue(isCandidateClass(TransactionalClass.class, Transactional.class));
+		assertTrue(isCandidateClass(SubTransactionalAndOrderedClass.class, Order.class));
+		assertTrue(isCandidateClass(MetaMetaAnnotatedClass.class, Component.class));
+		assertTrue(isCandidateClass(MetaMetaMetaAnnotatedClass.class, Transactional.class));
+		assertFalse(isCandidateClass(MetaMetaAnnotatedClass.class, Order.class));
+
+		// method-level annotations, declared locally, meta-present or in an interface
+		assertTrue(isCandidateClass(Leaf.class, Order.class));
+		assertTrue(isCandidateClass(SubOfImplementsInterfaceWithAnnotatedMethod.class, Order.class));
+		assertTrue(isCandidateClass(Leaf.class, Transactional.class));
+		assertFalse(isCandidateClass(Leaf.class, WebMapping.class));
+		assertTrue(isCandidateClass(Leaf.class, asList(WebMapping.class, Order.class)));
+	}
+
 	@Test
 	public void getAnnotationAttributesWithoutAttributeAliases() {
 		Component component = WebController.class.getAnnotation(Component.class);
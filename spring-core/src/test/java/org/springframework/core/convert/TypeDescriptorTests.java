@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -373,6 +373,14 @@ public class TypeDescriptorTests {
 		assertNull(typeDescriptor.getElementTypeDescriptor());
 	}
 
+	@Test
+	public void valueOfReturnsCanonicalInstance() {
+		assertSame(TypeDescriptor.valueOf(Integer.class), TypeDescriptor.valueOf(Integer.class));
+		assertSame(TypeDescriptor.valueOf(Collection.class), TypeDescriptor.valueOf(Collection.class));
+		assertSame(TypeDescriptor.valueOf(Object.class), TypeDescriptor.valueOf(null));
+		assertSame(TypeDescriptor.valueOf(getClass()), TypeDescriptor.forObject(this));
+	}
+
 	@Test
 	public void forObject() {
 		TypeDescriptor desc = TypeDescriptor.forObject("3");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -457,6 +457,14 @@ public class GenericConversionServiceTests {
 		assertFalse(conversionService.canConvert(String.class, Color.class));
 	}
 
+	@Test
+	public void cachedNoMatchInvalidatedOnConverterRegistration() {
+		assertFalse(conversionService.canConvert(String.class, Color.class));
+		conversionService.addConverter(new ColorConverter());
+		assertTrue(conversionService.canConvert(String.class, Color.class));
+		assertEquals(Color.BLACK, conversionService.convert("#000000", Color.class));
+	}
+
 	@Test
 	public void conditionalConverter() {
 		MyConditionalConverter converter = new MyConditionalConverter();
@@ -19,6 +19,7 @@ package org.springframework.core.env;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -440,6 +441,81 @@ public class PropertySourcesPropertyResolverTests {
 		}
 	}
 
+	@Test
+	public void frozenResolutionMemoizesValues() {
+		final AtomicInteger lookups = new AtomicInteger();
+		propertySources.addFirst(new PropertySource<Object>("counting") {
+			@Override
+			public Object getProperty(String name) {
+				lookups.incrementAndGet();
+				return null;
+			}
+		});
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(propertySources);
+		testProperties.put("name", "${prefix}-value");
+		testProperties.put("prefix", "my");
+		testProperties.put("count", "42");
+		resolver.setFrozen(true);
+		assertTrue(resolver.isFrozen());
+
+		assertThat(resolver.getProperty("name"), equalTo("my-value"));
+		assertThat(resolver.getProperty("count", Integer.class), equalTo(42));
+		assertThat(resolver.getProperty("missing"), nullValue());
+		int lookupCount = lookups.get();
+		assertThat(resolver.getProperty("name"), equalTo("my-value"));
+		assertThat(resolver.getProperty("count", Integer.class), equalTo(42));
+		assertThat(resolver.getProperty("missing"), nullValue());
+		assertEquals(lookupCount, lookups.get());
+
+		testProperties.put("prefix", "other");
+		testProperties.put("count", "43");
+		testProperties.put("missing", "found");
+		assertThat(resolver.getProperty("name"), equalTo("my-value"));
+		assertThat(resolver.getProperty("count", Integer.class), equalTo(42));
+		assertThat(resolver.getProperty("missing"), nullValue());
+
+		resolver.setFrozen(false);
+		assertFalse(resolver.isFrozen());
+		assertThat(resolver.getProperty("name"), equalTo("other-value"));
+		assertThat(resolver.getProperty("count", Integer.class), equalTo(43));
+		assertThat(resolver.getProperty("missing"), equalTo("found"));
+	}
+
+	@Test
+	public void frozenResolutionInvalidatedOnPropertySourceChanges() {
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(propertySources);
+		testProperties.put("foo", "bar");
+		resolver.setFrozen(true);
+		assertThat(resolver.getProperty("foo"), equalTo("bar"));
+		assertThat(resolver.getProperty("baz"), nullValue());
+
+		propertySources.addFirst(new MockPropertySource("override").withProperty("foo", "override"));
+		assertThat(resolver.getProperty("foo"), equalTo("override"));
+
+		propertySources.addLast(new MockPropertySource("fallback").withProperty("baz", "qux"));
+		assertThat(resolver.getProperty("baz"), equalTo("qux"));
+
+		propertySources.replace("override", new MockPropertySource("override").withProperty("foo", "replaced"));
+		assertThat(resolver.getProperty("foo"), equalTo("replaced"));
+
+		propertySources.remove("override");
+		assertThat(resolver.getProperty("foo"), equalTo("bar"));
+		assertTrue(resolver.isFrozen());
+	}
+
+	@Test
+	public void frozenResolutionDoesNotShareMutableConversionResults() {
+		PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(propertySources);
+		testProperties.put("list", "a,b");
+		resolver.setFrozen(true);
+
+		String[] values = resolver.getProperty("list", String[].class);
+		assertArrayEquals(new String[] {"a", "b"}, values);
+		values[0] = "c";
+		assertArrayEquals(new String[] {"a", "b"}, resolver.getProperty("list", String[].class));
+		assertThat(resolver.getPropertyAsRawString("list"), equalTo("a,b"));
+	}
+
 
 	interface SomeType {
 	}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,9 @@ package org.springframework.core.io;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
@@ -287,4 +290,43 @@ public class PathResourceTests {
 		resource.getOutputStream();
 	}
 
+	@Test
+	public void fileChannel() throws Exception {
+		PathResource resource = new PathResource(TEST_FILE);
+		byte[] expected = FileCopyUtils.copyToByteArray(resource.getInputStream());
+		FileChannel channel = resource.getFileChannel();
+		try {
+			ByteBuffer buffer = ByteBuffer.allocate(expected.length);
+			assertThat(channel.read(buffer), equalTo(expected.length));
+			assertThat(buffer.array(), equalTo(expected));
+		}
+		finally {
+			channel.close();
+		}
+	}
+
+	@Test
+	public void mappedByteBuffer() throws Exception {
+		PathResource resource = new PathResource(TEST_FILE);
+		byte[] expected = FileCopyUtils.copyToByteArray(resource.getInputStream());
+		MappedByteBuffer buffer = resource.getMappedByteBuffer();
+		byte[] actual = new byte[buffer.remaining()];
+		buffer.get(actual);
+		assertThat(actual, equalTo(expected));
+	}
+
+	@Test
+	public void doesNotExistFileChannel() throws Exception {
+		PathResource resource = new PathResource(NON_EXISTING_FILE);
+		thrown.expect(FileNotFoundException.class);
+		resource.getFileChannel();
+	}
+
+	@Test
+	public void directoryFileChannel() throws Exception {
+		PathResource resource = new PathResource(TEST_DIR);
+		thrown.expect(FileNotFoundException.class);
+		resource.getFileChannel();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,8 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.HashSet;
 
 import org.junit.Ignore;
@@ -117,6 +119,28 @@ public class ResourceTests {
 		assertEquals(resource, new ClassPathResource("Resource.class", getClass()));
 	}
 
+	@Test
+	public void testFileSystemResourceChannelAccess() throws IOException {
+		FileSystemResource resource = new FileSystemResource(getClass().getResource("Resource.class").getFile());
+		byte[] expected = FileCopyUtils.copyToByteArray(resource.getInputStream());
+		FileChannel channel = resource.getFileChannel();
+		try {
+			assertEquals(expected.length, channel.size());
+		}
+		finally {
+			channel.close();
+		}
+		MappedByteBuffer buffer = resource.getMappedByteBuffer();
+		byte[] actual = new byte[buffer.remaining()];
+		buffer.get(actual);
+		assertArrayEquals(expected, actual);
+	}
+
+	@Test(expected = FileNotFoundException.class)
+	public void testFileSystemResourceChannelAccessWithNonExistingFile() throws IOException {
+		new FileSystemResource("doesnotexist.txt").getFileChannel();
+	}
+
 	@Test
 	public void testFileSystemResource() throws IOException {
 		Resource resource = new FileSystemResource(getClass().getResource("Resource.class").getFile());
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,14 +16,28 @@
 
 package org.springframework.core.io.support;
 
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
 
+import org.junit.After;
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import org.springframework.core.io.Resource;
 import org.springframework.util.StringUtils;
@@ -58,6 +72,15 @@ public class PathMatchingResourcePatternResolverTests {
 
 	private PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
 
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
+	@After
+	public void clearCache() {
+		PathMatchingResourcePatternResolver.clearCache();
+	}
+
 
 	@Test(expected = FileNotFoundException.class)
 	public void invalidPrefixWithPatternElementInIt() throws IOException {
@@ -120,6 +143,84 @@ public class PathMatchingResourcePatternResolverTests {
 		assertTrue("Could not find aspectj_1_5_0.dtd in the root of the aspectjweaver jar", found);
 	}
 
+	@Test
+	public void multiplePatternsInJar() throws IOException {
+		Resource[] resources = resolver.getAllResources("classpath*:org/apache/commons/logging/Log*.class",
+				"classpath*:org/apache/commons/logging/*Exception.class", "classpath*:org/apache/commons/logging/*Source.class");
+		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_COMMONSLOGGING);
+	}
+
+	@Test
+	public void multiplePatternsWithDifferentRootDirectories() throws IOException {
+		Resource[] resources = resolver.getAllResources("classpath*:org/apache/commons/logging/*Factory.class",
+				"classpath:org/springframework/core/io/support/PathMatchingResourcePatternResolverTests.class",
+				"classpath*:org/springframework/core/io/support/PathMatchingResourcePatternResolver.class");
+		assertEquals(3, resources.length);
+		assertFilenameIn(resources[0], "PathMatchingResourcePatternResolverTests.class");
+		assertFilenameIn(resources[1], "PathMatchingResourcePatternResolver.class");
+		assertFilenameIn(resources[2], "LogFactory.class");
+	}
+
+	@Test
+	public void jarEntryIndexRefreshedForModifiedJar() throws IOException {
+		File jar = createJar("test.jar", "META-INF/test/a.txt", "META-INF/test/b.txt", "META-INF/other/c.txt");
+		resolver = new PathMatchingResourcePatternResolver(new URLClassLoader(new URL[] {jar.toURI().toURL()}, null));
+		assertProtocolAndFilenames(resolver.getResources("classpath*:META-INF/test/*.txt"), "jar", "a.txt", "b.txt");
+		assertProtocolAndFilenames(resolver.getResources("classpath*:META-INF/*/*.txt"), "jar", "a.txt", "b.txt", "c.txt");
+
+		// Evict the jar file from the JDK's own JarURLConnection cache
+		((JarURLConnection) new URL("jar:" + jar.toURI() + "!/").openConnection()).getJarFile().close();
+		jar.delete();
+		createJar("test.jar", "META-INF/test/a.txt", "META-INF/test/d.txt");
+		jar.setLastModified(jar.lastModified() - 10000);
+		resolver = new PathMatchingResourcePatternResolver(new URLClassLoader(new URL[] {jar.toURI().toURL()}, null));
+		assertProtocolAndFilenames(resolver.getResources("classpath*:META-INF/test/*.txt"), "jar", "a.txt", "d.txt");
+	}
+
+	@Test
+	public void parallelRootDirectoryTraversal() throws IOException {
+		List<URL> urls = new ArrayList<URL>();
+		for (int i = 0; i < 8; i++) {
+			urls.add(createJar("test" + i + ".jar", "META-INF/test/a" + i + ".txt", "META-INF/test/b" + i + ".txt").toURI().toURL());
+		}
+		ClassLoader classLoader = new URLClassLoader(urls.toArray(new URL[urls.size()]), null);
+		Resource[] expected = new PathMatchingResourcePatternResolver(classLoader).getResources("classpath*:META-INF/test/a*.txt");
+		assertEquals(8, expected.length);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			resolver = new PathMatchingResourcePatternResolver(classLoader);
+			resolver.setTaskExecutor(executor);
+			assertArrayEquals(expected, resolver.getResources("classpath*:META-INF/test/a*.txt"));
+			assertEquals(16, resolver.getAllResources("classpath*:META-INF/test/a*.txt", "classpath*:META-INF/test/b*.txt").length);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+
+	private File createJar(String name, String... entryNames) throws IOException {
+		File jar = new File(this.temporaryFolder.getRoot(), name);
+		try (JarOutputStream jarOut = new JarOutputStream(new FileOutputStream(jar))) {
+			Set<String> directories = new TreeSet<String>();
+			for (String entryName : entryNames) {
+				for (int i = entryName.indexOf('/'); i != -1; i = entryName.indexOf('/', i + 1)) {
+					directories.add(entryName.substring(0, i + 1));
+				}
+			}
+			for (String directory : directories) {
+				jarOut.putNextEntry(new ZipEntry(directory));
+				jarOut.closeEntry();
+			}
+			for (String entryName : entryNames) {
+				jarOut.putNextEntry(new ZipEntry(entryName));
+				jarOut.write(entryName.getBytes("UTF-8"));
+				jarOut.closeEntry();
+			}
+		}
+		return jar;
+	}
 
 	private void assertProtocolAndFilenames(Resource[] resources, String protocol, String... filenames)
 			throws IOException {
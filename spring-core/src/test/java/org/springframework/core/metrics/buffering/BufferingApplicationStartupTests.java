@@ -0,0 +1,143 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics.buffering;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BufferingApplicationStartup} and {@link StartupTimelineJsonWriter}.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+public class BufferingApplicationStartupTests {
+
+	@Test
+	public void defaultStartupDoesNotRecord() {
+		StartupStep step = ApplicationStartup.DEFAULT.start("test").tag("key", "value");
+		assertSame(step, ApplicationStartup.DEFAULT.start("other"));
+		assertFalse(step.getTags().iterator().hasNext());
+		step.end();
+	}
+
+	@Test
+	public void recordsNestedSteps() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		StartupStep outer = startup.start("spring.outer");
+		StartupStep inner = startup.start("spring.inner").tag("beanName", "foo");
+		inner.end();
+		StartupStep sibling = startup.start("spring.sibling");
+		sibling.end();
+		outer.end();
+		StartupStep next = startup.start("spring.next");
+		next.end();
+
+		List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+		assertEquals(4, events.size());
+		assertEquals("spring.outer", events.get(0).getName());
+		assertNull(events.get(0).getParentId());
+		assertEquals("spring.inner", events.get(1).getName());
+		assertEquals(Long.valueOf(outer.getId()), events.get(1).getParentId());
+		assertEquals(Long.valueOf(outer.getId()), events.get(2).getParentId());
+		assertNull(events.get(3).getParentId());
+
+		Iterator<StartupStep.Tag> tags = events.get(1).getTags().iterator();
+		StartupStep.Tag tag = tags.next();
+		assertEquals("beanName", tag.getKey());
+		assertEquals("foo", tag.getValue());
+		assertFalse(tags.hasNext());
+		assertTrue(events.get(0).getDurationNanos() >= events.get(1).getDurationNanos());
+		assertTrue(events.get(0).getEndTime() >= events.get(0).getStartTime());
+		assertEquals(Thread.currentThread().getName(), events.get(0).getThreadName());
+	}
+
+	@Test
+	public void stepsOfOtherThreadsAreNotNested() throws Exception {
+		final BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		StartupStep outer = startup.start("spring.outer");
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				startup.start("spring.other").end();
+			}
+		};
+		thread.start();
+		thread.join();
+		outer.end();
+
+		List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+		assertEquals(2, events.size());
+		assertEquals("spring.other", events.get(1).getName());
+		assertNull(events.get(1).getParentId());
+	}
+
+	@Test
+	public void capacityLimitsRecordedSteps() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(2);
+		startup.start("first").end();
+		startup.start("second").end();
+		startup.start("third").end();
+		assertEquals(2, startup.getBufferedTimeline().getEvents().size());
+
+		assertEquals(2, startup.drainBufferedTimeline().getEvents().size());
+		assertTrue(startup.getBufferedTimeline().getEvents().isEmpty());
+		startup.start("fourth").end();
+		assertEquals("fourth", startup.getBufferedTimeline().getEvents().get(0).getName());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void tagAfterEndNotAllowed() {
+		StartupStep step = new BufferingApplicationStartup(1).start("test");
+		step.end();
+		step.tag("key", "value");
+	}
+
+	@Test
+	public void writeJson() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		StartupStep outer = startup.start("spring.outer");
+		startup.start("spring.inner").tag("beanName", "my \"quoted\"\\bean").end();
+		outer.end();
+
+		StartupTimeline timeline = startup.getBufferedTimeline();
+		String json = new StartupTimelineJsonWriter().toJson(timeline);
+		assertThat(json, startsWith("{\n  \"startTime\": " + timeline.getStartTime() + ",\n  \"events\": ["));
+		assertThat(json, containsString("\"name\": \"spring.outer\""));
+		assertThat(json, containsString("\"parentId\": null"));
+		assertThat(json, containsString("\"parentId\": " + outer.getId()));
+		assertThat(json, containsString("\"durationNanos\": " + timeline.getEvents().get(1).getDurationNanos()));
+		assertThat(json, containsString("\"tags\": [{\"key\": \"beanName\", \"value\": \"my \\\"quoted\\\"\\\\bean\"}]"));
+		assertThat(json, containsString("\"tags\": []"));
+	}
+
+	@Test
+	public void writeJsonWithoutEvents() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		String json = new StartupTimelineJsonWriter().toJson(startup.getBufferedTimeline());
+		assertEquals("{\n  \"startTime\": " + startup.getBufferedTimeline().getStartTime() + ",\n  \"events\": []\n}\n", json);
+	}
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.Test;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.util.FileCopyUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link MetadataReaderCache} and its use by
+ * {@link CachingMetadataReaderFactory}.
+ *
+ * @author agent
+ */
+public class MetadataReaderCacheTests {
+
+	@Test
+	public void sharedBetweenFactories() throws IOException {
+		MetadataReaderCache cache = new MetadataReaderCache();
+		CachingMetadataReaderFactory factory1 = new CachingMetadataReaderFactory(getClass().getClassLoader());
+		factory1.setMetadataReaderCache(cache);
+		CachingMetadataReaderFactory factory2 = new CachingMetadataReaderFactory(getClass().getClassLoader());
+		factory2.setMetadataReaderCache(cache);
+
+		MetadataReader reader1 = factory1.getMetadataReader(MetadataReaderCacheTests.class.getName());
+		MetadataReader reader2 = factory2.getMetadataReader(MetadataReaderCacheTests.class.getName());
+		assertSame(reader1, reader2);
+		assertEquals(MetadataReaderCacheTests.class.getName(), reader2.getClassMetadata().getClassName());
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getHitCount());
+	}
+
+	@Test
+	public void clearCacheOnFactoryKeepsSharedEntries() throws IOException {
+		MetadataReaderCache cache = new MetadataReaderCache();
+		CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory();
+		factory.setMetadataReaderCache(cache);
+		factory.getMetadataReader(MetadataReaderCacheTests.class.getName());
+		factory.clearCache();
+		assertEquals(1, cache.size());
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void differentClassLoaderDoesNotMatch() throws IOException {
+		MetadataReaderCache cache = new MetadataReaderCache();
+		Resource resource = new ClassPathResource("MetadataReaderCacheTests.class", getClass());
+		MetadataReader reader = new SimpleMetadataReader(resource, getClass().getClassLoader());
+		cache.put(resource, getClass().getClassLoader(), reader);
+		assertSame(reader, cache.get(resource, getClass().getClassLoader()));
+		URLClassLoader otherClassLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+		assertNull(cache.get(resource, otherClassLoader));
+	}
+
+	@Test
+	public void modifiedClassFileDoesNotMatch() throws Exception {
+		File classFile = File.createTempFile("MetadataReaderCacheTests", ".class");
+		try {
+			FileCopyUtils.copy(new ClassPathResource("MetadataReaderCacheTests.class", getClass()).getInputStream(),
+					new FileOutputStream(classFile));
+			classFile.setLastModified(100000L);
+			MetadataReaderCache cache = new MetadataReaderCache();
+			Resource resource = new FileSystemResource(classFile);
+			MetadataReader reader = new SimpleMetadataReader(resource, null);
+			cache.put(resource, null, reader);
+			assertSame(reader, cache.get(resource, null));
+			classFile.setLastModified(200000L);
+			assertNull(cache.get(resource, null));
+		}
+		finally {
+			classFile.delete();
+		}
+	}
+
+	@Test
+	public void jarEntryKeyedByTimestampOfJarFile() throws Exception {
+		File jarFile = File.createTempFile("MetadataReaderCacheTests", ".jar");
+		try {
+			try (JarOutputStream jarOut = new JarOutputStream(new FileOutputStream(jarFile))) {
+				jarOut.putNextEntry(new JarEntry("MetadataReaderCacheTests.class"));
+				jarOut.closeEntry();
+			}
+			jarFile.setLastModified(100000L);
+			MetadataReaderCache cache = new MetadataReaderCache();
+			Resource resource = new UrlResource("jar:" + jarFile.toURI() + "!/MetadataReaderCacheTests.class");
+			MetadataReader reader = new SimpleMetadataReader(
+					new ClassPathResource("MetadataReaderCacheTests.class", getClass()), null);
+			cache.put(resource, null, reader);
+			assertSame(reader, cache.get(resource, null));
+			jarFile.setLastModified(200000L);
+			assertNull(cache.get(resource, null));
+		}
+		finally {
+			jarFile.delete();
+		}
+	}
+
+	@Test
+	public void boundedBySizeLimit() throws IOException {
+		MetadataReaderCache cache = new MetadataReaderCache(2, 1);
+		CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory();
+		factory.setMetadataReaderCache(cache);
+		factory.getMetadataReader(String.class.getName());
+		factory.getMetadataReader(Integer.class.getName());
+		factory.getMetadataReader(Long.class.getName());
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(3, cache.getMissCount());
+	}
+
+	@Test
+	public void localCacheByDefault() {
+		CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory();
+		assertNull(factory.getMetadataReaderCache());
+	}
+
+	@Test
+	public void localCacheAllowsConcurrentParsing() throws Exception {
+		final CountDownLatch parsing = new CountDownLatch(2);
+		final Resource resource = new ClassPathResource("MetadataReaderCacheTests.class", getClass()) {
+			@Override
+			public InputStream getInputStream() throws IOException {
+				parsing.countDown();
+				try {
+					if (!parsing.await(10, TimeUnit.SECONDS)) {
+						throw new IOException("Parsing got serialized");
+					}
+				}
+				catch (InterruptedException ex) {
+					throw new IOException(ex);
+				}
+				return super.getInputStream();
+			}
+		};
+		final CachingMetadataReaderFactory factory = new CachingMetadataReaderFactory();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Callable<MetadataReader> task = () -> factory.getMetadataReader(resource);
+			Future<MetadataReader> reader1 = executor.submit(task);
+			Future<MetadataReader> reader2 = executor.submit(task);
+			assertEquals(MetadataReaderCacheTests.class.getName(), reader1.get().getClassMetadata().getClassName());
+			assertEquals(MetadataReaderCacheTests.class.getName(), reader2.get().getClassMetadata().getClassName());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidCacheLimit() {
+		new MetadataReaderCache(0);
+	}
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ConcurrentLruCache}.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+public class ConcurrentLruCacheTests {
+
+	@Test
+	public void getAndPut() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(2);
+		cache.setRecordStats(true);
+		assertNull(cache.get("k1"));
+		assertNull(cache.put("k1", "v1"));
+		assertEquals("v1", cache.get("k1"));
+		assertEquals("v1", cache.put("k1", "v1b"));
+		assertEquals("v1b", cache.get("k1"));
+		assertEquals(1, cache.size());
+		assertEquals(2, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void putIfAbsent() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(2);
+		assertNull(cache.putIfAbsent("k1", "v1"));
+		assertEquals("v1", cache.putIfAbsent("k1", "v2"));
+		assertEquals("v1", cache.peek("k1"));
+		assertEquals(1, cache.weight());
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(2);
+		cache.put("k1", "v1");
+		cache.put("k2", "v2");
+		cache.get("k1");
+		cache.put("k3", "v3");
+
+		assertEquals(2, cache.size());
+		assertTrue(cache.contains("k1"));
+		assertFalse(cache.contains("k2"));
+		assertTrue(cache.contains("k3"));
+		assertEquals(1, cache.getEvictionCount());
+
+		cache.get("k3");
+		cache.put("k4", "v4");
+		assertFalse(cache.contains("k1"));
+		assertTrue(cache.contains("k3"));
+		assertTrue(cache.contains("k4"));
+	}
+
+	@Test
+	public void peekDoesNotAffectRecency() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(2);
+		cache.setRecordStats(true);
+		cache.put("k1", "v1");
+		cache.put("k2", "v2");
+		assertEquals("v1", cache.peek("k1"));
+		cache.put("k3", "v3");
+
+		assertFalse(cache.contains("k1"));
+		assertEquals(0, cache.getHitCount());
+		assertEquals(0, cache.getMissCount());
+	}
+
+	@Test
+	public void evictByWeight() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(10, 10,
+				new ConcurrentLruCache.Weigher<String, String>() {
+					@Override
+					public int weigh(String key, String value) {
+						return value.length();
+					}
+				});
+		cache.put("k1", "aaaa");
+		cache.put("k2", "bbbb");
+		assertEquals(8, cache.weight());
+		cache.put("k3", "cccc");
+
+		assertEquals(2, cache.size());
+		assertEquals(8, cache.weight());
+		assertFalse(cache.contains("k1"));
+
+		cache.put("k2", "b");
+		assertEquals(5, cache.weight());
+		cache.remove("k3");
+		assertEquals(1, cache.weight());
+
+		cache.put("k4", "dddddddddddd");
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.weight());
+	}
+
+	@Test
+	public void removeAndClear() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(4);
+		cache.put("k1", "v1");
+		cache.put("k2", "v2");
+		assertEquals("v1", cache.remove("k1"));
+		assertNull(cache.remove("k1"));
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.keySet().size());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.weight());
+		assertNull(cache.get("k2"));
+	}
+
+	@Test
+	public void replacedEntriesDoNotCountTowardsBounds() {
+		ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<String, Integer>(3);
+		for (int i = 0; i < 1000; i++) {
+			cache.put("k" + (i % 3), i);
+		}
+		assertEquals(3, cache.size());
+		assertEquals(0, cache.getEvictionCount());
+	}
+
+	@Test
+	public void statsNotRecordedByDefault() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(2);
+		cache.put("k1", "v1");
+		cache.get("k1");
+		cache.get("k2");
+		assertFalse(cache.isRecordStats());
+		assertEquals(0, cache.getHitCount());
+		assertEquals(0, cache.getMissCount());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void keySetIsUnmodifiable() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(2);
+		cache.put("k1", "v1");
+		cache.keySet().remove("k1");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullValueRejected() {
+		new ConcurrentLruCache<String, String>(2).put("k1", null);
+	}
+
+	@Test
+	public void concurrentAccessStaysWithinBounds() throws Exception {
+		final ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<Integer, Integer>(64);
+		final CountDownLatch latch = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int t = 0; t < 8; t++) {
+			final int seed = t;
+			executor.execute(() -> {
+				try {
+					latch.await();
+				}
+				catch (InterruptedException ex) {
+					return;
+				}
+				for (int i = 0; i < 20000; i++) {
+					Integer key = (i * 31 + seed) % 256;
+					if (cache.get(key) == null) {
+						cache.put(key, key);
+					}
+				}
+			});
+		}
+		latch.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+		assertTrue(cache.size() <= 64);
+		assertEquals(cache.size(), cache.weight());
+		for (Integer key : cache.keySet()) {
+			assertEquals(key, cache.peek(key));
+		}
+	}
+
+	@Test
+	public void concurrentClearKeepsEntriesEvictable() throws Exception {
+		final ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<Integer, Integer>(1024);
+		final AtomicBoolean clearing = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		for (int t = 0; t < 4; t++) {
+			final int seed = t;
+			executor.execute(() -> {
+				// Keep writing fresh keys until the last clear() has completed
+				for (int i = 0; clearing.get(); i++) {
+					cache.put(seed * 10000000 + i, i);
+				}
+			});
+		}
+		for (int i = 0; i < 1000; i++) {
+			cache.clear();
+		}
+		clearing.set(false);
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+		assertTrue(cache.size() <= 1024);
+
+		// Every remaining entry must still be queued for eviction
+		for (int i = 0; i < 1024; i++) {
+			cache.put(-i, i);
+		}
+		assertEquals(1024, cache.size());
+		for (Integer key : cache.keySet()) {
+			assertTrue("Entry for key " + key + " not evictable", key <= 0);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Ignore;
 import org.junit.Rule;
@@ -246,6 +248,77 @@ public class ConcurrentReferenceHashMapTests {
 		assertThat(this.map.get(5), is("5"));
 	}
 
+	@Test
+	public void shouldOnlyRestructureChainsWithPurgedReferences() throws Exception {
+		this.map = new TestWeakConcurrentCache<Integer, String>(8, 0.75f, 1);
+		this.map.put(1, "1");
+		this.map.put(2, "2");
+		this.map.put(9, "9");
+		this.map.put(17, "17");
+		MockReference<Integer, String> reference2 = this.map.getMockReference(2, Restructure.NEVER);
+		MockReference<Integer, String> reference1 = this.map.getMockReference(1, Restructure.NEVER);
+		this.map.getMockReference(9, Restructure.NEVER).queueForPurge();
+
+		assertThat(this.map.get(9), is(nullValue()));
+		assertThat(this.map.size(), is(3));
+		assertSame(reference2, this.map.getMockReference(2, Restructure.NEVER));
+		assertSame(reference1, this.map.getMockReference(1, Restructure.NEVER));
+		assertThat(this.map.get(1), is("1"));
+		assertThat(this.map.get(17), is("17"));
+	}
+
+	@Test
+	public void shouldNotCountReferencesPurgedAfterClear() throws Exception {
+		this.map = new TestWeakConcurrentCache<Integer, String>(8, 0.75f, 1);
+		this.map.put(1, "1");
+		this.map.put(2, "2");
+		this.map.getMockReference(1, Restructure.NEVER).queueForPurge();
+		this.map.clear();
+		this.map.put(3, "3");
+		this.map.put(4, "4");
+
+		assertThat(this.map.get(3), is("3"));
+		assertThat(this.map.size(), is(2));
+	}
+
+	@Test
+	public void shouldNotBlockReadersWhileSegmentIsLocked() throws Exception {
+		this.map = new TestWeakConcurrentCache<Integer, String>(8, 0.75f, 1);
+		for (int i = 1; i <= 3; i++) {
+			this.map.put(i, String.valueOf(i));
+		}
+		this.map.getMockReference(1, Restructure.NEVER).queueForPurge();
+		final CountDownLatch locked = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+		Thread lockHolder = new Thread(() -> {
+			this.map.getSegment(0).lock();
+			try {
+				locked.countDown();
+				done.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				this.map.getSegment(0).unlock();
+			}
+		});
+		lockHolder.start();
+		assertTrue(locked.await(10, TimeUnit.SECONDS));
+		try {
+			assertThat(this.map.get(2), is("2"));
+			assertThat(this.map.size(), is(3));
+		}
+		finally {
+			done.countDown();
+			lockHolder.join();
+		}
+
+		this.map.put(4, "4");
+		assertThat(this.map.getReference(1, Restructure.NEVER), is(nullValue()));
+		assertThat(this.map.size(), is(3));
+	}
+
 	@Test
 	public void shouldPutIfAbsent() throws Exception {
 		assertThat(this.map.putIfAbsent(123, "123"), is(nullValue()));
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,8 @@ package org.springframework.util;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -205,9 +207,66 @@ public class FastByteArrayOutputStreamTests {
 		assertEquals("\"06225ca1e4533354c516e74512065331d\"", actual);
 	}
 
+	@Test
+	public void pooledBuffersReleasedOnlyOnRelease() throws Exception {
+		RecordingByteArrayPool pool = new RecordingByteArrayPool();
+		FastByteArrayOutputStream pooled = new FastByteArrayOutputStream(INITIAL_CAPACITY, pool);
+		for (int i = 0; i < 30; i++) {
+			pooled.write(this.helloBytes);
+		}
+		assertEquals(2, pool.acquired.size());
+		pooled.reset();
+		assertTrue(pool.released.isEmpty());
+
+		for (int i = 0; i < 30; i++) {
+			pooled.write(this.helloBytes);
+		}
+		pooled.close();
+		assertEquals(30 * this.helloBytes.length, pooled.toByteArray().length);
+		assertTrue(pool.released.isEmpty());
+		pooled.release();
+		assertEquals(pool.acquired.subList(2, 4), pool.released);
+	}
+
+	@Test
+	public void pooledBuffersNotExposed() throws Exception {
+		RecordingByteArrayPool pool = new RecordingByteArrayPool();
+		FastByteArrayOutputStream pooled = new FastByteArrayOutputStream(this.helloBytes.length, pool);
+		pooled.write(this.helloBytes);
+		byte[] exposed = pooled.toByteArrayUnsafe();
+		assertArrayEquals(this.helloBytes, exposed);
+		assertSame(pool.acquired.get(0), exposed);
+
+		pooled.write(this.helloBytes);
+		pooled.release();
+		assertEquals(1, pool.released.size());
+		assertFalse(pool.released.contains(exposed));
+		assertArrayEquals(this.helloBytes, exposed);
+	}
+
 
 	private void assertByteArrayEqualsString(FastByteArrayOutputStream actual) {
 		assertArrayEquals(this.helloBytes, actual.toByteArray());
 	}
 
+
+	private static class RecordingByteArrayPool implements ByteArrayPool {
+
+		final List<byte[]> acquired = new ArrayList<>();
+
+		final List<byte[]> released = new ArrayList<>();
+
+		@Override
+		public byte[] acquire(int minLength) {
+			byte[] buffer = new byte[minLength];
+			this.acquired.add(buffer);
+			return buffer;
+		}
+
+		@Override
+		public void release(byte[] buffer) {
+			this.released.add(buffer);
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,12 +18,18 @@ package org.springframework.util;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import static org.junit.Assert.*;
 
@@ -35,6 +41,10 @@ import static org.junit.Assert.*;
  */
 public class FileCopyUtilsTests {
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+
 	@Test
 	public void copyFromInputStream() throws IOException {
 		byte[] content = "content".getBytes();
@@ -45,6 +55,32 @@ public class FileCopyUtilsTests {
 		assertTrue(Arrays.equals(content, out.toByteArray()));
 	}
 
+	@Test
+	public void copyFromFile() throws IOException {
+		byte[] content = new byte[FileCopyUtils.BUFFER_SIZE * 3 + 7];
+		Arrays.fill(content, (byte) 'c');
+		File in = temporaryFolder.newFile();
+		File out = temporaryFolder.newFile();
+		FileCopyUtils.copy(content, in);
+		int count = FileCopyUtils.copy(in, out);
+		assertEquals(content.length, count);
+		assertTrue(Arrays.equals(content, FileCopyUtils.copyToByteArray(out)));
+	}
+
+	@Test
+	public void copyFromFileChannel() throws IOException {
+		byte[] content = "content".getBytes();
+		File file = temporaryFolder.newFile();
+		FileCopyUtils.copy(content, file);
+		FileChannel in = new FileInputStream(file).getChannel();
+		in.position(3);
+		ByteArrayOutputStream out = new ByteArrayOutputStream(content.length);
+		long count = FileCopyUtils.copy(in, Channels.newChannel(out));
+		assertEquals(4, count);
+		assertEquals("tent", out.toString());
+		assertFalse(in.isOpen());
+	}
+
 	@Test
 	public void copyFromByteArray() throws IOException {
 		byte[] content = "content".getBytes();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -174,6 +174,13 @@ public class MimeTypeTests {
 		assertEquals("Invalid subtype", "*", mimeType.getSubtype());
 	}
 
+	@Test
+	public void parseMimeTypeReturnsCachedInstance() {
+		MimeType mimeType = MimeTypeUtils.parseMimeType("text/plain;charset=UTF-8");
+		assertSame(mimeType, MimeTypeUtils.parseMimeType("text/plain;charset=UTF-8"));
+		assertEquals(mimeType, MimeTypeUtils.parseMimeType("text/plain; charset=UTF-8"));
+	}
+
 	@Test(expected = InvalidMimeTypeException.class)
 	public void parseMimeTypeNoSubtype() {
 		MimeTypeUtils.parseMimeType("audio");
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PathPatternSet}.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+public class PathPatternSetTests {
+
+	@Test
+	public void matchingPatternsInOrderOfAddition() {
+		PathPatternSet patternSet = new PathPatternSet(Arrays.asList(
+				"/**", "/api/orders/{id}", "/api/*/{id}", "/api/orders/**", "/static/**", "/api/orders/42"));
+
+		assertEquals(Arrays.asList("/**", "/api/orders/{id}", "/api/*/{id}", "/api/orders/**", "/api/orders/42"),
+				patternSet.getMatchingPatterns("/api/orders/42"));
+		assertEquals(Arrays.asList("/**", "/static/**"), patternSet.getMatchingPatterns("/static/css/site.css"));
+		assertEquals(Collections.singletonList("/**"), patternSet.getMatchingPatterns("/other"));
+		assertTrue(patternSet.matches("/other"));
+	}
+
+	@Test
+	public void noMatch() {
+		PathPatternSet patternSet = new PathPatternSet(Arrays.asList("/api/orders/*", "/static/**", "*.html"));
+
+		assertEquals(Collections.emptyList(), patternSet.getMatchingPatterns("/api/customers/1"));
+		assertFalse(patternSet.matches("/api/customers/1"));
+		assertFalse(patternSet.matches("/api"));
+		assertFalse(patternSet.matches(""));
+		assertTrue(patternSet.matches("index.html"));
+		assertTrue(patternSet.matches("/static"));
+	}
+
+	@Test
+	public void duplicatePatternsIgnored() {
+		PathPatternSet patternSet = new PathPatternSet();
+		assertTrue(patternSet.isEmpty());
+		assertTrue(patternSet.addPattern("/api/**"));
+		assertFalse(patternSet.addPattern("/api/**"));
+		assertEquals(1, patternSet.size());
+		assertEquals(Collections.singletonList("/api/**"), patternSet.getMatchingPatterns("/api/orders"));
+	}
+
+	@Test
+	public void caseInsensitiveMatching() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		pathMatcher.setCaseSensitive(false);
+		PathPatternSet patternSet = new PathPatternSet(pathMatcher);
+		patternSet.addPattern("/Group/{groupName}/Members");
+		patternSet.addPattern("/group/*/owners");
+
+		assertEquals(Collections.singletonList("/Group/{groupName}/Members"),
+				patternSet.getMatchingPatterns("/group/sales/members"));
+		assertEquals(Collections.singletonList("/group/*/owners"),
+				patternSet.getMatchingPatterns("/GROUP/sales/Owners"));
+	}
+
+	@Test
+	public void customPathSeparator() {
+		PathPatternSet patternSet = new PathPatternSet(new AntPathMatcher("."));
+		patternSet.addPattern("app.*.queue");
+		patternSet.addPattern("app.**");
+		patternSet.addPattern("other.*");
+
+		assertEquals(Arrays.asList("app.*.queue", "app.**"), patternSet.getMatchingPatterns("app.orders.queue"));
+		assertEquals(Collections.singletonList("other.*"), patternSet.getMatchingPatterns("other.queue"));
+	}
+
+	@Test
+	public void matchesLikeAntPathMatcherForManyPatterns() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		List<String> patterns = new ArrayList<String>();
+		for (int i = 0; i < 200; i++) {
+			patterns.add("/api/v" + (i % 3) + "/resource" + i + "/{id}");
+			patterns.add("/api/v" + (i % 3) + "/resource" + i + "/**");
+			patterns.add("/static/" + i + "/*.js");
+		}
+		patterns.addAll(Arrays.asList("/**", "/api/**", "/api/*/resource7/*", "/*/v1/**", "/api/v1/resource1?/{id}"));
+		PathPatternSet patternSet = new PathPatternSet(patterns);
+		assertEquals(605, patternSet.size());
+
+		String[] paths = {"/api/v1/resource1/42", "/api/v1/resource10/42", "/api/v2/resource5/x/y",
+				"/api/v1/resource7/1", "/static/12/app.js", "/static/12/app.css", "/other", "/", ""};
+		for (String path : paths) {
+			List<String> expected = new ArrayList<String>();
+			for (String pattern : patterns) {
+				if (pathMatcher.match(pattern, path)) {
+					expected.add(pattern);
+				}
+			}
+			assertEquals(path, expected, patternSet.getMatchingPatterns(path));
+			assertEquals(path, !expected.isEmpty(), patternSet.matches(path));
+		}
+	}
+
+}
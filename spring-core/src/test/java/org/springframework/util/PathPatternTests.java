@@ -0,0 +1,128 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PathPattern}, verifying consistent results with
+ * {@link AntPathMatcher#match(String, String)}.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+public class PathPatternTests {
+
+	private static final String[] PATTERNS = {
+			"test", "/test", "http://example.org", "/test.jpg", "t?st", "??st", "tes?", "te??",
+			"?es?", "*", "test*", "test/*", "*test*", "*test", "*.*", "test*aaa", "/?", "/?/a",
+			"/a/?", "/??/a", "/a/??", "/**", "/*/**", "/**/*", "/bla/**/bla", "/**/test",
+			"/bla/**/**/bla", "/bla*bla/test", "/*bla/test", "/????", "/**/*bla",
+			"/*bla*/**/bla/**", "/*bla*/**/bla/*", "*bla*/**/bla/**", "*bla*/**/bla/*",
+			"/x/x/**/bla", "/foo/bar/**", "", "/{bla}.*", "/foo/bar", ".test", ".test/jpg", "*/*",
+			".?", ".?.a", ".a.?", ".??.a", ".a.??", ".**", ".*.**", ".**.*", ".bla.**.bla",
+			".**.test", ".bla.**.**.bla", ".bla*bla.test", ".*bla.test",
+			"/group/{groupName}/members", "/Group/{groupName}/Members", "test?",
+			"test/**/test.jpg", "test/{name}.jpg", "bla/**/test.jpg", "**/{name}.jpg",
+			"/**/{name}.jpg", "/*/dir/{name}.jpg", "/a/*", "/a/*/", "/a/**/b/**/c", "/a/**/*.jsp",
+			"/**/b/*", "/a/{x:[a-z]+}/**", "/a/b*c*d", "/a/*?*/c", "/x/**/**/y/"};
+
+	private static final String[] PATHS = {
+			"test", "/test", "http://example.org", "test.jpg", "tes", "testt", "tsst", "testTest",
+			"test/Test", "test/t", "test/", "AnothertestTest", "Anothertest", "test.", "test.test",
+			"test.test.test", "testblaaaa", "tst", "tsttest", "tsttst", "testblaaab", "/a", "/a/a",
+			"/a/b", "/aa/a", "/a/bb", "/testing/testing", "/bla/testing/testing/bla",
+			"/bla/testing/testing/bla/bla", "/bla/bla/test", "/bla/bla/bla/bla/bla/bla",
+			"/blaXXXbla/test", "/XXXbla/test", "/blaXXXbl/test", "XXXblab/test", "XXXbl/test",
+			"/bala/bla", "/bla/bla/bla/bbb", "/XXXblaXXXX/testing/testing/bla/testing/testing/",
+			"/XXXblaXXXX/testing/testing/bla/testing",
+			"/XXXblaXXXX/testing/testing/bla/testing/testing",
+			"/XXXblaXXXX/testing/testing/bla/testing/testing.jpg",
+			"XXXblaXXXX/testing/testing/bla/testing/testing/",
+			"XXXblaXXXX/testing/testing/bla/testing",
+			"XXXblaXXXX/testing/testing/bla/testing/testing", "/x/x/x/", "/foo/bar", "",
+			"/testing.html", "/foo /bar", ".test", "test/jpg", "test/test", "test/test/test", ".a",
+			".a.a", ".a.b", ".aa.a", ".a.bb", ".testing.testing", ".bla.testing.testing.bla",
+			".bla.testing.testing.bla.bla", ".bla.bla.test", ".bla.bla.bla.bla.bla.bla",
+			".blaXXXbla.test", ".XXXbla.test", ".blaXXXbl.test", "XXXblab.test", "XXXbl.test",
+			"/group/sales/members", "/group/  sales/members", "/Group/  Sales/Members",
+			"/Group/Sales/Members", "/group/Sales/members", "best", "view/test.jpg", "testian",
+			"testFf", "test/dir/name.jpg", "test/lorem.jpg", "bla/test.jpg", "/test/lorem.jpg",
+			"/*/dir/lorem.jpg", "/a/", "/a/b/", "/a/b", "/a/x/b/y/b/c", "/a/b/c", "/a/c",
+			"/a/x/y/z.jsp", "/a/z.jsp", "/b/x", "/q/b/x", "/a/abc/d/e", "/a/bxcyd", "/a/bcd",
+			"/a/xyz/c", "/x/y/", "/x/k/y/", "/a/b\nc", "//a//b", "/a/ b /"};
+
+
+	@Test
+	public void matchesLikeAntPathMatcher() {
+		assertConsistentMatching(new AntPathMatcher());
+	}
+
+	@Test
+	public void matchesLikeAntPathMatcherCaseInsensitive() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		pathMatcher.setCaseSensitive(false);
+		assertConsistentMatching(pathMatcher);
+	}
+
+	@Test
+	public void matchesLikeAntPathMatcherWithTrimmedTokens() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		pathMatcher.setTrimTokens(true);
+		assertConsistentMatching(pathMatcher);
+	}
+
+	@Test
+	public void matchesLikeAntPathMatcherWithCustomPathSeparator() {
+		assertConsistentMatching(new AntPathMatcher("."));
+	}
+
+	@Test
+	public void matches() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		assertTrue(pathMatcher.compile("/bla/**/bla").matches("/bla/testing/testing/bla"));
+		assertTrue(pathMatcher.compile("/a/**/b/**/c").matches("/a/x/b/y/b/c"));
+		assertTrue(pathMatcher.compile("/a/*").matches("/a/"));
+		assertFalse(pathMatcher.compile("/a/*").matches("/a/b/"));
+		assertTrue(pathMatcher.compile("/group/{groupName}/members").matches("/group/sales/members"));
+		assertFalse(pathMatcher.compile("/group/{groupName}/members").matches("/Group/Sales/Members"));
+		assertEquals("/a/*", pathMatcher.compile("/a/*").getPattern());
+	}
+
+	@Test
+	public void compiledWithSettingsAtTimeOfCompilation() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		PathPattern pattern = pathMatcher.compile("/Group/*/Members");
+		pathMatcher.setCaseSensitive(false);
+		assertFalse(pattern.matches("/group/sales/members"));
+		assertTrue(pathMatcher.compile("/Group/*/Members").matches("/group/sales/members"));
+	}
+
+
+	private void assertConsistentMatching(AntPathMatcher pathMatcher) {
+		for (String pattern : PATTERNS) {
+			PathPattern pathPattern = pathMatcher.compile(pattern);
+			for (String path : PATHS) {
+				assertEquals("Pattern [" + pattern + "] with path [" + path + "]",
+						pathMatcher.match(pattern, path), pathPattern.matches(path));
+			}
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,15 +18,22 @@ package org.springframework.util;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.Random;
 import java.util.UUID;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.InOrder;
 
 import static org.hamcrest.Matchers.*;
@@ -44,6 +51,9 @@ public class StreamUtilsTests {
 
 	private String string = "";
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	@Before
 	public void setup() {
 		new Random().nextBytes(bytes);
@@ -118,6 +128,127 @@ public class StreamUtilsTests {
 		ordered.verify(source, never()).close();
 	}
 
+	@Test
+	public void copyFileChannel() throws Exception {
+		FileChannel channel = createFileChannel();
+		try {
+			ByteArrayOutputStream out = spy(new ByteArrayOutputStream());
+			assertThat(StreamUtils.copy(channel, out), equalTo((long) bytes.length));
+			assertThat(out.toByteArray(), equalTo(bytes));
+			assertTrue(channel.isOpen());
+			verify(out, never()).close();
+		}
+		finally {
+			channel.close();
+		}
+	}
+
+	@Test
+	public void copyRangeFileChannel() throws Exception {
+		FileChannel channel = createFileChannel();
+		try {
+			ByteArrayOutputStream out = spy(new ByteArrayOutputStream());
+			assertThat(StreamUtils.copyRange(channel, out, 100, 109), equalTo(10L));
+			assertThat(out.toByteArray(), equalTo(Arrays.copyOfRange(bytes, 100, 110)));
+			assertTrue(channel.isOpen());
+			verify(out, never()).close();
+
+			out = new ByteArrayOutputStream();
+			assertThat(StreamUtils.copyRange(channel, out, 4000, 10000), equalTo((long) bytes.length - 4000));
+			assertThat(out.toByteArray(), equalTo(Arrays.copyOfRange(bytes, 4000, bytes.length)));
+
+			out = new ByteArrayOutputStream();
+			assertThat(StreamUtils.copyRange(channel, out, bytes.length, bytes.length + 10), equalTo(0L));
+			assertThat(out.size(), equalTo(0));
+		}
+		finally {
+			channel.close();
+		}
+	}
+
+	@Test
+	public void copyRangeFileChannelToFileOutputStream() throws Exception {
+		FileChannel channel = createFileChannel();
+		File target = temporaryFolder.newFile();
+		FileOutputStream out = new FileOutputStream(target);
+		try {
+			assertThat(StreamUtils.copyRange(channel, out, 100, 4099), equalTo(4000L));
+			assertTrue(channel.isOpen());
+		}
+		finally {
+			out.close();
+			channel.close();
+		}
+		assertThat(FileCopyUtils.copyToByteArray(target), equalTo(Arrays.copyOfRange(bytes, 100, 4100)));
+	}
+
+	@Test
+	public void copyBufferReusedAcrossCopyMethods() throws Exception {
+		BufferRecordingInputStream in = new BufferRecordingInputStream(bytes);
+		StreamUtils.copy(in, new ByteArrayOutputStream());
+		byte[] buffer = in.buffer;
+		assertThat(buffer.length, equalTo(StreamUtils.BUFFER_SIZE));
+
+		in = new BufferRecordingInputStream(bytes);
+		StreamUtils.copyRange(in, new ByteArrayOutputStream(), 10, 20);
+		assertSame(buffer, in.buffer);
+
+		in = new BufferRecordingInputStream(bytes);
+		assertThat(StreamUtils.drain(in), equalTo(bytes.length));
+		assertSame(buffer, in.buffer);
+	}
+
+	@Test
+	public void copyBufferReleasedOnFailure() throws Exception {
+		BufferRecordingInputStream in = new BufferRecordingInputStream(bytes) {
+			@Override
+			public int read(byte[] b, int off, int len) {
+				super.read(b, off, len);
+				throw new IllegalStateException("Failure");
+			}
+		};
+		try {
+			StreamUtils.copy(in, new ByteArrayOutputStream());
+			fail("Should have thrown IllegalStateException");
+		}
+		catch (IllegalStateException ex) {
+			// expected
+		}
+
+		BufferRecordingInputStream next = new BufferRecordingInputStream(bytes);
+		StreamUtils.copy(next, new ByteArrayOutputStream());
+		assertSame(in.buffer, next.buffer);
+	}
+
+	@Test
+	public void copyBufferNotSharedWithNestedCopy() throws Exception {
+		final BufferRecordingInputStream nested = new BufferRecordingInputStream(bytes);
+		BufferRecordingInputStream in = new BufferRecordingInputStream(bytes) {
+			@Override
+			public int read(byte[] b, int off, int len) {
+				if (nested.buffer == null) {
+					try {
+						StreamUtils.copy(nested, new ByteArrayOutputStream());
+					}
+					catch (IOException ex) {
+						throw new IllegalStateException(ex);
+					}
+				}
+				return super.read(b, off, len);
+			}
+		};
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		StreamUtils.copy(in, out);
+		assertThat(out.toByteArray(), equalTo(bytes));
+		assertNotSame(in.buffer, nested.buffer);
+	}
+
+	private FileChannel createFileChannel() throws Exception {
+		File file = temporaryFolder.newFile();
+		FileCopyUtils.copy(bytes, file);
+		return new FileInputStream(file).getChannel();
+	}
+
 	@Test
 	public void nonClosingOutputStream() throws Exception {
 		OutputStream source = mock(OutputStream.class);
@@ -132,4 +263,21 @@ public class StreamUtilsTests {
 		ordered.verify(source).write(bytes, 1, 2);
 		ordered.verify(source, never()).close();
 	}
+
+
+	private static class BufferRecordingInputStream extends ByteArrayInputStream {
+
+		byte[] buffer;
+
+		BufferRecordingInputStream(byte[] content) {
+			super(content);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			this.buffer = b;
+			return super.read(b, off, len);
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -84,6 +84,8 @@ public class StringUtilsTests {
 		assertEquals("a", StringUtils.trimAllWhitespace(" a "));
 		assertEquals("ab", StringUtils.trimAllWhitespace(" a b "));
 		assertEquals("abc", StringUtils.trimAllWhitespace(" a b  c "));
+		String noWhitespace = "abc";
+		assertSame(noWhitespace, StringUtils.trimAllWhitespace(noWhitespace));
 	}
 
 	@Test
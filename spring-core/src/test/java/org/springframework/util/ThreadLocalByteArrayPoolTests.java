@@ -0,0 +1,97 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ThreadLocalByteArrayPool}.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+public class ThreadLocalByteArrayPoolTests {
+
+	private final ThreadLocalByteArrayPool pool = new ThreadLocalByteArrayPool(256, 4096);
+
+
+	@Test
+	public void sizeClasses() {
+		assertEquals(256, this.pool.acquire(0).length);
+		assertEquals(256, this.pool.acquire(256).length);
+		assertEquals(512, this.pool.acquire(257).length);
+		assertEquals(4096, this.pool.acquire(4096).length);
+		assertEquals(4097, this.pool.acquire(4097).length);
+	}
+
+	@Test
+	public void releasedBufferReused() {
+		byte[] buffer = this.pool.acquire(1000);
+		assertNotSame(buffer, this.pool.acquire(1000));
+		this.pool.release(buffer);
+		assertSame(buffer, this.pool.acquire(1000));
+		assertNotSame(buffer, this.pool.acquire(1000));
+	}
+
+	@Test
+	public void nestedAcquisition() {
+		byte[] outer = this.pool.acquire(4096);
+		byte[] inner = this.pool.acquire(4096);
+		assertNotSame(outer, inner);
+		this.pool.release(inner);
+		this.pool.release(outer);
+		assertSame(outer, this.pool.acquire(4096));
+	}
+
+	@Test
+	public void foreignBuffersDiscarded() {
+		byte[] odd = new byte[1000];
+		byte[] large = new byte[8192];
+		this.pool.release(odd);
+		this.pool.release(large);
+		assertNotSame(odd, this.pool.acquire(1000));
+		assertNotSame(large, this.pool.acquire(8192));
+	}
+
+	@Test
+	public void buffersNotSharedBetweenThreads() throws Exception {
+		final byte[] buffer = this.pool.acquire(512);
+		this.pool.release(buffer);
+		final byte[][] acquired = new byte[1][];
+		Thread thread = new Thread(() -> acquired[0] = pool.acquire(512));
+		thread.start();
+		thread.join();
+		assertNotSame(buffer, acquired[0]);
+		assertSame(buffer, this.pool.acquire(512));
+	}
+
+	@Test
+	public void clear() {
+		byte[] buffer = this.pool.acquire(512);
+		this.pool.release(buffer);
+		this.pool.clear();
+		assertNotSame(buffer, this.pool.acquire(512));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidSizeClass() {
+		new ThreadLocalByteArrayPool(100, 4096);
+	}
+
+}
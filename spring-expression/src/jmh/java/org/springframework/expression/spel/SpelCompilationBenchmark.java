@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+/**
+ * Benchmarks comparing interpreted and compiled evaluation of the same SpEL
+ * expression, as well as parsing plus interpreted evaluation.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+@BenchmarkMode(Mode.Throughput)
+public class SpelCompilationBenchmark {
+
+	private static final String EXPRESSION = "address.city.length() > 3 and age >= 18 ? name : 'minor'";
+
+
+	@State(Scope.Benchmark)
+	public static class ExpressionState {
+
+		public SpelExpressionParser parser;
+
+		public Expression interpreted;
+
+		public Expression compiled;
+
+		public Person person;
+
+		@Setup
+		public void setup() {
+			this.parser = new SpelExpressionParser();
+			this.person = new Person("Juergen", 42, new Address("Linz"));
+			this.interpreted = this.parser.parseExpression(EXPRESSION);
+			this.compiled = this.parser.parseExpression(EXPRESSION);
+			this.compiled.getValue(this.person);
+			if (!((SpelExpression) this.compiled).compileExpression()) {
+				throw new IllegalStateException("Expression not compilable: " + EXPRESSION);
+			}
+		}
+	}
+
+
+	@Benchmark
+	public Object interpreted(ExpressionState state) {
+		return state.interpreted.getValue(state.person);
+	}
+
+	@Benchmark
+	public Object compiled(ExpressionState state) {
+		return state.compiled.getValue(state.person);
+	}
+
+	@Benchmark
+	public Object parseAndInterpret(ExpressionState state) {
+		return state.parser.parseExpression(EXPRESSION).getValue(state.person);
+	}
+
+
+	public static class Person {
+
+		private final String name;
+
+		private final int age;
+
+		private final Address address;
+
+		public Person(String name, int age, Address address) {
+			this.name = name;
+			this.age = age;
+			this.address = address;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public Address getAddress() {
+			return this.address;
+		}
+	}
+
+
+	public static class Address {
+
+		private final String city;
+
+		public Address(String city) {
+			this.city = city;
+		}
+
+		public String getCity() {
+			return this.city;
+		}
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Benchmarks for {@link JdbcTemplate} queries against an embedded H2 database,
+ * comparing a hand-written {@link RowMapper}, {@link BeanPropertyRowMapper},
+ * {@link ColumnMapRowMapper} and single value lookups.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+@BenchmarkMode(Mode.Throughput)
+public class JdbcTemplateBenchmark {
+
+	private static final String SELECT_ALL = "SELECT id, name, age FROM person ORDER BY id";
+
+	private static final RowMapper<Person> PERSON_ROW_MAPPER = new RowMapper<Person>() {
+		@Override
+		public Person mapRow(ResultSet rs, int rowNum) throws SQLException {
+			Person person = new Person();
+			person.setId(rs.getLong(1));
+			person.setName(rs.getString(2));
+			person.setAge(rs.getInt(3));
+			return person;
+		}
+	};
+
+
+	@State(Scope.Benchmark)
+	public static class DatabaseState {
+
+		public EmbeddedDatabase database;
+
+		public JdbcTemplate jdbcTemplate;
+
+		public RowMapper<Person> beanPropertyRowMapper;
+
+		@Setup
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder().generateUniqueName(true)
+					.setType(EmbeddedDatabaseType.H2).build();
+			this.jdbcTemplate = new JdbcTemplate(this.database);
+			this.jdbcTemplate.execute("CREATE TABLE person (id BIGINT PRIMARY KEY, name VARCHAR(50), age INT)");
+			List<Object[]> rows = new ArrayList<Object[]>();
+			for (int i = 0; i < 100; i++) {
+				rows.add(new Object[] {i, "name" + i, i % 80});
+			}
+			this.jdbcTemplate.batchUpdate("INSERT INTO person (id, name, age) VALUES (?, ?, ?)", rows);
+			this.beanPropertyRowMapper = new BeanPropertyRowMapper<Person>(Person.class);
+		}
+
+		@TearDown
+		public void tearDown() {
+			this.database.shutdown();
+		}
+	}
+
+
+	@Benchmark
+	public List<Person> customRowMapper(DatabaseState state) {
+		return state.jdbcTemplate.query(SELECT_ALL, PERSON_ROW_MAPPER);
+	}
+
+	@Benchmark
+	public List<Person> beanPropertyRowMapper(DatabaseState state) {
+		return state.jdbcTemplate.query(SELECT_ALL, state.beanPropertyRowMapper);
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> columnMapRowMapper(DatabaseState state) {
+		return state.jdbcTemplate.queryForList(SELECT_ALL);
+	}
+
+	@Benchmark
+	public String singleValueWithArgument(DatabaseState state) {
+		return state.jdbcTemplate.queryForObject("SELECT name FROM person WHERE id = ?", String.class, 42);
+	}
+
+
+	public static class Person {
+
+		private long id;
+
+		private String name;
+
+		private int age;
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+	}
+
+}
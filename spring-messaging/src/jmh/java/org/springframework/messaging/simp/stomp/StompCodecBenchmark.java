@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.simp.stomp;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Benchmarks for encoding and decoding STOMP frames through {@link StompEncoder}
+ * and {@link StompDecoder}, for a single frame as well as a batch of frames
+ * received in one buffer.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+@BenchmarkMode(Mode.Throughput)
+public class StompCodecBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class CodecState {
+
+		public StompEncoder encoder;
+
+		public StompDecoder decoder;
+
+		public Message<byte[]> message;
+
+		public byte[] frame;
+
+		public byte[] frames;
+
+		@Setup
+		public void setup() {
+			this.encoder = new StompEncoder();
+			this.decoder = new StompDecoder();
+			StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+			accessor.setDestination("/topic/quotes.NASDAQ.VMW");
+			accessor.setSubscriptionId("sub-0");
+			accessor.setMessageId("message-42");
+			accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+			accessor.setNativeHeader("x-trace-id", "ab:cd\\ef");
+			byte[] payload = new byte[256];
+			Arrays.fill(payload, (byte) 'a');
+			this.message = MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+			this.frame = this.encoder.encode(this.message);
+			this.frames = new byte[this.frame.length * 10];
+			for (int i = 0; i < 10; i++) {
+				System.arraycopy(this.frame, 0, this.frames, i * this.frame.length, this.frame.length);
+			}
+		}
+	}
+
+
+	@Benchmark
+	public byte[] encode(CodecState state) {
+		return state.encoder.encode(state.message);
+	}
+
+	@Benchmark
+	public List<Message<byte[]>> decode(CodecState state) {
+		return state.decoder.decode(ByteBuffer.wrap(state.frame));
+	}
+
+	@Benchmark
+	public List<Message<byte[]>> decodeBatch(CodecState state) {
+		return state.decoder.decode(ByteBuffer.wrap(state.frames));
+	}
+
+}
@@ -17,8 +17,6 @@
 package org.springframework.messaging.simp.broker;
 
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,6 +39,7 @@ import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.PathMatcher;
@@ -242,31 +241,21 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	 */
 	private class DestinationCache {
 
-		/** Map from destination -> <sessionId, subscriptionId> for fast look-ups */
-		private final Map<String, LinkedMultiValueMap<String, String>> accessCache =
-				new ConcurrentHashMap<String, LinkedMultiValueMap<String, String>>(DEFAULT_CACHE_LIMIT);
-
-		/** Map from destination -> <sessionId, subscriptionId> with locking */
-		@SuppressWarnings("serial")
-		private final Map<String, LinkedMultiValueMap<String, String>> updateCache =
-				new LinkedHashMap<String, LinkedMultiValueMap<String, String>>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-					@Override
-					protected boolean removeEldestEntry(Map.Entry<String, LinkedMultiValueMap<String, String>> eldest) {
-						if (size() > getCacheLimit()) {
-							accessCache.remove(eldest.getKey());
-							return true;
-						}
-						else {
-							return false;
-						}
-					}
-				};
+		/**
+		 * Map from destination -> <sessionId, subscriptionId> for lock-free look-ups;
+		 * values are never modified once cached but rather replaced with updated copies
+		 */
+		private volatile ConcurrentLruCache<String, LinkedMultiValueMap<String, String>> cache =
+				new ConcurrentLruCache<String, LinkedMultiValueMap<String, String>>(DEFAULT_CACHE_LIMIT);
+
+		/** Monitor for computing and updating cache entries */
+		private final Object updateMonitor = new Object();
 
 
 		public LinkedMultiValueMap<String, String> getSubscriptions(String destination, Message<?> message) {
-			LinkedMultiValueMap<String, String> result = this.accessCache.get(destination);
+			LinkedMultiValueMap<String, String> result = this.cache.get(destination);
 			if (result == null) {
-				synchronized (this.updateCache) {
+				synchronized (this.updateMonitor) {
 					result = new LinkedMultiValueMap<String, String>();
 					for (SessionSubscriptionInfo info : subscriptionRegistry.getAllSubscriptions()) {
 						for (String destinationPattern : info.getDestinations()) {
@@ -277,9 +266,12 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 							}
 						}
 					}
-					if (!result.isEmpty()) {
-						this.updateCache.put(destination, result.deepCopy());
-						this.accessCache.put(destination, result);
+					int cacheLimit = getCacheLimit();
+					if (!result.isEmpty() && cacheLimit > 0) {
+						if (this.cache.getMaxSize() != cacheLimit) {
+							this.cache = new ConcurrentLruCache<String, LinkedMultiValueMap<String, String>>(cacheLimit);
+						}
+						this.cache.put(destination, result);
 					}
 				}
 			}
@@ -287,70 +279,62 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 		}
 
 		public void updateAfterNewSubscription(String destination, String sessionId, String subsId) {
-			synchronized (this.updateCache) {
-				for (Map.Entry<String, LinkedMultiValueMap<String, String>> entry : this.updateCache.entrySet()) {
-					String cachedDestination = entry.getKey();
+			synchronized (this.updateMonitor) {
+				for (String cachedDestination : this.cache.keySet()) {
 					if (getPathMatcher().match(destination, cachedDestination)) {
-						LinkedMultiValueMap<String, String> subs = entry.getValue();
-						subs.add(sessionId, subsId);
-						this.accessCache.put(cachedDestination, subs.deepCopy());
+						LinkedMultiValueMap<String, String> subs = this.cache.peek(cachedDestination);
+						if (subs != null) {
+							subs = subs.deepCopy();
+							subs.add(sessionId, subsId);
+							this.cache.put(cachedDestination, subs);
+						}
 					}
 				}
 			}
 		}
 
 		public void updateAfterRemovedSubscription(String sessionId, String subsId) {
-			synchronized (this.updateCache) {
-				Set<String> destinationsToRemove = new HashSet<String>();
-				for (Map.Entry<String, LinkedMultiValueMap<String, String>> entry : this.updateCache.entrySet()) {
-					String destination = entry.getKey();
-					LinkedMultiValueMap<String, String> sessionMap = entry.getValue();
-					List<String> subscriptions = sessionMap.get(sessionId);
-					if (subscriptions != null) {
+			synchronized (this.updateMonitor) {
+				for (String destination : this.cache.keySet()) {
+					LinkedMultiValueMap<String, String> sessionMap = this.cache.peek(destination);
+					if (sessionMap != null && sessionMap.containsKey(sessionId)) {
+						sessionMap = sessionMap.deepCopy();
+						List<String> subscriptions = sessionMap.get(sessionId);
 						subscriptions.remove(subsId);
 						if (subscriptions.isEmpty()) {
 							sessionMap.remove(sessionId);
 						}
-						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
-						}
-						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
-						}
+						updateEntry(destination, sessionMap);
 					}
 				}
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
-				}
 			}
 		}
 
 		public void updateAfterRemovedSession(SessionSubscriptionInfo info) {
-			synchronized (this.updateCache) {
-				Set<String> destinationsToRemove = new HashSet<String>();
-				for (Map.Entry<String, LinkedMultiValueMap<String, String>> entry : this.updateCache.entrySet()) {
-					String destination = entry.getKey();
-					LinkedMultiValueMap<String, String> sessionMap = entry.getValue();
-					if (sessionMap.remove(info.getSessionId()) != null) {
-						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
-						}
-						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
-						}
+			synchronized (this.updateMonitor) {
+				for (String destination : this.cache.keySet()) {
+					LinkedMultiValueMap<String, String> sessionMap = this.cache.peek(destination);
+					if (sessionMap != null && sessionMap.containsKey(info.getSessionId())) {
+						sessionMap = sessionMap.deepCopy();
+						sessionMap.remove(info.getSessionId());
+						updateEntry(destination, sessionMap);
 					}
 				}
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
-				}
+			}
+		}
+
+		private void updateEntry(String destination, LinkedMultiValueMap<String, String> sessionMap) {
+			if (sessionMap.isEmpty()) {
+				this.cache.remove(destination);
+			}
+			else {
+				this.cache.put(destination, sessionMap);
 			}
 		}
 
 		@Override
 		public String toString() {
-			return "cache[" + this.accessCache.size() + " destination(s)]";
+			return "cache[" + this.cache.size() + " destination(s)]";
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2015 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.transaction.annotation;
 
 import java.io.Serializable;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
 import java.util.ArrayList;
 
 import org.springframework.core.annotation.AnnotatedElementUtils;
@@ -39,6 +40,11 @@ public class SpringTransactionAnnotationParser implements TransactionAnnotationP
 
 	@Override
 	public TransactionAttribute parseTransactionAnnotation(AnnotatedElement ae) {
+		Class<?> candidateClass = (ae instanceof Member ? ((Member) ae).getDeclaringClass() :
+				ae instanceof Class ? (Class<?>) ae : null);
+		if (candidateClass != null && !AnnotationUtils.isCandidateClass(candidateClass, Transactional.class)) {
+			return null;
+		}
 		AnnotationAttributes attributes = AnnotatedElementUtils.getMergedAnnotationAttributes(ae, Transactional.class);
 		if (attributes != null) {
 			return parseTransactionAnnotation(attributes);
@@ -16,11 +16,15 @@
 
 package org.springframework.http.converter;
 
+import java.io.Closeable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileChannelResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpInputMessage;
@@ -102,12 +106,28 @@ public class ResourceHttpMessageConverter extends AbstractHttpMessageConverter<R
 		writeContent(resource, outputMessage);
 	}
 
+	/**
+	 * Write the content of the given resource to the body of the given message.
+	 * <p>A {@link FileChannelResource} is read through its {@link FileChannel}.
+	 * The content is copied through a heap buffer unless the body stream is a
+	 * {@link java.io.FileOutputStream} or a {@link java.nio.channels.WritableByteChannel},
+	 * which Servlet response streams never are.
+	 * <p>The resource is opened before the body is obtained, so a missing resource
+	 * does not commit the response.
+	 */
 	protected void writeContent(Resource resource, HttpOutputMessage outputMessage)
 			throws IOException, HttpMessageNotWritableException {
 		try {
-			InputStream in = resource.getInputStream();
+			Closeable in = (resource instanceof FileChannelResource ?
+					((FileChannelResource) resource).getFileChannel() : resource.getInputStream());
 			try {
-				StreamUtils.copy(in, outputMessage.getBody());
+				OutputStream out = outputMessage.getBody();
+				if (in instanceof FileChannel) {
+					StreamUtils.copy((FileChannel) in, out);
+				}
+				else {
+					StreamUtils.copy((InputStream) in, out);
+				}
 			}
 			catch (NullPointerException ex) {
 				// ignore, see SPR-13620
@@ -21,8 +21,11 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
 import java.util.Collection;
 
+import org.springframework.core.io.FileChannelResource;
+import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpInputMessage;
@@ -150,18 +153,7 @@ public class ResourceRegionHttpMessageConverter extends AbstractGenericHttpMessa
 		long rangeLength = end - start + 1;
 		responseHeaders.add("Content-Range", "bytes " + start + '-' + end + '/' + resourceLength);
 		responseHeaders.setContentLength(rangeLength);
-		InputStream in = region.getResource().getInputStream();
-		try {
-			StreamUtils.copyRange(in, outputMessage.getBody(), start, end);
-		}
-		finally {
-			try {
-				in.close();
-			}
-			catch (IOException ex) {
-				// ignore
-			}
-		}
+		copyRange(region.getResource(), outputMessage.getBody(), start, end);
 	}
 
 	private void writeResourceRegionCollection(Collection<ResourceRegion> resourceRegions,
@@ -176,7 +168,6 @@ public class ResourceRegionHttpMessageConverter extends AbstractGenericHttpMessa
 		for (ResourceRegion region : resourceRegions) {
 			long start = region.getPosition();
 			long end = start + region.getCount() - 1;
-			InputStream in = region.getResource().getInputStream();
 			// Writing MIME header.
 			println(out);
 			print(out, "--" + boundaryString);
@@ -191,12 +182,48 @@ public class ResourceRegionHttpMessageConverter extends AbstractGenericHttpMessa
 			println(out);
 			println(out);
 			// Printing content
-			StreamUtils.copyRange(in, out, start, end);
+			copyRange(region.getResource(), out, start, end);
 		}
 		println(out);
 		print(out, "--" + boundaryString + "--");
 	}
 
+	/**
+	 * Copy the given range of the resource content, reading it by position
+	 * from a {@link FileChannel} in case of a {@link FileChannelResource}
+	 * instead of skipping over the preceding content.
+	 */
+	private static void copyRange(Resource resource, OutputStream out, long start, long end) throws IOException {
+		if (resource instanceof FileChannelResource) {
+			FileChannel channel = ((FileChannelResource) resource).getFileChannel();
+			try {
+				StreamUtils.copyRange(channel, out, start, end);
+			}
+			finally {
+				try {
+					channel.close();
+				}
+				catch (IOException ex) {
+					// ignore
+				}
+			}
+		}
+		else {
+			InputStream in = resource.getInputStream();
+			try {
+				StreamUtils.copyRange(in, out, start, end);
+			}
+			finally {
+				try {
+					in.close();
+				}
+				catch (IOException ex) {
+					// ignore
+				}
+			}
+		}
+	}
+
 
 
 	private static void println(OutputStream os) throws IOException {
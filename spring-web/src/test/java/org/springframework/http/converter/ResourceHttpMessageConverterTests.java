@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,8 +25,10 @@ import org.junit.Test;
 
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.MediaType;
 import org.springframework.http.MockHttpInputMessage;
 import org.springframework.http.MockHttpOutputMessage;
@@ -89,6 +91,16 @@ public class ResourceHttpMessageConverterTests {
 		assertEquals("Invalid content-length", body.getFile().length(), outputMessage.getHeaders().getContentLength());
 	}
 
+	@Test
+	public void shouldWriteFileSystemResource() throws IOException {
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		Resource body = new FileSystemResource(new ClassPathResource("logo.jpg", getClass()).getFile());
+		converter.write(body, null, outputMessage);
+		assertEquals("Invalid content-type", MediaType.IMAGE_JPEG,
+				outputMessage.getHeaders().getContentType());
+		assertTrue(Arrays.equals(FileCopyUtils.copyToByteArray(body.getFile()), outputMessage.getBodyAsBytes()));
+	}
+
 	@Test  // SPR-10848
 	public void writeByteArrayNullMediaType() throws IOException {
 		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
@@ -110,6 +122,17 @@ public class ResourceHttpMessageConverterTests {
 		assertEquals(0, outputMessage.getHeaders().getContentLength());
 	}
 
+	// SPR-12999
+	@Test
+	public void writeContentNotGettingBodyForMissingFile() throws Exception {
+		HttpOutputMessage outputMessage = mock(HttpOutputMessage.class);
+		Resource resource = new FileSystemResource("does/not/exist.txt");
+
+		converter.writeContent(resource, outputMessage);
+
+		verify(outputMessage, never()).getBody();
+	}
+
 	// SPR-12999
 	@Test
 	public void writeContentNotClosingInputStream() throws Exception {
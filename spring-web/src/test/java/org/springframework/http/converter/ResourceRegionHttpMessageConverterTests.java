@@ -30,6 +30,7 @@ import org.mockito.Mockito;
 
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.http.HttpHeaders;
@@ -106,6 +107,19 @@ public class ResourceRegionHttpMessageConverterTests {
 		assertThat(outputMessage.getBodyAsString(Charset.forName("UTF-8")), is("Framework test resource content."));
 	}
 
+	@Test
+	public void shouldWritePartialContentByteRangeFromFileSystemResource() throws Exception {
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+		Resource body = new FileSystemResource(new ClassPathResource("byterangeresource.txt", getClass()).getFile());
+		ResourceRegion region = HttpRange.createByteRange(7, 15).toResourceRegion(body);
+		converter.write(region, MediaType.TEXT_PLAIN, outputMessage);
+
+		HttpHeaders headers = outputMessage.getHeaders();
+		assertThat(headers.getContentLength(), is(9L));
+		assertThat(headers.get(HttpHeaders.CONTENT_RANGE).get(0), is("bytes 7-15/39"));
+		assertThat(outputMessage.getBodyAsString(Charset.forName("UTF-8")), is("Framework"));
+	}
+
 	@Test
 	public void partialContentMultipleByteRanges() throws Exception {
 		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.test.MockHttpServletRequest;
+import org.springframework.mock.web.test.MockHttpServletResponse;
+import org.springframework.mock.web.test.MockServletConfig;
+import org.springframework.mock.web.test.MockServletContext;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+/**
+ * Benchmarks for request dispatching through a {@link DispatcherServlet} set up
+ * with {@link EnableWebMvc @EnableWebMvc}, invoking the servlet directly with
+ * mock requests and responses, i.e. without the MockMvc infrastructure.
+ *
+ * @author agent
+ * @since 4.3.8
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DispatcherServletBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class ServletState {
+
+		public MockServletContext servletContext;
+
+		public DispatcherServlet servlet;
+
+		@Setup
+		public void setup() throws Exception {
+			AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+			context.register(WebConfig.class);
+			this.servletContext = new MockServletContext();
+			this.servlet = new DispatcherServlet(context);
+			this.servlet.init(new MockServletConfig(this.servletContext));
+		}
+
+		@TearDown
+		public void tearDown() {
+			this.servlet.destroy();
+		}
+	}
+
+
+	@Benchmark
+	public Object pathVariable(ServletState state) throws Exception {
+		return dispatch(state, new MockHttpServletRequest(state.servletContext, "GET", "/projects/spring-framework"));
+	}
+
+	@Benchmark
+	public Object requestParameter(ServletState state) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest(state.servletContext, "GET", "/projects");
+		request.addParameter("page", "2");
+		return dispatch(state, request);
+	}
+
+	@Benchmark
+	public Object notFound(ServletState state) throws Exception {
+		return dispatch(state, new MockHttpServletRequest(state.servletContext, "GET", "/unknown/resource"));
+	}
+
+	private static MockHttpServletResponse dispatch(ServletState state, MockHttpServletRequest request)
+			throws Exception {
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		state.servlet.service(request, response);
+		return response;
+	}
+
+
+	@Configuration
+	@EnableWebMvc
+	static class WebConfig {
+
+		@Bean
+		public ProjectController projectController() {
+			return new ProjectController();
+		}
+	}
+
+
+	@RestController
+	static class ProjectController {
+
+		@RequestMapping("/projects/{name}")
+		public String project(@PathVariable("name") String name) {
+			return name;
+		}
+
+		@RequestMapping("/projects")
+		public String projects(@RequestParam("page") int page) {
+			return "page " + page;
+		}
+	}
+
+}
@@ -17,8 +17,11 @@
 package org.springframework.web.servlet.handler;
 
 import org.springframework.beans.BeansException;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.PathPatternSet;
 import org.springframework.web.servlet.HandlerExecutionChain;
 
 import javax.servlet.http.HttpServletRequest;
@@ -54,6 +57,8 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 
     private final Map<String, Object> handlerMap = new LinkedHashMap<String, Object>();
 
+    private volatile PathPatternSet handlerPatternSet;
+
 
     /**
      * Set the root handler for this handler mapping, that is,
@@ -176,12 +181,17 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
         // Pattern match?
         // 通配符处理
         List<String> matchingPatterns = new ArrayList<String>();
-        for (String registeredPattern : this.handlerMap.keySet()) {
-            if (getPathMatcher().match(registeredPattern, urlPath)) {
-                matchingPatterns.add(registeredPattern);
-            } else if (useTrailingSlashMatch()) {
-                if (!registeredPattern.endsWith("/") && getPathMatcher().match(registeredPattern + "/", urlPath)) {
-                    matchingPatterns.add(registeredPattern + "/");
+        PathPatternSet patternSet = (useTrailingSlashMatch() ? null : getHandlerPatternSet());
+        if (patternSet != null) {
+            matchingPatterns.addAll(patternSet.getMatchingPatterns(urlPath));
+        } else {
+            for (String registeredPattern : this.handlerMap.keySet()) {
+                if (getPathMatcher().match(registeredPattern, urlPath)) {
+                    matchingPatterns.add(registeredPattern);
+                } else if (useTrailingSlashMatch()) {
+                    if (!registeredPattern.endsWith("/") && getPathMatcher().match(registeredPattern + "/", urlPath)) {
+                        matchingPatterns.add(registeredPattern + "/");
+                    }
                 }
             }
         }
@@ -234,6 +244,27 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
         return null;
     }
 
+    /**
+     * Return a {@link PathPatternSet} for the registered URL patterns, as long as
+     * a plain {@link AntPathMatcher} is in use: only then does the pattern set
+     * yield the same matches as checking each registered pattern individually.
+     *
+     * @return the pattern set, or {@code null} for a custom PathMatcher
+     */
+    private PathPatternSet getHandlerPatternSet() {
+        PathMatcher pathMatcher = getPathMatcher();
+        if (pathMatcher.getClass() != AntPathMatcher.class) {
+            return null;
+        }
+        PathPatternSet patternSet = this.handlerPatternSet;
+        if (patternSet == null || patternSet.getPathMatcher() != pathMatcher) {
+            patternSet = new PathPatternSet((AntPathMatcher) pathMatcher);
+            patternSet.addPatterns(this.handlerMap.keySet());
+            this.handlerPatternSet = patternSet;
+        }
+        return patternSet;
+    }
+
     /**
      * Validate the given handler against the current request.
      * <p>The default implementation is empty. Can be overridden in subclasses,
@@ -363,6 +394,7 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
                 setDefaultHandler(resolvedHandler);
             } else {
                 this.handlerMap.put(urlPath, resolvedHandler);
+                this.handlerPatternSet = null;
                 if (logger.isInfoEnabled()) {
                     logger.info("Mapped URL path [" + urlPath + "] onto " + getHandlerDescription(handler));
                 }
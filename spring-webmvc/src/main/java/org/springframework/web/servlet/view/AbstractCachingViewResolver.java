@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,12 @@
 
 package org.springframework.web.servlet.view;
 
-import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.util.ConcurrentLruCache;
 import org.springframework.web.context.support.WebApplicationObjectSupport;
 import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.ViewResolver;
@@ -63,24 +62,12 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	/** Whether we should refrain from resolving views again if unresolved once */
 	private boolean cacheUnresolved = true;
 
-	/** Fast access cache for Views, returning already cached instances without a global lock */
-	private final Map<Object, View> viewAccessCache = new ConcurrentHashMap<Object, View>(DEFAULT_CACHE_LIMIT);
+	/** Cache from view key to View instance, returning already cached instances without a global lock */
+	private volatile ConcurrentLruCache<Object, View> viewCache =
+			new ConcurrentLruCache<Object, View>(DEFAULT_CACHE_LIMIT);
 
-	/** Map from view key to View instance, synchronized for View creation */
-	@SuppressWarnings("serial")
-	private final Map<Object, View> viewCreationCache =
-			new LinkedHashMap<Object, View>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<Object, View> eldest) {
-					if (size() > getCacheLimit()) {
-						viewAccessCache.remove(eldest.getKey());
-						return true;
-					}
-					else {
-						return false;
-					}
-				}
-			};
+	/** Monitor for View creation, making sure that each View gets created once */
+	private final Object viewCreationMonitor = new Object();
 
 
 	/**
@@ -147,10 +134,13 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 		}
 		else {
 			Object cacheKey = getCacheKey(viewName, locale);
-			View view = this.viewAccessCache.get(cacheKey);
+			View view = this.viewCache.get(cacheKey);
 			if (view == null) {
-				synchronized (this.viewCreationCache) {
-					view = this.viewCreationCache.get(cacheKey);
+				synchronized (this.viewCreationMonitor) {
+					if (this.viewCache.getMaxSize() != getCacheLimit()) {
+						this.viewCache = new ConcurrentLruCache<Object, View>(getCacheLimit());
+					}
+					view = this.viewCache.peek(cacheKey);
 					if (view == null) {
 						// Ask the subclass to create the View object.
 						view = createView(viewName, locale);
@@ -158,8 +148,7 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 							view = UNRESOLVED_VIEW;
 						}
 						if (view != null) {
-							this.viewAccessCache.put(cacheKey, view);
-							this.viewCreationCache.put(cacheKey, view);
+							this.viewCache.put(cacheKey, view);
 							if (logger.isTraceEnabled()) {
 								logger.trace("Cached view [" + cacheKey + "]");
 							}
@@ -197,11 +186,7 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 		}
 		else {
 			Object cacheKey = getCacheKey(viewName, locale);
-			Object cachedView;
-			synchronized (this.viewCreationCache) {
-				this.viewAccessCache.remove(cacheKey);
-				cachedView = this.viewCreationCache.remove(cacheKey);
-			}
+			Object cachedView = this.viewCache.remove(cacheKey);
 			if (logger.isDebugEnabled()) {
 				// Some debug output might be useful...
 				if (cachedView == null) {
@@ -220,10 +205,7 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	 */
 	public void clearCache() {
 		logger.debug("Clearing entire view cache");
-		synchronized (this.viewCreationCache) {
-			this.viewAccessCache.clear();
-			this.viewCreationCache.clear();
-		}
+		this.viewCache.clear();
 	}
 
 